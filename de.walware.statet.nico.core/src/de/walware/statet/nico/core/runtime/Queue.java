@@ -15,13 +15,19 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.osgi.util.NLS;
 
+import de.walware.ecommons.FastList;
+import de.walware.ecommons.ICommonStatusConstants;
 import de.walware.ecommons.collections.ConstList;
 import de.walware.ecommons.ts.IQueue;
 import de.walware.ecommons.ts.ISystemRunnable;
@@ -29,6 +35,7 @@ import de.walware.ecommons.ts.IToolRunnable;
 
 import de.walware.statet.nico.core.NicoCore;
 import de.walware.statet.nico.internal.core.Messages;
+import de.walware.statet.nico.internal.core.NicoPlugin;
 
 
 /**
@@ -51,7 +58,9 @@ import de.walware.statet.nico.internal.core.Messages;
  *                    [ENTRIES_ABANDONED]
  * </pre>
  * The events of this type are sended by the queue (source element).
- * 
+ * <p>
+ * Clients interested only in the queue should prefer a {@link Listener} instead of a debug
+ * event listener. The debug events are still sent for compatibility.</p>
  */
 public final class Queue implements IQueue {
 	
@@ -77,6 +86,34 @@ public final class Queue implements IQueue {
 		}
 	}
 	
+	/**
+	 * Listener for changes of the queue.
+	 * <p>
+	 * The changes are coalesced: a listener is notified at most once per
+	 * {@link Queue#NOTIFY_DELAY} ms with all deltas since the last notification and a snapshot
+	 * of the queue entries after the changes. The notification is done in a background thread,
+	 * never in the thread changing the queue.</p>
+	 * <p>
+	 * If the tool is terminated, the last notification contains a delta of type
+	 * {@link IToolRunnable#BEING_ABANDONED}.</p>
+	 */
+	public static interface Listener {
+		
+		/**
+		 * @param queue the queue
+		 * @param deltas the deltas since the last notification in the order of the changes,
+		 *     empty for the initial notification after the listener was added
+		 * @param snapshot the entries of the queue
+		 */
+		public void queueChanged(Queue queue, Delta[] deltas, IToolRunnable[] snapshot);
+		
+	}
+	
+	/**
+	 * Time window in milliseconds in which changes are coalesced for the {@link Listener}s.
+	 */
+	public static final int NOTIFY_DELAY = 50;
+	
 	/**
 	 * Constant for detail of a DebugEvent, sending the complete queue.
 	 * This does not signalising, that the queue has changed.
@@ -159,9 +196,26 @@ public final class Queue implements IQueue {
 	
 	private final LinkedList<IToolRunnable> fHotList = new LinkedList<IToolRunnable>();
 	
+	/** Time (nanos) when the runnables were added, for the metrics */
+	private final Map<IToolRunnable, Long> fAddTimes = new WeakHashMap<IToolRunnable, Long>();
+	
+	private final FastList<Listener> fListeners = new FastList<Listener>(Listener.class, FastList.IDENTITY);
+	private final List<Delta> fListenerDeltas = new ArrayList<Delta>();
+	private boolean fListenerSnapshotRequested;
+	private boolean fListenerNotifyScheduled;
+	private final Job fListenerNotifyJob = new Job("Queue Notification") { //$NON-NLS-1$
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			notifyListeners();
+			return Status.OK_STATUS;
+		}
+	};
+	
 	
 	Queue(final ToolProcess<?> process) {
 		fProcess = process;
+		fListenerNotifyJob.setSystem(true);
+		fListenerNotifyJob.setPriority(Job.SHORT);
 	}
 	
 	
@@ -183,6 +237,28 @@ public final class Queue implements IQueue {
 		fireEvents();
 	}
 	
+	/**
+	 * Adds the listener for changes of the queue.
+	 * <p>
+	 * The listener is notified with a snapshot of the current entries as soon as possible.</p>
+	 * 
+	 * @param listener the listener to add
+	 */
+	public void addListener(final Listener listener) {
+		if (listener == null) {
+			throw new NullPointerException("listener"); //$NON-NLS-1$
+		}
+		synchronized (this) {
+			fListeners.add(listener);
+			fListenerSnapshotRequested = true;
+			scheduleNotifyListeners();
+		}
+	}
+	
+	public void removeListener(final Listener listener) {
+		fListeners.remove(listener);
+	}
+	
 	public synchronized int size() {
 		if (fSingleIOCache != null) {
 			return 1;
@@ -481,6 +557,11 @@ public final class Queue implements IQueue {
 	
 	
 	void internalAdd(final IToolRunnable[] runnables, final boolean allowCache) {
+		final Long addTime = Long.valueOf(System.nanoTime());
+		for (int i = 0; i < runnables.length; i++) {
+			fAddTimes.put(runnables[i], addTime);
+		}
+		
 		if (allowCache && fSingleIOCache == null && fList.isEmpty()
 				&& runnables.length == 1) {
 			fSingleIOCache = runnables;
@@ -521,6 +602,7 @@ public final class Queue implements IQueue {
 		fInsertRunnable = runnable;
 		fInsertIndex = 0;
 		fList.add(0, runnable);
+		fAddTimes.put(runnable, Long.valueOf(System.nanoTime()));
 		addDebugEvent(DebugEvent.CHANGE, DebugEvent.CONTENT,
 				new Delta(IToolRunnable.ADDING_TO, 0, new IToolRunnable[] { runnable }));
 		fireEvents();
@@ -605,6 +687,13 @@ public final class Queue implements IQueue {
 				RUN_OTHER : RUN_DEFAULT;
 	}
 	
+	/**
+	 * Returns if (not idle) runnables are waiting in the queue to be run next.
+	 */
+	synchronized boolean internalHasNext() {
+		return (fSingleIOCache != null || (!fList.isEmpty() && fInsertIndex != 0));
+	}
+	
 	boolean internalNextHot() {
 		return !fHotList.isEmpty();
 	}
@@ -684,6 +773,16 @@ public final class Queue implements IQueue {
 		fFinishedCache = fFinishedExpected;
 	}
 	
+	/**
+	 * Returns the time the runnable waited in the queue.
+	 * 
+	 * @return the time in nanoseconds or <code>-1</code> if unknown
+	 */
+	long internalGetWaitNanos(final IToolRunnable runnable) {
+		final Long addTime = fAddTimes.remove(runnable);
+		return (addTime != null) ? (System.nanoTime() - addTime.longValue()) : -1;
+	}
+	
 	List<IToolRunnable> internalGetList() {
 		internalCheck();
 		return fList;
@@ -701,6 +800,9 @@ public final class Queue implements IQueue {
 					new Delta(IToolRunnable.BEING_ABANDONED, -1, array) );
 			fList.clear();
 		}
+		else {
+			fListenerDeltas.add(new Delta(IToolRunnable.BEING_ABANDONED, -1, new IToolRunnable[0]));
+		}
 		if (!fHotList.isEmpty()){
 			final IToolRunnable[] array = fHotList.toArray(new IToolRunnable[fHotList.size()]);
 			for (int i = 0; i < array.length; i++) {
@@ -743,9 +845,18 @@ public final class Queue implements IQueue {
 		final DebugEvent event = new DebugEvent(this, code, detail);
 		event.setData(delta);
 		fEventList.add(event);
+		fListenerDeltas.add(delta);
 	}
 	
 	private void fireEvents() {
+		if (!fListenerDeltas.isEmpty()) {
+			if (fListeners.toArray().length > 0) {
+				scheduleNotifyListeners();
+			}
+			else {
+				fListenerDeltas.clear();
+			}
+		}
 		if (fEventList.isEmpty()) {
 			return;
 		}
@@ -756,4 +867,36 @@ public final class Queue implements IQueue {
 		fEventList.clear();
 	}
 	
+	private void scheduleNotifyListeners() {
+		if (!fListenerNotifyScheduled) {
+			fListenerNotifyScheduled = true;
+			fListenerNotifyJob.schedule(NOTIFY_DELAY);
+		}
+	}
+	
+	private void notifyListeners() {
+		final Delta[] deltas;
+		final IToolRunnable[] snapshot;
+		synchronized (this) {
+			fListenerNotifyScheduled = false;
+			if (fListenerDeltas.isEmpty() && !fListenerSnapshotRequested) {
+				return;
+			}
+			fListenerSnapshotRequested = false;
+			deltas = fListenerDeltas.toArray(new Delta[fListenerDeltas.size()]);
+			fListenerDeltas.clear();
+			// a runnable in the IO cache is not yet in the list (and not in the deltas)
+			snapshot = fList.toArray(new IToolRunnable[fList.size()]);
+		}
+		final Listener[] listeners = fListeners.toArray();
+		for (final Listener listener : listeners) {
+			try {
+				listener.queueChanged(this, deltas, snapshot);
+			}
+			catch (final Exception e) {
+				NicoPlugin.logError(ICommonStatusConstants.INTERNAL_PLUGGED_IN, "An unexpected exception was thrown when notifying a queue listener about changes.", e); //$NON-NLS-1$
+			}
+		}
+	}
+	
 }
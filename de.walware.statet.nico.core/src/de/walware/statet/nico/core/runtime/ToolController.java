@@ -28,6 +28,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.osgi.util.NLS;
@@ -388,6 +389,9 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 	protected static final int SUSPENDED_TOPLEVEL = 0x1;
 	protected static final int SUSPENDED_DEEPLEVEL = 0x2;
 	
+	/** Time (ms) after which a request for the hot mode, not yet answered, is repeated */
+	private static final long HOT_MODE_REQUEST_TIMEOUT = 2000;
+	
 	private ToolStreamProxy fStreams;
 	protected ToolStreamMonitor fInputStream;
 	protected ToolStreamMonitor fInfoStream;
@@ -403,6 +407,8 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 	private IToolRunnable fPostControllerRunnable;
 	private RunnableProgressMonitor fRunnableProgressMonitor;
 	
+	private final ToolMetrics fMetrics = new ToolMetrics();
+	
 	private Thread fControllerThread;
 	private ToolStatus fStatus = ToolStatus.STARTING;
 	private ToolStatus fStatusPrevious;
@@ -415,7 +421,15 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 	private boolean fHotModeDeferred;
 	private boolean fHotMode;
 	private boolean fHotModeNested = true;
+	private long fHotModeRequestNanos;
 	private final IProgressMonitor fHotModeMonitor = new NullProgressMonitor();
+	private final Job fHotModeRequestJob = new Job("Hot Mode Request") { //$NON-NLS-1$
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			checkHotModeRequest();
+			return Status.OK_STATUS;
+		}
+	};
 	
 	private int fSuspendedRequestLevel;
 	private int fLoopCurrentLevel; // only within loop
@@ -456,6 +470,9 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 		fStatus = ToolStatus.STARTING;
 		fRunnableProgressMonitor = new RunnableProgressMonitor(Messages.Progress_Starting_label);
 		fCurrentPrompt = Prompt.NONE;
+		
+		fHotModeRequestJob.setSystem(true);
+		fHotModeRequestJob.setPriority(Job.SHORT);
 	}
 	
 	
@@ -1126,6 +1143,7 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 		while (true) {
 			final int type;
 			final IToolRunnable savedCurrentRunnable = fCurrentRunnable;
+			long waitNanos = -1;
 			synchronized (fQueue) {
 				if (fControllerRunnables.size() > 0) {
 					type = Queue.RUN_RESERVED;
@@ -1143,6 +1161,7 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 					case Queue.RUN_OTHER:
 					case Queue.RUN_DEFAULT:
 						setCurrentRunnable(fQueue.internalPoll());
+						waitNanos = fQueue.internalGetWaitNanos(fCurrentRunnable);
 						break;
 					default:
 						return;
@@ -1170,6 +1189,7 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 							new RunnableProgressMonitor(fCurrentRunnable));
 				}
 			}
+			final long startNanos = System.nanoTime();
 			switch (type) {
 			case Queue.RUN_RESERVED:
 				try {
@@ -1196,6 +1216,7 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 					return;
 				}
 				finally {
+					fMetrics.recordRun(fCurrentRunnable, System.nanoTime() - startNanos);
 					setCurrentRunnable(savedCurrentRunnable);
 					fCurrentSubmitType = null;
 					fRunnableProgressMonitor.done();
@@ -1204,6 +1225,9 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 				try {
 					fHotModeNested = false;
 					if (!initilizeHotMode()) {
+						synchronized (fQueue) {
+							fHotModeRequestNanos = 0;
+						}
 						if (!isToolAlive()) {
 							markAsTerminated();
 						}
@@ -1215,6 +1239,9 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 				}
 			case Queue.RUN_OTHER:
 			case Queue.RUN_DEFAULT:
+				if (waitNanos >= 0) {
+					fMetrics.recordQueueWait(fCurrentRunnable, waitNanos);
+				}
 				try {
 					fCurrentRunnable.run(this, fRunnableProgressMonitor);
 					fQueue.internalFinished(fCurrentRunnable, IToolRunnable.FINISHING_OK);
@@ -1249,6 +1276,7 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 					return;
 				}
 				finally {
+					fMetrics.recordRun(fCurrentRunnable, System.nanoTime() - startNanos);
 					if (fPostControllerRunnable != null) {
 						synchronized (fQueue) {
 							fControllerRunnables.remove(fPostControllerRunnable);
@@ -1286,11 +1314,37 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 			fHotModeDeferred = true;
 			return;
 		default:
+			synchronized (fQueue) {
+				if (fHotMode || fHotModeRequestNanos != 0) {
+					// polled by the running hot mode loop or already requested
+					return;
+				}
+				fHotModeRequestNanos = System.nanoTime();
+			}
+			fHotModeRequestJob.schedule(HOT_MODE_REQUEST_TIMEOUT);
 			requestHotMode((Thread.currentThread() != fControllerThread));
 			return;
 		}
 	}
 	
+	/**
+	 * Repeats the request for the hot mode, if it is not answered and hot runnables are
+	 * still waiting.
+	 */
+	private void checkHotModeRequest() {
+		synchronized (fQueue) {
+			if (fIsTerminated || fHotMode || fHotModeRequestNanos == 0) {
+				return;
+			}
+			if (!fQueue.internalNextHot()) {
+				fHotModeRequestNanos = 0;
+				return;
+			}
+		}
+		fHotModeRequestJob.schedule(HOT_MODE_REQUEST_TIMEOUT);
+		requestHotMode(true);
+	}
+	
 	protected void requestHotMode(final boolean async) {
 	}
 	
@@ -1298,30 +1352,37 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 		return true;
 	}
 	
+	/**
+	 * Runs all hot runnables, pending or arriving while the hot mode is active, in one entry.
+	 * <p>
+	 * The loop returns as soon as the queue is empty; hot runnables added later request
+	 * the hot mode again.</p>
+	 */
 	protected final void runHotModeLoop() {
+		int batchSize = 0;
+		synchronized (fQueue) {
+			if (fHotModeRequestNanos != 0) {
+				fMetrics.recordHotModeEntry(System.nanoTime() - fHotModeRequestNanos);
+				fHotModeRequestNanos = 0;
+			}
+			fHotMode = true;
+		}
+		fHotModeRequestJob.cancel();
 		while (true) {
 			IToolRunnable runnable;
 			synchronized (fQueue) {
-				if (fIsTerminated || (runnable = fQueue.internalPollHot()) == null) {
-					if (!fIsTerminated && !fHotModeNested) {
-						try {
-							fQueue.wait(100);
-						}
-						catch (final InterruptedException e) {
-						}
-						if (fIsTerminated || (runnable = fQueue.internalPollHot()) == null) {
-							fHotMode = false;
-							return;
-						}
-					}
-					else {
-						fHotMode = false;
-						return;
+				runnable = (fIsTerminated) ? null : fQueue.internalPollHot();
+				if (runnable == null) {
+					fHotMode = false;
+					if (batchSize > 0) {
+						fMetrics.recordHotModeBatch(batchSize);
 					}
+					return;
 				}
-				fHotMode = true;
 				fHotModeMonitor.setCanceled(false);
 			}
+			batchSize++;
+			final long startNanos = System.nanoTime();
 			try {
 				runnable.run(this, fHotModeMonitor);
 				safeRunnableChanged(runnable, IToolRunnable.FINISHING_OK);
@@ -1342,6 +1403,9 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 					markAsTerminated();
 				}
 			}
+			finally {
+				fMetrics.recordRun(runnable, System.nanoTime() - startNanos);
+			}
 		}
 	}
 	
@@ -1666,6 +1730,15 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 		return fCurrentSubmitType;
 	}
 	
+	/**
+	 * Returns the timing metrics of the runnables processed by this controller.
+	 * 
+	 * @return the metrics
+	 */
+	public final ToolMetrics getMetrics() {
+		return fMetrics;
+	}
+	
 	
 	public final void refreshWorkspaceData(final int options, final IProgressMonitor monitor) throws CoreException {
 		fWorkspaceData.controlRefresh(options, this, monitor);
@@ -1723,6 +1796,15 @@ public abstract class ToolController<WorkspaceType extends ToolWorkspace>
 				IConsoleService.META_HISTORY_DONTADD);
 	}
 	
+	/**
+	 * Adds the command to the history of the process without echoing it in the console.
+	 * 
+	 * @param command the command
+	 */
+	protected void addHistoryCommandL(final String command) {
+		fProcess.getHistory().addCommand(command, getCurrentSubmitType());
+	}
+	
 	protected abstract void doSubmitL(IProgressMonitor monitor) throws CoreException;
 	
 	protected CoreException cancelTask() {
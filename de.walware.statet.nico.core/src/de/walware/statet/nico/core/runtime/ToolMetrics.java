@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.nico.core.runtime;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.walware.ecommons.ts.ISystemRunnable;
+import de.walware.ecommons.ts.IToolRunnable;
+
+
+/**
+ * Timing metrics of the runnables processed by a {@link ToolController}.
+ * <p>
+ * For each runnable type id the durations are recorded in histograms with exponential
+ * buckets, so recording is cheap and the memory is constant:</p>
+ * <ul>
+ *   <li>{@link #QUEUE_WAIT} - time between adding the runnable to the queue and its start,</li>
+ *   <li>{@link #RUN} - time running the runnable (including hot mode runnables),</li>
+ *   <li>{@link #POST_REFRESH} - time of the workspace refresh after the runnable.</li>
+ * </ul>
+ * Additionally the latency of entering the hot mode and the number of hot runnables run per
+ * hot mode entry (batch size) are recorded.
+ * 
+ * The metrics of a controller are available by {@link ToolController#getMetrics()}.
+ */
+public class ToolMetrics {
+	
+	
+	public static final int QUEUE_WAIT = 0;
+	public static final int RUN = 1;
+	public static final int POST_REFRESH = 2;
+	
+	private static final String[] KIND_NAMES = new String[] { "queueWait", "run", "postRefresh" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final String HOT_MODE_TYPE_NAME = "(hot mode)"; //$NON-NLS-1$
+	
+	/** Number of buckets; bucket i contains durations &lt; 2^i microseconds */
+	public static final int BUCKET_COUNT = 32;
+	
+	
+	/**
+	 * Histogram of durations.
+	 */
+	public static final class Histogram {
+		
+		
+		private long fCount;
+		private long fSumNanos;
+		private long fMaxNanos;
+		private final long[] fBuckets = new long[BUCKET_COUNT];
+		
+		
+		private Histogram() {
+		}
+		
+		private Histogram(final Histogram histogram) {
+			fCount = histogram.fCount;
+			fSumNanos = histogram.fSumNanos;
+			fMaxNanos = histogram.fMaxNanos;
+			System.arraycopy(histogram.fBuckets, 0, fBuckets, 0, BUCKET_COUNT);
+		}
+		
+		
+		private void record(final long nanos) {
+			final long micros = nanos / 1000;
+			final int bucket = (micros > 0) ? (64 - Long.numberOfLeadingZeros(micros)) : 0;
+			fBuckets[(bucket < BUCKET_COUNT) ? bucket : (BUCKET_COUNT - 1)]++;
+			fCount++;
+			fSumNanos += nanos;
+			if (nanos > fMaxNanos) {
+				fMaxNanos = nanos;
+			}
+		}
+		
+		public long getCount() {
+			return fCount;
+		}
+		
+		public long getSumNanos() {
+			return fSumNanos;
+		}
+		
+		public long getMaxNanos() {
+			return fMaxNanos;
+		}
+		
+		public double getMeanNanos() {
+			return (fCount > 0) ? ((double) fSumNanos / fCount) : 0.0;
+		}
+		
+		/**
+		 * Returns the upper bound of the bucket containing the specified percentile.
+		 * 
+		 * @param percentile the percentile (0 - 100)
+		 * @return the upper bound in nanoseconds
+		 */
+		public long getPercentileNanos(final double percentile) {
+			if (fCount == 0) {
+				return 0;
+			}
+			final long threshold = (long) Math.ceil(fCount * percentile / 100.0);
+			long count = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				count += fBuckets[i];
+				if (count >= threshold) {
+					return Math.min((1L << i) * 1000, fMaxNanos);
+				}
+			}
+			return fMaxNanos;
+		}
+		
+		public long[] getBuckets() {
+			return fBuckets.clone();
+		}
+		
+	}
+	
+	/**
+	 * Metrics of a runnable type.
+	 */
+	public static final class Entry {
+		
+		
+		private final String fTypeId;
+		private final Histogram[] fHistograms;
+		
+		
+		private Entry(final String typeId) {
+			fTypeId = typeId;
+			fHistograms = new Histogram[] { new Histogram(), new Histogram(), new Histogram() };
+		}
+		
+		private Entry(final Entry entry) {
+			fTypeId = entry.fTypeId;
+			fHistograms = new Histogram[] {
+					new Histogram(entry.fHistograms[QUEUE_WAIT]),
+					new Histogram(entry.fHistograms[RUN]),
+					new Histogram(entry.fHistograms[POST_REFRESH]) };
+		}
+		
+		
+		public String getTypeId() {
+			return fTypeId;
+		}
+		
+		/**
+		 * @param kind one of {@link ToolMetrics#QUEUE_WAIT}, {@link ToolMetrics#RUN},
+		 *     {@link ToolMetrics#POST_REFRESH}
+		 * @return the histogram
+		 */
+		public Histogram getHistogram(final int kind) {
+			return fHistograms[kind];
+		}
+		
+	}
+	
+	
+	private final Map<String, Entry> fEntries = new HashMap<String, Entry>();
+	private String fLastTypeId;
+	private Histogram fHotModeEntryLatency = new Histogram();
+	private long fHotModeEntryCount;
+	private long fHotModeRunnableCount;
+	private long fHotModeMaxBatchSize;
+	private long fStartTime = System.currentTimeMillis();
+	private long fStartNanos = System.nanoTime();
+	
+	
+	public ToolMetrics() {
+	}
+	
+	
+	private Entry getEntry(final String typeId) {
+		final String key = (typeId != null) ? typeId : ""; //$NON-NLS-1$
+		Entry entry = fEntries.get(key);
+		if (entry == null) {
+			entry = new Entry(key);
+			fEntries.put(key, entry);
+		}
+		return entry;
+	}
+	
+	/**
+	 * Records the time the runnable waited in the queue.
+	 */
+	public synchronized void recordQueueWait(final IToolRunnable runnable, final long nanos) {
+		getEntry(runnable.getTypeId()).fHistograms[QUEUE_WAIT].record(nanos);
+	}
+	
+	/**
+	 * Records the time running the runnable.
+	 * <p>
+	 * A following workspace refresh is attributed to the runnable, if it is not a system
+	 * runnable.</p>
+	 */
+	public synchronized void recordRun(final IToolRunnable runnable, final long nanos) {
+		final String typeId = runnable.getTypeId();
+		getEntry(typeId).fHistograms[RUN].record(nanos);
+		if (!(runnable instanceof ISystemRunnable)) {
+			fLastTypeId = typeId;
+		}
+	}
+	
+	/**
+	 * Records the time of a workspace refresh, attributed to the last run (non-system)
+	 * runnable.
+	 */
+	public synchronized void recordPostRefresh(final long nanos) {
+		getEntry(fLastTypeId).fHistograms[POST_REFRESH].record(nanos);
+	}
+	
+	/**
+	 * Records the time between the request and the start of the hot mode.
+	 */
+	public synchronized void recordHotModeEntry(final long nanos) {
+		fHotModeEntryLatency.record(nanos);
+	}
+	
+	/**
+	 * Records the number of hot runnables run in one hot mode entry.
+	 * Entries without any runnable (e.g. nested checks) are not recorded.
+	 */
+	public synchronized void recordHotModeBatch(final int size) {
+		fHotModeEntryCount++;
+		fHotModeRunnableCount += size;
+		if (size > fHotModeMaxBatchSize) {
+			fHotModeMaxBatchSize = size;
+		}
+	}
+	
+	/**
+	 * Returns a snapshot of the latency of requested hot mode entries.
+	 */
+	public synchronized Histogram getHotModeEntryLatency() {
+		return new Histogram(fHotModeEntryLatency);
+	}
+	
+	public synchronized long getHotModeEntryCount() {
+		return fHotModeEntryCount;
+	}
+	
+	/**
+	 * Returns the average number of hot runnables run per hot mode entry.
+	 */
+	public synchronized double getHotModeMeanBatchSize() {
+		return (fHotModeEntryCount > 0) ? ((double) fHotModeRunnableCount / fHotModeEntryCount) : 0.0;
+	}
+	
+	public synchronized long getHotModeMaxBatchSize() {
+		return fHotModeMaxBatchSize;
+	}
+	
+	/**
+	 * Returns a snapshot of the metrics of all runnable types.
+	 * 
+	 * @return the entries sorted by type id
+	 */
+	public synchronized List<Entry> getEntries() {
+		final List<Entry> list = new ArrayList<Entry>(fEntries.size());
+		for (final Entry entry : fEntries.values()) {
+			list.add(new Entry(entry));
+		}
+		Collections.sort(list, new Comparator<Entry>() {
+			public int compare(final Entry o1, final Entry o2) {
+				return o1.fTypeId.compareTo(o2.fTypeId);
+			}
+		});
+		return list;
+	}
+	
+	/**
+	 * Returns the time since when the metrics are recorded.
+	 * 
+	 * @return the time in milliseconds
+	 */
+	public synchronized long getStartTime() {
+		return fStartTime;
+	}
+	
+	/**
+	 * Returns the number of run runnables per second since the start of the recording.
+	 */
+	public synchronized double getThroughput() {
+		final long elapsed = System.nanoTime() - fStartNanos;
+		if (elapsed <= 0) {
+			return 0.0;
+		}
+		long count = 0;
+		for (final Entry entry : fEntries.values()) {
+			count += entry.fHistograms[RUN].fCount;
+		}
+		return count * 1e9 / elapsed;
+	}
+	
+	public synchronized void reset() {
+		fEntries.clear();
+		fLastTypeId = null;
+		fHotModeEntryLatency = new Histogram();
+		fHotModeEntryCount = 0;
+		fHotModeRunnableCount = 0;
+		fHotModeMaxBatchSize = 0;
+		fStartTime = System.currentTimeMillis();
+		fStartNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Writes the metrics as CSV (one line per runnable type and kind; durations in
+	 * microseconds). The hot mode metrics are written with the type <code>(hot mode)</code>.
+	 * 
+	 * @param writer the writer
+	 * @throws IOException
+	 */
+	public void export(final Writer writer) throws IOException {
+		final List<Entry> entries;
+		final Histogram hotModeLatency;
+		final long hotModeEntryCount;
+		final double hotModeMeanBatchSize;
+		final long hotModeMaxBatchSize;
+		synchronized (this) {
+			entries = getEntries();
+			hotModeLatency = getHotModeEntryLatency();
+			hotModeEntryCount = fHotModeEntryCount;
+			hotModeMeanBatchSize = getHotModeMeanBatchSize();
+			hotModeMaxBatchSize = fHotModeMaxBatchSize;
+		}
+		writer.write("type,kind,count,mean,p50,p90,p99,max"); //$NON-NLS-1$
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			writer.write(",<"); //$NON-NLS-1$
+			writer.write(Long.toString(1L << i));
+		}
+		writer.write('\n');
+		for (final Entry entry : entries) {
+			for (int kind = 0; kind < KIND_NAMES.length; kind++) {
+				if (entry.fHistograms[kind].fCount > 0) {
+					writeHistogram(writer, entry.fTypeId, KIND_NAMES[kind], entry.fHistograms[kind]);
+				}
+			}
+		}
+		if (hotModeLatency.fCount > 0) {
+			writeHistogram(writer, HOT_MODE_TYPE_NAME, "entryLatency", hotModeLatency); //$NON-NLS-1$
+		}
+		if (hotModeEntryCount > 0) {
+			writer.write('"');
+			writer.write(HOT_MODE_TYPE_NAME);
+			writer.write("\",batchSize,"); //$NON-NLS-1$
+			writer.write(Long.toString(hotModeEntryCount));
+			writer.write(',');
+			writer.write(String.format("%1$.2f", hotModeMeanBatchSize)); //$NON-NLS-1$
+			writer.write(",,,,"); //$NON-NLS-1$
+			writer.write(Long.toString(hotModeMaxBatchSize));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+	
+	private void writeHistogram(final Writer writer, final String type, final String kind,
+			final Histogram histogram) throws IOException {
+		writer.write('"');
+		writer.write(type.replace("\"", "\"\"")); //$NON-NLS-1$ //$NON-NLS-2$
+		writer.write("\","); //$NON-NLS-1$
+		writer.write(kind);
+		writer.write(',');
+		writer.write(Long.toString(histogram.fCount));
+		writer.write(',');
+		writer.write(Long.toString((long) histogram.getMeanNanos() / 1000));
+		writer.write(',');
+		writer.write(Long.toString(histogram.getPercentileNanos(50) / 1000));
+		writer.write(',');
+		writer.write(Long.toString(histogram.getPercentileNanos(90) / 1000));
+		writer.write(',');
+		writer.write(Long.toString(histogram.getPercentileNanos(99) / 1000));
+		writer.write(',');
+		writer.write(Long.toString(histogram.fMaxNanos / 1000));
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			writer.write(',');
+			writer.write(Long.toString(histogram.fBuckets[i]));
+		}
+		writer.write('\n');
+	}
+	
+}
@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.variables.IDynamicVariable;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugPlugin;
@@ -114,18 +115,54 @@ public class ToolWorkspace {
 		
 		public void run(final IToolService service,
 				final IProgressMonitor monitor) throws CoreException {
+			if (!checkAutoRefresh()) {
+				return;
+			}
 			fIsRefreshing = true;
+			final long startNanos = System.nanoTime();
 			try {
 				autoRefreshFromTool((IConsoleService) service, monitor);
 			}
 			finally {
 				fIsRefreshing = false;
+				final long endNanos = System.nanoTime();
+				final long cost = endNanos - startNanos;
+				fAutoRefreshCostNanos = (fAutoRefreshCount == 0) ? cost :
+						((fAutoRefreshCostNanos * 3 + cost) / 4);
+				fAutoRefreshEndNanos = endNanos;
+				fAutoRefreshCount++;
+				((IConsoleService) service).getController().getMetrics().recordPostRefresh(cost);
 			}
 			firePropertiesChanged();
 		}
 		
 	}
 	
+	private class DeferredAutoRefreshJob extends Job {
+		
+		
+		public DeferredAutoRefreshJob() {
+			super("Auto Refresh"); //$NON-NLS-1$
+			setSystem(true);
+			setPriority(Job.SHORT);
+		}
+		
+		
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			final Queue queue = fProcess.getQueue();
+			synchronized (queue) {
+				fAutoRefreshDeferred = false;
+				if (fProcess.getToolStatus().isWaiting()) {
+					queue.internalResetIdle();
+					queue.notifyAll();
+				}
+			}
+			return Status.OK_STATUS;
+		}
+		
+	}
+	
 	
 	public static final int DETAIL_PROMPT = 1;
 	public static final int DETAIL_LINE_SEPARTOR = 2;
@@ -147,10 +184,28 @@ public class ToolWorkspace {
 	private final Map<String, Object> fProperties = new HashMap<String, Object>();
 	private final FastList<Listener> fPropertyListener = new FastList<Listener>(Listener.class);
 	
+	/**
+	 * Factor for the measured cost of an auto refresh, determining the minimal time between
+	 * two auto refreshes.
+	 */
+	private static final int AUTO_REFRESH_DEBOUNCE_FACTOR = 4;
+	/**
+	 * Maximal time in milliseconds an auto refresh is deferred.
+	 */
+	private static final long AUTO_REFRESH_DEBOUNCE_MAX = 500;
+	
 	private boolean fAutoRefreshEnabled = true;
 	
 	private boolean fIsRefreshing;
 	
+	private long fAutoRefreshCostNanos;
+	private long fAutoRefreshEndNanos;
+	private long fAutoRefreshCount;
+	private long fAutoRefreshMergedCount;
+	private long fAutoRefreshDebouncedCount;
+	private boolean fAutoRefreshDeferred;
+	private Job fAutoRefreshJob;
+	
 	private final FastList<IDynamicVariable> fStringVariables = new FastList<IDynamicVariable>(IDynamicVariable.class);
 	
 	
@@ -227,6 +282,65 @@ public class ToolWorkspace {
 		return fAutoRefreshEnabled;
 	}
 	
+	/**
+	 * Checks if the auto refresh should run now.
+	 * <p>
+	 * The refresh is skipped, if further runnables are waiting in the queue (it runs again
+	 * when the queue is empty), or if the last refresh is too short ago in relation to its
+	 * cost (it is rescheduled after the remaining time).</p>
+	 * 
+	 * Use only in tool main thread.
+	 */
+	private boolean checkAutoRefresh() {
+		final Queue queue = fProcess.getQueue();
+		if (queue.internalHasNext()) {
+			fAutoRefreshMergedCount++;
+			return false;
+		}
+		if (fAutoRefreshCount > 0) {
+			final long delay = Math.min(AUTO_REFRESH_DEBOUNCE_MAX,
+					(fAutoRefreshCostNanos * AUTO_REFRESH_DEBOUNCE_FACTOR) / 1000000L );
+			final long elapsed = (System.nanoTime() - fAutoRefreshEndNanos) / 1000000L;
+			if (elapsed < delay) {
+				fAutoRefreshDebouncedCount++;
+				synchronized (queue) {
+					if (!fAutoRefreshDeferred) {
+						fAutoRefreshDeferred = true;
+						if (fAutoRefreshJob == null) {
+							fAutoRefreshJob = new DeferredAutoRefreshJob();
+						}
+						fAutoRefreshJob.schedule(delay - elapsed);
+					}
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns the number of auto refreshes run.
+	 */
+	public long getAutoRefreshCount() {
+		return fAutoRefreshCount;
+	}
+	
+	/**
+	 * Returns the number of auto refresh requests merged into a later refresh, because
+	 * further runnables were waiting in the queue.
+	 */
+	public long getAutoRefreshMergedCount() {
+		return fAutoRefreshMergedCount;
+	}
+	
+	/**
+	 * Returns the number of auto refresh requests deferred, because the last refresh was too
+	 * short ago in relation to its cost.
+	 */
+	public long getAutoRefreshDebouncedCount() {
+		return fAutoRefreshDebouncedCount;
+	}
+	
 	
 	protected void autoRefreshFromTool(final IConsoleService s, final IProgressMonitor monitor) throws CoreException {
 		if (fAutoRefreshEnabled) {
@@ -310,11 +424,13 @@ public class ToolWorkspace {
 	
 	final void controlRefresh(final int options, final IConsoleService adapter, final IProgressMonitor monitor) throws CoreException {
 		fIsRefreshing = true;
+		final long startNanos = System.nanoTime();
 		try {
 			refreshFromTool(options, adapter, monitor);
 		}
 		finally {
 			fIsRefreshing = false;
+			adapter.getController().getMetrics().recordPostRefresh(System.nanoTime() - startNanos);
 		}
 		firePropertiesChanged();
 	}
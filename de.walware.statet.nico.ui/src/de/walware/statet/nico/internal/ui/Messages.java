@@ -41,6 +41,21 @@ public class Messages extends NLS {
 	public static String ShowProgress_name;
 	public static String ShowProgress_tooltip;
 	
+	public static String ToolMetrics_Type_label;
+	public static String ToolMetrics_Kind_label;
+	public static String ToolMetrics_Count_label;
+	public static String ToolMetrics_Mean_label;
+	public static String ToolMetrics_Max_label;
+	public static String ToolMetrics_QueueWait_label;
+	public static String ToolMetrics_Run_label;
+	public static String ToolMetrics_PostRefresh_label;
+	public static String ToolMetrics_Throughput_message;
+	public static String ToolMetrics_HotMode_message;
+	public static String ToolMetrics_Refresh_name;
+	public static String ToolMetrics_Reset_name;
+	public static String ToolMetrics_Export_name;
+	public static String ToolMetrics_Export_error_message;
+	
 	public static String TerminateToolAction_error_message;
 	public static String TerminatingMonitor_title;
 	public static String TerminatingMonitor_message;
@@ -11,16 +11,16 @@
 
 package de.walware.statet.nico.ui.views;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import org.eclipse.debug.core.DebugEvent;
-import org.eclipse.debug.core.DebugPlugin;
-import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IMenuManager;
 import org.eclipse.jface.action.IToolBarManager;
-import org.eclipse.jface.viewers.IStructuredContentProvider;
-import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.ITableLabelProvider;
 import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.TableViewer;
@@ -72,52 +72,68 @@ import de.walware.statet.nico.ui.util.ToolProgressGroup;
 public class QueueView extends ViewPart {
 	
 	
-	private static IToolRunnable[] toArray(final IStructuredSelection selection) {
-		final List<?> list = selection.toList();
-		return list.toArray(new IToolRunnable[list.size()]);
-	}
-	
-	
-	private class ViewContentProvider implements IStructuredContentProvider, IDebugEventSetListener {
+	private class ViewContentProvider implements ILazyContentProvider, Queue.Listener {
+		
+		
+		private ToolProcess fInputProcess;
+		private Queue fQueue;
+		/** Entries shown in the table (UI thread) */
+		private IToolRunnable[] fElements = new IToolRunnable[0];
+		
+		/** Latest snapshot not yet shown (synchronized) */
+		private IToolRunnable[] fNewElements;
+		private boolean fUpdateProgress;
+		private boolean fUpdateScheduled;
+		
+		private final Runnable fUpdateRunnable = new Runnable() {
+			public void run() {
+				final IToolRunnable[] elements;
+				final boolean updateProgress;
+				synchronized (ViewContentProvider.this) {
+					fUpdateScheduled = false;
+					elements = fNewElements;
+					updateProgress = fUpdateProgress;
+					fNewElements = null;
+					fUpdateProgress = false;
+				}
+				if (elements != null) {
+					setElements(elements);
+				}
+				if (updateProgress && fShowProgress) {
+					final ToolProgressGroup progress = fProgressControl;
+					if (progress != null) {
+						progress.refresh(false);
+					}
+				}
+			}
+		};
 		
-		private volatile boolean fExpectInfoEvent = false;
-		private IToolRunnable[] fRefreshData;
 		
 		public void inputChanged(final Viewer viewer, final Object oldInput, final Object newInput) {
-			if (oldInput != null && newInput == null) {
-				unregister();
+			unregister();
+			synchronized (this) {
+				fNewElements = null;
+				fUpdateProgress = false;
 			}
+			fElements = new IToolRunnable[0];
 			if (newInput != null) {
-				final ToolProcess newProcess = (ToolProcess) newInput;
-				
-				final DebugPlugin manager = DebugPlugin.getDefault();
-				if (manager != null) {
-					manager.addDebugEventListener(this);
-				}
+				fInputProcess = (ToolProcess) newInput;
+				fQueue = fInputProcess.getQueue();
+				fQueue.addListener(this);
 			}
 		}
 		
-		public Object[] getElements(final Object inputElement) {
-			IToolRunnable[] elements;
-			if (fRefreshData != null) {
-				elements = fRefreshData;
-				fRefreshData = null;
-			}
-			else {
-				elements = new IToolRunnable[0];
-				final Queue queue = getQueue();
-				if (queue != null) {
-					fExpectInfoEvent = true;
-					queue.sendElements();
-				}
+		public void updateElement(final int index) {
+			if (index < fElements.length) {
+				fTableViewer.replace(fElements[index], index);
 			}
-			return elements;
 		}
 		
 		private void unregister() {
-			final DebugPlugin manager = DebugPlugin.getDefault();
-			if (manager != null) {
-				manager.removeDebugEventListener(this);
+			if (fQueue != null) {
+				fQueue.removeListener(this);
+				fQueue = null;
+				fInputProcess = null;
 			}
 		}
 		
@@ -125,121 +141,82 @@ public class QueueView extends ViewPart {
 			unregister();
 		}
 		
-		private void setElements(final IToolRunnable[] elements) {
-			UIAccess.getDisplay().syncExec(new Runnable() {
-				public void run() {
-					if (!UIAccess.isOkToUse(fTableViewer)) {
-						return;
-					}
-					fRefreshData = elements;
-					fTableViewer.refresh();
+		IToolRunnable[] getElements(final int[] indices) {
+			final List<IToolRunnable> list = new ArrayList<IToolRunnable>(indices.length);
+			for (int i = 0; i < indices.length; i++) {
+				if (indices[i] < fElements.length) {
+					list.add(fElements[indices[i]]);
 				}
-			});
+			}
+			return list.toArray(new IToolRunnable[list.size()]);
 		}
 		
-		public void handleDebugEvents(final DebugEvent[] events) {
-			final ToolProcess process = fProcess;
-			if (process == null) {
+		private void setElements(final IToolRunnable[] elements) {
+			if (!UIAccess.isOkToUse(fTableViewer)) {
 				return;
 			}
-			boolean updateProgress = false;
-			final Queue queue = process.getQueue();
-			EVENT: for (int i = 0; i < events.length; i++) {
-				final DebugEvent event = events[i];
-				final Object source = event.getSource();
-				if (source == queue) {
-					switch (event.getKind()) {
-					
-					case DebugEvent.CHANGE:
-						if (event.getDetail() != DebugEvent.CONTENT) {
-							continue EVENT;
-						}
-						final Queue.Delta delta = (Queue.Delta) event.getData();
-						switch (delta.type) {
-						case IToolRunnable.ADDING_TO:
-						case IToolRunnable.MOVING_TO:
-							if (!fExpectInfoEvent) {
-								if (events.length > i+1 && delta.data.length == 1) {
-									// Added and removed in same set
-									final DebugEvent next = events[i+1];
-									if (next.getSource() == queue
-											&& next.getKind() == DebugEvent.CHANGE
-											&& next.getDetail() == DebugEvent.CONTENT) {
-										final Queue.Delta nextDelta = (Queue.Delta) next.getData();
-										if (nextDelta.type == IToolRunnable.STARTING
-												&& delta.data[0] == nextDelta.data[0]) {
-											updateProgress = true;
-											i++;
-											continue EVENT;
-										}
-									}
-								}
-								UIAccess.getDisplay().syncExec(new Runnable() {
-									public void run() {
-										if (!UIAccess.isOkToUse(fTableViewer)) {
-											return;
-										}
-										if (delta.position >= 0) {
-											for (int j = 0; j < delta.data.length; j++) {
-												fTableViewer.insert(delta.data[j], delta.position+j);
-											}
-										}
-										else {
-											fTableViewer.add(delta.data);
-										}
-									}
-								});
-							}
-							continue EVENT;
-						
-						case IToolRunnable.STARTING:
-							updateProgress = true;
-							//$FALL-THROUGH$ continue with delete
-						case IToolRunnable.REMOVING_FROM:
-						case IToolRunnable.MOVING_FROM:
-							if (!fExpectInfoEvent) {
-								UIAccess.getDisplay().syncExec(new Runnable() {
-									public void run() {
-										if (!UIAccess.isOkToUse(fTableViewer)) {
-											return;
-										}
-										fTableViewer.remove(delta.data);
-									}
-								});
-							}
-							continue EVENT;
-						
-//						case Queue.QUEUE_CHANGE:
-//							if (!fExpectInfoEvent) {
-//								setElements((IToolRunnable[]) event.getData());
-//							}
-//							continue EVENT;
-						}
-						continue EVENT;
-						
-					case DebugEvent.MODEL_SPECIFIC:
-						if (event.getDetail() == Queue.QUEUE_INFO && fExpectInfoEvent) {
-							fExpectInfoEvent = false;
-							setElements((IToolRunnable[]) event.getData());
-						}
-						continue EVENT;
-						
-					case DebugEvent.TERMINATE:
-						disconnect(process);
-						continue EVENT;
-						
-					default:
-						continue EVENT;
+			final Table table = fTableViewer.getTable();
+			final Set<IToolRunnable> selected = new HashSet<IToolRunnable>(
+					Arrays.asList(getElements(table.getSelectionIndices())) );
+			// clear the selection first, the viewer would restore it by elements
+			table.deselectAll();
+			fElements = elements;
+			fTableViewer.setItemCount(elements.length);
+			fTableViewer.refresh();
+			if (!selected.isEmpty()) {
+				final int[] indices = new int[selected.size()];
+				int count = 0;
+				for (int i = 0; i < elements.length && count < indices.length; i++) {
+					if (selected.contains(elements[i])) {
+						indices[count++] = i;
 					}
 				}
+				if (count < indices.length) {
+					final int[] found = new int[count];
+					System.arraycopy(indices, 0, found, 0, count);
+					table.setSelection(found);
+				}
+				else {
+					table.setSelection(indices);
+				}
+			}
+		}
+		
+		public void queueChanged(final Queue queue, final Queue.Delta[] deltas, final IToolRunnable[] snapshot) {
+			boolean updateProgress = false;
+			boolean terminated = false;
+			for (int i = 0; i < deltas.length; i++) {
+				switch (deltas[i].type) {
+				case IToolRunnable.STARTING:
+					updateProgress = true;
+					continue;
+				case IToolRunnable.BEING_ABANDONED:
+					terminated = true;
+					continue;
+				default:
+					continue;
+				}
 			}
-			if (updateProgress && fShowProgress) {
-				final ToolProgressGroup progress = fProgressControl;
-				if (progress != null) {
-					progress.refresh(false);
+			final ToolProcess process;
+			final boolean schedule;
+			synchronized (this) {
+				if (queue != fQueue) {
+					return;
 				}
+				process = fInputProcess;
+				fNewElements = snapshot;
+				fUpdateProgress |= updateProgress;
+				schedule = !fUpdateScheduled;
+				fUpdateScheduled = true;
+			}
+			if (schedule) {
+				UIAccess.getDisplay().asyncExec(fUpdateRunnable);
+			}
+			if (terminated) {
+				disconnect(process);
 			}
 		}
+		
 	}
 	
 	private class TableLabelProvider extends LabelProvider implements ITableLabelProvider {
@@ -315,6 +292,7 @@ public class QueueView extends ViewPart {
 	private Composite fComposite;
 	private ToolProgressGroup fProgressControl;
 	private TableViewer fTableViewer;
+	private ViewContentProvider fContentProvider;
 	
 	private ToolProcess fProcess;
 	private IToolRegistryListener fToolRegistryListener;
@@ -377,7 +355,7 @@ public class QueueView extends ViewPart {
 			createProgressControl();
 		}
 		
-		fTableViewer = new TableViewer(parent, SWT.MULTI | SWT.V_SCROLL);
+		fTableViewer = new TableViewer(parent, SWT.MULTI | SWT.V_SCROLL | SWT.VIRTUAL);
 		fTableViewer.getControl().setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
 		fTableViewer.getTable().setLinesVisible(false);
 		fTableViewer.getTable().setHeaderVisible(false);
@@ -393,7 +371,8 @@ public class QueueView extends ViewPart {
 			}
 		});
 		
-		fTableViewer.setContentProvider(new ViewContentProvider());
+		fContentProvider = new ViewContentProvider();
+		fTableViewer.setContentProvider(fContentProvider);
 		fTableViewer.setLabelProvider(new TableLabelProvider());
 		
 		createActions();
@@ -413,7 +392,7 @@ public class QueueView extends ViewPart {
 				});
 			}
 			public void toolTerminated(final ToolSessionUIData sessionData) {
-				// handled by debug events
+				// handled by queue listener
 			}
 		};
 		toolRegistry.addListener(fToolRegistryListener, getViewSite().getPage());
@@ -450,8 +429,7 @@ public class QueueView extends ViewPart {
 			public void run() {
 				final Queue queue = getQueue();
 				if (queue != null) {
-					final IStructuredSelection selection = (IStructuredSelection) fTableViewer.getSelection();
-					queue.remove(toArray(selection));
+					queue.remove(getSelectedRunnables());
 				}
 			}
 		};
@@ -502,7 +480,7 @@ public class QueueView extends ViewPart {
 					event.doit = false;
 					return;
 				}
-				data.runnables = toArray((IStructuredSelection) fTableViewer.getSelection());
+				data.runnables = getSelectedRunnables();
 				event.data = data;
 			}
 			@Override
@@ -557,6 +535,13 @@ public class QueueView extends ViewPart {
 		return null;
 	}
 	
+	/**
+	 * Returns the selected entries, including entries of the virtual table not yet created.
+	 */
+	private IToolRunnable[] getSelectedRunnables() {
+		return fContentProvider.getElements(fTableViewer.getTable().getSelectionIndices());
+	}
+	
 	
 	@Override
 	public void setFocus() {
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.nico.ui.views;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.ui.part.ViewPart;
+import org.eclipse.ui.statushandlers.StatusManager;
+
+import de.walware.ecommons.ui.util.UIAccess;
+
+import de.walware.statet.nico.core.runtime.ToolController;
+import de.walware.statet.nico.core.runtime.ToolMetrics;
+import de.walware.statet.nico.core.runtime.ToolProcess;
+import de.walware.statet.nico.internal.ui.Messages;
+import de.walware.statet.nico.ui.IToolRegistry;
+import de.walware.statet.nico.ui.IToolRegistryListener;
+import de.walware.statet.nico.ui.NicoUI;
+import de.walware.statet.nico.ui.ToolSessionUIData;
+
+
+/**
+ * A view showing the timing metrics ({@link ToolMetrics}) of the runnables of a tool process.
+ * 
+ * Usage: This class is not intended to be subclassed.
+ */
+public class ToolMetricsView extends ViewPart {
+	
+	
+	private static final String[] KIND_LABELS = new String[] {
+			Messages.ToolMetrics_QueueWait_label,
+			Messages.ToolMetrics_Run_label,
+			Messages.ToolMetrics_PostRefresh_label };
+	
+	private static class Row {
+		
+		final ToolMetrics.Entry entry;
+		final int kind;
+		
+		public Row(final ToolMetrics.Entry entry, final int kind) {
+			this.entry = entry;
+			this.kind = kind;
+		}
+		
+	}
+	
+	private static class TableLabelProvider extends LabelProvider implements ITableLabelProvider {
+		
+		public Image getColumnImage(final Object element, final int columnIndex) {
+			return null;
+		}
+		
+		public String getColumnText(final Object element, final int columnIndex) {
+			final Row row = (Row) element;
+			final ToolMetrics.Histogram histogram = row.entry.getHistogram(row.kind);
+			switch (columnIndex) {
+			case 0:
+				return row.entry.getTypeId();
+			case 1:
+				return KIND_LABELS[row.kind];
+			case 2:
+				return Long.toString(histogram.getCount());
+			case 3:
+				return formatMillis((long) histogram.getMeanNanos());
+			case 4:
+				return formatMillis(histogram.getPercentileNanos(50));
+			case 5:
+				return formatMillis(histogram.getPercentileNanos(90));
+			case 6:
+				return formatMillis(histogram.getPercentileNanos(99));
+			case 7:
+				return formatMillis(histogram.getMaxNanos());
+			default:
+				return ""; //$NON-NLS-1$
+			}
+		}
+		
+		private String formatMillis(final long nanos) {
+			return String.format("%1$.3f", nanos / 1e6); //$NON-NLS-1$
+		}
+		
+	}
+	
+	
+	private TableViewer fTableViewer;
+	
+	private ToolProcess fProcess;
+	private IToolRegistryListener fToolRegistryListener;
+	
+	private Action fRefreshAction;
+	private Action fResetAction;
+	private Action fExportAction;
+	
+	
+	public ToolMetricsView() {
+	}
+	
+	
+	@Override
+	public void createPartControl(final Composite parent) {
+		fTableViewer = new TableViewer(parent, SWT.MULTI | SWT.V_SCROLL | SWT.H_SCROLL | SWT.FULL_SELECTION);
+		final Table table = fTableViewer.getTable();
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		final String[] columns = new String[] {
+				Messages.ToolMetrics_Type_label, Messages.ToolMetrics_Kind_label,
+				Messages.ToolMetrics_Count_label, Messages.ToolMetrics_Mean_label,
+				"p50 [ms]", "p90 [ms]", "p99 [ms]", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				Messages.ToolMetrics_Max_label };
+		for (int i = 0; i < columns.length; i++) {
+			final TableColumn column = new TableColumn(table, (i < 2) ? SWT.LEFT : SWT.RIGHT);
+			column.setText(columns[i]);
+			column.setWidth((i == 0) ? 240 : ((i == 1) ? 100 : 80));
+		}
+		fTableViewer.setContentProvider(new ArrayContentProvider());
+		fTableViewer.setLabelProvider(new TableLabelProvider());
+		
+		createActions();
+		final IToolBarManager toolBar = getViewSite().getActionBars().getToolBarManager();
+		toolBar.add(fRefreshAction);
+		toolBar.add(fResetAction);
+		toolBar.add(fExportAction);
+		
+		// listen on console changes
+		final IToolRegistry toolRegistry = NicoUI.getToolRegistry();
+		connect(toolRegistry.getActiveToolSession(getViewSite().getPage()).getProcess());
+		fToolRegistryListener = new IToolRegistryListener() {
+			public void toolSessionActivated(final ToolSessionUIData sessionData) {
+				final ToolProcess process = sessionData.getProcess();
+				UIAccess.getDisplay().asyncExec(new Runnable() {
+					public void run() {
+						connect(process);
+					}
+				});
+			}
+			public void toolTerminated(final ToolSessionUIData sessionData) {
+			}
+		};
+		toolRegistry.addListener(fToolRegistryListener, getViewSite().getPage());
+	}
+	
+	private void createActions() {
+		fRefreshAction = new Action(Messages.ToolMetrics_Refresh_name) {
+			@Override
+			public void run() {
+				refresh();
+			}
+		};
+		fResetAction = new Action(Messages.ToolMetrics_Reset_name) {
+			@Override
+			public void run() {
+				final ToolMetrics metrics = getMetrics();
+				if (metrics != null) {
+					metrics.reset();
+				}
+				refresh();
+			}
+		};
+		fExportAction = new Action(Messages.ToolMetrics_Export_name) {
+			@Override
+			public void run() {
+				export();
+			}
+		};
+	}
+	
+	/** May only be called in UI thread */
+	public void connect(final ToolProcess process) {
+		if (!UIAccess.isOkToUse(fTableViewer)) {
+			return;
+		}
+		fProcess = process;
+		setContentDescription((process != null) ? process.getLabel(0) : ""); //$NON-NLS-1$
+		refresh();
+	}
+	
+	private ToolMetrics getMetrics() {
+		final ToolProcess process = fProcess;
+		final ToolController controller = (process != null) ? process.getController() : null;
+		return (controller != null) ? controller.getMetrics() : null;
+	}
+	
+	/** May only be called in UI thread */
+	public void refresh() {
+		if (!UIAccess.isOkToUse(fTableViewer)) {
+			return;
+		}
+		final ToolMetrics metrics = getMetrics();
+		final List<Row> rows = new ArrayList<Row>();
+		if (metrics != null) {
+			for (final ToolMetrics.Entry entry : metrics.getEntries()) {
+				for (int kind = ToolMetrics.QUEUE_WAIT; kind <= ToolMetrics.POST_REFRESH; kind++) {
+					if (entry.getHistogram(kind).getCount() > 0) {
+						rows.add(new Row(entry, kind));
+					}
+				}
+			}
+			setTitleToolTip(NLS.bind(Messages.ToolMetrics_Throughput_message,
+					String.format("%1$.1f", metrics.getThroughput()) ) //$NON-NLS-1$
+					+ '\n' + NLS.bind(Messages.ToolMetrics_HotMode_message, new Object[] {
+							Long.toString(metrics.getHotModeEntryCount()),
+							String.format("%1$.1f", metrics.getHotModeMeanBatchSize()), //$NON-NLS-1$
+							String.format("%1$.3f", metrics.getHotModeEntryLatency().getMeanNanos() / 1e6) })); //$NON-NLS-1$
+		}
+		fTableViewer.setInput(rows);
+	}
+	
+	private void export() {
+		final ToolMetrics metrics = getMetrics();
+		if (metrics == null) {
+			return;
+		}
+		final FileDialog dialog = new FileDialog(getSite().getShell(), SWT.SAVE);
+		dialog.setFilterExtensions(new String[] { "*.csv", "*.*" }); //$NON-NLS-1$ //$NON-NLS-2$
+		dialog.setFileName("tool-metrics.csv"); //$NON-NLS-1$
+		dialog.setOverwrite(true);
+		final String fileName = dialog.open();
+		if (fileName == null) {
+			return;
+		}
+		Writer writer = null;
+		try {
+			writer = new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8"); //$NON-NLS-1$
+			metrics.export(writer);
+		}
+		catch (final IOException e) {
+			StatusManager.getManager().handle(new Status(IStatus.ERROR, NicoUI.PLUGIN_ID, -1,
+					NLS.bind(Messages.ToolMetrics_Export_error_message, fileName), e),
+					StatusManager.LOG | StatusManager.SHOW );
+		}
+		finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				}
+				catch (final IOException e) {}
+			}
+		}
+	}
+	
+	
+	@Override
+	public void setFocus() {
+		fTableViewer.getControl().setFocus();
+	}
+	
+	@Override
+	public void dispose() {
+		if (fToolRegistryListener != null) {
+			NicoUI.getToolRegistry().removeListener(fToolRegistryListener);
+			fToolRegistryListener = null;
+		}
+		super.dispose();
+	}
+	
+}
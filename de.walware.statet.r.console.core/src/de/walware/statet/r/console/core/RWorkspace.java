@@ -42,10 +42,15 @@ import de.walware.rj.data.RList;
 import de.walware.rj.data.RObject;
 import de.walware.rj.data.RObjectFactory;
 import de.walware.rj.data.RReference;
+import de.walware.rj.data.RStore;
 import de.walware.rj.data.RVector;
 
+import de.walware.statet.r.core.RCore;
 import de.walware.statet.r.core.data.ICombinedRElement;
+import de.walware.statet.r.core.model.IRFrame;
 import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.renv.IREnv;
+import de.walware.statet.r.core.renv.IRPkgFrameCache;
 import de.walware.statet.r.internal.console.core.RConsoleCorePlugin;
 import de.walware.statet.r.internal.rdata.CombinedFactory;
 import de.walware.statet.r.internal.rdata.REnvironmentVar;
@@ -471,9 +476,31 @@ public class RWorkspace extends ToolWorkspace {
 	@Override
 	protected final void autoRefreshFromTool(final IConsoleService adapter, final IProgressMonitor monitor) throws CoreException {
 		final AbstractRController controller = (AbstractRController) adapter.getController();
-		if (controller.hasBriefedChanges() || controller.isSuspended()) {
+		if (controller.isSuspended()) {
 			refreshFromTool(controller, controller.getBriefedChanges(), monitor);
 		}
+		else if (controller.getBriefedChanges() != 0) {
+			refreshFromTool(controller, controller.getBriefedChanges(), monitor);
+		}
+		else if (!controller.getBriefedChangedElements().isEmpty()) {
+			// only specific environments changed, the basic data (wd, options) is unchanged
+			refreshEnvironmentsFromTool(controller, monitor);
+		}
+	}
+	
+	private void refreshEnvironmentsFromTool(final AbstractRController controller, final IProgressMonitor monitor) throws CoreException {
+		if (!fRObjectDBEnabled
+				|| !controller.getTool().isProvidingFeatureSet(RTool.R_DATA_FEATURESET_ID)) {
+			controller.clearBriefedChanges();
+		}
+		else if (isAutoRefreshEnabled()) {
+			monitor.subTask("Update Workspace Data");
+			updateREnvironments((IRDataAdapter) controller, controller.getBriefedChangedElements(),
+					false, monitor );
+			controller.clearBriefedChanges();
+		}
+		
+		updateDirty(controller);
 	}
 	
 	@Override
@@ -509,6 +536,10 @@ public class RWorkspace extends ToolWorkspace {
 			controller.clearBriefedChanges();
 		}
 		
+		updateDirty(controller);
+	}
+	
+	private void updateDirty(final AbstractRController controller) {
 		final boolean dirty = !isAutoRefreshEnabled() && controller.hasBriefedChanges();
 		if (dirty != fAutoRefreshDirty) {
 			fAutoRefreshDirty = dirty;
@@ -571,6 +602,7 @@ public class RWorkspace extends ToolWorkspace {
 		}
 		fRObjectDB = db;
 		addPropertyChanged("REnvironments", updateEnvs);
+		updateRPkgFrameCache(r, updateEnvs, monitor);
 //		System.out.println("RSearch Update: " + (System.nanoTime() - time));
 //		int count = 0;
 //		for (final REnvironmentVar env : fREnvMap.values()) {
@@ -582,6 +614,53 @@ public class RWorkspace extends ToolWorkspace {
 //		System.out.println("count: " + count);
 	}
 	
+	private void updateRPkgFrameCache(final IRDataAdapter r, final List<REnvironmentVar> updateEnvs,
+			final IProgressMonitor monitor) {
+		final IRPkgFrameCache cache = RCore.getRPkgFrameCache(
+				(IREnv) getProcess().getAdapter(IREnv.class) );
+		if (cache == null) {
+			return;
+		}
+		final List<REnvironmentVar> pkgEnvs = new ArrayList<REnvironmentVar>(updateEnvs.size());
+		final StringBuilder sb = new StringBuilder("sapply(c("); //$NON-NLS-1$
+		for (final REnvironmentVar envir : updateEnvs) {
+			final RElementName elementName = envir.getElementName();
+			if (envir.getFrameType() == IRFrame.PACKAGE
+					&& elementName.getType() == RElementName.MAIN_PACKAGE
+					&& elementName.getSegmentName().indexOf('"') < 0) {
+				if (!pkgEnvs.isEmpty()) {
+					sb.append(',');
+				}
+				sb.append('"').append(elementName.getSegmentName()).append('"');
+				pkgEnvs.add(envir);
+			}
+		}
+		if (pkgEnvs.isEmpty()) {
+			return;
+		}
+		sb.append("), function(p) tryCatch(as.character(utils::packageVersion(p)), " + //$NON-NLS-1$
+				"error = function(e) NA_character_))"); //$NON-NLS-1$
+		try {
+			final RObject versions = r.evalData(sb.toString(), monitor);
+			if (versions.getRObjectType() != RObject.TYPE_VECTOR
+					|| versions.getData().getStoreType() != RStore.CHARACTER
+					|| versions.getLength() != pkgEnvs.size()) {
+				return;
+			}
+			final RCharacterStore versionData = (RCharacterStore) versions.getData();
+			for (int i = 0; i < pkgEnvs.size(); i++) {
+				if (!versionData.isNA(i)) {
+					final REnvironmentVar envir = pkgEnvs.get(i);
+					cache.update(envir.getElementName().getSegmentName(), versionData.getChar(i), envir);
+				}
+			}
+		}
+		catch (final CoreException e) {
+			RConsoleCorePlugin.log(new Status(IStatus.ERROR, RConsoleCorePlugin.PLUGIN_ID, -1,
+					"Error update package frame cache", e ));
+		}
+	}
+	
 	@Override
 	protected void dispose() {
 		super.dispose();
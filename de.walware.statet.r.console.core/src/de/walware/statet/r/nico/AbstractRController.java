@@ -81,6 +81,21 @@ public abstract class AbstractRController extends ToolController<RWorkspace>
 	
 	public static final String INIT_RGRAPHIC_FACTORY_HANDLER_ID = "r/initRGraphicFactory"; //$NON-NLS-1$
 	
+	/**
+	 * Submit option to echo all lines of a command in the console.
+	 * 
+	 * If not set, only a single summary line is echoed.
+	 */
+	public static final int SUBMIT_ECHO = 1 << 0;
+	
+	/**
+	 * Submit option to add the lines of a command to the history.
+	 */
+	public static final int SUBMIT_HISTORY = 1 << 1;
+	
+	protected static final int SUBMIT_DEFAULT = SUBMIT_ECHO | SUBMIT_HISTORY;
+	
+	
 	protected List<IToolRunnable> fStartupsRunnables = new ArrayList<IToolRunnable>();
 	
 	protected String fContinuePromptText;
@@ -91,6 +106,9 @@ public abstract class AbstractRController extends ToolController<RWorkspace>
 	
 	protected List<TrackingConfiguration> fTrackingConfigurations;
 	
+	/** The submit options of the current command */
+	protected int fSubmitOptions = SUBMIT_DEFAULT;
+	
 	
 	public AbstractRController(final ToolProcess process, final Map<String, Object> initData) {
 		super(process, initData);
@@ -259,6 +277,31 @@ public abstract class AbstractRController extends ToolController<RWorkspace>
 		}
 	}
 	
+	/**
+	 * Submits the lines as one command like {@link #submitCommandToConsole(String[], IRSrcref, IProgressMonitor)}
+	 * with the specified submit options.
+	 * 
+	 * Controllers supporting it transfer the lines as one payload and evaluate them as parsed
+	 * expressions (with source references if <code>srcref</code> is specified).
+	 * 
+	 * @param lines the lines of the command
+	 * @param srcref the source reference of the lines or <code>null</code>
+	 * @param options the submit options, combination of {@link #SUBMIT_ECHO} and {@link #SUBMIT_HISTORY}
+	 * @param monitor
+	 * @throws CoreException
+	 */
+	public void submitCommandToConsole(final String[] lines, final IRSrcref srcref,
+			final int options, final IProgressMonitor monitor) throws CoreException {
+		final int savedOptions = fSubmitOptions;
+		fSubmitOptions = options;
+		try {
+			submitCommandToConsole(lines, srcref, monitor);
+		}
+		finally {
+			fSubmitOptions = savedOptions;
+		}
+	}
+	
 	
 	@Override
 	protected void doQuitL(final IProgressMonitor monitor) throws CoreException {
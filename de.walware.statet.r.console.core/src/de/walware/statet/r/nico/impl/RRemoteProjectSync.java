@@ -0,0 +1,767 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.nico.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugEvent;
+
+import de.walware.ecommons.net.resourcemapping.IResourceMappingManager;
+import de.walware.ecommons.net.resourcemapping.ResourceMappingUtils;
+import de.walware.ecommons.ts.ISystemRunnable;
+import de.walware.ecommons.ts.ITool;
+import de.walware.ecommons.ts.IToolService;
+
+import de.walware.statet.nico.core.runtime.ToolController.IToolStatusListener;
+import de.walware.statet.nico.core.runtime.ToolStatus;
+
+import de.walware.rj.data.RCharacterStore;
+import de.walware.rj.data.RDataUtil;
+
+import de.walware.statet.r.core.RUtil;
+import de.walware.statet.r.internal.console.core.RConsoleCorePlugin;
+
+
+/**
+ * Synchronizes the files of workspace projects to the file system of a remote R session.
+ * 
+ * Projects are synchronized if their location is mapped to a remote path of the host by the
+ * resource mappings ({@link IResourceMappingManager}). The files are compared by checksums of
+ * blocks ({@link #BLOCK_SIZE}); only changed blocks are transferred over the RJ connection and
+ * patched into the remote file. Changes are detected by workspace resource deltas.
+ * 
+ * The checksums of the remote files are stored in a manifest per project in a directory of the
+ * remote user ({@link #STATE_DIRECTORY}), not in the mapped directory itself. At the start of
+ * the next session, the manifest is validated by the checksums of the remote files, so only
+ * checksums are exchanged for unchanged files. Before a file is patched, its checksum is
+ * checked again; if the remote file was changed by another process, the complete file is
+ * uploaded.
+ * 
+ * Only files recorded in the manifest are deleted in the remote directory, other files (e.g.
+ * output written by R) are kept. Derived and team private files and files larger than
+ * {@link #MAX_FILE_SIZE} are not synchronized.
+ */
+public class RRemoteProjectSync implements IResourceChangeListener, IToolStatusListener {
+	
+	
+	public static final int BLOCK_SIZE = 0x4000;
+	
+	/** Maximal size (bytes) of files to synchronize */
+	public static final long MAX_FILE_SIZE = 0x4000000;
+	
+	/** Directory (in the home of the remote user) for the manifests of the synchronized projects */
+	public static final String STATE_DIRECTORY = ".statet/sync"; //$NON-NLS-1$
+	
+	private static final String MANIFEST_EXTENSION = ".manifest"; //$NON-NLS-1$
+	private static final String PATCH_NAME = "statet-sync.patch"; //$NON-NLS-1$
+	
+	private static final String MANIFEST_HEADER = "#statet-sync 1 " + BLOCK_SIZE; //$NON-NLS-1$
+	
+	
+	private static class FileEntry {
+		
+		final long length;
+		final String checksum;
+		final String[] blockChecksums;
+		
+		public FileEntry(final long length, final String checksum, final String[] blockChecksums) {
+			this.length = length;
+			this.checksum = checksum;
+			this.blockChecksums = blockChecksums;
+		}
+		
+	}
+	
+	private static class SyncRoot {
+		
+		final IProject project;
+		final String remotePath;
+		
+		String manifestPath;
+		final Map<String, FileEntry> manifest = new HashMap<String, FileEntry>();
+		boolean manifestLoaded;
+		
+		final Set<IPath> changed = new LinkedHashSet<IPath>();
+		final Set<IPath> removed = new LinkedHashSet<IPath>();
+		
+		public SyncRoot(final IProject project, final String remotePath) {
+			this.project = project;
+			this.remotePath = remotePath;
+		}
+		
+		String getRemotePath(final String relativePath) {
+			return remotePath + '/' + relativePath;
+		}
+		
+	}
+	
+	
+	private final ISystemRunnable fSyncRunnable = new ISystemRunnable() {
+		
+		public String getTypeId() {
+			return "r/sync/projects"; //$NON-NLS-1$
+		}
+		
+		public String getLabel() {
+			return "Synchronize Project Files";
+		}
+		
+		public boolean isRunnableIn(final ITool tool) {
+			return (tool == fController.getTool());
+		}
+		
+		public boolean changed(final int event, final ITool tool) {
+			switch (event) {
+			case MOVING_FROM:
+				return false;
+			case REMOVING_FROM:
+			case BEING_ABANDONED:
+			case FINISHING_OK:
+			case FINISHING_ERROR:
+			case FINISHING_CANCEL:
+				synchronized (RRemoteProjectSync.this) {
+					fScheduled = false;
+				}
+				break;
+			}
+			return true;
+		}
+		
+		public void run(final IToolService service,
+				final IProgressMonitor monitor) throws CoreException {
+			synchronized (RRemoteProjectSync.this) {
+				fScheduled = false;
+			}
+			sync(monitor);
+		}
+		
+	};
+	
+	
+	private final RjsController fController;
+	private final String fHostAddress;
+	
+	private final List<SyncRoot> fRoots = new ArrayList<SyncRoot>();
+	
+	private boolean fScheduled;
+	private boolean fDisposed;
+	
+	private final MessageDigest fDigest;
+	private final MessageDigest fBlockDigest;
+	
+	private String fStateDirectory;
+	private String fPatchPath;
+	
+	
+	/**
+	 * Creates a new synchronization for the R session.
+	 * 
+	 * @param controller the controller of the remote R session
+	 * @param hostAddress the address of the remote host used to resolve the resource mappings
+	 */
+	public RRemoteProjectSync(final RjsController controller, final String hostAddress) {
+		fController = controller;
+		fHostAddress = hostAddress;
+		try {
+			fDigest = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+			fBlockDigest = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	
+	/**
+	 * Resolves the projects to synchronize and schedules the initial synchronization.
+	 */
+	public void install() {
+		final IResourceMappingManager rmManager = ResourceMappingUtils.getManager();
+		if (rmManager == null) {
+			return;
+		}
+		final IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
+		synchronized (this) {
+			for (final IProject project : projects) {
+				if (!project.isOpen() || project.getLocationURI() == null) {
+					continue;
+				}
+				try {
+					final IFileStore store = EFS.getStore(project.getLocationURI());
+					final IPath remotePath = rmManager.mapFileStoreToRemoteResource(fHostAddress, store);
+					if (remotePath != null) {
+						fRoots.add(new SyncRoot(project, remotePath.removeTrailingSeparator().toString()));
+					}
+				}
+				catch (final CoreException e) {
+					RConsoleCorePlugin.log(new Status(IStatus.ERROR, RConsoleCorePlugin.PLUGIN_ID, -1,
+							"An error occurred when resolving the remote path of project '" + project.getName() + "'.", //$NON-NLS-1$ //$NON-NLS-2$
+							e ));
+				}
+			}
+			if (fRoots.isEmpty()) {
+				return;
+			}
+		}
+		fController.addToolStatusListener(this);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+		schedule();
+	}
+	
+	public void dispose() {
+		synchronized (this) {
+			if (fDisposed) {
+				return;
+			}
+			fDisposed = true;
+		}
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		fController.removeToolStatusListener(this);
+	}
+	
+	
+	public void controllerStatusRequested(final ToolStatus currentStatus, final ToolStatus requestedStatus,
+			final List<DebugEvent> eventCollection) {
+	}
+	
+	public void controllerStatusRequestCanceled(final ToolStatus currentStatus, final ToolStatus requestedStatus,
+			final List<DebugEvent> eventCollection) {
+	}
+	
+	public void controllerStatusChanged(final ToolStatus oldStatus, final ToolStatus newStatus,
+			final List<DebugEvent> eventCollection) {
+		if (newStatus == ToolStatus.TERMINATED) {
+			dispose();
+		}
+	}
+	
+	public void resourceChanged(final IResourceChangeEvent event) {
+		final IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		boolean changed = false;
+		synchronized (this) {
+			for (final SyncRoot root : fRoots) {
+				final IResourceDelta projectDelta = delta.findMember(root.project.getFullPath());
+				if (projectDelta == null) {
+					continue;
+				}
+				try {
+					projectDelta.accept(new IResourceDeltaVisitor() {
+						public boolean visit(final IResourceDelta delta) throws CoreException {
+							final IResource resource = delta.getResource();
+							if (resource.isTeamPrivateMember()
+									|| (resource.isDerived() && delta.getKind() != IResourceDelta.REMOVED)) {
+								return false;
+							}
+							if (resource.getType() != IResource.FILE) {
+								if (delta.getKind() == IResourceDelta.REMOVED
+										&& resource.getType() == IResource.FOLDER) {
+									root.removed.add(resource.getProjectRelativePath());
+								}
+								return true;
+							}
+							final IPath path = resource.getProjectRelativePath();
+							switch (delta.getKind()) {
+							case IResourceDelta.ADDED:
+								root.removed.remove(path);
+								root.changed.add(path);
+								return false;
+							case IResourceDelta.REMOVED:
+								root.changed.remove(path);
+								root.removed.add(path);
+								return false;
+							case IResourceDelta.CHANGED:
+								if ((delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0) {
+									root.changed.add(path);
+								}
+								return false;
+							default:
+								return false;
+							}
+						}
+					});
+				}
+				catch (final CoreException e) {
+					// only visitor exceptions
+				}
+				if (!root.changed.isEmpty() || !root.removed.isEmpty()) {
+					changed = true;
+				}
+			}
+		}
+		if (changed) {
+			schedule();
+		}
+	}
+	
+	private void schedule() {
+		synchronized (this) {
+			if (fScheduled || fDisposed) {
+				return;
+			}
+			fScheduled = true;
+		}
+		final IStatus status = fController.getTool().getQueue().add(fSyncRunnable);
+		if (status.getSeverity() >= IStatus.ERROR) {
+			synchronized (this) {
+				fScheduled = false;
+			}
+		}
+	}
+	
+	
+	private void sync(final IProgressMonitor monitor) throws CoreException {
+		final SyncRoot[] roots;
+		synchronized (this) {
+			roots = fRoots.toArray(new SyncRoot[fRoots.size()]);
+		}
+		if (fStateDirectory == null) {
+			initDirectories(monitor);
+		}
+		for (final SyncRoot root : roots) {
+			if (!root.project.isOpen()) {
+				continue;
+			}
+			if (!root.manifestLoaded) {
+				loadManifest(root, monitor);
+				root.manifestLoaded = true;
+			}
+			final IPath[] changed;
+			final IPath[] removed;
+			synchronized (this) {
+				changed = root.changed.toArray(new IPath[root.changed.size()]);
+				root.changed.clear();
+				removed = root.removed.toArray(new IPath[root.removed.size()]);
+				root.removed.clear();
+			}
+			try {
+				syncRoot(root, changed, removed, monitor);
+			}
+			catch (final CoreException e) {
+				// retry in next synchronization
+				synchronized (this) {
+					for (final IPath path : changed) {
+						root.changed.add(path);
+					}
+					for (final IPath path : removed) {
+						root.removed.add(path);
+					}
+				}
+				throw e;
+			}
+		}
+	}
+	
+	private void initDirectories(final IProgressMonitor monitor) throws CoreException {
+		final StringBuilder sb = new StringBuilder(128);
+		sb.append("local({ d <- file.path(path.expand(\"~\"), "); //$NON-NLS-1$
+		appendRString(sb, STATE_DIRECTORY);
+		sb.append("); dir.create(d, showWarnings= FALSE, recursive= TRUE); c(d, tempdir()) })"); //$NON-NLS-1$
+		final RCharacterStore paths = RDataUtil.checkRCharVector(
+				fController.evalData(sb.toString(), monitor)).getData();
+		fStateDirectory = paths.getChar(0);
+		fPatchPath = paths.getChar(1) + '/' + PATCH_NAME;
+	}
+	
+	private void loadManifest(final SyncRoot root, final IProgressMonitor monitor) throws CoreException {
+		root.manifest.clear();
+		try {
+			root.manifestPath = fStateDirectory + '/'
+					+ toHex(fDigest.digest(root.remotePath.getBytes("UTF-8"))) + MANIFEST_EXTENSION; //$NON-NLS-1$
+		}
+		catch (final UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		byte[] bytes = null;
+		try {
+			bytes = fController.downloadFile(root.manifestPath, 0, monitor);
+		}
+		catch (final CoreException e) {
+			// no manifest
+		}
+		if (bytes != null) {
+			parseManifest(root, bytes);
+		}
+		// validate the manifest by the checksums of the remote files
+		if (!root.manifest.isEmpty()) {
+			final String[] paths = root.manifest.keySet().toArray(new String[root.manifest.size()]);
+			final StringBuilder sb = new StringBuilder(paths.length * 32);
+			sb.append("unname(tools::md5sum(c("); //$NON-NLS-1$
+			for (int i = 0; i < paths.length; i++) {
+				if (i > 0) {
+					sb.append(',');
+				}
+				appendRString(sb, root.getRemotePath(paths[i]));
+			}
+			sb.append(")))"); //$NON-NLS-1$
+			final RCharacterStore checksums = RDataUtil.checkRCharVector(
+					fController.evalData(sb.toString(), monitor)).getData();
+			for (int i = 0; i < paths.length; i++) {
+				final FileEntry entry = root.manifest.get(paths[i]);
+				if (i >= checksums.getLength() || checksums.isNA(i)
+						|| !entry.checksum.equals(checksums.getChar(i)) ) {
+					root.manifest.remove(paths[i]);
+				}
+			}
+		}
+		// check all files of the project
+		final Set<IPath> files = new HashSet<IPath>();
+		root.project.accept(new IResourceProxyVisitor() {
+			public boolean visit(final IResourceProxy proxy) throws CoreException {
+				if (proxy.isTeamPrivateMember() || proxy.isDerived()) {
+					return false;
+				}
+				if (proxy.getType() == IResource.FILE) {
+					files.add(proxy.requestResource().getProjectRelativePath());
+					return false;
+				}
+				return true;
+			}
+		}, IResource.NONE);
+		synchronized (this) {
+			root.changed.addAll(files);
+			for (final String path : root.manifest.keySet()) {
+				final IPath p = new Path(path);
+				if (!files.contains(p)) {
+					root.removed.add(p);
+				}
+			}
+		}
+	}
+	
+	private void parseManifest(final SyncRoot root, final byte[] bytes) {
+		final String[] lines;
+		try {
+			lines = new String(bytes, "UTF-8").split("\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		catch (final UnsupportedEncodingException e) {
+			return;
+		}
+		if (lines.length == 0 || !lines[0].equals(MANIFEST_HEADER)) {
+			return;
+		}
+		for (int i = 1; i < lines.length; i++) {
+			final String[] fields = lines[i].split("\t", 4); //$NON-NLS-1$
+			if (fields.length != 4) {
+				continue;
+			}
+			try {
+				root.manifest.put(fields[3], new FileEntry(Long.parseLong(fields[1]), fields[0],
+						(fields[2].length() > 0) ? fields[2].split(",") : new String[0] )); //$NON-NLS-1$
+			}
+			catch (final NumberFormatException e) {
+				continue;
+			}
+		}
+	}
+	
+	private void saveManifest(final SyncRoot root, final IProgressMonitor monitor) throws CoreException {
+		final StringBuilder sb = new StringBuilder(root.manifest.size() * 128);
+		sb.append(MANIFEST_HEADER).append('\n');
+		for (final Map.Entry<String, FileEntry> mapEntry : root.manifest.entrySet()) {
+			final FileEntry entry = mapEntry.getValue();
+			sb.append(entry.checksum).append('\t');
+			sb.append(entry.length).append('\t');
+			for (int i = 0; i < entry.blockChecksums.length; i++) {
+				if (i > 0) {
+					sb.append(',');
+				}
+				sb.append(entry.blockChecksums[i]);
+			}
+			sb.append('\t');
+			sb.append(mapEntry.getKey()).append('\n');
+		}
+		final byte[] bytes;
+		try {
+			bytes = sb.toString().getBytes("UTF-8"); //$NON-NLS-1$
+		}
+		catch (final UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		fController.uploadFile(new ByteArrayInputStream(bytes), bytes.length,
+				root.manifestPath, 0, monitor );
+	}
+	
+	private void syncRoot(final SyncRoot root, final IPath[] changed, final IPath[] removed,
+			final IProgressMonitor monitor) throws CoreException {
+		boolean modified = false;
+		
+		if (removed.length > 0) {
+			// delete only the files of the manifest, not other files in removed folders
+			final StringBuilder sb = new StringBuilder(removed.length * 32);
+			sb.append("unlink(c("); //$NON-NLS-1$
+			final List<String> keys = new ArrayList<String>();
+			for (int i = 0; i < removed.length; i++) {
+				final String path = removed[i].toString();
+				final String prefix = path + '/';
+				for (final String key : root.manifest.keySet()) {
+					if (key.equals(path) || key.startsWith(prefix)) {
+						if (!keys.isEmpty()) {
+							sb.append(',');
+						}
+						appendRString(sb, root.getRemotePath(key));
+						keys.add(key);
+					}
+				}
+			}
+			sb.append("))"); //$NON-NLS-1$
+			if (!keys.isEmpty()) {
+				fController.evalVoid(sb.toString(), monitor);
+				// remove the entries only if the files are deleted
+				for (final String key : keys) {
+					root.manifest.remove(key);
+				}
+				modified = true;
+			}
+		}
+		
+		final Set<String> createdDirs = new HashSet<String>();
+		for (final IPath path : changed) {
+			if (monitor.isCanceled()) {
+				throw new CoreException(Status.CANCEL_STATUS);
+			}
+			final IFile file = root.project.getFile(path);
+			if (!file.exists() || file.isDerived() || file.isTeamPrivateMember()) {
+				continue;
+			}
+			final String relativePath = path.toString();
+			final FileEntry entry = computeEntry(file);
+			if (entry == null) {
+				continue;
+			}
+			final FileEntry oldEntry = root.manifest.get(relativePath);
+			if (oldEntry != null && oldEntry.checksum.equals(entry.checksum)) {
+				continue;
+			}
+			final String remotePath = root.getRemotePath(relativePath);
+			if (oldEntry == null
+					|| !patch(remotePath, file, entry, oldEntry, monitor) ) {
+				final String remoteDir = (path.segmentCount() > 1) ?
+						root.getRemotePath(path.removeLastSegments(1).toString()) : null;
+				if (remoteDir != null && createdDirs.add(remoteDir)) {
+					final StringBuilder sb = new StringBuilder(remoteDir.length() + 64);
+					sb.append("dir.create("); //$NON-NLS-1$
+					appendRString(sb, remoteDir);
+					sb.append(", showWarnings= FALSE, recursive= TRUE)"); //$NON-NLS-1$
+					fController.evalVoid(sb.toString(), monitor);
+				}
+				final InputStream in = file.getContents(true);
+				try {
+					fController.uploadFile(in, entry.length, remotePath, 0, monitor);
+				}
+				finally {
+					close(in);
+				}
+			}
+			root.manifest.put(relativePath, entry);
+			modified = true;
+		}
+		
+		if (modified) {
+			saveManifest(root, monitor);
+		}
+	}
+	
+	/**
+	 * Transfers the changed blocks of the file and patches the remote file.
+	 * 
+	 * The remote file is patched only if it is unchanged since the last synchronization
+	 * (checksum of the manifest).
+	 * 
+	 * @return <code>true</code> if the file was patched, <code>false</code> if the remote file
+	 *     was changed and must be uploaded completely
+	 */
+	private boolean patch(final String remotePath, final IFile file,
+			final FileEntry entry, final FileEntry oldEntry,
+			final IProgressMonitor monitor) throws CoreException {
+		final ByteArrayOutputStream patch = new ByteArrayOutputStream();
+		final StringBuilder offsets = new StringBuilder();
+		final StringBuilder lengths = new StringBuilder();
+		final InputStream in = file.getContents(true);
+		try {
+			final byte[] buffer = new byte[BLOCK_SIZE];
+			for (int block = 0; block < entry.blockChecksums.length; block++) {
+				final int length = readBlock(in, buffer);
+				if (block < oldEntry.blockChecksums.length
+						&& entry.blockChecksums[block].equals(oldEntry.blockChecksums[block]) ) {
+					continue;
+				}
+				patch.write(buffer, 0, length);
+				if (offsets.length() > 0) {
+					offsets.append(',');
+					lengths.append(',');
+				}
+				offsets.append((long) block * BLOCK_SIZE);
+				lengths.append(length);
+			}
+		}
+		catch (final IOException e) {
+			throw createReadError(file, e);
+		}
+		finally {
+			close(in);
+		}
+		if (patch.size() > 0) {
+			fController.uploadFile(new ByteArrayInputStream(patch.toByteArray()), patch.size(),
+					fPatchPath, 0, monitor );
+		}
+		
+		final StringBuilder sb = new StringBuilder(256 + offsets.length() * 2);
+		sb.append("local({"); //$NON-NLS-1$
+		sb.append("if (file.info("); //$NON-NLS-1$
+		appendRString(sb, remotePath);
+		sb.append(")$size != ").append(oldEntry.length).append(" || !identical(unname(tools::md5sum("); //$NON-NLS-1$ //$NON-NLS-2$
+		appendRString(sb, remotePath);
+		sb.append(")), "); //$NON-NLS-1$
+		appendRString(sb, oldEntry.checksum);
+		sb.append(")) { "); //$NON-NLS-1$
+		if (patch.size() > 0) {
+			sb.append("unlink("); //$NON-NLS-1$
+			appendRString(sb, fPatchPath);
+			sb.append("); "); //$NON-NLS-1$
+		}
+		sb.append("return(\"changed\") }; "); //$NON-NLS-1$
+		sb.append("f <- file("); //$NON-NLS-1$
+		appendRString(sb, remotePath);
+		sb.append(", \"r+b\"); on.exit(close(f), add= TRUE); "); //$NON-NLS-1$
+		if (patch.size() > 0) {
+			sb.append("p <- file("); //$NON-NLS-1$
+			appendRString(sb, fPatchPath);
+			sb.append(", \"rb\"); on.exit({ close(p); unlink("); //$NON-NLS-1$
+			appendRString(sb, fPatchPath);
+			sb.append(") }, add= TRUE); "); //$NON-NLS-1$
+			sb.append("offsets <- c(").append(offsets).append("); "); //$NON-NLS-1$ //$NON-NLS-2$
+			sb.append("lengths <- c(").append(lengths).append("); "); //$NON-NLS-1$ //$NON-NLS-2$
+			sb.append("for (i in seq_along(offsets)) { "); //$NON-NLS-1$
+			sb.append("seek(f, offsets[i], rw= \"write\"); "); //$NON-NLS-1$
+			sb.append("writeBin(readBin(p, \"raw\", lengths[i]), f) }; "); //$NON-NLS-1$
+		}
+		if (entry.length < oldEntry.length) {
+			sb.append("seek(f, ").append(entry.length).append(", rw= \"write\"); truncate(f); "); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		sb.append("\"patched\" })"); //$NON-NLS-1$
+		final RCharacterStore result = RDataUtil.checkRCharVector(
+				fController.evalData(sb.toString(), monitor)).getData();
+		return (result.getLength() == 1 && "patched".equals(result.getChar(0))); //$NON-NLS-1$
+	}
+	
+	/**
+	 * Computes the checksums of the file, reading the content as stream.
+	 * 
+	 * @return the entry for the file or <code>null</code> if the file is larger than
+	 *     {@link #MAX_FILE_SIZE}
+	 */
+	private FileEntry computeEntry(final IFile file) throws CoreException {
+		final InputStream in = file.getContents(true);
+		try {
+			final byte[] buffer = new byte[BLOCK_SIZE];
+			final List<String> blockChecksums = new ArrayList<String>();
+			long length = 0;
+			int n;
+			while ((n = readBlock(in, buffer)) > 0) {
+				length += n;
+				if (length > MAX_FILE_SIZE) {
+					fDigest.reset();
+					return null;
+				}
+				fDigest.update(buffer, 0, n);
+				fBlockDigest.update(buffer, 0, n);
+				blockChecksums.add(toHex(fBlockDigest.digest()));
+			}
+			return new FileEntry(length, toHex(fDigest.digest()),
+					blockChecksums.toArray(new String[blockChecksums.size()]) );
+		}
+		catch (final IOException e) {
+			fDigest.reset();
+			fBlockDigest.reset();
+			throw createReadError(file, e);
+		}
+		finally {
+			close(in);
+		}
+	}
+	
+	/**
+	 * Reads the next block; the buffer is filled completely, except for the last block.
+	 * 
+	 * @return the number of bytes read, <code>0</code> at the end of the stream
+	 */
+	private static int readBlock(final InputStream in, final byte[] buffer) throws IOException {
+		int length = 0;
+		int n;
+		while (length < buffer.length
+				&& (n = in.read(buffer, length, buffer.length - length)) >= 0) {
+			length += n;
+		}
+		return length;
+	}
+	
+	private static CoreException createReadError(final IFile file, final IOException e) {
+		return new CoreException(new Status(IStatus.ERROR, RConsoleCorePlugin.PLUGIN_ID, -1,
+				"An error occurred when reading the file '" + file.getFullPath() + "'.", //$NON-NLS-1$ //$NON-NLS-2$
+				e ));
+	}
+	
+	private static void close(final InputStream in) {
+		try {
+			in.close();
+		}
+		catch (final IOException e) {}
+	}
+	
+	private static String toHex(final byte[] digest) {
+		final char[] chars = new char[digest.length * 2];
+		for (int i = 0; i < digest.length; i++) {
+			chars[i * 2] = Character.forDigit((digest[i] >> 4) & 0xf, 16);
+			chars[i * 2 + 1] = Character.forDigit(digest[i] & 0xf, 16);
+		}
+		return new String(chars);
+	}
+	
+	private static void appendRString(final StringBuilder sb, final String s) {
+		sb.append('"').append(RUtil.escapeCompletely(s)).append('"');
+	}
+	
+}
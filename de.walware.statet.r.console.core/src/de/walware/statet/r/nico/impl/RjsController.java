@@ -55,6 +55,7 @@ import de.walware.ecommons.ts.IToolService;
 
 import de.walware.statet.nico.core.runtime.IRemoteEngineController;
 import de.walware.statet.nico.core.runtime.IToolEventHandler;
+import de.walware.statet.nico.core.runtime.Prompt;
 import de.walware.statet.nico.core.runtime.ToolProcess;
 import de.walware.statet.nico.core.util.TrackingConfiguration;
 
@@ -968,12 +969,32 @@ public class RjsController extends AbstractRDbgController
 		
 		prepare.evalVoid(monitor);
 		
-		final boolean addToHistory = (fCurrentPrompt.meta & IRBasicAdapter.META_HISTORY_DONTADD) == 0;
-		fCurrentInput = lines[0];
-		doBeforeSubmitL();
-		for (int i = 1; i < lines.length; i++) {
-			setCurrentPromptL(fContinuePromptText, addToHistory);
-			fCurrentInput = lines[i];
+		final boolean addToHistory = (fCurrentPrompt.meta & IRBasicAdapter.META_HISTORY_DONTADD) == 0
+				&& (fSubmitOptions & SUBMIT_HISTORY) != 0;
+		if ((fSubmitOptions & SUBMIT_ECHO) != 0) {
+			if (!addToHistory) {
+				setCurrentPromptL(new Prompt(fCurrentPrompt.text,
+						fCurrentPrompt.meta | IRBasicAdapter.META_HISTORY_DONTADD ));
+			}
+			fCurrentInput = lines[0];
+			doBeforeSubmitL();
+			for (int i = 1; i < lines.length; i++) {
+				setCurrentPromptL(fContinuePromptText, addToHistory);
+				fCurrentInput = lines[i];
+				doBeforeSubmitL();
+			}
+		}
+		else {
+			// echo only a summary line, the output is streamed as usual
+			if (addToHistory) {
+				for (int i = 0; i < lines.length; i++) {
+					addHistoryCommandL(lines[i]);
+				}
+			}
+			setCurrentPromptL(new Prompt(fCurrentPrompt.text,
+					fCurrentPrompt.meta | IRBasicAdapter.META_HISTORY_DONTADD ));
+			fCurrentInput = (lines.length > 1) ?
+					(lines[0] + " \u2026 (" + lines.length + " lines)") : lines[0]; //$NON-NLS-1$ //$NON-NLS-2$
 			doBeforeSubmitL();
 		}
 		fCurrentInput = "rj:::.statet.evalCommand()";
@@ -35,6 +35,17 @@ public class RCmdLaunching {
 	public static final String ATTR_R_CMD_OPTIONS = RCmdMainTab.NS+"arguments.options"; //$NON-NLS-1$
 	public static final String ATTR_R_CMD_RESOURCE = RCmdMainTab.NS+"arguments.resource"; //$NON-NLS-1$
 	
+	/**
+	 * Names of the R package projects to run the command for (comma separated).
+	 * If specified, the command runs for each package in the order of their dependencies
+	 * instead of for the resource.
+	 */
+	public static final String ATTR_R_CMD_PACKAGE_PROJECTS = RCmdMainTab.NS+"packages.projects"; //$NON-NLS-1$
+	/** Maximal number of R CMD processes running in parallel for multiple packages. */
+	public static final String ATTR_R_CMD_PACKAGE_MAX_PARALLEL = RCmdMainTab.NS+"packages.maxParallel"; //$NON-NLS-1$
+	/** If packages without changes since the last successful run of the command are skipped. */
+	public static final String ATTR_R_CMD_PACKAGE_SKIP_UNCHANGED = RCmdMainTab.NS+"packages.skipUnchanged"; //$NON-NLS-1$
+	
 	
 	public static ILaunchConfigurationWorkingCopy createNewRCmdConfig(final String name, final String cmd) throws CoreException {
 		final ILaunchManager launchManager = DebugPlugin.getDefault().getLaunchManager();
@@ -83,6 +83,11 @@ public class RConsoleLaunching {
 	 */
 	public static final String ATTR_COMMAND = ATTR_ROOT+"command"; //$NON-NLS-1$
 	
+	/**
+	 * Attribute key for the option to synchronize mapped workspace projects to the R server
+	 */
+	public static final String ATTR_REMOTE_SYNC_ENABLED = ATTR_ROOT+"remote_sync.enabled"; //$NON-NLS-1$
+	
 	/**
 	 * Attribute key for login (e.g. SSH)
 	 */
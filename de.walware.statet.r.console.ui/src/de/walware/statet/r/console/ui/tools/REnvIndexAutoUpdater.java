@@ -14,6 +14,7 @@ package de.walware.statet.r.console.ui.tools;
 import static de.walware.statet.r.launching.RRunDebugPreferenceConstants.AUTO;
 import static de.walware.statet.r.launching.RRunDebugPreferenceConstants.DISABLED;
 import static de.walware.statet.r.launching.RRunDebugPreferenceConstants.PREF_RENV_CHECK_UPDATE;
+import static de.walware.statet.r.launching.RRunDebugPreferenceConstants.PREF_RENV_UPDATE_IN_BACKGROUND;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -56,21 +57,51 @@ import de.walware.statet.r.core.rhelp.rj.RJREnvIndexChecker;
 import de.walware.statet.r.core.rhelp.rj.RJREnvIndexUpdater;
 import de.walware.statet.r.internal.console.ui.RConsoleMessages;
 import de.walware.statet.r.internal.console.ui.RConsoleUIPlugin;
+import de.walware.statet.r.internal.console.ui.launching.RWorkerPool;
 import de.walware.statet.r.nico.impl.RjsController;
 
 
 public class REnvIndexAutoUpdater {
 	
 	
+	/**
+	 * Schedules the update of the R environment index of the specified R console.
+	 * 
+	 * If enabled in the preferences and possible, the update is run in a background R session
+	 * of the {@link RWorkerPool}, otherwise in the console itself.
+	 * 
+	 * @param process the R process of the console
+	 * @param completely if the index should be updated completely
+	 * @return the status of the queue operation
+	 */
+	public static IStatus scheduleUpdate(final RProcess process, final boolean completely) {
+		if (PreferencesUtil.getInstancePrefs().getPreferenceValue(PREF_RENV_UPDATE_IN_BACKGROUND).booleanValue()) {
+			final RConsoleUIPlugin plugin = RConsoleUIPlugin.getDefault();
+			final RWorkerPool pool = (plugin != null) ? plugin.getWorkerPool() : null;
+			if (pool != null && pool.isSupported(process)) {
+				return pool.schedule(process, new UpdateRunnable(completely, true));
+			}
+		}
+		return process.getQueue().add(new UpdateRunnable(completely));
+	}
+	
+	
 	public static final class UpdateRunnable extends AbstractRDataRunnable {
 		
 		
 		private final boolean fCompletely;
 		
+		private final boolean fInWorker;
+		
 		
 		public UpdateRunnable(final boolean completely) {
+			this(completely, false);
+		}
+		
+		private UpdateRunnable(final boolean completely, final boolean inWorker) {
 			super("r/index/update", RConsoleMessages.REnvIndex_Update_task); //$NON-NLS-1$
 			fCompletely = completely;
+			fInWorker = inWorker;
 		}
 		
 		
@@ -95,11 +126,21 @@ public class REnvIndexAutoUpdater {
 						properties.put("renv.hostname", remoteAddress); //$NON-NLS-1$
 					}
 					
-					r.handleStatus(new Status(IStatus.INFO, RConsoleUIPlugin.PLUGIN_ID, -1,
-							RConsoleMessages.REnvIndex_Update_Started_message, null ), monitor);
+					if (!fInWorker) {
+						r.handleStatus(new Status(IStatus.INFO, RConsoleUIPlugin.PLUGIN_ID, -1,
+								RConsoleMessages.REnvIndex_Update_Started_message, null ), monitor);
+					}
 					final RJREnvIndexUpdater updater = new RJREnvIndexUpdater(rEnvConfig);
 					final IStatus status = updater.update(r, fCompletely, properties, monitor);
-					r.handleStatus(status, monitor);
+					if (fInWorker) {
+						// no console to report to
+						if (status.getSeverity() > IStatus.INFO) {
+							StatusManager.getManager().handle(status, StatusManager.LOG);
+						}
+					}
+					else {
+						r.handleStatus(status, monitor);
+					}
 				}
 			}
 		}
@@ -276,7 +317,7 @@ public class REnvIndexAutoUpdater {
 				}
 				
 				// schedule update
-				service.getTool().getQueue().add(new UpdateRunnable(false));
+				scheduleUpdate(fProcess, false);
 			}
 			catch (final CoreException e) {
 				if (e.getStatus().getSeverity() == IStatus.CANCEL) {
@@ -37,6 +37,7 @@ import org.eclipse.debug.ui.CommonTab;
 import org.eclipse.debug.ui.DebugUITools;
 import org.eclipse.ui.console.IConsole;
 import org.eclipse.ui.console.TextConsole;
+import org.eclipse.ui.statushandlers.StatusManager;
 
 import de.walware.ecommons.ICommonStatusConstants;
 import de.walware.ecommons.debug.ui.LaunchConfigUtil;
@@ -106,7 +107,11 @@ public class RCmdLaunchDelegate extends LaunchConfigurationDelegate {
 			cmdLine.addAll(Arrays.asList(
 					LaunchConfigUtil.getProcessArguments(configuration, RCmdLaunching.ATTR_R_CMD_OPTIONS) ));
 			
-			final String resourceValue = configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_RESOURCE, ""); //$NON-NLS-1$
+			// multiple packages instead of the resource
+			final String packageProjects = configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_PROJECTS, "").trim(); //$NON-NLS-1$
+			
+			final String resourceValue = (packageProjects.length() == 0) ?
+					configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_RESOURCE, "") : ""; //$NON-NLS-1$ //$NON-NLS-2$
 			IFileStore resource = null;
 			IPath resourcePathAbsolute = null;
 			IPath resourcePathAuto = null;
@@ -126,63 +131,40 @@ public class RCmdLaunchDelegate extends LaunchConfigurationDelegate {
 				return;
 			}
 			
-			final ProcessBuilder builder = new ProcessBuilder(cmdLine);
-			builder.directory(workingDirectory.toLocalFile(EFS.NONE, null));
-			
-			// environment
-			final Map<String, String> envp = builder.environment();
-			LaunchConfigUtil.configureEnvironment(envp, configuration, renv.getEnvironmentsVariables());
-			
-			// exec process
-			UnterminatedLaunchAlerter.registerLaunchType(RCmdLaunching.R_CMD_CONFIGURATION_TYPE_ID);
-			Process p;
-			try {
-				p = builder.start();
-			} catch (final IOException e) {
-				throw new CoreException(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID,
-						ICommonStatusConstants.LAUNCHING,
-						RCmdMessages.RCmd_LaunchDelegate_error_StartingExec, e ));
-			}
-			monitor.worked(10);
-			
-			// register process
-			final Map<String, String> processAttributes = new HashMap<String, String>();
-			processAttributes.put(IProcess.ATTR_PROCESS_TYPE, RCmdLaunching.R_CMD_PROCESS_TYPE);
-			final String processName = cmdLine.get(0) + ' ' + LaunchConfigUtil.createProcessTimestamp(timestamp);
-			final String label;
-			{
-				final StringBuilder sb = new StringBuilder(200);
-				sb.append(LaunchConfigUtil.createLaunchPrefix(configuration));
-				sb.append(' ').append(renv.getName());
-				sb.append(" : R ").append(cmd); //$NON-NLS-1$
-				if (resourcePathAbsolute != null) {
-					sb.append(' ').append(resourcePathAbsolute.toOSString());
+			if (packageProjects.length() > 0) {
+				final RCmdPackageScheduler scheduler = new RCmdPackageScheduler(launch, configuration,
+						renv, cmd, cmdLine, workingDirectory,
+						configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_MAX_PARALLEL,
+								Runtime.getRuntime().availableProcessors() ),
+						configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_SKIP_UNCHANGED, false) );
+				scheduler.init(packageProjects);
+				UnterminatedLaunchAlerter.registerLaunchType(RCmdLaunching.R_CMD_CONFIGURATION_TYPE_ID);
+				final IStatus status = scheduler.run(new SubProgressMonitor(monitor, 18));
+				if (status.getSeverity() == IStatus.CANCEL) {
+					return;
 				}
-				sb.append(" ~ ").append(processName); //$NON-NLS-1$
-				label = sb.toString();
+				scheduler.refresh(new SubProgressMonitor(monitor, 2));
+				if (status.getSeverity() >= IStatus.WARNING) {
+					StatusManager.getManager().handle(status, StatusManager.LOG | StatusManager.SHOW);
+				}
+				return;
 			}
 			
-			final IProcess process = DebugPlugin.newProcess(launch, p, processName, processAttributes);
-			if (process == null) {
-				p.destroy();
-				throw new CoreException(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID,
-						ICommonStatusConstants.LAUNCHING,
-						RCmdMessages.RCmd_LaunchDelegate_error_ProcessHandle, null ));
+			final StringBuilder sb = new StringBuilder(200);
+			sb.append(createLabelPrefix(configuration, renv, cmd));
+			if (resourcePathAbsolute != null) {
+				sb.append(' ').append(resourcePathAbsolute.toOSString());
 			}
-			process.setAttribute(IProcess.ATTR_CMDLINE, LaunchConfigUtil.generateCommandLine(cmdLine));
-			process.setAttribute(IProcess.ATTR_PROCESS_LABEL, label);
 			
-			monitor.worked(5);
+			// exec process
+			UnterminatedLaunchAlerter.registerLaunchType(RCmdLaunching.R_CMD_CONFIGURATION_TYPE_ID);
+			final IProcess process = startProcess(launch, configuration, renv, cmdLine, workingDirectory,
+					sb.toString(), timestamp );
+			monitor.worked(15);
 			if (!process.isTerminated() && !CommonTab.isLaunchInBackground(configuration)) {
 				monitor.subTask(RCmdMessages.RCmd_LaunchDelegate_Running_label);
 			}
 			
-			final IConsole console = DebugUITools.getConsole(process);
-			if (console instanceof TextConsole) {
-				final RErrorLineTracker lineMatcher = new RErrorLineTracker(workingDirectory);
-				((TextConsole) console).addPatternMatchListener(lineMatcher);
-			}
-			
 			LaunchConfigUtil.launchResourceRefresh(configuration, process, new SubProgressMonitor(monitor, 5));
 		}
 		finally {
@@ -190,4 +172,62 @@ public class RCmdLaunchDelegate extends LaunchConfigurationDelegate {
 		}
 	}
 	
+	
+	static String createLabelPrefix(final ILaunchConfiguration configuration,
+			final IREnvConfiguration renv, final String cmd) {
+		final StringBuilder sb = new StringBuilder(200);
+		sb.append(LaunchConfigUtil.createLaunchPrefix(configuration));
+		sb.append(' ').append(renv.getName());
+		sb.append(" : R ").append(cmd); //$NON-NLS-1$
+		return sb.toString();
+	}
+	
+	/**
+	 * Starts the R CMD process and registers it in the launch.
+	 * 
+	 * @return the registered process
+	 */
+	static IProcess startProcess(final ILaunch launch, final ILaunchConfiguration configuration,
+			final IREnvConfiguration renv, final List<String> cmdLine, final IFileStore workingDirectory,
+			final String labelPrefix, final long timestamp) throws CoreException {
+		final ProcessBuilder builder = new ProcessBuilder(cmdLine);
+		builder.directory(workingDirectory.toLocalFile(EFS.NONE, null));
+		
+		// environment
+		final Map<String, String> envp = builder.environment();
+		LaunchConfigUtil.configureEnvironment(envp, configuration, renv.getEnvironmentsVariables());
+		
+		Process p;
+		try {
+			p = builder.start();
+		} catch (final IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID,
+					ICommonStatusConstants.LAUNCHING,
+					RCmdMessages.RCmd_LaunchDelegate_error_StartingExec, e ));
+		}
+		
+		// register process
+		final Map<String, String> processAttributes = new HashMap<String, String>();
+		processAttributes.put(IProcess.ATTR_PROCESS_TYPE, RCmdLaunching.R_CMD_PROCESS_TYPE);
+		final String processName = cmdLine.get(0) + ' ' + LaunchConfigUtil.createProcessTimestamp(timestamp);
+		final String label = labelPrefix + " ~ " + processName; //$NON-NLS-1$
+		
+		final IProcess process = DebugPlugin.newProcess(launch, p, processName, processAttributes);
+		if (process == null) {
+			p.destroy();
+			throw new CoreException(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID,
+					ICommonStatusConstants.LAUNCHING,
+					RCmdMessages.RCmd_LaunchDelegate_error_ProcessHandle, null ));
+		}
+		process.setAttribute(IProcess.ATTR_CMDLINE, LaunchConfigUtil.generateCommandLine(cmdLine));
+		process.setAttribute(IProcess.ATTR_PROCESS_LABEL, label);
+		
+		final IConsole console = DebugUITools.getConsole(process);
+		if (console instanceof TextConsole) {
+			final RErrorLineTracker lineMatcher = new RErrorLineTracker(workingDirectory);
+			((TextConsole) console).addPatternMatchListener(lineMatcher);
+		}
+		return process;
+	}
+	
 }
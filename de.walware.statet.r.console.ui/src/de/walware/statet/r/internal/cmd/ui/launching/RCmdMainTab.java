@@ -59,6 +59,7 @@ import org.eclipse.ui.statushandlers.StatusManager;
 
 import de.walware.ecommons.AbstractSettingsModelObject;
 import de.walware.ecommons.collections.ConstList;
+import de.walware.ecommons.databinding.NumberValidator;
 import de.walware.ecommons.debug.ui.HelpRequestor;
 import de.walware.ecommons.debug.ui.InputArgumentsComposite;
 import de.walware.ecommons.debug.ui.LaunchConfigTabWithDbc;
@@ -129,10 +130,16 @@ public class RCmdMainTab extends LaunchConfigTabWithDbc {
 	private Button fHelpButton;
 	private InputArgumentsComposite fArgumentsControl;
 	private ResourceInputComposite fResourceControl;
+	private Text fPackagesControl;
+	private Text fPackagesMaxParallelControl;
+	private Button fPackagesSkipUnchangedControl;
 	
 	private WritableValue fCmdValue;
 	private WritableValue fArgumentsValue;
 	private WritableValue fResourceValue;
+	private WritableValue fPackagesValue;
+	private WritableValue fPackagesMaxParallelValue;
+	private WritableValue fPackagesSkipUnchangedValue;
 	
 	boolean fWithHelp = false;
 	private ILaunchConfigurationTab fREnvTab;
@@ -188,6 +195,11 @@ public class RCmdMainTab extends LaunchConfigTabWithDbc {
 		group.setText(RCmdMessages.RCmd_MainTab_Cmd_label);
 		createCommandControls(group);
 		
+		group = new Group(mainComposite, SWT.NONE);
+		group.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
+		group.setText(RCmdMessages.RCmd_MainTab_Packages_label);
+		createPackagesControls(group);
+		
 		final Label note = new Label(mainComposite, SWT.WRAP);
 		note.setText(SharedMessages.Note_label + ": " + fArgumentsControl.getNoteText()); //$NON-NLS-1$
 		note.setLayoutData(new GridData(SWT.FILL, SWT.BOTTOM, true, true));
@@ -254,6 +266,32 @@ public class RCmdMainTab extends LaunchConfigTabWithDbc {
 		fResourceControl.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false, 3, 1));
 	}
 	
+	private void createPackagesControls(final Composite container) {
+		container.setLayout(LayoutUtil.applyGroupDefaults(new GridLayout(), 2));
+		
+		{	final Label label = new Label(container, SWT.NONE);
+			label.setText(RCmdMessages.RCmd_MainTab_PackageProjects_label);
+			label.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 2, 1));
+		}
+		{	fPackagesControl = new Text(container, SWT.BORDER | SWT.SINGLE);
+			fPackagesControl.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+		}
+		{	final Label label = new Label(container, SWT.NONE);
+			label.setText(RCmdMessages.RCmd_MainTab_PackageMaxParallel_label);
+			label.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
+		}
+		{	fPackagesMaxParallelControl = new Text(container, SWT.BORDER);
+			fPackagesMaxParallelControl.setTextLimit(4);
+			final GridData gd = new GridData(SWT.LEFT, SWT.CENTER, true, false);
+			gd.widthHint = LayoutUtil.hintWidth(fPackagesMaxParallelControl, 4);
+			fPackagesMaxParallelControl.setLayoutData(gd);
+		}
+		{	fPackagesSkipUnchangedControl = new Button(container, SWT.CHECK);
+			fPackagesSkipUnchangedControl.setText(RCmdMessages.RCmd_MainTab_PackageSkipUnchanged_label);
+			fPackagesSkipUnchangedControl.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+		}
+	}
+	
 	@Override
 	protected void addBindings(final DataBindingContext dbc, final Realm realm) {
 		fCmdValue = new WritableValue(realm, Cmd.class);
@@ -314,6 +352,18 @@ public class RCmdMainTab extends LaunchConfigTabWithDbc {
 					resourceBinding.validateTargetToModel();
 				}
 			} });
+		
+		fPackagesValue = new WritableValue(realm, String.class);
+		fPackagesMaxParallelValue = new WritableValue(realm, Integer.class);
+		fPackagesSkipUnchangedValue = new WritableValue(realm, Boolean.class);
+		dbc.bindValue(SWTObservables.observeText(fPackagesControl, SWT.Modify),
+				fPackagesValue, null, null);
+		dbc.bindValue(SWTObservables.observeText(fPackagesMaxParallelControl, SWT.Modify),
+				fPackagesMaxParallelValue,
+				new UpdateValueStrategy().setAfterGetValidator(new NumberValidator(1, 9999,
+						RCmdMessages.RCmd_MainTab_error_InvalidMaxParallel_message )), null);
+		dbc.bindValue(SWTObservables.observeSelection(fPackagesSkipUnchangedControl),
+				fPackagesSkipUnchangedValue, null, null);
 	}
 	
 	
@@ -321,6 +371,10 @@ public class RCmdMainTab extends LaunchConfigTabWithDbc {
 		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_COMMAND, fCommands[0].getCommand());
 		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_OPTIONS, ""); //$NON-NLS-1$
 		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_RESOURCE, "${resource_loc}"); //$NON-NLS-1$
+		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_PROJECTS, ""); //$NON-NLS-1$
+		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_MAX_PARALLEL,
+				Runtime.getRuntime().availableProcessors() );
+		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_SKIP_UNCHANGED, false);
 	}
 	
 	@Override
@@ -366,6 +420,22 @@ public class RCmdMainTab extends LaunchConfigTabWithDbc {
 		}
 		fResourceValue.setValue(resource);
 		
+		String packages = null;
+		int maxParallel = Runtime.getRuntime().availableProcessors();
+		boolean skipUnchanged = false;
+		try {
+			packages = configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_PROJECTS, ""); //$NON-NLS-1$
+			maxParallel = configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_MAX_PARALLEL, maxParallel);
+			skipUnchanged = configuration.getAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_SKIP_UNCHANGED, false);
+		}
+		catch (final CoreException e) {
+			packages = ""; //$NON-NLS-1$
+			logReadingError(e);
+		}
+		fPackagesValue.setValue(packages);
+		fPackagesMaxParallelValue.setValue(Integer.valueOf(maxParallel));
+		fPackagesSkipUnchangedValue.setValue(Boolean.valueOf(skipUnchanged));
+		
 		checkHelp(configuration);
 	}
 	
@@ -387,6 +457,11 @@ public class RCmdMainTab extends LaunchConfigTabWithDbc {
 		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_COMMAND, ((Cmd) fCmdValue.getValue()).getCommand());
 		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_OPTIONS, (String) fArgumentsValue.getValue());
 		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_RESOURCE, (String) fResourceValue.getValue());
+		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_PROJECTS, ((String) fPackagesValue.getValue()).trim());
+		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_MAX_PARALLEL,
+				((Integer) fPackagesMaxParallelValue.getValue()).intValue() );
+		configuration.setAttribute(RCmdLaunching.ATTR_R_CMD_PACKAGE_SKIP_UNCHANGED,
+				((Boolean) fPackagesSkipUnchangedValue.getValue()).booleanValue() );
 	}
 	
 	
@@ -38,10 +38,24 @@ public class RCmdMessages extends NLS {
 	public static String RCmd_Resource_PackageDirOrArchive_label;
 	public static String RCmd_Resource_Doc_label;
 	public static String RCmd_Resource_Other_label;
+	public static String RCmd_MainTab_Packages_label;
+	public static String RCmd_MainTab_PackageProjects_label;
+	public static String RCmd_MainTab_PackageMaxParallel_label;
+	public static String RCmd_MainTab_PackageSkipUnchanged_label;
+	public static String RCmd_MainTab_error_InvalidMaxParallel_message;
 	
 	public static String RCmd_LaunchDelegate_Running_label;
 	public static String RCmd_LaunchDelegate_error_StartingExec;
 	public static String RCmd_LaunchDelegate_error_ProcessHandle;
+	public static String RCmd_LaunchDelegate_Packages_task;
+	public static String RCmd_LaunchDelegate_Packages_Running_label;
+	public static String RCmd_LaunchDelegate_Packages_Unchanged_message;
+	public static String RCmd_LaunchDelegate_Packages_Failed_message;
+	public static String RCmd_LaunchDelegate_Packages_DependencyFailed_message;
+	public static String RCmd_LaunchDelegate_Packages_Cycle_message;
+	public static String RCmd_LaunchDelegate_Packages_Blocked_message;
+	public static String RCmd_LaunchDelegate_Packages_error_ProjectNotFound;
+	public static String RCmd_LaunchDelegate_Packages_error_ReadDescription;
 	
 	
 	static {
@@ -0,0 +1,594 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.cmd.ui.launching;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.osgi.util.NLS;
+
+import de.walware.ecommons.ICommonStatusConstants;
+
+import de.walware.statet.r.core.RPkgProject;
+import de.walware.statet.r.core.RProject;
+import de.walware.statet.r.core.renv.IREnvConfiguration;
+import de.walware.statet.r.internal.console.ui.RConsoleUIPlugin;
+
+
+/**
+ * Runs a R CMD command for multiple R package projects.
+ * 
+ * The packages are started in the order of their dependencies (fields Depends, Imports and
+ * LinkingTo of the DESCRIPTION file), packages independent of each other run in parallel up to
+ * the specified limit. Each process is registered in the launch, so its output is shown in its
+ * own console.
+ * 
+ * The scheduler waits for the termination events of the processes; the progress monitor is
+ * checked for cancellation every {@value #CANCEL_CHECK_INTERVAL} ms.
+ */
+public class RCmdPackageScheduler {
+	
+	
+	private static final int PENDING = 0;
+	private static final int RUNNING = 1;
+	private static final int DONE = 2;
+	private static final int FAILED = 3;
+	
+	/** Time (ms) after which the progress monitor is checked, if no process terminates */
+	private static final long CANCEL_CHECK_INTERVAL = 500;
+	
+	private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+	
+	
+	private static class Pkg {
+		
+		final IProject project;
+		final IContainer directory;
+		String name;
+		final List<String> requiredNames = new ArrayList<String>();
+		final List<Pkg> required = new ArrayList<Pkg>();
+		
+		int state = PENDING;
+		IProcess process;
+		String stamp;
+		
+		public Pkg(final IProject project) {
+			this.project = project;
+			final RProject rProject = RProject.getRProject(project);
+			final IContainer baseContainer = (rProject != null) ? rProject.getBaseContainer() : null;
+			this.directory = (baseContainer != null) ? baseContainer : project;
+			this.name = (rProject != null && rProject.getPackageName() != null) ?
+					rProject.getPackageName() : project.getName();
+		}
+		
+	}
+	
+	
+	private final ILaunch fLaunch;
+	private final ILaunchConfiguration fConfiguration;
+	private final IREnvConfiguration fREnv;
+	private final String fCmd;
+	private final List<String> fCmdLine;
+	private final IFileStore fWorkingDirectory;
+	
+	private final int fMaxParallel;
+	private final QualifiedName fStampKey;
+	
+	private final List<Pkg> fPkgs = new ArrayList<Pkg>();
+	
+	private final Object fTerminationLock = new Object();
+	private boolean fTerminationSignaled;
+	private final IDebugEventSetListener fTerminationListener = new IDebugEventSetListener() {
+		public void handleDebugEvents(final DebugEvent[] events) {
+			for (final DebugEvent event : events) {
+				if (event.getKind() == DebugEvent.TERMINATE
+						&& event.getSource() instanceof IProcess
+						&& ((IProcess) event.getSource()).getLaunch() == fLaunch) {
+					synchronized (fTerminationLock) {
+						fTerminationSignaled = true;
+						fTerminationLock.notifyAll();
+					}
+				}
+			}
+		}
+	};
+	
+	
+	/**
+	 * @param launch the launch
+	 * @param configuration the launch configuration
+	 * @param renv the R environment
+	 * @param cmd the R CMD command, e.g. <code>CMD check</code>
+	 * @param cmdLine the command line without package directory
+	 * @param workingDirectory the working directory
+	 * @param maxParallel the maximal number of processes running in parallel
+	 * @param skipUnchanged if packages without changes since the last successful run are skipped
+	 */
+	public RCmdPackageScheduler(final ILaunch launch, final ILaunchConfiguration configuration,
+			final IREnvConfiguration renv, final String cmd, final List<String> cmdLine,
+			final IFileStore workingDirectory, final int maxParallel, final boolean skipUnchanged) {
+		fLaunch = launch;
+		fConfiguration = configuration;
+		fREnv = renv;
+		fCmd = cmd;
+		fCmdLine = cmdLine;
+		fWorkingDirectory = workingDirectory;
+		fMaxParallel = Math.max(maxParallel, 1);
+		fStampKey = (skipUnchanged) ?
+				new QualifiedName(RConsoleUIPlugin.PLUGIN_ID, "RCmd.stamp:" + cmd) : null; //$NON-NLS-1$
+	}
+	
+	
+	/**
+	 * Adds the package projects and resolves the dependencies between them.
+	 * 
+	 * @param projectNames comma separated names of the projects
+	 * @throws CoreException if a project is missing or the DESCRIPTION file is not readable
+	 */
+	public void init(final String projectNames) throws CoreException {
+		final String[] names = projectNames.split(","); //$NON-NLS-1$
+		for (int i = 0; i < names.length; i++) {
+			final String name = names[i].trim();
+			if (name.length() == 0) {
+				continue;
+			}
+			final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+			if (!project.isOpen() || !project.hasNature(RPkgProject.NATURE_ID)) {
+				throw new CoreException(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID,
+						ICommonStatusConstants.LAUNCHCONFIG_ERROR,
+						NLS.bind(RCmdMessages.RCmd_LaunchDelegate_Packages_error_ProjectNotFound, name), null ));
+			}
+			final Pkg pkg = new Pkg(project);
+			readDescription(pkg);
+			fPkgs.add(pkg);
+		}
+		
+		final Map<String, Pkg> byName = new HashMap<String, Pkg>();
+		for (final Pkg pkg : fPkgs) {
+			byName.put(pkg.name, pkg);
+		}
+		for (final Pkg pkg : fPkgs) {
+			for (final String requiredName : pkg.requiredNames) {
+				final Pkg required = byName.get(requiredName);
+				if (required != null && required != pkg) {
+					pkg.required.add(required);
+				}
+			}
+		}
+	}
+	
+	private void readDescription(final Pkg pkg) throws CoreException {
+		final IFile file = pkg.directory.getFile(new Path("DESCRIPTION")); //$NON-NLS-1$
+		if (!file.exists()) {
+			return;
+		}
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(file.getContents(true), file.getCharset()));
+			String field = null;
+			final StringBuilder value = new StringBuilder();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.length() == 0) {
+					continue;
+				}
+				if (Character.isWhitespace(line.charAt(0))) {
+					if (field != null) {
+						value.append(' ').append(line.trim());
+					}
+					continue;
+				}
+				addDescriptionField(pkg, field, value);
+				final int idx = line.indexOf(':');
+				if (idx > 0) {
+					field = line.substring(0, idx).trim();
+					value.setLength(0);
+					value.append(line.substring(idx+1).trim());
+				}
+				else {
+					field = null;
+				}
+			}
+			addDescriptionField(pkg, field, value);
+		}
+		catch (final IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID,
+					ICommonStatusConstants.LAUNCHCONFIG_ERROR,
+					NLS.bind(RCmdMessages.RCmd_LaunchDelegate_Packages_error_ReadDescription,
+							pkg.project.getName() ), e ));
+		}
+		finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				}
+				catch (final IOException e) {}
+			}
+		}
+	}
+	
+	private void addDescriptionField(final Pkg pkg, final String field, final StringBuilder value) {
+		if (field == null) {
+			return;
+		}
+		if (field.equals("Package")) { //$NON-NLS-1$
+			if (value.length() > 0) {
+				pkg.name = value.toString();
+			}
+		}
+		else if (field.equals("Depends") || field.equals("Imports") || field.equals("LinkingTo")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			final String[] entries = value.toString().split(","); //$NON-NLS-1$
+			for (int i = 0; i < entries.length; i++) {
+				String name = entries[i];
+				final int versionIdx = name.indexOf('(');
+				if (versionIdx >= 0) {
+					name = name.substring(0, versionIdx);
+				}
+				name = name.trim();
+				if (name.length() > 0 && !name.equals("R")) { //$NON-NLS-1$
+					pkg.requiredNames.add(name);
+				}
+			}
+		}
+	}
+	
+	
+	/**
+	 * Runs the command for all packages and waits until all processes are terminated.
+	 * 
+	 * @param monitor the progress monitor
+	 * @return the status summarizing skipped and failed packages
+	 */
+	public IStatus run(final IProgressMonitor monitor) {
+		final MultiStatus status = new MultiStatus(RConsoleUIPlugin.PLUGIN_ID, 0,
+				NLS.bind(RCmdMessages.RCmd_LaunchDelegate_Packages_task, fCmd), null);
+		monitor.beginTask(NLS.bind(RCmdMessages.RCmd_LaunchDelegate_Packages_task, fCmd),
+				fPkgs.size());
+		DebugPlugin.getDefault().addDebugEventListener(fTerminationListener);
+		try {
+			int running = 0;
+			while (true) {
+				// finished processes
+				for (final Pkg pkg : fPkgs) {
+					if (pkg.state == RUNNING && pkg.process.isTerminated()) {
+						running--;
+						monitor.worked(1);
+						int exitValue;
+						try {
+							exitValue = pkg.process.getExitValue();
+						}
+						catch (final DebugException e) {
+							exitValue = -1;
+						}
+						if (exitValue == 0) {
+							pkg.state = DONE;
+							saveStamp(pkg);
+						}
+						else {
+							pkg.state = FAILED;
+							status.add(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID, NLS.bind(
+									RCmdMessages.RCmd_LaunchDelegate_Packages_Failed_message,
+									pkg.name, Integer.toString(exitValue) )));
+						}
+					}
+				}
+				
+				if (monitor.isCanceled()) {
+					for (final Pkg pkg : fPkgs) {
+						if (pkg.state == RUNNING) {
+							try {
+								pkg.process.terminate();
+							}
+							catch (final DebugException e) {}
+						}
+					}
+					return Status.CANCEL_STATUS;
+				}
+				
+				// ready packages
+				boolean pending = false;
+				ITER_PKGS: for (final Pkg pkg : fPkgs) {
+					if (pkg.state != PENDING) {
+						continue ITER_PKGS;
+					}
+					for (final Pkg required : pkg.required) {
+						if (required.state == FAILED) {
+							pkg.state = FAILED;
+							monitor.worked(1);
+							status.add(new Status(IStatus.WARNING, RConsoleUIPlugin.PLUGIN_ID, NLS.bind(
+									RCmdMessages.RCmd_LaunchDelegate_Packages_DependencyFailed_message,
+									pkg.name, required.name )));
+							continue ITER_PKGS;
+						}
+						if (required.state != DONE) {
+							pending = true;
+							continue ITER_PKGS;
+						}
+					}
+					if (running >= fMaxParallel) {
+						pending = true;
+						continue ITER_PKGS;
+					}
+					pkg.stamp = computeStamp(pkg);
+					if (pkg.stamp != null && pkg.stamp.equals(loadStamp(pkg))) {
+						pkg.state = DONE;
+						monitor.worked(1);
+						status.add(new Status(IStatus.INFO, RConsoleUIPlugin.PLUGIN_ID, NLS.bind(
+								RCmdMessages.RCmd_LaunchDelegate_Packages_Unchanged_message, pkg.name )));
+						continue ITER_PKGS;
+					}
+					monitor.subTask(NLS.bind(RCmdMessages.RCmd_LaunchDelegate_Packages_Running_label,
+							pkg.name ));
+					try {
+						pkg.process = start(pkg);
+						pkg.state = RUNNING;
+						running++;
+					}
+					catch (final CoreException e) {
+						pkg.state = FAILED;
+						monitor.worked(1);
+						status.add(e.getStatus());
+					}
+				}
+				
+				if (running == 0) {
+					if (pending) {
+						// remaining packages depend on each other or on a cycle
+						failBlocked(status, monitor);
+					}
+					return status;
+				}
+				
+				synchronized (fTerminationLock) {
+					if (!fTerminationSignaled) {
+						try {
+							fTerminationLock.wait(CANCEL_CHECK_INTERVAL);
+						}
+						catch (final InterruptedException e) {
+							Thread.interrupted();
+						}
+					}
+					fTerminationSignaled = false;
+				}
+			}
+		}
+		finally {
+			DebugPlugin.getDefault().removeDebugEventListener(fTerminationListener);
+			monitor.done();
+		}
+	}
+	
+	/**
+	 * Marks the pending packages as failed. Packages in a dependency cycle are reported as
+	 * cycle, packages only requiring a package in a cycle as blocked by this package.
+	 */
+	private void failBlocked(final MultiStatus status, final IProgressMonitor monitor) {
+		final List<Pkg> pendingPkgs = new ArrayList<Pkg>();
+		final Map<Pkg, Set<Pkg>> pendingRequired = new HashMap<Pkg, Set<Pkg>>();
+		final List<Pkg> cyclicPkgs = new ArrayList<Pkg>();
+		for (final Pkg pkg : fPkgs) {
+			if (pkg.state == PENDING) {
+				final Set<Pkg> required = collectPendingRequired(pkg);
+				pendingPkgs.add(pkg);
+				pendingRequired.put(pkg, required);
+				if (required.contains(pkg)) {
+					cyclicPkgs.add(pkg);
+				}
+			}
+		}
+		for (final Pkg pkg : pendingPkgs) {
+			pkg.state = FAILED;
+			monitor.worked(1);
+			if (cyclicPkgs.contains(pkg)) {
+				status.add(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID, NLS.bind(
+						RCmdMessages.RCmd_LaunchDelegate_Packages_Cycle_message, pkg.name )));
+				continue;
+			}
+			final Set<Pkg> required = pendingRequired.get(pkg);
+			for (final Pkg cyclic : cyclicPkgs) {
+				if (required.contains(cyclic)) {
+					status.add(new Status(IStatus.WARNING, RConsoleUIPlugin.PLUGIN_ID, NLS.bind(
+							RCmdMessages.RCmd_LaunchDelegate_Packages_Blocked_message,
+							pkg.name, cyclic.name )));
+					break;
+				}
+			}
+		}
+	}
+	
+	private static Set<Pkg> collectPendingRequired(final Pkg pkg) {
+		final Set<Pkg> collected = new HashSet<Pkg>();
+		final List<Pkg> todo = new ArrayList<Pkg>(pkg.required);
+		while (!todo.isEmpty()) {
+			final Pkg required = todo.remove(todo.size()-1);
+			if (required.state == PENDING && collected.add(required)) {
+				todo.addAll(required.required);
+			}
+		}
+		return collected;
+	}
+	
+	/**
+	 * Refreshes the package projects after the run.
+	 */
+	public void refresh(final IProgressMonitor monitor) throws CoreException {
+		monitor.beginTask(null, fPkgs.size());
+		try {
+			for (final Pkg pkg : fPkgs) {
+				pkg.project.refreshLocal(IResource.DEPTH_INFINITE, new SubProgressMonitor(monitor, 1));
+			}
+		}
+		finally {
+			monitor.done();
+		}
+	}
+	
+	private IProcess start(final Pkg pkg) throws CoreException {
+		final IPath location = pkg.directory.getLocation();
+		if (location == null) {
+			throw new CoreException(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID,
+					ICommonStatusConstants.LAUNCHCONFIG_ERROR,
+					NLS.bind(RCmdMessages.RCmd_LaunchDelegate_Packages_error_ProjectNotFound,
+							pkg.project.getName() ), null ));
+		}
+		final List<String> cmdLine = new ArrayList<String>(fCmdLine.size()+1);
+		cmdLine.addAll(fCmdLine);
+		cmdLine.add(location.toOSString());
+		
+		final StringBuilder sb = new StringBuilder(200);
+		sb.append(RCmdLaunchDelegate.createLabelPrefix(fConfiguration, fREnv, fCmd));
+		sb.append(' ').append(location.toOSString());
+		sb.append(" (").append(pkg.name).append(')'); //$NON-NLS-1$
+		return RCmdLaunchDelegate.startProcess(fLaunch, fConfiguration, fREnv, cmdLine,
+				fWorkingDirectory, sb.toString(), System.currentTimeMillis() );
+	}
+	
+	
+	/**
+	 * Computes a stamp (MD5) of the sources of the package including the command line and
+	 * the stamps of the required packages, so a package runs again if a required package
+	 * changed. Derived and hidden resources and check directories and archives (created by
+	 * R CMD) are ignored.
+	 */
+	private String computeStamp(final Pkg pkg) {
+		if (fStampKey == null) {
+			return null;
+		}
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+			for (final String arg : fCmdLine) {
+				update(digest, arg);
+			}
+			for (final Pkg required : pkg.required) {
+				if (required.stamp == null) {
+					return null;
+				}
+				update(digest, required.name);
+				update(digest, required.stamp);
+			}
+		}
+		catch (final NoSuchAlgorithmException e) {
+			return null;
+		}
+		try {
+			pkg.directory.accept(new IResourceProxyVisitor() {
+				public boolean visit(final IResourceProxy proxy) throws CoreException {
+					final String name = proxy.getName();
+					if (proxy.isDerived() || proxy.isTeamPrivateMember()
+							|| (proxy.getType() != IResource.PROJECT && name.startsWith("."))) { //$NON-NLS-1$
+						return false;
+					}
+					switch (proxy.getType()) {
+					case IResource.FILE:
+						if (name.endsWith(".tar.gz") || name.endsWith(".zip")) { //$NON-NLS-1$ //$NON-NLS-2$
+							return false;
+						}
+						update(digest, proxy.requestFullPath().toPortableString());
+						update(digest, proxy.getModificationStamp());
+						return false;
+					case IResource.FOLDER:
+						return !name.endsWith(".Rcheck"); //$NON-NLS-1$
+					default:
+						return true;
+					}
+				}
+			}, IResource.NONE);
+		}
+		catch (final CoreException e) {
+			return null;
+		}
+		final byte[] bytes = digest.digest();
+		final char[] chars = new char[bytes.length * 2];
+		for (int i = 0, j = 0; i < bytes.length; i++) {
+			chars[j++] = HEX_CHARS[(bytes[i] >>> 4) & 0xf];
+			chars[j++] = HEX_CHARS[bytes[i] & 0xf];
+		}
+		return new String(chars);
+	}
+	
+	private static void update(final MessageDigest digest, final String value) {
+		try {
+			digest.update(value.getBytes("UTF-8")); //$NON-NLS-1$
+		}
+		catch (final UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update((byte) 0);
+	}
+	
+	private static void update(final MessageDigest digest, final long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			digest.update((byte) (value >>> shift));
+		}
+	}
+	
+	private String loadStamp(final Pkg pkg) {
+		if (fStampKey == null) {
+			return null;
+		}
+		try {
+			return pkg.project.getPersistentProperty(fStampKey);
+		}
+		catch (final CoreException e) {
+			return null;
+		}
+	}
+	
+	private void saveStamp(final Pkg pkg) {
+		if (fStampKey == null || pkg.stamp == null) {
+			return;
+		}
+		try {
+			pkg.project.setPersistentProperty(fStampKey, pkg.stamp);
+		}
+		catch (final CoreException e) {
+			RConsoleUIPlugin.log(new Status(IStatus.WARNING, RConsoleUIPlugin.PLUGIN_ID, -1,
+					"An error occurred when saving the state of the R CMD run.", e )); //$NON-NLS-1$
+		}
+	}
+	
+}
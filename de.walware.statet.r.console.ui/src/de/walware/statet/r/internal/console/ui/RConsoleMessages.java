@@ -74,6 +74,8 @@ public class RConsoleMessages extends NLS {
 	public static String REnvIndex_Update_task;
 	public static String REnvIndex_Update_Started_message;
 	
+	public static String RWorkerPool_Start_task;
+	
 	
 	static {
 		NLS.initializeMessages(RConsoleMessages.class.getName(), RConsoleMessages.class);
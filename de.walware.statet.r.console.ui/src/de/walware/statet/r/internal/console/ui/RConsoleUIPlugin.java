@@ -16,6 +16,8 @@ import org.eclipse.core.runtime.Plugin;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import de.walware.statet.r.internal.console.ui.launching.RWorkerPool;
+
 
 public class RConsoleUIPlugin extends AbstractUIPlugin {
 	
@@ -45,6 +47,8 @@ public class RConsoleUIPlugin extends AbstractUIPlugin {
 	
 	private boolean fStarted;
 	
+	private RWorkerPool fWorkerPool;
+	
 	
 	/** Created via framework */
 	public RConsoleUIPlugin() {
@@ -65,6 +69,10 @@ public class RConsoleUIPlugin extends AbstractUIPlugin {
 			synchronized (this) {
 				fStarted = false;
 			}
+			if (fWorkerPool != null) {
+				fWorkerPool.dispose();
+				fWorkerPool = null;
+			}
 		}
 		finally {
 			gPlugin = null;
@@ -72,4 +80,20 @@ public class RConsoleUIPlugin extends AbstractUIPlugin {
 		}
 	}
 	
+	
+	/**
+	 * Returns the pool of background R sessions.
+	 * 
+	 * @return the worker pool or <code>null</code>, if the plug-in is stopped
+	 */
+	public synchronized RWorkerPool getWorkerPool() {
+		if (fWorkerPool == null) {
+			if (!fStarted) {
+				return null;
+			}
+			fWorkerPool = new RWorkerPool();
+		}
+		return fWorkerPool;
+	}
+	
 }
@@ -63,7 +63,7 @@ public class REnvIndexUpdateHandler extends AbstractHandler {
 		if (!NicoUITools.isToolReady(RTool.TYPE, RTool.R_DATA_FEATURESET_ID, process)) {
 			return null;
 		}
-		process.getQueue().add(new REnvIndexAutoUpdater.UpdateRunnable(fCompletely));
+		REnvIndexAutoUpdater.scheduleUpdate((RProcess) process, fCompletely);
 		return null;
 	}
 	
@@ -26,6 +26,8 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.Launch;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.LaunchConfigurationDelegate;
 import org.eclipse.debug.ui.IDebugUIConstants;
@@ -206,6 +208,82 @@ public class RConsoleRJLaunchDelegate extends LaunchConfigurationDelegate {
 			return;
 		}
 		
+		RjsComConfig.setRMIClientSocketFactory(null);
+		try {
+			final RjsController controller = startEngine(configuration, mode, launch,
+					createWorkspaceConfig(configuration), trackingConfigs, null, timestamp, progress );
+			if (controller == null) {
+				return;
+			}
+			RConsoleLaunching.registerDefaultHandlerTo(controller);
+			
+			progress.worked(5);
+			
+			initConsoleOptions(controller, configuration, true);
+			
+			if (fAddon != null) {
+				fAddon.init(configuration, mode, controller, monitor);
+			}
+			
+			final RConsole console = new RConsole(controller.getTool(), new NIConsoleColorAdapter());
+			NicoUITools.startConsoleLazy(console, page, 
+					configuration.getAttribute(RConsoleLaunching.ATTR_PIN_CONSOLE, false));
+			
+			new ToolRunner().runInBackgroundThread(controller.getTool(), new WorkbenchStatusHandler());
+		}
+		finally {
+			RjsComConfig.clearRMIClientSocketFactory();
+		}
+		
+		if (monitor != null) {
+			monitor.done();
+		}
+	}
+	
+	/**
+	 * Starts a headless R session (without console) for the launch configuration of an
+	 * R console, e.g. as worker of the {@link RWorkerPool}.
+	 * 
+	 * The launch is not registered in the launch manager.
+	 * 
+	 * @param configuration the launch configuration of the R console
+	 * @param monitor
+	 * @return the R process of the started session or <code>null</code>, if cancelled or failed
+	 * @throws CoreException
+	 */
+	static RProcess launchWorker(final ILaunchConfiguration configuration,
+			final IProgressMonitor monitor) throws CoreException {
+		final SubMonitor progress = SubMonitor.convert(monitor, 20);
+		final long timestamp = System.currentTimeMillis();
+		final ILaunch launch = new Launch(configuration, ILaunchManager.RUN_MODE, null);
+		
+		final RWorkspaceConfig workspaceConfig = new RWorkspaceConfig();
+		workspaceConfig.setEnableObjectDB(false);
+		workspaceConfig.setEnableAutoRefresh(false);
+		
+		RjsComConfig.setRMIClientSocketFactory(null);
+		try {
+			final RjsController controller = startEngine(configuration, ILaunchManager.RUN_MODE, launch,
+					workspaceConfig, Collections.<TrackingConfiguration>emptyList(),
+					"Worker", timestamp, progress ); //$NON-NLS-1$
+			if (controller == null) {
+				return null;
+			}
+			controller.addStartupRunnable(new ConfigRunnable(controller.getTool(),
+					false, false, false ));
+			
+			new ToolRunner().runInBackgroundThread(controller.getTool(), new WorkbenchStatusHandler());
+			return controller.getTool();
+		}
+		finally {
+			RjsComConfig.clearRMIClientSocketFactory();
+		}
+	}
+	
+	private static RjsController startEngine(final ILaunchConfiguration configuration,
+			final String mode, final ILaunch launch, final RWorkspaceConfig workspaceConfig,
+			final List<TrackingConfiguration> trackingConfigs, final String nameSuffix,
+			final long timestamp, final SubMonitor progress) throws CoreException {
 		// r env
 		final IREnvConfiguration rEnv = RLaunching.getREnvConfig(configuration, true);
 		
@@ -245,138 +323,114 @@ public class RConsoleRJLaunchDelegate extends LaunchConfigurationDelegate {
 		
 		progress.worked(1);
 		if (progress.isCanceled()) {
-			return;
+			return null;
 		}
 		
 		// start server
 		progress.subTask(RConsoleMessages.LaunchDelegate_StartREngine_subtask);
-		try {
-			RjsComConfig.setRMIClientSocketFactory(null);
-			
-			engineLaunchDelegate.launch(configuration, mode, launch, progress.newChild(10));
-			final IProcess[] processes = launch.getProcesses();
-			if (processes.length == 0) {
-				return;
-			}
-			
-			progress.worked(1);
-			if (progress.isCanceled()) {
-				return;
+		engineLaunchDelegate.launch(configuration, mode, launch, progress.newChild(10));
+		final IProcess[] processes = launch.getProcesses();
+		if (processes.length == 0) {
+			return null;
+		}
+		
+		progress.worked(1);
+		if (progress.isCanceled()) {
+			return null;
+		}
+		
+		// arguments
+		final String[] rArgs = LaunchConfigUtil.getProcessArguments(configuration, RConsoleLaunching.ATTR_OPTIONS);
+		
+		progress.worked(1);
+		if (progress.isCanceled()) {
+			return null;
+		}
+		
+		// create process
+		UnterminatedLaunchAlerter.registerLaunchType(RConsoleLaunching.R_CONSOLE_CONFIGURATION_TYPE_ID);
+		
+		final RProcess process = new RProcess(launch, rEnv,
+				LaunchConfigUtil.createLaunchPrefix(configuration),
+				rEnv.getName() + " / RJ " + ((nameSuffix != null) ? (nameSuffix + ' ') : "") //$NON-NLS-1$ //$NON-NLS-2$
+						+ LaunchConfigUtil.createProcessTimestamp(timestamp),
+				rmiAddress.toString(),
+				null, // wd is set at rjs startup
+				timestamp );
+		process.setAttribute(IProcess.ATTR_CMDLINE, rmiAddress.toString() + '\n' + Arrays.toString(rArgs));
+		
+		// Wait until the engine is started or died
+		progress.subTask(RConsoleMessages.LaunchDelegate_WaitForR_subtask);
+		long t = System.nanoTime();
+		WAIT: for (int i = 0; true; i++) {
+			if (processes[0].isTerminated()) {
+				final boolean silent = configuration.getAttribute(IDebugUIConstants.ATTR_CAPTURE_IN_CONSOLE, true);
+				final IStatus logStatus = ToolRunner.createOutputLogStatus(
+						(ILogOutput) processes[0].getAdapter(ILogOutput.class) );
+				// move to R server?
+				final StringBuilder sb = new StringBuilder();
+				sb.append("Launching the R Console was cancelled, because it seems starting the R engine failed. \n");
+				sb.append("Please make sure that R package ");
+				if (ServerUtil.RJ_VERSION[0] > 0 || ServerUtil.RJ_VERSION[1] > 5 || ServerUtil.RJ_VERSION[2] >= 5) {
+					sb.append("'rj' ("); //$NON-NLS-1$;
+					ServerUtil.prettyPrintVersion(ServerUtil.RJ_VERSION, sb);
+					sb.append(" or compatible)"); //$NON-NLS-1$
+				}
+				else {
+					sb.append("'rJava' (with JRI)"); //$NON-NLS-1$
+				}
+				sb.append(" is installed and that the R library paths are set correctly for the R environment configuration '");
+				sb.append(rEnv.getName());
+				sb.append("'.");
+				
+				StatusManager.getManager().handle(new Status(silent ? IStatus.INFO : IStatus.ERROR,
+						RConsoleUIPlugin.PLUGIN_ID, sb.toString(),
+						(logStatus != null) ? new CoreException(logStatus) : null ),
+						silent ? (StatusManager.LOG) : (StatusManager.LOG | StatusManager.SHOW) );
+				return null;
 			}
-			
-			// arguments
-			final String[] rArgs = LaunchConfigUtil.getProcessArguments(configuration, RConsoleLaunching.ATTR_OPTIONS);
-			
-			progress.worked(1);
 			if (progress.isCanceled()) {
-				return;
+				processes[0].terminate();
+				throw new CoreException(Status.CANCEL_STATUS);
 			}
-			
-			// create process
-			UnterminatedLaunchAlerter.registerLaunchType(RConsoleLaunching.R_CONSOLE_CONFIGURATION_TYPE_ID);
-			
-			final RProcess process = new RProcess(launch, rEnv,
-					LaunchConfigUtil.createLaunchPrefix(configuration),
-					rEnv.getName() + " / RJ " + LaunchConfigUtil.createProcessTimestamp(timestamp), //$NON-NLS-1$
-					rmiAddress.toString(),
-					null, // wd is set at rjs startup
-					timestamp );
-			process.setAttribute(IProcess.ATTR_CMDLINE, rmiAddress.toString() + '\n' + Arrays.toString(rArgs));
-			
-			// Wait until the engine is started or died
-			progress.subTask(RConsoleMessages.LaunchDelegate_WaitForR_subtask);
-			long t = System.nanoTime();
-			WAIT: for (int i = 0; true; i++) {
-				if (processes[0].isTerminated()) {
-					final boolean silent = configuration.getAttribute(IDebugUIConstants.ATTR_CAPTURE_IN_CONSOLE, true);
-					final IStatus logStatus = ToolRunner.createOutputLogStatus(
-							(ILogOutput) processes[0].getAdapter(ILogOutput.class) );
-					// move to R server?
-					final StringBuilder sb = new StringBuilder();
-					sb.append("Launching the R Console was cancelled, because it seems starting the R engine failed. \n");
-					sb.append("Please make sure that R package ");
-					if (ServerUtil.RJ_VERSION[0] > 0 || ServerUtil.RJ_VERSION[1] > 5 || ServerUtil.RJ_VERSION[2] >= 5) {
-						sb.append("'rj' ("); //$NON-NLS-1$;
-						ServerUtil.prettyPrintVersion(ServerUtil.RJ_VERSION, sb);
-						sb.append(" or compatible)"); //$NON-NLS-1$
-					}
-					else {
-						sb.append("'rJava' (with JRI)"); //$NON-NLS-1$
-					}
-					sb.append(" is installed and that the R library paths are set correctly for the R environment configuration '");
-					sb.append(rEnv.getName());
-					sb.append("'.");
-					
-					StatusManager.getManager().handle(new Status(silent ? IStatus.INFO : IStatus.ERROR,
-							RConsoleUIPlugin.PLUGIN_ID, sb.toString(),
-							(logStatus != null) ? new CoreException(logStatus) : null ),
-							silent ? (StatusManager.LOG) : (StatusManager.LOG | StatusManager.SHOW) );
-					return;
-				}
-				if (progress.isCanceled()) {
-					processes[0].terminate();
-					throw new CoreException(Status.CANCEL_STATUS);
-				}
-				try {
-					final String[] list = registry.getRegistry().list();
-					for (final String entry : list) {
-						if (entry.equals(rmiAddress.getName())) {
-							break WAIT;
-						}
-					}
-					if (i > 1 && System.nanoTime() - t > TIMEOUT) {
+			try {
+				final String[] list = registry.getRegistry().list();
+				for (final String entry : list) {
+					if (entry.equals(rmiAddress.getName())) {
 						break WAIT;
 					}
 				}
-				catch (final RemoteException e) {
-					if (i > 0 && System.nanoTime() - t > TIMEOUT / 3) {
-						break WAIT;
-					}
+				if (i > 1 && System.nanoTime() - t > TIMEOUT) {
+					break WAIT;
 				}
-				try {
-					Thread.sleep(333);
-				}
-				catch (final InterruptedException e) {
-					// continue, monitor and process is checked
+			}
+			catch (final RemoteException e) {
+				if (i > 0 && System.nanoTime() - t > TIMEOUT / 3) {
+					break WAIT;
 				}
 			}
-			progress.worked(5);
-			
-			final RjsConnection connection = RjsController.lookup(registry.getRegistry(), null, rmiAddress);
-			
-			final HashMap<String, Object> rjsProperties = new HashMap<String, Object>();
-			rjsProperties.put(RjsComConfig.RJ_DATA_STRUCTS_LISTS_MAX_LENGTH_PROPERTY_ID,
-					configuration.getAttribute(RConsoleLaunching.ATTR_OBJECTDB_LISTS_MAX_LENGTH, 10000));
-			rjsProperties.put(RjsComConfig.RJ_DATA_STRUCTS_ENVS_MAX_LENGTH_PROPERTY_ID,
-					configuration.getAttribute(RConsoleLaunching.ATTR_OBJECTDB_ENVS_MAX_LENGTH, 10000));
-			rjsProperties.put("rj.session.startup.time", timestamp); //$NON-NLS-1$
-			final RjsController controller = new RjsController(process, rmiAddress, connection, null,
-					true, true, rArgs, rjsProperties, engineLaunchDelegate.getWorkingDirectory(),
-					createWorkspaceConfig(configuration), trackingConfigs);
-			process.init(controller);
-			RConsoleLaunching.registerDefaultHandlerTo(controller);
-			
-			progress.worked(5);
-			
-			initConsoleOptions(controller, configuration, true);
-			
-			if (fAddon != null) {
-				fAddon.init(configuration, mode, controller, monitor);
+			try {
+				Thread.sleep(333);
+			}
+			catch (final InterruptedException e) {
+				// continue, monitor and process is checked
 			}
-			
-			final RConsole console = new RConsole(process, new NIConsoleColorAdapter());
-			NicoUITools.startConsoleLazy(console, page, 
-					configuration.getAttribute(RConsoleLaunching.ATTR_PIN_CONSOLE, false));
-			
-			new ToolRunner().runInBackgroundThread(process, new WorkbenchStatusHandler());
-		}
-		finally {
-			RjsComConfig.clearRMIClientSocketFactory();
 		}
+		progress.worked(5);
 		
-		if (monitor != null) {
-			monitor.done();
-		}
+		final RjsConnection connection = RjsController.lookup(registry.getRegistry(), null, rmiAddress);
+		
+		final HashMap<String, Object> rjsProperties = new HashMap<String, Object>();
+		rjsProperties.put(RjsComConfig.RJ_DATA_STRUCTS_LISTS_MAX_LENGTH_PROPERTY_ID,
+				configuration.getAttribute(RConsoleLaunching.ATTR_OBJECTDB_LISTS_MAX_LENGTH, 10000));
+		rjsProperties.put(RjsComConfig.RJ_DATA_STRUCTS_ENVS_MAX_LENGTH_PROPERTY_ID,
+				configuration.getAttribute(RConsoleLaunching.ATTR_OBJECTDB_ENVS_MAX_LENGTH, 10000));
+		rjsProperties.put("rj.session.startup.time", timestamp); //$NON-NLS-1$
+		final RjsController controller = new RjsController(process, rmiAddress, connection, null,
+				true, true, rArgs, rjsProperties, engineLaunchDelegate.getWorkingDirectory(),
+				workspaceConfig, trackingConfigs);
+		process.init(controller);
+		return controller;
 	}
 	
 }
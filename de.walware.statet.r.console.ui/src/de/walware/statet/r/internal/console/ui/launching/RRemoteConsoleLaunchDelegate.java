@@ -100,6 +100,7 @@ import de.walware.statet.r.launching.RRunDebugPreferenceConstants;
 import de.walware.statet.r.launching.core.ILaunchDelegateAddon;
 import de.walware.statet.r.launching.core.RLaunching;
 import de.walware.statet.r.launching.ui.REnvTab;
+import de.walware.statet.r.nico.impl.RRemoteProjectSync;
 import de.walware.statet.r.nico.impl.RjsController;
 import de.walware.statet.r.nico.impl.RjsController.RjsConnection;
 import de.walware.statet.r.nico.impl.RjsUtil;
@@ -592,6 +593,9 @@ public class RRemoteConsoleLaunchDelegate extends AbstractRConsoleLaunchDelegate
 			
 			RConsoleLaunching.registerDefaultHandlerTo(controller);
 			controller.addEventHandler(IToolEventHandler.LOGIN_REQUEST_EVENT_ID, new LoginHandler());
+			if (configuration.getAttribute(RConsoleLaunching.ATTR_REMOTE_SYNC_ENABLED, false)) {
+				new RRemoteProjectSync(controller, rmiAddress.getHostAddress().getHostAddress()).install();
+			}
 			
 			progress.worked(5);
 			
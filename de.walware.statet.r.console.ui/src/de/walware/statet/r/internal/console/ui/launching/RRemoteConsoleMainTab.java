@@ -154,12 +154,15 @@ public class RRemoteConsoleMainTab extends RConsoleMainTab {
 	private Text fCommandControl;
 	private List<Control> fCommandControls;
 	
+	private Button fSyncControl;
+	
 	private WritableValue fAddressValue;
 	private WritableValue fUserValue;
 	private WritableValue fSshPortValue;
 	private WritableValue fSshTunnelValue;
 	private WritableValue fCommandValue;
 	private WritableValue fSshAddressValue;
+	private WritableValue fSyncValue;
 	
 	private UpdateJob fUpdateJob;
 	
@@ -394,6 +397,12 @@ public class RRemoteConsoleMainTab extends RConsoleMainTab {
 			fCommandControls.add(fCommandControl);
 			fCommandControls.add(toolsButton);
 		}
+		{	// Sync:
+			LayoutUtil.addGDDummy(group);
+			fSyncControl = new Button(group, SWT.CHECK);
+			fSyncControl.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false, 3, 1));
+			fSyncControl.setText("S&ynchronize workspace projects to the R server (using the folder mapping)");
+		}
 		
 		return group;
 	}
@@ -469,6 +478,10 @@ public class RRemoteConsoleMainTab extends RConsoleMainTab {
 		dbc.bindValue(SWTObservables.observeText(fSshAddress, SWT.Modify),
 				fSshAddressValue, null, null);
 		
+		fSyncValue = new WritableValue(false, Boolean.TYPE);
+		dbc.bindValue(SWTObservables.observeSelection(fSyncControl),
+				fSyncValue, null, null );
+		
 		fAddressValue.addValueChangeListener(fUpdateJob);
 		fUserValue.addValueChangeListener(fUpdateJob);
 		fSshPortValue.addValueChangeListener(fUpdateJob);
@@ -579,6 +592,16 @@ public class RRemoteConsoleMainTab extends RConsoleMainTab {
 			logReadingError(e);
 		}
 		fCommandValue.setValue(command);
+		
+		boolean sync;
+		try {
+			sync = configuration.getAttribute(RConsoleLaunching.ATTR_REMOTE_SYNC_ENABLED, false);
+		}
+		catch (final CoreException e) {
+			sync = false;
+			logReadingError(e);
+		}
+		fSyncValue.setValue(sync);
 	}
 	
 	@Override
@@ -623,6 +646,14 @@ public class RRemoteConsoleMainTab extends RConsoleMainTab {
 		else {
 			configuration.removeAttribute(RConsoleLaunching.ATTR_COMMAND);
 		}
+		
+		final Boolean sync = (Boolean) fSyncValue.getValue();
+		if (sync != null && sync.booleanValue()) {
+			configuration.setAttribute(RConsoleLaunching.ATTR_REMOTE_SYNC_ENABLED, true);
+		}
+		else {
+			configuration.removeAttribute(RConsoleLaunching.ATTR_REMOTE_SYNC_ENABLED);
+		}
 	}
 	
 }
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.console.ui.launching;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+import de.walware.ecommons.ts.IToolRunnable;
+
+import de.walware.statet.r.console.core.RProcess;
+import de.walware.statet.r.console.ui.launching.RConsoleLaunching;
+import de.walware.statet.r.internal.console.ui.RConsoleMessages;
+import de.walware.statet.r.internal.console.ui.RConsoleUIPlugin;
+
+
+/**
+ * Pool of headless R sessions (workers) for tooling tasks, separate from the interactive
+ * R console.
+ * 
+ * Workers are started lazily with the launch configuration of the R console the task
+ * belongs to, so they provide the same R environment (affinity). Tasks requiring only the
+ * R environment, like the update of the R help index, can run in a worker without blocking
+ * the console. Tasks requiring the data of the console session (data editor, object browser,
+ * ...) must be still scheduled in the queue of the console.
+ * 
+ * Idle workers are terminated automatically.
+ */
+public class RWorkerPool {
+	
+	
+	/** Maximum number of workers per launch configuration */
+	private static final int MAX_WORKERS = 2;
+	
+	private static final long IDLE_TIMEOUT = 5L * 60L * 1000L;
+	
+	
+	private class Worker {
+		
+		private final ILaunchConfiguration fConfiguration;
+		
+		private RProcess fProcess;
+		private List<IToolRunnable> fPending = new ArrayList<IToolRunnable>();
+		
+		private long fLastUsed;
+		
+		
+		public Worker(final ILaunchConfiguration configuration) {
+			fConfiguration = configuration;
+			fLastUsed = System.currentTimeMillis();
+		}
+		
+		
+		/** Call in synchronized block */
+		int getLoad() {
+			if (fProcess == null) {
+				return fPending.size() + 1;
+			}
+			return fProcess.getQueue().size()
+					+ ((fProcess.getToolStatus().isWaiting()) ? 0 : 1);
+		}
+		
+		/** Call in synchronized block */
+		boolean isTerminated() {
+			return (fPending == null
+					|| (fProcess != null && fProcess.isTerminated()) );
+		}
+		
+		/** Call in synchronized block */
+		IStatus add(final IToolRunnable runnable) {
+			fLastUsed = System.currentTimeMillis();
+			if (fProcess == null) {
+				fPending.add(runnable);
+				return Status.OK_STATUS;
+			}
+			return fProcess.getQueue().add(runnable);
+		}
+		
+		void terminate() {
+			final RProcess process;
+			synchronized (RWorkerPool.this) {
+				process = fProcess;
+				abandonPending();
+			}
+			if (process != null) {
+				try {
+					process.terminate();
+				}
+				catch (final DebugException e) {
+					RConsoleUIPlugin.log(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID, -1,
+							"An error occurred when terminating an R worker session.", e )); //$NON-NLS-1$
+				}
+			}
+		}
+		
+		/** Call in synchronized block */
+		private void abandonPending() {
+			if (fPending != null) {
+				for (final IToolRunnable runnable : fPending) {
+					runnable.changed(IToolRunnable.BEING_ABANDONED, null);
+				}
+				fPending = null;
+			}
+		}
+		
+	}
+	
+	private class StartJob extends Job {
+		
+		private final Worker fWorker;
+		
+		public StartJob(final Worker worker) {
+			super(RConsoleMessages.RWorkerPool_Start_task);
+			setSystem(true);
+			fWorker = worker;
+		}
+		
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			RProcess process = null;
+			try {
+				process = RConsoleRJLaunchDelegate.launchWorker(fWorker.fConfiguration, monitor);
+			}
+			catch (final CoreException e) {
+				RConsoleUIPlugin.log(new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID, -1,
+						"An error occurred when starting an R worker session.", e )); //$NON-NLS-1$
+			}
+			synchronized (RWorkerPool.this) {
+				if (process == null || fWorker.fPending == null) {
+					fWorkers.remove(fWorker);
+					fWorker.abandonPending();
+				}
+				else {
+					fWorker.fProcess = process;
+					final List<IToolRunnable> pending = fWorker.fPending;
+					fWorker.fPending = new ArrayList<IToolRunnable>(0);
+					if (!pending.isEmpty()) {
+						process.getQueue().add(pending.toArray(new IToolRunnable[pending.size()]));
+					}
+					scheduleCheck();
+					return Status.OK_STATUS;
+				}
+			}
+			if (process != null) {
+				try {
+					process.terminate();
+				}
+				catch (final DebugException e) {}
+			}
+			return Status.OK_STATUS;
+		}
+		
+	}
+	
+	
+	private final List<Worker> fWorkers = new ArrayList<Worker>();
+	
+	private boolean fDisposed;
+	
+	private final Job fCheckJob = new Job("R Worker Pool Check") { //$NON-NLS-1$
+		{	setSystem(true);
+		}
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			check();
+			return Status.OK_STATUS;
+		}
+	};
+	
+	
+	public RWorkerPool() {
+	}
+	
+	
+	/**
+	 * Returns if tasks for the specified R console can be run in a worker.
+	 * 
+	 * This is the case for local RJ based consoles.
+	 * 
+	 * @param console the R process of the console
+	 * @return <code>true</code> if supported, otherwise <code>false</code>
+	 */
+	public boolean isSupported(final RProcess console) {
+		final ILaunchConfiguration configuration = getConfiguration(console);
+		if (configuration != null) {
+			try {
+				return RConsoleLaunching.LOCAL_RJS.equals(configuration.getAttribute(
+						RConsoleLaunching.ATTR_TYPE, "" )); //$NON-NLS-1$
+			}
+			catch (final CoreException e) {}
+		}
+		return false;
+	}
+	
+	private ILaunchConfiguration getConfiguration(final RProcess console) {
+		final ILaunch launch = console.getLaunch();
+		return (launch != null) ? launch.getLaunchConfiguration() : null;
+	}
+	
+	/**
+	 * Schedules the runnable in a worker for the specified R console.
+	 * 
+	 * The worker with the lowest load is selected; if all workers are busy and the maximum
+	 * number of workers is not yet reached, a new worker is started.
+	 * 
+	 * @param console the R process of the console the task belongs to
+	 * @param runnable the runnable to run
+	 * @return the status of the queue operation
+	 */
+	public IStatus schedule(final RProcess console, final IToolRunnable runnable) {
+		if (!isSupported(console)) {
+			return new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID, -1,
+					"R worker sessions are not supported for the console.", null ); //$NON-NLS-1$
+		}
+		final ILaunchConfiguration configuration = getConfiguration(console);
+		synchronized (this) {
+			if (fDisposed) {
+				return new Status(IStatus.ERROR, RConsoleUIPlugin.PLUGIN_ID, -1,
+						"The R worker pool is disposed.", null ); //$NON-NLS-1$
+			}
+			Worker selected = null;
+			int selectedLoad = Integer.MAX_VALUE;
+			int count = 0;
+			for (final Iterator<Worker> iter = fWorkers.iterator(); iter.hasNext();) {
+				final Worker worker = iter.next();
+				if (worker.isTerminated()) {
+					iter.remove();
+					continue;
+				}
+				if (worker.fConfiguration.equals(configuration)) {
+					count++;
+					final int load = worker.getLoad();
+					if (load < selectedLoad) {
+						selected = worker;
+						selectedLoad = load;
+					}
+				}
+			}
+			if (selected == null || (selectedLoad > 0 && count < MAX_WORKERS)) {
+				selected = new Worker(configuration);
+				fWorkers.add(selected);
+				new StartJob(selected).schedule();
+			}
+			return selected.add(runnable);
+		}
+	}
+	
+	private void scheduleCheck() {
+		fCheckJob.schedule(IDLE_TIMEOUT / 5);
+	}
+	
+	private void check() {
+		final List<Worker> idle = new ArrayList<Worker>();
+		synchronized (this) {
+			final long now = System.currentTimeMillis();
+			for (final Iterator<Worker> iter = fWorkers.iterator(); iter.hasNext();) {
+				final Worker worker = iter.next();
+				if (worker.isTerminated()) {
+					iter.remove();
+					continue;
+				}
+				if (worker.fProcess != null && worker.getLoad() == 0) {
+					if (now - worker.fLastUsed > IDLE_TIMEOUT) {
+						iter.remove();
+						idle.add(worker);
+					}
+				}
+				else {
+					worker.fLastUsed = now;
+				}
+			}
+			if (!fWorkers.isEmpty()) {
+				scheduleCheck();
+			}
+		}
+		for (final Worker worker : idle) {
+			worker.terminate();
+		}
+	}
+	
+	/**
+	 * Terminates all workers.
+	 */
+	public void dispose() {
+		final List<Worker> workers;
+		synchronized (this) {
+			fDisposed = true;
+			workers = new ArrayList<Worker>(fWorkers);
+			fWorkers.clear();
+		}
+		fCheckJob.cancel();
+		for (final Worker worker : workers) {
+			worker.terminate();
+		}
+	}
+	
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.eclipse.core.resources.IProject;
+
+import de.walware.ecommons.text.IStringCache;
+import de.walware.ecommons.text.SourceParseInput;
+
+import de.walware.statet.r.core.model.IRSourceUnit;
+import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.core.rsource.ast.RAst;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.core.rsource.ast.SourceComponent;
+import de.walware.statet.r.internal.core.sourcemodel.RModelIndex;
+import de.walware.statet.r.internal.core.sourcemodel.RReconciler;
+import de.walware.statet.r.internal.core.sourcemodel.SourceAnalyzer;
+
+
+/**
+ * Helpers to run internal steps of the reconciler for the benchmarks.
+ */
+public class RBenchmarkSupport {
+	
+	
+	/**
+	 * Creates the AST like the {@link RReconciler} (model level, with comments).
+	 * 
+	 * @param input the initialized parse input
+	 * @param length the length of the source
+	 * @param stringCache the string cache
+	 * @return the AST info
+	 */
+	public static RAstInfo createAst(final SourceParseInput input, final int length,
+			final IStringCache stringCache) {
+		final RAstInfo ast = new RAstInfo(RAst.LEVEL_MODEL_DEFAULT, 0);
+		final RScanner scanner = new RScanner(input, ast, stringCache);
+		scanner.setCommentLevel(100);
+		final SourceComponent sourceComponent = scanner.scanSourceRange(null, 0, length);
+		ast.root = sourceComponent;
+		return ast;
+	}
+	
+	/**
+	 * Creates a source unit without document and resource as required by the
+	 * {@link SourceAnalyzer}.
+	 * 
+	 * @param name the name of the source unit
+	 * @return the source unit
+	 */
+	public static IRSourceUnit createSourceUnit(final String name) {
+		final RElementName elementName = RElementName.create(RElementName.RESOURCE, name);
+		return (IRSourceUnit) Proxy.newProxyInstance(RBenchmarkSupport.class.getClassLoader(),
+				new Class<?>[] { IRSourceUnit.class }, new InvocationHandler() {
+			public Object invoke(final Object proxy, final Method method, final Object[] args) {
+				final String methodName = method.getName();
+				if (methodName.equals("getElementName")) { //$NON-NLS-1$
+					return elementName;
+				}
+				if (methodName.equals("getId")) { //$NON-NLS-1$
+					return name;
+				}
+				if (methodName.equals("getModelTypeId")) { //$NON-NLS-1$
+					return RModel.TYPE_ID;
+				}
+				if (methodName.equals("getElementType")) { //$NON-NLS-1$
+					return Integer.valueOf(IRSourceUnit.R_OTHER_SU);
+				}
+				if (methodName.equals("hashCode")) { //$NON-NLS-1$
+					return Integer.valueOf(System.identityHashCode(proxy));
+				}
+				if (methodName.equals("equals")) { //$NON-NLS-1$
+					return Boolean.valueOf(proxy == args[0]);
+				}
+				if (methodName.equals("toString")) { //$NON-NLS-1$
+					return name;
+				}
+				return getDefaultValue(method);
+			}
+		});
+	}
+	
+	/**
+	 * Creates an open project without workspace as required by the {@link RModelIndex}.
+	 * 
+	 * @param name the name of the project
+	 * @return the project
+	 */
+	public static IProject createProject(final String name) {
+		return (IProject) Proxy.newProxyInstance(RBenchmarkSupport.class.getClassLoader(),
+				new Class<?>[] { IProject.class }, new InvocationHandler() {
+			public Object invoke(final Object proxy, final Method method, final Object[] args) {
+				final String methodName = method.getName();
+				if (methodName.equals("getName")) { //$NON-NLS-1$
+					return name;
+				}
+				if (methodName.equals("isOpen") || methodName.equals("exists")) { //$NON-NLS-1$ //$NON-NLS-2$
+					return Boolean.TRUE;
+				}
+				if (methodName.equals("hashCode")) { //$NON-NLS-1$
+					return Integer.valueOf(System.identityHashCode(proxy));
+				}
+				if (methodName.equals("equals")) { //$NON-NLS-1$
+					return Boolean.valueOf(proxy == args[0]);
+				}
+				if (methodName.equals("toString")) { //$NON-NLS-1$
+					return name;
+				}
+				return getDefaultValue(method);
+			}
+		});
+	}
+	
+	private static Object getDefaultValue(final Method method) {
+		final Class<?> returnType = method.getReturnType();
+		if (returnType == Boolean.TYPE) {
+			return Boolean.FALSE;
+		}
+		if (returnType == Integer.TYPE) {
+			return Integer.valueOf(0);
+		}
+		if (returnType == Long.TYPE) {
+			return Long.valueOf(0);
+		}
+		return null;
+	}
+	
+	
+	private RBenchmarkSupport() {
+	}
+	
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs the benchmarks of the R core.
+ * 
+ * The optional first argument is a regular expression selecting the benchmarks. The GC
+ * profiler is enabled to report the allocation rate.
+ * 
+ * The benchmarks with real R sources (size {@link RCorpus#R_LIBRARY}) are run only if the
+ * directory is specified by the system property {@value RCorpus#R_LIBRARY_PROPERTY}.
+ */
+public class RBenchmarks {
+	
+	
+	public static void main(final String[] args) throws RunnerException {
+		final String include = (args.length > 0 && args[0].length() > 0) ?
+				args[0] : RBenchmarks.class.getPackage().getName() + ".*Benchmark"; //$NON-NLS-1$
+		final String rLibrary = System.getProperty(RCorpus.R_LIBRARY_PROPERTY, ""); //$NON-NLS-1$
+		final ChainedOptionsBuilder builder = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.warmupIterations(5)
+				.measurementIterations(10)
+				.forks(1)
+				.jvmArgsAppend("-D" + RCorpus.CORPUS_PROPERTY + "=" + //$NON-NLS-1$ //$NON-NLS-2$
+						System.getProperty(RCorpus.CORPUS_PROPERTY, "corpus"), //$NON-NLS-1$
+						"-D" + RCorpus.R_LIBRARY_PROPERTY + "=" + rLibrary ); //$NON-NLS-1$ //$NON-NLS-2$
+		if (rLibrary.length() == 0) {
+			builder.param("size", RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.PACKAGE); //$NON-NLS-1$
+		}
+		final Options options = builder.build();
+		new Runner(options).run();
+	}
+	
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Corpus of R sources for the benchmarks.
+ * 
+ * The sources are read from the directory <code>corpus</code> (can be changed by the system
+ * property {@value #CORPUS_PROPERTY}). The sizes are:
+ * <ul>
+ *   <li><code>script</code>: the small script <code>script.R</code></li>
+ *   <li><code>5k</code>, <code>50k</code>: the package sources repeated up to 5000 or 50000 lines
+ *     in a single source</li>
+ *   <li><code>package</code>: all files of the package tree <code>pkg/R</code></li>
+ *   <li><code>rlibrary</code>: real R sources, all files <code>*&#47;R/*.R</code> of the package
+ *     trees in the directory specified by the system property {@value #R_LIBRARY_PROPERTY},
+ *     e.g. the directory <code>src/library</code> of the R sources</li>
+ * </ul>
+ * The Maven build downloads the R sources and specifies their directory <code>src/library</code>
+ * for <code>rlibrary</code> (base, stats, utils, ... packages).
+ */
+public class RCorpus {
+	
+	
+	public static final String CORPUS_PROPERTY = "de.walware.statet.r.benchmark.corpus"; //$NON-NLS-1$
+	public static final String R_LIBRARY_PROPERTY = "de.walware.statet.r.benchmark.rlibrary"; //$NON-NLS-1$
+	
+	public static final String SCRIPT = "script"; //$NON-NLS-1$
+	public static final String LINES_5K = "5k"; //$NON-NLS-1$
+	public static final String LINES_50K = "50k"; //$NON-NLS-1$
+	public static final String PACKAGE = "package"; //$NON-NLS-1$
+	public static final String R_LIBRARY = "rlibrary"; //$NON-NLS-1$
+	
+	
+	/**
+	 * Returns the sources of the specified size.
+	 * 
+	 * @param size the size, one of the constants of this class
+	 * @return the sources
+	 * @throws IOException
+	 */
+	public static String[] getSources(final String size) throws IOException {
+		if (R_LIBRARY.equals(size)) {
+			return readLibrary();
+		}
+		final File directory = new File(System.getProperty(CORPUS_PROPERTY, "corpus")); //$NON-NLS-1$
+		if (SCRIPT.equals(size)) {
+			return new String[] { read(new File(directory, "script.R")) }; //$NON-NLS-1$
+		}
+		final String[] pkgSources = readPackage(new File(directory, "pkg/R")); //$NON-NLS-1$
+		if (PACKAGE.equals(size)) {
+			return pkgSources;
+		}
+		if (LINES_5K.equals(size)) {
+			return new String[] { repeat(pkgSources, 5000) };
+		}
+		if (LINES_50K.equals(size)) {
+			return new String[] { repeat(pkgSources, 50000) };
+		}
+		throw new IllegalArgumentException("size: " + size); //$NON-NLS-1$
+	}
+	
+	public static int getLength(final String[] sources) {
+		int length = 0;
+		for (int i = 0; i < sources.length; i++) {
+			length += sources[i].length();
+		}
+		return length;
+	}
+	
+	
+	private static String[] readLibrary() throws IOException {
+		final String path = System.getProperty(R_LIBRARY_PROPERTY);
+		if (path == null || path.length() == 0) {
+			throw new IOException("Missing R library sources, specify the directory by the system property " //$NON-NLS-1$
+					+ R_LIBRARY_PROPERTY + "."); //$NON-NLS-1$
+		}
+		final File[] packages = new File(path).listFiles();
+		if (packages == null) {
+			throw new IOException("Missing R library directory: " + path); //$NON-NLS-1$
+		}
+		Arrays.sort(packages);
+		final List<String> sources = new ArrayList<String>();
+		for (final File pkg : packages) {
+			final File directory = new File(pkg, "R"); //$NON-NLS-1$
+			if (directory.isDirectory()) {
+				sources.addAll(Arrays.asList(readPackage(directory)));
+			}
+		}
+		if (sources.isEmpty()) {
+			throw new IOException("No R sources found in: " + path); //$NON-NLS-1$
+		}
+		return sources.toArray(new String[sources.size()]);
+	}
+	
+	private static String[] readPackage(final File directory) throws IOException {
+		final File[] files = directory.listFiles();
+		if (files == null) {
+			throw new IOException("Missing corpus directory: " + directory); //$NON-NLS-1$
+		}
+		Arrays.sort(files);
+		final List<String> sources = new ArrayList<String>(files.length);
+		for (final File file : files) {
+			if (file.getName().endsWith(".R")) { //$NON-NLS-1$
+				sources.add(read(file));
+			}
+		}
+		return sources.toArray(new String[sources.size()]);
+	}
+	
+	private static String repeat(final String[] sources, final int lines) {
+		final StringBuilder sb = new StringBuilder(lines * 40);
+		int count = 0;
+		while (count < lines) {
+			for (int i = 0; i < sources.length && count < lines; i++) {
+				final String source = sources[i];
+				sb.append(source);
+				if (source.length() > 0 && source.charAt(source.length()-1) != '\n') {
+					sb.append('\n');
+				}
+				for (int j = 0; j < source.length(); j++) {
+					if (source.charAt(j) == '\n') {
+						count++;
+					}
+				}
+			}
+		}
+		return sb.toString();
+	}
+	
+	private static String read(final File file) throws IOException {
+		final Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8"); //$NON-NLS-1$
+		try {
+			final StringBuilder sb = new StringBuilder((int) file.length());
+			final char[] buffer = new char[8192];
+			int n;
+			while ((n = reader.read(buffer)) >= 0) {
+				sb.append(buffer, 0, n);
+			}
+			return sb.toString();
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	private RCorpus() {
+	}
+	
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.rlang.RTerminal;
+import de.walware.statet.r.core.rsource.RLexer;
+
+
+/**
+ * Throughput of the {@link RLexer}.
+ * 
+ * The auxiliary counter <code>tokens</code> reports the tokens per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RLexerBenchmark {
+	
+	
+	@AuxCounters
+	@State(Scope.Thread)
+	public static class Counters {
+		
+		public long tokens;
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			tokens = 0;
+		}
+		
+	}
+	
+	
+	@Param({ RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.PACKAGE, RCorpus.R_LIBRARY })
+	public String size;
+	
+	private String[] fSources;
+	
+	private final RLexer fLexer = new RLexer();
+	
+	
+	@Setup
+	public void setup() throws IOException {
+		fSources = RCorpus.getSources(size);
+	}
+	
+	
+	@Benchmark
+	public int lex(final Counters counters) {
+		int count = 0;
+		for (int i = 0; i < fSources.length; i++) {
+			fLexer.reset(new StringParseInput(fSources[i]));
+			fLexer.setFull();
+			while (fLexer.next() != RTerminal.EOF) {
+				count++;
+			}
+		}
+		counters.tokens += count;
+		return count;
+	}
+	
+}
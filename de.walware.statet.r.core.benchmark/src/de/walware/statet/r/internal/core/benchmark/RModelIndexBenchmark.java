@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import de.walware.ecommons.edb.EmbeddedDB;
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.IStringCache;
+import de.walware.ecommons.text.SourceParseInput;
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.IRSourceUnit;
+import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RSymbolReference;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.core.rsource.ast.RoxygenScanner;
+import de.walware.statet.r.internal.core.builder.RBuildReconciler;
+import de.walware.statet.r.internal.core.sourcemodel.RModelIndex;
+import de.walware.statet.r.internal.core.sourcemodel.SourceAnalyzer;
+
+
+/**
+ * Time to write the index of a project and to search references in the {@link RModelIndex}.
+ * 
+ * The build results are created once from the models of the corpus. The DB is created in
+ * the directory <code>target/benchmark-db</code>. The searched name is the name with the
+ * most references in the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RModelIndexBenchmark {
+	
+	
+	private static final String PROJECT_NAME = "benchmark"; //$NON-NLS-1$
+	
+	
+	@Param({ RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.PACKAGE, RCorpus.R_LIBRARY })
+	public String size;
+	
+	private IProject fProject;
+	private Map<String, RBuildReconciler.Result> fResults;
+	private RElementName fName;
+	
+	private RModelIndex fIndex;
+	
+	
+	@Setup
+	public void setup() throws Exception {
+		final String[] sources = RCorpus.getSources(size);
+		final IStringCache stringCache = new FixInterningStringCache();
+		final RoxygenScanner roxygenScanner = new RoxygenScanner(stringCache);
+		final SourceAnalyzer analyzer = new SourceAnalyzer();
+		fResults = new HashMap<String, RBuildReconciler.Result>();
+		final Map<String, Integer> referenceCounts = new HashMap<String, Integer>();
+		for (int i = 0; i < sources.length; i++) {
+			final IRSourceUnit su = RBenchmarkSupport.createSourceUnit("benchmark-" + i + ".R"); //$NON-NLS-1$ //$NON-NLS-2$
+			final SourceParseInput input = new StringParseInput(sources[i]);
+			final RAstInfo ast = RBenchmarkSupport.createAst(input, sources[i].length(), stringCache);
+			roxygenScanner.init(input);
+			roxygenScanner.update(ast.root);
+			final IRModelInfo model = analyzer.createModel(su, ast);
+			final RBuildReconciler.Result result = RBuildReconciler.createResult(su, model);
+			if (result == null) {
+				continue;
+			}
+			fResults.put(su.getId(), result);
+			for (final Map.Entry<String, List<RSymbolReference>> entry : result.references.entrySet()) {
+				final Integer count = referenceCounts.get(entry.getKey());
+				referenceCounts.put(entry.getKey(), Integer.valueOf(entry.getValue().size()
+						+ ((count != null) ? count.intValue() : 0) ));
+			}
+		}
+		String name = null;
+		int max = -1;
+		for (final Map.Entry<String, Integer> entry : referenceCounts.entrySet()) {
+			if (entry.getValue().intValue() > max) {
+				name = entry.getKey();
+				max = entry.getValue().intValue();
+			}
+		}
+		fName = RElementName.create(RElementName.MAIN_DEFAULT, name);
+		
+		fProject = RBenchmarkSupport.createProject(PROJECT_NAME);
+		final File directory = new File("target/benchmark-db/" + size); //$NON-NLS-1$
+		directory.getParentFile().mkdirs();
+		fIndex = new RModelIndex(EmbeddedDB.createConnectionPool(directory.getAbsolutePath()));
+		fIndex.updateIndex(fProject, PROJECT_NAME, null, fResults, null);
+	}
+	
+	@TearDown
+	public void dispose() {
+		if (fIndex != null) {
+			fIndex.dispose();
+			fIndex = null;
+		}
+	}
+	
+	
+	@Benchmark
+	public void updateIndex() {
+		fIndex.updateIndex(fProject, PROJECT_NAME, null, fResults, null);
+	}
+	
+	@Benchmark
+	public Map<IProject, List<String>> findReferencingSourceUnits() {
+		return fIndex.findReferencingSourceUnits(Collections.singletonList(fProject), fName);
+	}
+	
+	@Benchmark
+	public List<RSymbolReference> findReferences() {
+		return fIndex.findReferences(fProject, fName, RSymbolReference.ALL);
+	}
+	
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.IStringCache;
+import de.walware.ecommons.text.SourceParseInput;
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.rsource.ast.GenericVisitor;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.core.rsource.ast.RAstNode;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.core.rsource.ast.RoxygenScanner;
+
+
+/**
+ * Throughput of the {@link RScanner} creating the AST and of the {@link RoxygenScanner}.
+ * 
+ * The auxiliary counter <code>nodes</code> reports the AST nodes per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RScannerBenchmark {
+	
+	
+	@AuxCounters
+	@State(Scope.Thread)
+	public static class Counters {
+		
+		public long nodes;
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			nodes = 0;
+		}
+		
+	}
+	
+	private static class NodeCounter extends GenericVisitor {
+		
+		int count;
+		
+		@Override
+		public void visitNode(final RAstNode node) throws InvocationTargetException {
+			count++;
+			super.visitNode(node);
+		}
+		
+	}
+	
+	
+	@Param({ RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.PACKAGE, RCorpus.R_LIBRARY })
+	public String size;
+	
+	private String[] fSources;
+	
+	private final IStringCache fStringCache = new FixInterningStringCache();
+	private final RoxygenScanner fRoxygenScanner = new RoxygenScanner(fStringCache);
+	
+	
+	@Setup
+	public void setup() throws IOException {
+		fSources = RCorpus.getSources(size);
+	}
+	
+	
+	@Benchmark
+	public int parse(final Counters counters) throws InvocationTargetException {
+		final NodeCounter counter = new NodeCounter();
+		for (int i = 0; i < fSources.length; i++) {
+			final SourceParseInput input = new StringParseInput(fSources[i]);
+			final RAstInfo ast = RBenchmarkSupport.createAst(input, fSources[i].length(), fStringCache);
+			ast.root.acceptInR(counter);
+		}
+		counters.nodes += counter.count;
+		return counter.count;
+	}
+	
+	@Benchmark
+	public RAstInfo parseWithRoxygen() {
+		RAstInfo ast = null;
+		for (int i = 0; i < fSources.length; i++) {
+			final SourceParseInput input = new StringParseInput(fSources[i]);
+			ast = RBenchmarkSupport.createAst(input, fSources[i].length(), fStringCache);
+			fRoxygenScanner.init(input);
+			fRoxygenScanner.update(ast.root);
+		}
+		return ast;
+	}
+	
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.text.edits.TextEdit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.walware.ecommons.preferences.IPreferenceAccess;
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.IRCoreAccess;
+import de.walware.statet.r.core.RCodeStyleSettings;
+import de.walware.statet.r.core.rsource.RSourceIndenter;
+import de.walware.statet.r.core.rsource.ast.RAst;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+
+
+/**
+ * Time to compute the indentation edits for complete files by the {@link RSourceIndenter},
+ * comparing the document based and the line table based (fast) computation.
+ * 
+ * The sources of the corpus are shifted by one level to get edits for all lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RSourceIndenterBenchmark {
+	
+	
+	@Param({ RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.R_LIBRARY })
+	public String size;
+	
+	private Document[] fDocuments;
+	private RAstInfo[] fAsts;
+	private int[][] fLineOffsets;
+	
+	private IRCoreAccess fCoreAccess;
+	private final RSourceIndenter fIndenter = new RSourceIndenter();
+	
+	
+	@Setup
+	public void setup() throws IOException {
+		final RCodeStyleSettings codeStyle = new RCodeStyleSettings();
+		fCoreAccess = new IRCoreAccess() {
+			public IPreferenceAccess getPrefs() {
+				return null;
+			}
+			public RCodeStyleSettings getRCodeStyle() {
+				return codeStyle;
+			}
+		};
+		
+		final String[] sources = RCorpus.getSources(size);
+		fDocuments = new Document[sources.length];
+		fAsts = new RAstInfo[sources.length];
+		fLineOffsets = new int[sources.length][];
+		final FixInterningStringCache stringCache = new FixInterningStringCache();
+		for (int i = 0; i < sources.length; i++) {
+			final String source = "\t" + sources[i].replace("\n", "\n\t"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			fDocuments[i] = new Document(source);
+			fAsts[i] = new RAstInfo(RAst.LEVEL_MODEL_DEFAULT, 0);
+			final RScanner scanner = new RScanner(new StringParseInput(source), fAsts[i], stringCache);
+			fAsts[i].root = scanner.scanSourceUnit();
+			fLineOffsets[i] = scanner.getLineOffsets();
+		}
+	}
+	
+	
+	@Benchmark
+	public int document() throws CoreException {
+		int count = 0;
+		for (int i = 0; i < fDocuments.length; i++) {
+			fIndenter.setup(fCoreAccess);
+			final TextEdit edits = fIndenter.getIndentEdits(fDocuments[i], fAsts[i], 0,
+					0, fDocuments[i].getNumberOfLines()-1 );
+			count += edits.getChildrenSize();
+		}
+		return count;
+	}
+	
+	@Benchmark
+	public int lineTable() throws CoreException {
+		int count = 0;
+		for (int i = 0; i < fDocuments.length; i++) {
+			fIndenter.setup(fCoreAccess);
+			final TextEdit edits = fIndenter.getIndentEdits(fDocuments[i], fAsts[i], fLineOffsets[i],
+					0, fDocuments[i].getNumberOfLines()-1, false );
+			count += edits.getChildrenSize();
+		}
+		return count;
+	}
+	
+	@Benchmark
+	public int lineTableCoalesced() throws CoreException {
+		int count = 0;
+		for (int i = 0; i < fDocuments.length; i++) {
+			fIndenter.setup(fCoreAccess);
+			final TextEdit edits = fIndenter.getIndentEdits(fDocuments[i], fAsts[i], fLineOffsets[i],
+					0, fDocuments[i].getNumberOfLines()-1, true );
+			count += edits.getChildrenSize();
+		}
+		return count;
+	}
+	
+}
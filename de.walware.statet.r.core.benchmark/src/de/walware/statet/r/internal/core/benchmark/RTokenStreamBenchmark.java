@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.IStringCache;
+
+import de.walware.statet.r.core.rsource.RTokenStream;
+import de.walware.statet.r.core.rsource.ast.RAst;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.core.rsource.ast.SourceComponent;
+
+
+/**
+ * Throughput of the {@link RTokenStream} and of the {@link RScanner} reading a token stream.
+ * 
+ * The auxiliary counter <code>tokens</code> reports the tokens per second; the bytes allocated
+ * per token are the normalized allocation rate of the GC profiler divided by the tokens per
+ * operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RTokenStreamBenchmark {
+	
+	
+	@AuxCounters
+	@State(Scope.Thread)
+	public static class Counters {
+		
+		public long tokens;
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			tokens = 0;
+		}
+		
+	}
+	
+	
+	@Param({ RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.PACKAGE, RCorpus.R_LIBRARY })
+	public String size;
+	
+	private String[] fSources;
+	private RTokenStream[] fStreams;
+	
+	private final IStringCache fStringCache = new FixInterningStringCache();
+	
+	
+	@Setup
+	public void setup() throws IOException {
+		fSources = RCorpus.getSources(size);
+		fStreams = new RTokenStream[fSources.length];
+		for (int i = 0; i < fSources.length; i++) {
+			fStreams[i] = RTokenStream.create(fSources[i]);
+		}
+	}
+	
+	
+	@Benchmark
+	public int createStream(final Counters counters) {
+		int count = 0;
+		for (int i = 0; i < fSources.length; i++) {
+			count += RTokenStream.create(fSources[i]).getCount();
+		}
+		counters.tokens += count;
+		return count;
+	}
+	
+	@Benchmark
+	public SourceComponent parseStream() {
+		SourceComponent root = null;
+		for (int i = 0; i < fStreams.length; i++) {
+			final RScanner scanner = new RScanner(fStreams[i],
+					new RAstInfo(RAst.LEVEL_MODEL_DEFAULT, 0), fStringCache );
+			root = scanner.scanSourceUnit();
+		}
+		return root;
+	}
+	
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.IStringCache;
+import de.walware.ecommons.text.SourceParseInput;
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.IRSourceUnit;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.core.rsource.ast.RoxygenScanner;
+import de.walware.statet.r.internal.core.sourcemodel.SourceAnalyzer;
+
+
+/**
+ * Time to build the source model by the {@link SourceAnalyzer}.
+ * 
+ * The ASTs are created for each invocation, because the analyzer attaches the model to the
+ * nodes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SourceAnalyzerBenchmark {
+	
+	
+	@Param({ RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.PACKAGE, RCorpus.R_LIBRARY })
+	public String size;
+	
+	private String[] fSources;
+	private IRSourceUnit[] fSourceUnits;
+	private RAstInfo[] fAsts;
+	
+	private final IStringCache fStringCache = new FixInterningStringCache();
+	private final RoxygenScanner fRoxygenScanner = new RoxygenScanner(fStringCache);
+	private final SourceAnalyzer fAnalyzer = new SourceAnalyzer();
+	
+	
+	@Setup
+	public void setup() throws IOException {
+		fSources = RCorpus.getSources(size);
+		fSourceUnits = new IRSourceUnit[fSources.length];
+		for (int i = 0; i < fSources.length; i++) {
+			fSourceUnits[i] = RBenchmarkSupport.createSourceUnit("benchmark-" + i + ".R"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		fAsts = new RAstInfo[fSources.length];
+	}
+	
+	@Setup(Level.Invocation)
+	public void createAsts() {
+		for (int i = 0; i < fSources.length; i++) {
+			final SourceParseInput input = new StringParseInput(fSources[i]);
+			fAsts[i] = RBenchmarkSupport.createAst(input, fSources[i].length(), fStringCache);
+			fRoxygenScanner.init(input);
+			fRoxygenScanner.update(fAsts[i].root);
+		}
+	}
+	
+	
+	@Benchmark
+	public IRModelInfo createModel() {
+		IRModelInfo model = null;
+		for (int i = 0; i < fAsts.length; i++) {
+			model = fAnalyzer.createModel(fSourceUnits[i], fAsts[i]);
+		}
+		return model;
+	}
+	
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+
+package de.walware.statet.r.internal.core.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.text.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.IStringCache;
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.internal.core.sourcemodel.SyntaxProblemReporter;
+
+
+/**
+ * Time to check the syntax of complete files by the {@link SyntaxProblemReporter}, like
+ * the batch engine does.
+ * 
+ * The reporter does not modify the AST, so the ASTs are created once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SyntaxProblemReporterBenchmark {
+	
+	
+	@Param({ RCorpus.SCRIPT, RCorpus.LINES_5K, RCorpus.LINES_50K, RCorpus.PACKAGE, RCorpus.R_LIBRARY })
+	public String size;
+	
+	private Document[] fDocuments;
+	private RAstInfo[] fAsts;
+	
+	private final SyntaxProblemReporter fReporter = new SyntaxProblemReporter();
+	
+	
+	@Setup
+	public void setup() throws IOException {
+		final String[] sources = RCorpus.getSources(size);
+		fDocuments = new Document[sources.length];
+		fAsts = new RAstInfo[sources.length];
+		final IStringCache stringCache = new FixInterningStringCache();
+		for (int i = 0; i < sources.length; i++) {
+			fDocuments[i] = new Document(sources[i]);
+			fAsts[i] = RBenchmarkSupport.createAst(new StringParseInput(sources[i]),
+					sources[i].length(), stringCache );
+		}
+	}
+	
+	
+	@Benchmark
+	public int check() throws CoreException {
+		int count = 0;
+		for (int i = 0; i < fAsts.length; i++) {
+			count += fReporter.check(fDocuments[i], fAsts[i]).size();
+		}
+		return count;
+	}
+	
+}
@@ -12,7 +12,9 @@
 package de.walware.statet.r.core;
 
 import de.walware.statet.r.core.model.IRModelManager;
+import de.walware.statet.r.core.renv.IREnv;
 import de.walware.statet.r.core.renv.IREnvManager;
+import de.walware.statet.r.core.renv.IRPkgFrameCache;
 import de.walware.statet.r.core.rhelp.IRHelpManager;
 import de.walware.statet.r.internal.core.RCorePlugin;
 
@@ -58,4 +60,11 @@ public class RCore {
 		return RCorePlugin.getDefault().getRHelpManager();
 	}
 	
+	/**
+	 * @return the persistent cache of package frames for the R environment or <code>null</code>
+	 */
+	public static IRPkgFrameCache getRPkgFrameCache(final IREnv rEnv) {
+		return RCorePlugin.getDefault().getRPkgFrameCache(rEnv);
+	}
+	
 }
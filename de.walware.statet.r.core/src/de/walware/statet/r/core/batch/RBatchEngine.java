@@ -0,0 +1,533 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.core.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.text.edits.MalformedTreeException;
+import org.eclipse.text.edits.TextEdit;
+
+import de.walware.ecommons.ICommonStatusConstants;
+import de.walware.ecommons.ltk.IProblem;
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.IStringCache;
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.IRCoreAccess;
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.rsource.RSourceIndenter;
+import de.walware.statet.r.core.rsource.ast.RAst;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.internal.core.RCorePlugin;
+import de.walware.statet.r.internal.core.sourcemodel.SyntaxProblemReporter;
+
+
+/**
+ * Checks and formats R source files without source units and editors, e.g. for all files of
+ * a project or in a headless application.
+ * 
+ * The files are processed in parallel; each worker thread uses its own scanner, problem
+ * reporter and indenter. The result of each file is passed to the {@link Listener} as soon as
+ * the file is processed.
+ * 
+ * In mode {@link #WRITE}, formatted files are written to a temporary file which replaces the
+ * original file; this is intended for the headless application only. Files in the workspace
+ * should be processed without {@link #WRITE} and the {@link FileResult#formattedText} written
+ * using the workspace API.
+ */
+public class RBatchEngine {
+	
+	
+	/** Check the syntax of the files */
+	public static final int LINT =                          0x1;
+	/** Check the indentation of the files */
+	public static final int FORMAT =                        0x2;
+	/** Write the correctly indented source to the files, requires {@link #FORMAT} */
+	public static final int WRITE =                         0x4;
+	
+	private static final String TMP_FILE_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final String BACKUP_FILE_SUFFIX = ".bak"; //$NON-NLS-1$
+	
+	
+	/**
+	 * Result for a single file
+	 */
+	public static final class FileResult {
+		
+		/** The file */
+		public final File file;
+		
+		/** The syntax problems found in the file */
+		public final List<IProblem> problems;
+		/** The (0-based) line numbers of the problems */
+		public final int[] problemLines;
+		
+		/** If the indentation of the file is not correct */
+		public final boolean formatRequired;
+		/** If the file was rewritten */
+		public final boolean written;
+		/** The correctly indented source if formatting is required and the file was not
+		 * rewritten, otherwise <code>null</code> */
+		public final String formattedText;
+		
+		/** Status if the processing of the file failed, otherwise <code>null</code> */
+		public final IStatus status;
+		
+		
+		FileResult(final File file, final List<IProblem> problems, final int[] problemLines,
+				final boolean formatRequired, final boolean written, final String formattedText,
+				final IStatus status) {
+			this.file = file;
+			this.problems = problems;
+			this.problemLines = problemLines;
+			this.formatRequired = formatRequired;
+			this.written = written;
+			this.formattedText = formattedText;
+			this.status = status;
+		}
+		
+		public int getErrorCount() {
+			int count = 0;
+			for (final IProblem problem : problems) {
+				if (problem.getSeverity() == IProblem.SEVERITY_ERROR) {
+					count++;
+				}
+			}
+			return count;
+		}
+		
+	}
+	
+	/**
+	 * Receives the results of the files as soon as they are available.
+	 * 
+	 * The listener is called in the worker threads, but the calls are synchronized.
+	 */
+	public static interface Listener {
+		
+		void fileDone(FileResult result);
+		
+	}
+	
+	/**
+	 * Summary of a run
+	 */
+	public static final class Summary {
+		
+		/** Number of processed files */
+		public final int fileCount;
+		/** Number of files with syntax problems of severity error */
+		public final int errorFileCount;
+		/** Number of files with incorrect indentation */
+		public final int formatFileCount;
+		/** Number of files which could not be processed */
+		public final int failedFileCount;
+		/** Duration of the run in nanoseconds */
+		public final long duration;
+		
+		
+		Summary(final int fileCount, final int errorFileCount, final int formatFileCount,
+				final int failedFileCount, final long duration) {
+			this.fileCount = fileCount;
+			this.errorFileCount = errorFileCount;
+			this.formatFileCount = formatFileCount;
+			this.failedFileCount = failedFileCount;
+			this.duration = duration;
+		}
+		
+		public double getFilesPerSecond() {
+			return (duration > 0) ? (fileCount * 1e9 / duration) : 0.0;
+		}
+		
+		@Override
+		public String toString() {
+			return fileCount + " files (" + errorFileCount + " with errors, " //$NON-NLS-1$ //$NON-NLS-2$
+					+ formatFileCount + " to format, " + failedFileCount + " failed) in " //$NON-NLS-1$ //$NON-NLS-2$
+					+ (duration / 1000000L) + " ms, " //$NON-NLS-1$
+					+ String.format("%1$.1f", getFilesPerSecond()) + " files/s"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		
+	}
+	
+	
+	/**
+	 * Returns if the file has the file extension of R script files.
+	 * 
+	 * @param name the file name
+	 * @return <code>true</code> if it is a R script file, otherwise <code>false</code>
+	 */
+	public static boolean isRFileName(final String name) {
+		return (name.endsWith(".R") || name.endsWith(".r")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	/**
+	 * Adds all R script files in the specified directory and its subdirectories.
+	 * 
+	 * @param directory the directory or a single file
+	 * @param files the list to add the files to
+	 */
+	public static void collectFiles(final File directory, final List<File> files) {
+		if (directory.isFile()) {
+			if (isRFileName(directory.getName())) {
+				files.add(directory);
+			}
+			return;
+		}
+		final File[] children = directory.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (final File child : children) {
+			if (child.isDirectory()) {
+				if (!child.getName().startsWith(".")) { //$NON-NLS-1$
+					collectFiles(child, files);
+				}
+			}
+			else if (isRFileName(child.getName())) {
+				files.add(child);
+			}
+		}
+	}
+	
+	
+	private class Worker {
+		
+		private final IStringCache fStringCache = new FixInterningStringCache();
+		private final SyntaxProblemReporter fProblemReporter = new SyntaxProblemReporter();
+		private final RSourceIndenter fIndenter = new RSourceIndenter(fCoreAccess);
+		private final CharsetDecoder fDecoder = fCharset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPORT)
+				.onUnmappableCharacter(CodingErrorAction.REPORT);
+		private final CharsetEncoder fEncoder = fCharset.newEncoder();
+		
+		
+		FileResult process(final File file) {
+			try {
+				final String text = read(file);
+				final Document document = new Document(text);
+				
+				final RAstInfo ast = new RAstInfo(RAst.LEVEL_MODEL_DEFAULT, 0);
+				final RScanner scanner = new RScanner(new StringParseInput(text), ast, fStringCache);
+				ast.root = scanner.scanSourceUnit();
+				
+				List<IProblem> problems;
+				int[] problemLines;
+				if ((fMode & LINT) != 0) {
+					problems = fProblemReporter.check(document, ast);
+					problemLines = new int[problems.size()];
+					for (int i = 0; i < problemLines.length; i++) {
+						problemLines[i] = document.getLineOfOffset(problems.get(i).getSourceStartOffset());
+					}
+				}
+				else {
+					problems = Collections.emptyList();
+					problemLines = new int[0];
+				}
+				
+				boolean formatRequired = false;
+				boolean written = false;
+				String formattedText = null;
+				if ((fMode & FORMAT) != 0 && document.getLength() > 0) {
+					final TextEdit edits;
+					try {
+						edits = fIndenter.getIndentEdits(document, ast, scanner.getLineOffsets(),
+								0, document.getNumberOfLines()-1, true );
+					}
+					finally {
+						fIndenter.clear();
+						fIndenter.setup(fCoreAccess);
+					}
+					if (edits != null && edits.getChildrenSize() > 0) {
+						edits.apply(document, TextEdit.NONE);
+						final String newText = document.get();
+						formatRequired = !newText.equals(text);
+						if (formatRequired) {
+							if ((fMode & WRITE) != 0) {
+								write(file, newText);
+								written = true;
+							}
+							else {
+								formattedText = newText;
+							}
+						}
+					}
+				}
+				return new FileResult(file, problems, problemLines, formatRequired, written,
+						formattedText, null );
+			}
+			catch (final IOException e) {
+				return createFailedResult(file, e);
+			}
+			catch (final BadLocationException e) {
+				return createFailedResult(file, e);
+			}
+			catch (final MalformedTreeException e) {
+				return createFailedResult(file, e);
+			}
+			catch (final CoreException e) {
+				if (e.getStatus().getSeverity() == IStatus.CANCEL) {
+					fCanceled = true;
+				}
+				return createFailedResult(file, e);
+			}
+			catch (final RuntimeException e) {
+				return createFailedResult(file, e);
+			}
+		}
+		
+		private String read(final File file) throws IOException {
+			final FileInputStream in = new FileInputStream(file);
+			try {
+				final FileChannel channel = in.getChannel();
+				final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				}
+				buffer.flip();
+				fDecoder.reset();
+				return fDecoder.decode(buffer).toString();
+			}
+			finally {
+				in.close();
+			}
+		}
+		
+		/**
+		 * Writes the text to a temporary file in the same directory and replaces the file by it,
+		 * so the file is not damaged if writing fails.
+		 */
+		private void write(final File file, final String text) throws IOException, CharacterCodingException {
+			fEncoder.reset();
+			final ByteBuffer bytes = fEncoder.encode(CharBuffer.wrap(text));
+			final File tmpFile = File.createTempFile(file.getName() + "-", TMP_FILE_SUFFIX, file.getParentFile());
+			boolean replaced = false;
+			try {
+				final FileOutputStream out = new FileOutputStream(tmpFile);
+				try {
+					final FileChannel channel = out.getChannel();
+					while (bytes.hasRemaining()) {
+						channel.write(bytes);
+					}
+					channel.force(true);
+				}
+				finally {
+					out.close();
+				}
+				replaced = replace(tmpFile, file);
+				if (!replaced) {
+					throw new IOException("Failed to replace the file by the formatted file '" + tmpFile.getName() + "'.");
+				}
+			}
+			finally {
+				if (!replaced) {
+					tmpFile.delete();
+				}
+			}
+		}
+		
+		private boolean replace(final File tmpFile, final File file) {
+			if (tmpFile.renameTo(file)) {
+				return true;
+			}
+			// rename fails on some platforms (Windows) if the target exists
+			final File backupFile = new File(file.getPath() + BACKUP_FILE_SUFFIX);
+			backupFile.delete();
+			if (!file.renameTo(backupFile)) {
+				return false;
+			}
+			if (!tmpFile.renameTo(file)) {
+				backupFile.renameTo(file);
+				return false;
+			}
+			backupFile.delete();
+			return true;
+		}
+		
+		private FileResult createFailedResult(final File file, final Exception e) {
+			final List<IProblem> problems = Collections.emptyList();
+			return new FileResult(file, problems, new int[0], false, false, null,
+					new Status(IStatus.ERROR, RCore.PLUGIN_ID, ICommonStatusConstants.IO_ERROR,
+							"An error occurred when processing the file '" + file.getPath() + "'.", e ));
+		}
+		
+	}
+	
+	
+	private final IRCoreAccess fCoreAccess;
+	private final int fMode;
+	private final Charset fCharset;
+	private final int fMaxThreads;
+	
+	private volatile boolean fCanceled;
+	
+	
+	/**
+	 * Creates a new engine.
+	 * 
+	 * @param coreAccess the R core access providing the code style
+	 * @param mode the mode, combination of {@link #LINT}, {@link #FORMAT} and {@link #WRITE}
+	 * @param charset the encoding of the files
+	 * @param maxThreads the maximum number of threads, or <code>0</code> for the number of
+	 *     available processors
+	 */
+	public RBatchEngine(final IRCoreAccess coreAccess, final int mode, final Charset charset,
+			final int maxThreads) {
+		fCoreAccess = coreAccess;
+		fMode = mode;
+		fCharset = charset;
+		fMaxThreads = (maxThreads > 0) ? maxThreads :
+				Math.max(1, Runtime.getRuntime().availableProcessors());
+	}
+	
+	
+	/**
+	 * Processes the files.
+	 * 
+	 * @param files the files to process
+	 * @param listener the listener receiving the results
+	 * @param monitor the progress monitor
+	 * @return the summary of the run
+	 * @throws OperationCanceledException if the operation was canceled
+	 */
+	public Summary run(final List<File> files, final Listener listener, final IProgressMonitor monitor) {
+		final SubMonitor progress = SubMonitor.convert(monitor, files.size());
+		final long start = System.nanoTime();
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger done = new AtomicInteger();
+		final int[] counts = new int[3];
+		fCanceled = false;
+		
+		final int threadCount = Math.min(fMaxThreads, files.size());
+		// without worker threads, the monitor is checked in the processing loop itself
+		final boolean singleThread = (threadCount <= 1);
+		final Runnable runnable = new Runnable() {
+			public void run() {
+				final Worker worker = new Worker();
+				int idx;
+				while (!fCanceled && (idx = next.getAndIncrement()) < files.size()) {
+					if (singleThread && progress.isCanceled()) {
+						fCanceled = true;
+						break;
+					}
+					final FileResult result = worker.process(files.get(idx));
+					synchronized (counts) {
+						if (result.status != null) {
+							counts[2]++;
+						}
+						else {
+							if (result.getErrorCount() > 0) {
+								counts[0]++;
+							}
+							if (result.formatRequired) {
+								counts[1]++;
+							}
+						}
+						if (listener != null) {
+							listener.fileDone(result);
+						}
+					}
+					done.incrementAndGet();
+					if (singleThread) {
+						progress.worked(1);
+					}
+				}
+			}
+		};
+		
+		if (singleThread) {
+			runnable.run();
+		}
+		else {
+			final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+			try {
+				final List<Future<?>> futures = new ArrayList<Future<?>>(threadCount);
+				for (int i = 0; i < threadCount; i++) {
+					futures.add(executor.submit(runnable));
+				}
+				int reported = 0;
+				for (final Future<?> future : futures) {
+					while (true) {
+						try {
+							future.get(100, TimeUnit.MILLISECONDS);
+							break;
+						}
+						catch (final TimeoutException e) {
+							final int current = done.get();
+							progress.worked(current - reported);
+							reported = current;
+							if (progress.isCanceled()) {
+								fCanceled = true;
+							}
+						}
+						catch (final ExecutionException e) {
+							RCorePlugin.log(new Status(IStatus.ERROR, RCore.PLUGIN_ID, -1,
+									"An error occurred when processing R files.", e.getCause() ));
+							break;
+						}
+						catch (final InterruptedException e) {
+							fCanceled = true;
+							Thread.currentThread().interrupt();
+							break;
+						}
+					}
+				}
+				progress.worked(done.get() - reported);
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+		if (fCanceled) {
+			throw new OperationCanceledException();
+		}
+		synchronized (counts) {
+			return new Summary(done.get(), counts[0], counts[1], counts[2], System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Cancels the current run.
+	 */
+	public void cancel() {
+		fCanceled = true;
+	}
+	
+}
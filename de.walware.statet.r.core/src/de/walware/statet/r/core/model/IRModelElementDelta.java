@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.core.model;
+
+import java.util.List;
+
+import org.eclipse.jface.text.IRegion;
+
+import de.walware.ecommons.ltk.IModelElementDelta;
+
+
+/**
+ * Delta of the model of a R source unit with information about the changes of the top level
+ * structure
+ * 
+ * The information is used by the folding to update only the annotations in the changed
+ * region.
+ */
+public interface IRModelElementDelta extends IModelElementDelta {
+	
+	
+	/**
+	 * Returns the region in the new source containing all changes of the top level nodes.
+	 * Nodes outside of the region are unchanged, but may be moved.
+	 * 
+	 * @return the region or <code>null</code> if the changes are unknown, e.g. if there is
+	 *     no old model
+	 */
+	IRegion getChangedRegion();
+	
+	/**
+	 * Returns the top level source elements of the new model inside of the changed region.
+	 * 
+	 * @return list of elements or <code>null</code> if the changes are unknown
+	 */
+	List<? extends IRLangSourceElement> getChangedElements();
+	
+}
@@ -32,4 +32,11 @@ public interface IRModelInfo extends ISourceUnitModelInfo {
 	
 	RAstInfo getAst();
 	
+	/**
+	 * Returns the index of the element access by position.
+	 * 
+	 * @return the occurrence index
+	 */
+	IROccurrenceIndex getOccurrenceIndex();
+	
 }
@@ -11,7 +11,9 @@
 
 package de.walware.statet.r.core.model;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.resources.IProject;
 
@@ -27,4 +29,19 @@ public interface IRModelManager extends IModelManager {
 	
 	List<String> findReferencingSourceUnits(IProject project, RElementName name);
 	
+	Map<IProject, List<String>> findReferencingSourceUnits(Collection<IProject> projects, RElementName name);
+	
+	/**
+	 * Searches all references of a common top level name in the project.
+	 * 
+	 * The references are read from the model index without opening the source units.
+	 * 
+	 * @param project the project to search in
+	 * @param name the name
+	 * @param kinds the kinds of references to include, combination of the constants in
+	 *     {@link RSymbolReference}
+	 * @return list with the references or <code>null</code>, if the index is not available
+	 */
+	List<RSymbolReference> findReferences(IProject project, RElementName name, int kinds);
+	
 }
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.core.model;
+
+
+/**
+ * Index of the element access in a R source unit by the position of the element names.
+ * 
+ * The index is created once with the model and allows to find the access at a position and
+ * all occurrences of the same element without walking the AST.
+ */
+public interface IROccurrenceIndex {
+	
+	
+	/**
+	 * Returns the access whose name covers the specified offset.
+	 * 
+	 * @param offset the offset in the source
+	 * @return the access or <code>null</code> if there is no access at the offset
+	 */
+	RElementAccess getAccess(int offset);
+	
+	/**
+	 * Returns all access whose names are completely inside the specified range.
+	 * 
+	 * @param startOffset the start offset of the range
+	 * @param stopOffset the stop offset of the range
+	 * @return the access sorted by the position of their names
+	 */
+	RElementAccess[] getAccessInRange(int startOffset, int stopOffset);
+	
+	/**
+	 * Returns all access in the source unit to the same element as the specified access,
+	 * like {@link RElementAccess#getAllInUnit()}.
+	 * 
+	 * @param access the access
+	 * @return the access sorted by the position of their names (including the specified
+	 *     access) or <code>null</code> if the access is not indexed
+	 */
+	RElementAccess[] getOccurrences(RElementAccess access);
+	
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.core.model;
+
+
+/**
+ * Reference to a symbol in a source unit as stored in the model index
+ */
+public final class RSymbolReference {
+	
+	
+	/** Definition (assignment) of the symbol */
+	public static final int DEF =       0x1;
+	/** Common usage of the symbol */
+	public static final int USE =       0x2;
+	/** Call of the symbol as function */
+	public static final int CALL =      0x4;
+	/** Usage as argument name */
+	public static final int ARG =       0x8;
+	
+	public static final int ALL =       DEF | USE | CALL | ARG;
+	
+	
+	/** Id of the source unit */
+	public final String sourceUnitId;
+	
+	/** Offset of the name in the source unit */
+	public final int offset;
+	/** Length of the name in the source unit */
+	public final int length;
+	
+	/** Kind of the reference, one of {@link #DEF}, {@link #USE}, {@link #CALL} or {@link #ARG} */
+	public final int kind;
+	
+	/** Name of the enclosing function, <code>null</code> if not inside of a named function */
+	public final String functionName;
+	
+	
+	public RSymbolReference(final String sourceUnitId, final int offset, final int length,
+			final int kind, final String functionName) {
+		this.sourceUnitId = sourceUnitId;
+		this.offset = offset;
+		this.length = length;
+		this.kind = kind;
+		this.functionName = functionName;
+	}
+	
+	
+	@Override
+	public String toString() {
+		return sourceUnitId + " [" + offset + ", " + length + "] " + kind; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+	
+}
@@ -296,7 +296,8 @@ public class RRefactoringAdapter extends RefactoringAdapter {
 		ast.root = scanner.scanSourceUnit();
 		
 		final RSourceIndenter indenter = new RSourceIndenter(coreConfig);
-		final TextEdit edits = indenter.getIndentEdits(doc, ast, 0, 1, doc.getNumberOfLines()-1);
+		final TextEdit edits = indenter.getIndentEdits(doc, ast, scanner.getLineOffsets(),
+				1, doc.getNumberOfLines()-1, true );
 		edits.apply(doc, 0);
 		return doc.get(prefix.length(), doc.getLength()-prefix.length());
 	}
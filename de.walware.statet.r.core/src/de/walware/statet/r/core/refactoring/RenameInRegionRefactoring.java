@@ -51,6 +51,7 @@ import de.walware.statet.r.core.model.IRFrame;
 import de.walware.statet.r.core.model.IRFrameInSource;
 import de.walware.statet.r.core.model.IRModelInfo;
 import de.walware.statet.r.core.model.IRModelManager;
+import de.walware.statet.r.core.model.IROccurrenceIndex;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RElementName;
@@ -93,6 +94,15 @@ public class RenameInRegionRefactoring extends Refactoring {
 			node.acceptInRChildren(this);
 		}
 		
+		public void searchIndex(final IROccurrenceIndex index) {
+			final RElementAccess[] accessList = index.getAccessInRange(fStart, fStop);
+			for (int i = 0; i < accessList.length; i++) {
+				if (accessList[i].getType() == RElementName.MAIN_DEFAULT) {
+					add(accessList[i]);
+				}
+			}
+		}
+		
 		private void add(final RElementAccess access) {
 			final IRFrame frame = access.getFrame();
 			if (!(frame instanceof IRFrameInSource)
@@ -162,6 +172,8 @@ public class RenameInRegionRefactoring extends Refactoring {
 	
 	private final IRSourceUnit fSourceUnit;
 	
+	private IROccurrenceIndex fOccurrenceIndex;
+	
 	private Map<IRFrame, Map<String, Variable>> fVariablesList;
 	
 	
@@ -206,6 +218,7 @@ public class RenameInRegionRefactoring extends Refactoring {
 					
 					final IRModelInfo modelInfo = (IRModelInfo) fSourceUnit.getModelInfo(RModel.TYPE_ID, IRModelManager.MODEL_FILE, progress.newChild(1));
 					if (modelInfo != null) {
+						fOccurrenceIndex = modelInfo.getOccurrenceIndex();
 						final IRegion region = fAdapter.trimToAstRegion(document, fSelectionRegion);
 						final RAstInfo ast = modelInfo.getAst();
 						if (ast != null) {
@@ -241,6 +254,10 @@ public class RenameInRegionRefactoring extends Refactoring {
 	private void searchVariables(final RAstNode rootNode, final RefactoringStatus result) {
 		fVariablesList = new HashMap<IRFrame, Map<String,Variable>>();
 		final VariableSearcher searcher = new VariableSearcher();
+		if (fOccurrenceIndex != null) {
+			searcher.searchIndex(fOccurrenceIndex);
+			return;
+		}
 		try {
 			rootNode.acceptInR(searcher);
 		}
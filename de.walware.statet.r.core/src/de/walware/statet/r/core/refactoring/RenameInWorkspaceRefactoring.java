@@ -12,9 +12,11 @@
 package de.walware.statet.r.core.refactoring;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -62,7 +64,9 @@ import de.walware.statet.r.core.rsource.ast.NodeType;
 import de.walware.statet.r.core.rsource.ast.RAst;
 import de.walware.statet.r.core.rsource.ast.RAstInfo;
 import de.walware.statet.r.core.rsource.ast.RAstNode;
+import de.walware.statet.r.internal.core.RCorePlugin;
 import de.walware.statet.r.internal.core.refactoring.Messages;
+import de.walware.statet.r.internal.core.sourcemodel.RParallelReconciler;
 
 public class RenameInWorkspaceRefactoring extends Refactoring {
 	
@@ -96,6 +100,9 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 	private String fVariableName;
 	private Change[] fChanges;
 	
+	private Map<IProject, List<String>> fReferencingSus;
+	private RParallelReconciler fReconciler;
+	
 	
 	
 	/**
@@ -338,6 +345,11 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 			}
 			
 			final RProject initialProject = RProject.getRProject(fSourceUnit.getResource().getProject());
+			// search index for all candidate projects at once
+			fReferencingSus = RCore.getRModelManager().findReferencingSourceUnits(
+					collectCandidateProjects(initialProject.getProject()), fName );
+			fReconciler = new RParallelReconciler(RCorePlugin.getDefault().getRModelManager());
+			
 			{	// start with current project
 				allProjects.add(initialProject);
 				final List<ISourceUnit> sus = loadSus(initialProject, allProjectsSus, true, progress.newChild(3));
@@ -428,6 +440,8 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 			}
 		}
 		finally {
+			fReferencingSus = null;
+			fReconciler = null;
 			for (final List<ISourceUnit> sus : allProjectsSus) {
 				if (sus != null) {
 					for (final ISourceUnit su : sus) {
@@ -441,6 +455,32 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 		}
 	}
 	
+	private Collection<IProject> collectCandidateProjects(final IProject initialProject) throws CoreException {
+		final Set<IProject> projects = new LinkedHashSet<IProject>();
+		projects.add(initialProject);
+		if (fMode == Mode.CURRENT) {
+			return projects;
+		}
+		final List<IProject> todo = new ArrayList<IProject>();
+		todo.add(initialProject);
+		while (!todo.isEmpty()) {
+			final IProject project = todo.remove(todo.size()-1);
+			if (fMode == Mode.COMPLETE) {
+				for (final IProject referencedProject : project.getReferencedProjects()) {
+					if (referencedProject.isOpen() && projects.add(referencedProject)) {
+						todo.add(referencedProject);
+					}
+				}
+			}
+			for (final IProject referencingProject : project.getReferencingProjects()) {
+				if (referencingProject.isOpen() && projects.add(referencingProject)) {
+					todo.add(referencingProject);
+				}
+			}
+		}
+		return projects;
+	}
+	
 	private void addReferencedProjects(final RProject initialProject, final List<RProject> projects) throws CoreException {
 		final IProject[] referencedProjects = initialProject.getProject().getReferencedProjects();
 		for (final IProject referencedProject : referencedProjects) {
@@ -466,14 +506,16 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 	}
 	
 	private List<ISourceUnit> loadSus(final RProject project, final List<List<ISourceUnit>> projectsSus, final boolean force, final SubMonitor progress) throws CoreException {
-		final List<String> suIds = RCore.getRModelManager().findReferencingSourceUnits(project.getProject(), fName);
+		final List<String> suIds = (fReferencingSus != null && fReferencingSus.containsKey(project.getProject())) ?
+				fReferencingSus.get(project.getProject()) :
+				RCore.getRModelManager().findReferencingSourceUnits(project.getProject(), fName);
 		final ISourceUnitManager suManager = LTK.getSourceUnitManager(); 
 		if (suIds != null && suIds.size() > 0) {
 			int remaining = suIds.size();
 			final List<ISourceUnit> sus = new ArrayList<ISourceUnit>();
 			projectsSus.add(sus);
 			for (final String suId : suIds) {
-				progress.setWorkRemaining(3*(remaining--));
+				progress.setWorkRemaining(3*(remaining--) + suIds.size());
 				if (!suId.equals(fSourceUnit.getId())) {
 					ISourceUnit su = null;
 					try {
@@ -494,6 +536,8 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 					}
 				}
 			}
+			// update the models of all units concurrently, the searches use the current models
+			fReconciler.reconcile(sus, IRModelManager.MODEL_FILE, progress.newChild(suIds.size()));
 			return sus;
 		}
 		else if (force) {
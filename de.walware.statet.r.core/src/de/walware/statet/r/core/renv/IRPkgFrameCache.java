@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.core.renv;
+
+import de.walware.statet.r.core.model.IRFrame;
+
+
+/**
+ * Persistent cache of the structure of package environments (exported names, classes and
+ * function arguments) of an R environment.
+ * 
+ * The cache allows to provide information about packages if no R process is available.
+ * The data is stored per package and version in the index directory of the R environment.
+ */
+public interface IRPkgFrameCache {
+	
+	
+	/**
+	 * The R environment of this cache
+	 * 
+	 * @return the R environment
+	 */
+	IREnv getREnv();
+	
+	/**
+	 * Returns the cached frame of the package.
+	 * 
+	 * @param pkgName the name of the package
+	 * @return the frame or <code>null</code> if the package is not in the cache
+	 */
+	IRFrame getPkgFrame(String pkgName);
+	
+	/**
+	 * Updates the cache for the specified package.
+	 * 
+	 * If the cache already contains the package in the given version, the cache is not changed.
+	 * 
+	 * @param pkgName the name of the package
+	 * @param pkgVersion the version of the package
+	 * @param frame the current frame of the package providing the model elements
+	 * @return <code>true</code> if the cache was changed, otherwise <code>false</code>
+	 */
+	boolean update(String pkgName, String pkgVersion, IRFrame frame);
+	
+}
@@ -23,6 +23,11 @@ import de.walware.statet.r.core.rlang.RTerminal;
 
 public class RLexer {
 	
+	/** Maximal length of the name of symbols, lexers put into the string cache */
+	protected static final int STRING_CACHE_SYMBOL_MAX_LENGTH = 20;
+	/** Maximal length of the name of special operators, lexers put into the string cache */
+	protected static final int STRING_CACHE_SPECIAL_MAX_LENGTH = 3;
+	
 	private final static char[] C1_FALSE = RTerminal.S_FALSE.substring(1).toCharArray();
 	private final static char[] C1_NA_real_ = RTerminal.S_NA_REAL.substring(1).toCharArray();
 	private final static char[] C1_NA_integer_ = RTerminal.S_NA_INT.substring(1).toCharArray();
@@ -39,7 +44,7 @@ public class RLexer {
 	protected RTerminal fFoundType;
 	protected int fFoundOffset;
 	protected int fFoundNum;
-	private int fFoundLength;
+	protected int fFoundLength;
 	protected String fFoundText;
 	protected int fFoundStatus;
 	
@@ -68,6 +68,10 @@ public class RSourceIndenter {
 	private int[] fLineOffsets;
 	private int[] fLineLevels;
 	
+	/** Offsets of all lines of the document, only in fast mode */
+	private int[] fDocLineOffsets;
+	private boolean fReplaceConservative;
+	
 	private ScopeFactory fFactory;
 	
 	
@@ -426,6 +430,61 @@ public class RSourceIndenter {
 		
 	}
 	
+	/**
+	 * Collects the edits of the fast mode and joins the edits of consecutive lines
+	 */
+	private static final class EditCollector {
+		
+		
+		private final String fText;
+		private final boolean fCoalesce;
+		
+		private final MultiTextEdit fEdits = new MultiTextEdit();
+		
+		private int fLine = -2;
+		private int fOffset;
+		private int fEndOffset;
+		private final StringBuilder fBuilder = new StringBuilder();
+		
+		
+		EditCollector(final String text, final boolean coalesce) {
+			fText = text;
+			fCoalesce = coalesce;
+		}
+		
+		
+		void add(final int line, final int offset, final int length, final String text) {
+			if (!fCoalesce) {
+				fEdits.addChild(new ReplaceEdit(offset, length, text));
+				return;
+			}
+			if (line == fLine+1) {
+				fBuilder.append(fText, fEndOffset, offset);
+			}
+			else {
+				flush();
+				fOffset = offset;
+			}
+			fBuilder.append(text);
+			fLine = line;
+			fEndOffset = offset+length;
+		}
+		
+		private void flush() {
+			if (fLine >= 0) {
+				fEdits.addChild(new ReplaceEdit(fOffset, fEndOffset-fOffset, fBuilder.toString()));
+				fBuilder.setLength(0);
+			}
+		}
+		
+		MultiTextEdit create() {
+			flush();
+			fLine = -2;
+			return fEdits;
+		}
+		
+	}
+	
 	
 	/**
 	 * 
@@ -518,6 +577,7 @@ public class RSourceIndenter {
 		fCodeStyle = null;
 		fUtil = null;
 		fLineLevels = null;
+		fDocLineOffsets = null;
 	}
 	
 	public TextEdit getIndentEdits(final AbstractDocument document, final RAstInfo ast, final int codeOffset, final int firstLine, final int lastLine) throws CoreException {
@@ -532,10 +592,64 @@ public class RSourceIndenter {
 		}
 	}
 	
+	/**
+	 * Computes the indentation edits for the specified lines of a document in a single pass.
+	 * <p>
+	 * In contrast to {@link #getIndentEdits(AbstractDocument, RAstInfo, int, int, int)} the lines
+	 * are looked up in a line offset table instead of the document and the edits are created
+	 * directly from the document content. The AST must cover the complete document.</p>
+	 * <p>
+	 * If <code>coalesce</code> is enabled, the edits of consecutive lines are joined to a single
+	 * edit. This reduces the number of document changes considerably, but positions inside the
+	 * changed lines are not preserved; so it is intended for documents not shown in an editor.</p>
+	 * 
+	 * @param document the document
+	 * @param ast the AST of the document
+	 * @param lineOffsets the offsets of all lines of the document, e.g. provided by
+	 *     {@link de.walware.statet.r.core.rsource.ast.RScanner#getLineOffsets()},
+	 *     or <code>null</code> to compute them from the document
+	 * @param firstLine the first line to indent
+	 * @param lastLine the last line to indent
+	 * @param coalesce if the edits of consecutive lines should be joined
+	 * @return the edits
+	 * @throws CoreException if the indentation failed
+	 */
+	public TextEdit getIndentEdits(final AbstractDocument document, final RAstInfo ast, final int[] lineOffsets,
+			final int firstLine, final int lastLine, final boolean coalesce) throws CoreException {
+		try {
+			fDocument = document;
+			fAst = ast;
+			fDocLineOffsets = checkLineOffsets(document, lineOffsets);
+			computeIndent(0, firstLine, lastLine);
+			return createEdits(coalesce);
+		}
+		catch (final BadLocationException e) {
+			throw createFailedException(e);
+		}
+		finally {
+			fDocLineOffsets = null;
+		}
+	}
+	
+	private int[] checkLineOffsets(final AbstractDocument document, final int[] lineOffsets)
+			throws BadLocationException {
+		final int count = document.getNumberOfLines();
+		// the table of the scanner doesn't contain line breaks inside of tokens like strings
+		if (lineOffsets != null && lineOffsets.length == count && lineOffsets[0] == 0) {
+			return lineOffsets;
+		}
+		final int[] offsets = new int[count];
+		for (int line = 1; line < count; line++) {
+			offsets[line] = document.getLineOffset(line);
+		}
+		return offsets;
+	}
+	
 	protected void computeIndent(final int codeOffset, final int firstLine, final int lastLine) throws BadLocationException {
 		try {
 			fCodeStyle.getReadLock().lock();
 			fUtil = new RIndentUtil(fDocument, fCodeStyle);
+			fReplaceConservative = fCodeStyle.getReplaceConservative();
 			fFirstLine = firstLine;
 			fLastLine = lastLine;
 			
@@ -557,19 +671,27 @@ public class RSourceIndenter {
 			}
 			
 			final int startLine = (fRefLine >= 0) ? fRefLine : fFirstLine;
-			final int count = fDocument.getNumberOfLines(0, fDocument.getLineOffset(fLastLine));
+			final int count;
+			fLineOffsets = null;
+			if (fDocLineOffsets != null) {
+				count = fLastLine+1;
+				fLineOffsets = new int[count+3];
+				System.arraycopy(fDocLineOffsets, startLine, fLineOffsets, startLine, count-startLine);
+			}
+			else {
+				count = fDocument.getNumberOfLines(0, fDocument.getLineOffset(fLastLine));
+				fLineOffsets = new int[count+3];
+				for (int i = startLine; i < count; i++) {
+					fLineOffsets[i] = fDocument.getLineOffset(i);
+				}
+			}
 			fLineLevels = new int[count+2];
 			Arrays.fill(fLineLevels, -1);
-			fLineOffsets = new int[count+3];
-			for (int i = startLine; i < count; i++) {
-				fLineOffsets[i] = fDocument.getLineOffset(i);
-			}
-			fLineOffsets[count] = (count < fDocument.getNumberOfLines()) ? fDocument.getLineOffset(count) : fDocument.getLength();
 			fLineOffsets[count] = Integer.MAX_VALUE;
 			fLineOffsets[count+1] = Integer.MAX_VALUE;
 			fLineOffsets[count+2] = Integer.MAX_VALUE;
 			
-			fFactory = new ScopeFactory(fUtil, fCodeStyle, fDocument);
+			fFactory = new ScopeFactory(fUtil, fCodeStyle, fDocument, fDocLineOffsets);
 			fComputeVisitor.computeIndent();
 			correctLevels();
 		} catch (final InvocationTargetException e) {
@@ -649,6 +771,60 @@ public class RSourceIndenter {
 		return edits;
 	}
 	
+	/**
+	 * Creates the edits for the fast mode
+	 */
+	private MultiTextEdit createEdits(final boolean coalesce) throws BadLocationException, CoreException {
+		final String text = fDocument.get();
+		final int[] lineOffsets = fDocLineOffsets;
+		final EditCollector edits = new EditCollector(text, coalesce);
+		final IndentEditAction action = new IndentEditAction() {
+			@Override
+			public int getIndentColumn(final int line, final int lineOffset) throws BadLocationException {
+				return fLineLevels[line];
+			}
+			@Override
+			public void doEdit(final int line, final int offset, final int length, final StringBuilder text)
+					throws BadLocationException {
+				if (text != null) {
+					edits.add(line, offset, length, text.toString());
+				}
+			}
+		};
+		final String[] indents = new String[64];
+		for (int line = fFirstLine; line <= fLastLine; line++) {
+			final int lineOffset = lineOffsets[line];
+			final int lineEnd = (line+1 < lineOffsets.length) ? lineOffsets[line+1] : text.length();
+			if (lineOffset < lineEnd && text.charAt(lineOffset) == '#'
+					&& (lineOffset+1 == text.length() || text.charAt(lineOffset+1) != '#') ) {
+				continue;
+			}
+			int offset = lineOffset;
+			while (offset < lineEnd && (text.charAt(offset) == ' ' || text.charAt(offset) == '\t')) {
+				offset++;
+			}
+			if (fReplaceConservative || offset == lineEnd
+					|| text.charAt(offset) == '\r' || text.charAt(offset) == '\n') {
+				// special cases, handled by the indent util
+				fUtil.changeIndent(line, line, action);
+				continue;
+			}
+			final int level = fLineLevels[line];
+			String indent = (level < indents.length) ? indents[level] : null;
+			if (indent == null) {
+				indent = fUtil.createIndentString(level);
+				if (level < indents.length) {
+					indents[level] = indent;
+				}
+			}
+			final int length = offset-lineOffset;
+			if (indent.length() != length || !text.regionMatches(lineOffset, indent, 0, length)) {
+				edits.add(line, lineOffset, length, indent);
+			}
+		}
+		return edits.create();
+	}
+	
 	protected final int getDocumentChar(final int idx) throws BadLocationException {
 		if (idx >= 0 && idx < fDocument.getLength()) {
 			return fDocument.getChar(idx);
@@ -697,12 +873,15 @@ class ScopeFactory {
 	private RIndentUtil fUtil;
 	private RCodeStyleSettings fStyle;
 	private AbstractDocument fDoc;
+	private final int[] fLineOffsets;
 	
 	
-	public ScopeFactory(final RIndentUtil util, final RCodeStyleSettings style, final AbstractDocument doc) {
+	public ScopeFactory(final RIndentUtil util, final RCodeStyleSettings style, final AbstractDocument doc,
+			final int[] lineOffsets) {
 		fUtil = util;
 		fStyle = style;
 		fDoc = doc;
+		fLineOffsets = lineOffsets;
 		fLevelMult = fUtil.getLevelColumns();
 		fWrappedCol = fStyle.getIndentWrappedCommandDepth()*fLevelMult;
 		fBlockCol = fStyle.getIndentBlockDepth()*fLevelMult;
@@ -761,18 +940,36 @@ class ScopeFactory {
 //		}
 //	}
 	
+	private final int getLineOfOffset(final int offset) throws BadLocationException {
+		if (fLineOffsets == null) {
+			return fDoc.getLineOfOffset(offset);
+		}
+		int low = 0;
+		int high = fLineOffsets.length-1;
+		while (low < high) {
+			final int mid = (low+high+1) >>> 1;
+			if (fLineOffsets[mid] <= offset) {
+				low = mid;
+			}
+			else {
+				high = mid-1;
+			}
+		}
+		return low;
+	}
+	
 	public final Scope createDummy() {
 		initNew(0, 0, null, null, 0);
 		return fScope;
 	}
 	
 	public final void createSourceScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIX_STRAT, 0);
 	}
 	
 	public final void createBlockScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		switch (node.getRParent().getNodeType()) {
 		case C_IF:
 		case C_FOR:
@@ -794,17 +991,17 @@ class ScopeFactory {
 	}
 	
 	public final void createCommonExprScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIRSTLINE_STRAT, fScope.getIndent(line));
 	}
 	
 	public final void createGroupContScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIX_STRAT, fScope.getIndent(line+1)+fStyle.getIndentGroupDepth()*fLevelMult);
 	}
 	
 	public final void createControlScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIX_STRAT, fScope.getIndent(line));
 		boolean compact = true;
 		if (compact && node.getNodeType() == NodeType.C_IF
@@ -817,17 +1014,17 @@ class ScopeFactory {
 	}
 	
 	public final void createControlCondScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIRSTLINE_STRAT, fScope.getIndent(line));
 	}
 	
 	public final void createControlContScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIRSTLINE_STRAT, fScope.getIndent(line)+fBlockCol);
 	}
 	
 	public final void createFCallScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIX_STRAT, fScope.getIndent(line));
 		if (!useParent(true, true, node)) {
 			fScope.baseColumn = fScope.parent.getIndent(line+1);
@@ -835,17 +1032,17 @@ class ScopeFactory {
 	}
 	
 	public final void createFDefScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIX_STRAT, fScope.getIndent(line));
 	}
 	
 	public final void createFDeflistScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		initNew(offset, line, node, FIX_STRAT, fScope.getIndent(line)+fWrappedCol);
 	}
 	
 	public final void createArglistScope(final int offset, final RAstNode node) throws BadLocationException {
-		final int line = fDoc.getLineOfOffset(offset);
+		final int line = getLineOfOffset(offset);
 		// TODO: this can cause deep indentation - use compact detection of parent?
 		initNew(offset, line, node, FIX_STRAT, fScope.getIndent(line)+fWrappedCol);
 	}
@@ -893,7 +1090,7 @@ class ScopeFactory {
 	
 	private final boolean sameLine(final int offset1, final int offset2) throws BadLocationException {
 		return (offset1 == offset2
-				|| fDoc.getLineOfOffset(offset1) == fDoc.getLineOfOffset(offset2));
+				|| getLineOfOffset(offset1) == getLineOfOffset(offset2));
 	}
 	
 	public final void updateEnterBrackets() {
@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.core.rsource;
+
+import static de.walware.statet.r.core.rsource.IRSourceConstants.STATUS2_SYNTAX_TOKEN_NOT_CLOSED;
+import static de.walware.statet.r.core.rsource.IRSourceConstants.STATUS_MASK_12;
+import static de.walware.statet.r.core.rsource.IRSourceConstants.STATUS_OK;
+
+import de.walware.ecommons.text.IStringCache;
+import de.walware.ecommons.text.StringParseInput;
+
+import de.walware.statet.r.core.rlang.RTerminal;
+
+
+/**
+ * Token stream of R source code.
+ * 
+ * The tokens of the source are scanned once by the {@link RLexer} and stored in a packed int
+ * array (type, offset, length and status code per token). The text of the tokens is not
+ * created until it is requested, so clients requiring only the type and position of the tokens
+ * (e.g. indentation or folding) can use the stream without allocating objects per token.
+ * 
+ * The stream contains all tokens including blanks, comments and line breaks, and ends with
+ * the {@link RTerminal#EOF} token. The stream can be replayed by {@link #createLexer(boolean, IStringCache)},
+ * e.g. for the RScanner.
+ */
+public final class RTokenStream {
+	
+	
+	private static final RTerminal[] TERMINALS = RTerminal.values();
+	
+	private static final int TYPE_MASK =            0x0000ffff;
+	private static final int TEXT_FULL =            0x00010000;
+	private static final int TEXT_QUOTED =          0x00020000;
+	private static final int TEXT_MASK =            0x00030000;
+	
+	private static final int TYPE = 0;
+	private static final int OFFSET = 1;
+	private static final int LENGTH = 2;
+	private static final int STATUS = 3;
+	private static final int SIZE = 4;
+	
+	
+	/**
+	 * Creates the token stream for the complete source.
+	 * 
+	 * @param source the source code
+	 * @return the token stream
+	 */
+	public static RTokenStream create(final String source) {
+		return create(source, 0, source.length());
+	}
+	
+	/**
+	 * Creates the token stream for a region of the source.
+	 * 
+	 * @param source the source code
+	 * @param offset the offset of the region in the source
+	 * @param length the length of the region
+	 * @return the token stream
+	 */
+	public static RTokenStream create(final String source, final int offset, final int length) {
+		final RTokenStream stream = new RTokenStream(source, offset, length);
+		final StreamLexer lexer = stream.new StreamLexer();
+		lexer.reset(new StringParseInput(source));
+		lexer.setRange(offset, length);
+		while (lexer.next() != RTerminal.EOF) {
+		}
+		return stream;
+	}
+	
+	
+	/**
+	 * Lexer adding the tokens to the stream.
+	 */
+	private final class StreamLexer extends RLexer {
+		
+		
+		private int fTextType;
+		
+		
+		public StreamLexer() {
+		}
+		
+		
+		@Override
+		public RTerminal next() {
+			fTextType = 0;
+			searchNext();
+			add(fFoundType.ordinal() | fTextType, fFoundOffset, getLength(), fFoundStatus);
+			return fFoundType;
+		}
+		
+		@Override
+		protected void createNumberToken(final RTerminal type, final int status) {
+			super.createNumberToken(type, status);
+			fTextType = TEXT_FULL;
+		}
+		
+		@Override
+		protected void createSymbolToken() {
+			super.createSymbolToken();
+			fTextType = TEXT_FULL;
+		}
+		
+		@Override
+		protected void createQuotedSymbolToken(final RTerminal type, final int status) {
+			super.createQuotedSymbolToken(type, status);
+			fTextType = TEXT_QUOTED;
+		}
+		
+		@Override
+		protected void createStringToken(final RTerminal type, final int status) {
+			super.createStringToken(type, status);
+			fTextType = TEXT_QUOTED;
+		}
+		
+		@Override
+		protected void createSpecialToken(final int status) {
+			super.createSpecialToken(status);
+			fTextType = TEXT_QUOTED;
+		}
+		
+		@Override
+		protected void createLinebreakToken(final String text) {
+			super.createLinebreakToken(text);
+			fTextType = TEXT_FULL;
+		}
+		
+		@Override
+		protected void createUnknownToken(final String text) {
+			super.createUnknownToken(text);
+			fTextType = TEXT_FULL;
+		}
+		
+	}
+	
+	/**
+	 * Lexer replaying the tokens of the stream.
+	 */
+	private final class ReplayLexer extends RLexer {
+		
+		
+		private final boolean fCreateText;
+		private final IStringCache fStringCache;
+		
+		private int fIdx;
+		private int fEndIdx;
+		private int fEndOffset;
+		
+		
+		public ReplayLexer(final boolean createText, final IStringCache stringCache) {
+			fCreateText = createText;
+			fStringCache = stringCache;
+			setFull();
+		}
+		
+		
+		@Override
+		public void setFull() {
+			fIdx = 0;
+			fEndIdx = fCount-1;
+			fEndOffset = fOffset+fLength;
+			fFoundType = null;
+			fFoundOffset = fOffset;
+			fFoundLength = 0;
+		}
+		
+		@Override
+		public void setRange(final int offset, final int length) {
+			if (offset < fOffset || offset+length > fOffset+fLength) {
+				throw new IllegalArgumentException("The range must be inside of the stream.");
+			}
+			fIdx = getTokenIndex(offset);
+			fEndIdx = getTokenIndex(offset+length);
+			if (fData[fIdx*SIZE+OFFSET] != offset
+					|| (fEndIdx < fCount && fData[fEndIdx*SIZE+OFFSET] != offset+length) ) {
+				throw new IllegalArgumentException("The range must not split tokens.");
+			}
+			fEndOffset = offset+length;
+			fFoundType = null;
+			fFoundOffset = offset;
+			fFoundLength = 0;
+		}
+		
+		@Override
+		public RTerminal next() {
+			while (fIdx < fEndIdx) {
+				final int i = fIdx++;
+				final RTerminal type = TERMINALS[fData[i*SIZE+TYPE] & TYPE_MASK];
+				if (type == RTerminal.BLANK) {
+					continue;
+				}
+				fFoundType = type;
+				fFoundOffset = fData[i*SIZE+OFFSET];
+				fFoundLength = fData[i*SIZE+LENGTH];
+				fFoundStatus = fData[i*SIZE+STATUS];
+				if (fCreateText) {
+					switch (type) {
+					case SYMBOL:
+						fFoundText = getText(i, fFoundLength, STRING_CACHE_SYMBOL_MAX_LENGTH);
+						break;
+					case SYMBOL_G:
+						fFoundText = getText(i, getQuotedTextLength(), STRING_CACHE_SYMBOL_MAX_LENGTH);
+						break;
+					case SPECIAL:
+						fFoundText = getText(i, getQuotedTextLength(), STRING_CACHE_SPECIAL_MAX_LENGTH);
+						break;
+					default:
+						fFoundText = RTokenStream.this.getText(i);
+						break;
+					}
+				}
+				else {
+					fFoundText = (type == RTerminal.LINEBREAK || type == RTerminal.UNKNOWN) ?
+							RTokenStream.this.getText(i) : null;
+				}
+				return type;
+			}
+			fFoundType = RTerminal.EOF;
+			fFoundOffset = fEndOffset;
+			fFoundLength = 0;
+			fFoundText = null;
+			fFoundStatus = STATUS_OK;
+			return RTerminal.EOF;
+		}
+		
+		/**
+		 * Returns the text of the token, using the string cache only for short texts like the
+		 * RScannerDefaultLexer.
+		 */
+		private String getText(final int idx, final int textLength, final int cacheMaxLength) {
+			return RTokenStream.this.getText(idx, (textLength <= cacheMaxLength) ? fStringCache : null);
+		}
+		
+		private int getQuotedTextLength() {
+			return ((fFoundStatus & STATUS_MASK_12) != STATUS2_SYNTAX_TOKEN_NOT_CLOSED) ?
+					fFoundLength-2 : fFoundLength-1;
+		}
+		
+	}
+	
+	
+	private final String fSource;
+	private final int fOffset;
+	private final int fLength;
+	
+	private int[] fData;
+	private int fCount;
+	
+	private String[] fTexts;
+	
+	
+	private RTokenStream(final String source, final int offset, final int length) {
+		fSource = source;
+		fOffset = offset;
+		fLength = length;
+		fData = new int[Math.max(16, length / 2) & ~(SIZE-1)];
+	}
+	
+	
+	private void add(final int type, final int offset, final int length, final int status) {
+		if (fCount*SIZE == fData.length) {
+			final int[] data = new int[fData.length * 2];
+			System.arraycopy(fData, 0, data, 0, fData.length);
+			fData = data;
+		}
+		final int i = fCount++ * SIZE;
+		fData[i+TYPE] = type;
+		fData[i+OFFSET] = offset;
+		fData[i+LENGTH] = length;
+		fData[i+STATUS] = status;
+	}
+	
+	
+	/**
+	 * Returns the source code of the stream.
+	 * 
+	 * @return the source code
+	 */
+	public String getSource() {
+		return fSource;
+	}
+	
+	/**
+	 * Returns the number of tokens in the stream (including the final EOF token).
+	 * 
+	 * @return the number of tokens
+	 */
+	public int getCount() {
+		return fCount;
+	}
+	
+	public RTerminal getType(final int idx) {
+		return TERMINALS[fData[idx*SIZE+TYPE] & TYPE_MASK];
+	}
+	
+	public int getOffset(final int idx) {
+		return fData[idx*SIZE+OFFSET];
+	}
+	
+	public int getLength(final int idx) {
+		return fData[idx*SIZE+LENGTH];
+	}
+	
+	public int getStatusCode(final int idx) {
+		return fData[idx*SIZE+STATUS];
+	}
+	
+	/**
+	 * Returns the index of the first token starting at or after the specified offset.
+	 * 
+	 * @param offset the offset in the source
+	 * @return the index of the token
+	 */
+	public int getTokenIndex(final int offset) {
+		int low = 0;
+		int high = fCount-1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int midOffset = fData[mid*SIZE+OFFSET];
+			if (midOffset < offset) {
+				low = mid + 1;
+			}
+			else if (midOffset > offset) {
+				high = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * Returns the text of the token like the RScanner: the content of strings and quoted
+	 * symbols without quotes, the complete text of symbols and numbers, otherwise <code>null</code>.
+	 * 
+	 * The text is created when requested the first time.
+	 * 
+	 * @param idx the index of the token
+	 * @return the text or <code>null</code>
+	 */
+	public String getText(final int idx) {
+		return getText(idx, null);
+	}
+	
+	/**
+	 * Returns the text of the token like {@link #getText(int)} using the specified string cache.
+	 * 
+	 * @param idx the index of the token
+	 * @param stringCache optional string cache
+	 * @return the text or <code>null</code>
+	 */
+	public String getText(final int idx, final IStringCache stringCache) {
+		if (fTexts == null) {
+			fTexts = new String[fCount];
+		}
+		else if (fTexts[idx] != null) {
+			return fTexts[idx];
+		}
+		final int i = idx*SIZE;
+		final int start = fData[i+OFFSET];
+		final int stop = start+fData[i+LENGTH];
+		String text;
+		switch (fData[i+TYPE] & TEXT_MASK) {
+		case TEXT_FULL:
+			text = fSource.substring(start, stop);
+			break;
+		case TEXT_QUOTED:
+			text = ((fData[i+STATUS] & STATUS_MASK_12) != STATUS2_SYNTAX_TOKEN_NOT_CLOSED) ?
+					fSource.substring(start+1, stop-1) : fSource.substring(start+1, stop);
+			break;
+		default:
+			return null;
+		}
+		if (stringCache != null) {
+			text = stringCache.get(text);
+		}
+		fTexts[idx] = text;
+		return text;
+	}
+	
+	/**
+	 * Creates a lexer replaying the tokens of this stream.
+	 * 
+	 * Blanks are skipped. The lexer supports {@link RLexer#setFull()} and
+	 * {@link RLexer#setRange(int, int)} for regions not splitting tokens.
+	 * 
+	 * @param createText if the text of the tokens is required
+	 * @param stringCache optional string cache for the text of symbols
+	 * @return the lexer
+	 */
+	public RLexer createLexer(final boolean createText, final IStringCache stringCache) {
+		return new ReplayLexer(createText, stringCache);
+	}
+	
+}
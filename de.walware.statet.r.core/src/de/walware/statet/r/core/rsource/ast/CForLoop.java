@@ -32,9 +32,9 @@ public class CForLoop extends RAstNode {
 	Symbol fVarSymbol;
 	int fCondOpenOffset = Integer.MIN_VALUE;
 	int fInOffset = Integer.MIN_VALUE;
-	final Expression fCondExpr = new Expression();
+	Expression fCondExpr = new Expression();
 	int fCondCloseOffset = Integer.MIN_VALUE;
-	final Expression fLoopExpr = new Expression();
+	Expression fLoopExpr = new Expression();
 	
 	
 	CForLoop() {
@@ -197,4 +197,11 @@ public class CForLoop extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fVarSymbol = copyChild(fVarSymbol);
+		fCondExpr = copyExpr(fCondExpr);
+		fLoopExpr = copyExpr(fLoopExpr);
+	}
+	
 }
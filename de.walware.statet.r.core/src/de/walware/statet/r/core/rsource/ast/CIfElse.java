@@ -33,11 +33,11 @@ public class CIfElse extends RAstNode {
 	boolean fWithElse = false;
 	
 	int fCondOpenOffset = Integer.MIN_VALUE;
-	final Expression fCondExpr = new Expression();
+	Expression fCondExpr = new Expression();
 	int fCondCloseOffset = Integer.MIN_VALUE;
-	final Expression fThenExpr = new Expression();
+	Expression fThenExpr = new Expression();
 	int fElseOffset = Integer.MIN_VALUE;
-	final Expression fElseExpr = new Expression();
+	Expression fElseExpr = new Expression();
 	
 	
 	CIfElse() {
@@ -228,4 +228,11 @@ public class CIfElse extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fCondExpr = copyExpr(fCondExpr);
+		fThenExpr = copyExpr(fThenExpr);
+		fElseExpr = copyExpr(fElseExpr);
+	}
+	
 }
@@ -28,7 +28,7 @@ import de.walware.statet.r.core.rlang.RTerminal;
 public class CRepeatLoop extends RAstNode {
 	
 	
-	final Expression fLoopExpr = new Expression();
+	Expression fLoopExpr = new Expression();
 	
 	
 	CRepeatLoop() {
@@ -135,4 +135,9 @@ public class CRepeatLoop extends RAstNode {
 		fStopOffset = fLoopExpr.node.fStopOffset;
 	}
 	
+	@Override
+	void copyChildren() {
+		fLoopExpr = copyExpr(fLoopExpr);
+	}
+	
 }
@@ -30,9 +30,9 @@ public class CWhileLoop extends RAstNode {
 	
 	
 	int fCondOpenOffset = Integer.MIN_VALUE;
-	final Expression fCondExpr = new Expression();
+	Expression fCondExpr = new Expression();
 	int fCondCloseOffset = Integer.MIN_VALUE;
-	final Expression fLoopExpr = new Expression();
+	Expression fLoopExpr = new Expression();
 	
 	
 	CWhileLoop() {
@@ -175,4 +175,10 @@ public class CWhileLoop extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fCondExpr = copyExpr(fCondExpr);
+		fLoopExpr = copyExpr(fLoopExpr);
+	}
+	
 }
@@ -12,8 +12,10 @@
 package de.walware.statet.r.core.rsource.ast;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
 
+import de.walware.ecommons.collections.ConstList;
 import de.walware.ecommons.ltk.ast.IAstNode;
 import de.walware.ecommons.ltk.ast.ICommonAstVisitor;
 
@@ -148,4 +150,20 @@ public final class DocuComment extends RAstNode {
 	final void updateStopOffset() {
 	}
 	
+	@Override
+	void copyChildren() {
+		final Comment[] lines = new Comment[fLines.length];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = copyChild(fLines[i]);
+		}
+		fLines = lines;
+		if (fTags != null) {
+			final List<DocuTag> tags = new ArrayList<DocuTag>(fTags.size());
+			for (final DocuTag tag : fTags) {
+				tags.add(copyChild(tag));
+			}
+			fTags = new ConstList<DocuTag>(tags);
+		}
+	}
+	
 }
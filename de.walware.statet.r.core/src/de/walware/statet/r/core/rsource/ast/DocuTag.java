@@ -132,4 +132,16 @@ public class DocuTag extends RAstNode {
 	final void updateStopOffset() {
 	}
 	
+	@Override
+	void copyChildren() {
+		final RAstNode[] fragments = new RAstNode[fFragments.length];
+		for (int i = 0; i < fragments.length; i++) {
+			fragments[i] = copyChild(fFragments[i]);
+			if (fragments[i] instanceof SourceComponent) {
+				((SourceComponent) fragments[i]).fParent = this;
+			}
+		}
+		fFragments = fragments;
+	}
+	
 }
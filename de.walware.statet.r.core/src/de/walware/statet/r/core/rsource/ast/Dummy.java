@@ -119,8 +119,8 @@ public abstract class Dummy extends RAstNode {
 	static class Operator extends Dummy {
 		
 		
-		final Expression fLeftExpr = new Expression();
-		final Expression fRightExpr = new Expression();
+		Expression fLeftExpr = new Expression();
+		Expression fRightExpr = new Expression();
 		
 		
 		Operator(final int status) {
@@ -230,6 +230,12 @@ public abstract class Dummy extends RAstNode {
 			throw new IllegalArgumentException();
 		}
 		
+		@Override
+		void copyChildren() {
+			fLeftExpr = copyExpr(fLeftExpr);
+			fRightExpr = copyExpr(fRightExpr);
+		}
+		
 	}
 	
 	
@@ -27,7 +27,7 @@ import de.walware.ecommons.ltk.ast.ICommonAstVisitor;
 abstract class ExpressionList extends RAstNode {
 	
 	
-	final List<Expression> fExpressions = new ArrayList<Expression>();
+	List<Expression> fExpressions = new ArrayList<Expression>();
 	
 	
 	ExpressionList() {
@@ -116,4 +116,13 @@ abstract class ExpressionList extends RAstNode {
 		return STATUS1_SYNTAX_MISSING_TOKEN;
 	}
 	
+	@Override
+	void copyChildren() {
+		final List<Expression> expressions = fExpressions;
+		fExpressions = new ArrayList<Expression>(expressions.size());
+		for (final Expression expr : expressions) {
+			fExpressions.add(copyExpr(expr));
+		}
+	}
+	
 }
@@ -35,8 +35,8 @@ public class FCall extends RAstNode {
 	public static class Args extends RAstNode {
 		
 		
-		final List<FCall.Arg> fSpecs;
-		final IntList fSepList;
+		List<FCall.Arg> fSpecs;
+		IntList fSepList;
 		
 		
 		Args(final FCall parent) {
@@ -143,6 +143,16 @@ public class FCall extends RAstNode {
 		final void updateStopOffset() {
 		}
 		
+		@Override
+		void copyChildren() {
+			final List<FCall.Arg> specs = new ArrayList<FCall.Arg>(fSpecs.size());
+			for (final FCall.Arg arg : fSpecs) {
+				specs.add(copyChild(arg));
+			}
+			fSpecs = specs;
+			fSepList = new ArrayIntList(fSepList);
+		}
+		
 	}
 	
 	public static class Arg extends SpecItem {
@@ -172,9 +182,9 @@ public class FCall extends RAstNode {
 	}
 	
 	
-	final Expression fRefExpr = new Expression();
+	Expression fRefExpr = new Expression();
 	int fArgsOpenOffset = Integer.MIN_VALUE;
-	final Args fArgs = new Args(this);
+	Args fArgs = new Args(this);
 	int fArgsCloseOffset = Integer.MIN_VALUE;
 	
 	
@@ -315,4 +325,10 @@ public class FCall extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fRefExpr = copyExpr(fRefExpr);
+		fArgs = copyChild(fArgs);
+	}
+	
 }
@@ -34,7 +34,7 @@ public class FDef extends RAstNode {
 	public static class Args extends RAstNode {
 		
 		
-		final List<Arg> fSpecs;
+		List<Arg> fSpecs;
 		
 		
 		Args(final FDef parent) {
@@ -131,6 +131,15 @@ public class FDef extends RAstNode {
 		final void updateStopOffset() {
 		}
 		
+		@Override
+		void copyChildren() {
+			final List<Arg> specs = new ArrayList<Arg>(fSpecs.size());
+			for (final Arg arg : fSpecs) {
+				specs.add(copyChild(arg));
+			}
+			fSpecs = specs;
+		}
+		
 	}
 	
 	
@@ -139,7 +148,7 @@ public class FDef extends RAstNode {
 		
 		SingleValue fArgName;
 		boolean fWithDefault;
-		final Expression fDefaultExpr = new Expression();
+		Expression fDefaultExpr = new Expression();
 		
 		
 		Arg(final FDef.Args parent) {
@@ -287,13 +296,19 @@ public class FDef extends RAstNode {
 			}
 		}
 		
+		@Override
+		void copyChildren() {
+			fArgName = copyChild(fArgName);
+			fDefaultExpr = copyExpr(fDefaultExpr);
+		}
+		
 	}
 	
 	
 	int fArgsOpenOffset = Integer.MIN_VALUE;
 	Args fArgs = new Args(this);
 	int fArgsCloseOffset = Integer.MIN_VALUE;
-	final Expression fExpr = new Expression();
+	Expression fExpr = new Expression();
 	
 	
 	FDef() {
@@ -432,4 +447,10 @@ public class FDef extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fArgs = copyChild(fArgs);
+		fExpr = copyExpr(fExpr);
+	}
+	
 }
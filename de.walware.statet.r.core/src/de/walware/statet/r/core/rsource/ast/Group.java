@@ -27,7 +27,7 @@ import de.walware.statet.r.core.rlang.RTerminal;
 public class Group extends RAstNode {
 	
 	
-	final Expression fExpr = new Expression();
+	Expression fExpr = new Expression();
 	int fGroupCloseOffset = Integer.MIN_VALUE;
 	
 	
@@ -147,4 +147,9 @@ public class Group extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fExpr = copyExpr(fExpr);
+	}
+	
 }
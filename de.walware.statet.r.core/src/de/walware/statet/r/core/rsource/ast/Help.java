@@ -29,8 +29,8 @@ import de.walware.statet.r.core.rlang.RTerminal;
 public class Help extends RAstNode {
 	
 	
-	final Expression fLeftExpr = new Expression();
-	final Expression fRightExpr = new Expression();
+	Expression fLeftExpr = new Expression();
+	Expression fRightExpr = new Expression();
 	
 	
 	Help() {
@@ -170,4 +170,10 @@ public class Help extends RAstNode {
 		fStopOffset = getTopicChild().fStopOffset;
 	}
 	
+	@Override
+	void copyChildren() {
+		fLeftExpr = copyExpr(fLeftExpr);
+		fRightExpr = copyExpr(fRightExpr);
+	}
+	
 }
\ No newline at end of file
@@ -28,8 +28,8 @@ import de.walware.statet.r.core.rlang.RTerminal;
 public class Model extends RAstNode {
 	
 	
-	final Expression fLeftExpr = new Expression();
-	final Expression fRightExpr = new Expression();
+	Expression fLeftExpr = new Expression();
+	Expression fRightExpr = new Expression();
 	
 	
 	Model() {
@@ -176,4 +176,10 @@ public class Model extends RAstNode {
 		fStopOffset = getRightChild().fStopOffset;
 	}
 	
+	@Override
+	void copyChildren() {
+		fLeftExpr = copyExpr(fLeftExpr);
+		fRightExpr = copyExpr(fRightExpr);
+	}
+	
 }
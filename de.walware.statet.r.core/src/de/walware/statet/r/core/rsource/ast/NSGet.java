@@ -186,4 +186,10 @@ public abstract class NSGet extends RAstNode {
 		fStopOffset = fElement.fStopOffset;
 	}
 	
+	@Override
+	void copyChildren() {
+		fNamespace = copyChild(fNamespace);
+		fElement = copyChild(fElement);
+	}
+	
 }
@@ -754,4 +754,31 @@ public class RAst {
 		return node;
 	}
 	
+	/**
+	 * Copies a source component of a previous AST to use it in a new AST.
+	 * 
+	 * The source component of the previous AST is not modified, so the previous AST can
+	 * still be used. The copy has no attachments and all offsets are moved by the specified
+	 * value.
+	 * 
+	 * @param node the source component to copy
+	 * @param parent the parent of the copy
+	 * @param shift the value to add to the offsets
+	 * @return the copy
+	 */
+	public static SourceComponent copySourceComponent(final SourceComponent node,
+			final IAstNode parent, final int shift) {
+		final SourceComponent copy = (SourceComponent) node.copy(null);
+		copy.fParent = parent;
+		if (shift != 0) {
+			try {
+				copy.acceptInR(new RAstOffsetShifter(shift));
+			}
+			catch (final InvocationTargetException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return copy;
+	}
+	
 }
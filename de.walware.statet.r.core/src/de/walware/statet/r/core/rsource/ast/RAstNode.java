@@ -25,7 +25,7 @@ import de.walware.statet.r.core.rlang.RTerminal;
 /**
  * A node of a R AST
  */
-public abstract class RAstNode implements IAstNode {
+public abstract class RAstNode implements IAstNode, Cloneable {
 	
 	
 	interface Assoc {
@@ -257,4 +257,46 @@ public abstract class RAstNode implements IAstNode {
 		return fAttachments;
 	}
 	
+	
+	/**
+	 * Creates a deep copy of this node and its children.
+	 * 
+	 * The node itself is not modified. The attachments are not copied.
+	 * 
+	 * @param parent the parent of the copy, used if this node has a parent
+	 * @return the copy
+	 */
+	final RAstNode copy(final RAstNode parent) {
+		final RAstNode copy;
+		try {
+			copy = (RAstNode) clone();
+		}
+		catch (final CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+		copy.fRParent = (fRParent != null) ? parent : null;
+		copy.fAttachments = NO_ATTACHMENT;
+		copy.copyChildren();
+		return copy;
+	}
+	
+	/**
+	 * Replaces the children of a new copy (still shared with the original node) by copies.
+	 */
+	void copyChildren() {
+	}
+	
+	final Expression copyExpr(final Expression expr) {
+		final Expression copy = new Expression();
+		if (expr.node != null) {
+			copy.node = expr.node.copy(this);
+		}
+		return copy;
+	}
+	
+	@SuppressWarnings("unchecked")
+	final <T extends RAstNode> T copyChild(final T child) {
+		return (child != null) ? (T) child.copy(this) : null;
+	}
+	
 }
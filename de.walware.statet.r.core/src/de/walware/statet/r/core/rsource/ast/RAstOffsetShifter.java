@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.core.rsource.ast;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.commons.collections.primitives.IntList;
+
+
+/**
+ * Shifts all offsets of the visited nodes by a fixed value.
+ * 
+ * Offsets not set (<code>Integer.MIN_VALUE</code>) are kept.
+ */
+/* package */ final class RAstOffsetShifter extends GenericVisitor {
+	
+	
+	private final int fShift;
+	
+	
+	RAstOffsetShifter(final int shift) {
+		fShift = shift;
+	}
+	
+	
+	private int shift(final int offset) {
+		return (offset != Integer.MIN_VALUE) ? (offset + fShift) : Integer.MIN_VALUE;
+	}
+	
+	private void shift(final IntList offsets) {
+		for (int i = 0; i < offsets.size(); i++) {
+			offsets.set(i, shift(offsets.get(i)));
+		}
+	}
+	
+	
+	@Override
+	public void visitNode(final RAstNode node) throws InvocationTargetException {
+		node.fStartOffset += fShift;
+		node.fStopOffset += fShift;
+		node.acceptInRChildren(this);
+	}
+	
+	@Override
+	public void visit(final SourceComponent node) throws InvocationTargetException {
+		visitNode(node);
+		node.acceptInRComments(this);
+	}
+	
+	@Override
+	public void visit(final Block node) throws InvocationTargetException {
+		node.fBlockCloseOffset = shift(node.fBlockCloseOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final Group node) throws InvocationTargetException {
+		node.fGroupCloseOffset = shift(node.fGroupCloseOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final CIfElse node) throws InvocationTargetException {
+		node.fCondOpenOffset = shift(node.fCondOpenOffset);
+		node.fCondCloseOffset = shift(node.fCondCloseOffset);
+		node.fElseOffset = shift(node.fElseOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final CForLoop node) throws InvocationTargetException {
+		node.fCondOpenOffset = shift(node.fCondOpenOffset);
+		node.fInOffset = shift(node.fInOffset);
+		node.fCondCloseOffset = shift(node.fCondCloseOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final CWhileLoop node) throws InvocationTargetException {
+		node.fCondOpenOffset = shift(node.fCondOpenOffset);
+		node.fCondCloseOffset = shift(node.fCondCloseOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final FCall node) throws InvocationTargetException {
+		node.fArgsOpenOffset = shift(node.fArgsOpenOffset);
+		node.fArgsCloseOffset = shift(node.fArgsCloseOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final FCall.Args node) throws InvocationTargetException {
+		shift(node.fSepList);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final FCall.Arg node) throws InvocationTargetException {
+		node.fEqualsOffset = shift(node.fEqualsOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final FDef node) throws InvocationTargetException {
+		node.fArgsOpenOffset = shift(node.fArgsOpenOffset);
+		node.fArgsCloseOffset = shift(node.fArgsCloseOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final SubIndexed node) throws InvocationTargetException {
+		node.fOpenOffset = shift(node.fOpenOffset);
+		node.fCloseOffset = shift(node.fCloseOffset);
+		node.fClose2Offset = shift(node.fClose2Offset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final SubIndexed.Arg node) throws InvocationTargetException {
+		node.fEqualsOffset = shift(node.fEqualsOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final SubNamed node) throws InvocationTargetException {
+		node.fOperatorOffset = shift(node.fOperatorOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final NSGet node) throws InvocationTargetException {
+		node.fOperatorOffset = shift(node.fOperatorOffset);
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final Comment node) throws InvocationTargetException {
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final DocuComment node) throws InvocationTargetException {
+		node.fNextOffset = shift(node.fNextOffset);
+		visitNode(node);
+		if (node.fTags != null) {
+			node.acceptInRDocu(this);
+		}
+	}
+	
+	@Override
+	public void visit(final DocuTag node) throws InvocationTargetException {
+		visitNode(node);
+	}
+	
+	@Override
+	public void visit(final DocuText node) throws InvocationTargetException {
+		visitNode(node);
+	}
+	
+}
@@ -52,6 +52,7 @@ import de.walware.ecommons.text.SourceParseInput;
 
 import de.walware.statet.r.core.rlang.RTerminal;
 import de.walware.statet.r.core.rsource.RLexer;
+import de.walware.statet.r.core.rsource.RTokenStream;
 import de.walware.statet.r.core.rsource.ast.RAstNode.Assoc;
 import de.walware.statet.r.internal.core.RCorePlugin;
 
@@ -166,6 +167,20 @@ public final class RScanner {
 		fAst = ast;
 	}
 	
+	/**
+	 * Creates a scanner reading the tokens from the token stream instead of lexing the source
+	 * again.
+	 * 
+	 * @param tokens the token stream
+	 * @param ast the AST info
+	 * @param stringCache optional string cache
+	 */
+	public RScanner(final RTokenStream tokens, final AstInfo ast, final IStringCache stringCache) {
+		fLexer = tokens.createLexer((ast == null || (ast.level & AstInfo.DEFAULT_LEVEL_MASK) > RAst.LEVEL_MINIMAL),
+				stringCache );
+		fAst = ast;
+	}
+	
 	
 	public void setCommentLevel(final int level) {
 		fCommentsLevel = level;
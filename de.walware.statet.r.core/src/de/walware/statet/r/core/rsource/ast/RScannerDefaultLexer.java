@@ -47,7 +47,7 @@ class RScannerDefaultLexer extends RScannerLexer {
 	protected void createSymbolToken() {
 		fFoundType = RTerminal.SYMBOL;
 		fFoundText = fInput.substring(1, fFoundNum);
-		if (fStringCache != null && fFoundText.length() <= 20) {
+		if (fStringCache != null && fFoundText.length() <= STRING_CACHE_SYMBOL_MAX_LENGTH) {
 			fFoundText = fStringCache.get(fFoundText);
 		}
 		fFoundStatus = STATUS_OK;
@@ -58,7 +58,7 @@ class RScannerDefaultLexer extends RScannerLexer {
 		fFoundType = type;
 		fFoundText = ((status & STATUS_MASK_12) != STATUS2_SYNTAX_TOKEN_NOT_CLOSED) ?
 				fInput.substring(2, fFoundNum-2) : fInput.substring(2, fFoundNum-1);
-		if (fStringCache != null && fFoundText.length() <= 20) {
+		if (fStringCache != null && fFoundText.length() <= STRING_CACHE_SYMBOL_MAX_LENGTH) {
 			fFoundText = fStringCache.get(fFoundText);
 		}
 		fFoundStatus = status;
@@ -77,7 +77,7 @@ class RScannerDefaultLexer extends RScannerLexer {
 		fFoundType = RTerminal.SPECIAL;
 		fFoundText = ((status & STATUS_MASK_12) != STATUS2_SYNTAX_TOKEN_NOT_CLOSED) ?
 				fInput.substring(2, fFoundNum-2) : fInput.substring(2, fFoundNum-1);
-		if (fStringCache != null && fFoundText.length() <= 3) {
+		if (fStringCache != null && fFoundText.length() <= STRING_CACHE_SPECIAL_MAX_LENGTH) {
 			fFoundText = fStringCache.get(fFoundText);
 		}
 		fFoundStatus = status;
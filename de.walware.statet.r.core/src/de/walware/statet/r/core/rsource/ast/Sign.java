@@ -98,7 +98,7 @@ public abstract class Sign extends RAstNode {
 	}
 	
 	
-	final Expression fRightExpr = new Expression();
+	Expression fRightExpr = new Expression();
 	
 	
 	protected Sign() {
@@ -187,6 +187,11 @@ public abstract class Sign extends RAstNode {
 		fStopOffset = fRightExpr.node.fStopOffset;
 	}
 	
+	@Override
+	void copyChildren() {
+		fRightExpr = copyExpr(fRightExpr);
+	}
+	
 	
 	@Override
 	public boolean equalsValue(final RAstNode element) {
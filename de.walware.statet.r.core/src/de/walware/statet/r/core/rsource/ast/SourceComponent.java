@@ -12,6 +12,8 @@
 package de.walware.statet.r.core.rsource.ast;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import de.walware.ecommons.ltk.ast.IAstNode;
@@ -97,4 +99,16 @@ public class SourceComponent extends ExpressionList {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		super.copyChildren();
+		if (fComments != null && !fComments.isEmpty()) {
+			final List<RAstNode> comments = new ArrayList<RAstNode>(fComments.size());
+			for (final RAstNode comment : fComments) {
+				comments.add(copyChild(comment));
+			}
+			fComments = Collections.unmodifiableList(comments);
+		}
+	}
+	
 }
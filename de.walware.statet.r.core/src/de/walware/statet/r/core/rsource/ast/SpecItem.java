@@ -29,7 +29,7 @@ abstract class SpecItem extends RAstNode {
 	
 	RAstNode fArgName;
 	int fEqualsOffset = Integer.MIN_VALUE;
-	final Expression fValueExpr = new Expression();
+	Expression fValueExpr = new Expression();
 	
 	
 	protected SpecItem() {
@@ -188,4 +188,10 @@ abstract class SpecItem extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fArgName = copyChild(fArgName);
+		fValueExpr = copyExpr(fValueExpr);
+	}
+	
 }
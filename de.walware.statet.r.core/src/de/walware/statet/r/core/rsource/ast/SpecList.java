@@ -113,4 +113,13 @@ abstract class SpecList extends RAstNode {
 	final void updateStopOffset() {
 	}
 	
+	@Override
+	void copyChildren() {
+		final List<SpecItem> specs = new ArrayList<SpecItem>(fSpecs.size());
+		for (final SpecItem item : fSpecs) {
+			specs.add(copyChild(item));
+		}
+		fSpecs = specs;
+	}
+	
 }
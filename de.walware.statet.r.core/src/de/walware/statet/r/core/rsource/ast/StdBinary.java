@@ -26,8 +26,8 @@ import de.walware.ecommons.ltk.ast.ICommonAstVisitor;
 abstract class StdBinary extends RAstNode {
 	
 	
-	final Expression fLeftExpr = new Expression();
-	final Expression fRightExpr = new Expression();
+	Expression fLeftExpr = new Expression();
+	Expression fRightExpr = new Expression();
 	
 	
 	StdBinary() {
@@ -134,4 +134,10 @@ abstract class StdBinary extends RAstNode {
 		fStopOffset = fRightExpr.node.fStopOffset;
 	}
 	
+	@Override
+	void copyChildren() {
+		fLeftExpr = copyExpr(fLeftExpr);
+		fRightExpr = copyExpr(fRightExpr);
+	}
+	
 }
@@ -83,7 +83,7 @@ public abstract class SubIndexed extends RAstNode {
 	public static class Args extends RAstNode {
 		
 		
-		final List<SubIndexed.Arg> fSpecs;
+		List<SubIndexed.Arg> fSpecs;
 		
 		
 		Args(final SubIndexed parent) {
@@ -179,6 +179,15 @@ public abstract class SubIndexed extends RAstNode {
 		final void updateStopOffset() {
 		}
 		
+		@Override
+		void copyChildren() {
+			final List<SubIndexed.Arg> specs = new ArrayList<SubIndexed.Arg>(fSpecs.size());
+			for (final SubIndexed.Arg arg : fSpecs) {
+				specs.add(copyChild(arg));
+			}
+			fSpecs = specs;
+		}
+		
 	}
 	
 	public static class Arg extends SpecItem {
@@ -209,8 +218,8 @@ public abstract class SubIndexed extends RAstNode {
 	}
 	
 	
-	final Expression fExpr = new Expression();
-	final Args fSublist = new Args(this);
+	Expression fExpr = new Expression();
+	Args fSublist = new Args(this);
 	int fOpenOffset = Integer.MIN_VALUE;
 	int fCloseOffset = Integer.MIN_VALUE;
 	int fClose2Offset = Integer.MIN_VALUE;
@@ -346,4 +355,10 @@ public abstract class SubIndexed extends RAstNode {
 		}
 	}
 	
+	@Override
+	void copyChildren() {
+		fExpr = copyExpr(fExpr);
+		fSublist = copyChild(fSublist);
+	}
+	
 }
@@ -78,7 +78,7 @@ public abstract class SubNamed extends RAstNode {
 	}
 	
 	
-	final Expression fExpr = new Expression();
+	Expression fExpr = new Expression();
 	SingleValue fSubname;
 	int fOperatorOffset = Integer.MIN_VALUE;
 	
@@ -196,4 +196,10 @@ public abstract class SubNamed extends RAstNode {
 		fStopOffset = fSubname.fStopOffset;
 	}
 	
+	@Override
+	void copyChildren() {
+		fExpr = copyExpr(fExpr);
+		fSubname = copyChild(fSubname);
+	}
+	
 }
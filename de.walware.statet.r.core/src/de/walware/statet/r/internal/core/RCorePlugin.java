@@ -12,7 +12,9 @@
 package de.walware.statet.r.internal.core;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.net.proxy.IProxyService;
 import org.eclipse.core.runtime.IStatus;
@@ -30,7 +32,10 @@ import de.walware.ecommons.preferences.PreferencesUtil;
 import de.walware.statet.r.core.IRCoreAccess;
 import de.walware.statet.r.core.RCodeStyleSettings;
 import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.renv.IREnv;
+import de.walware.statet.r.core.renv.IRPkgFrameCache;
 import de.walware.statet.r.internal.core.renv.REnvManager;
+import de.walware.statet.r.internal.core.renv.RPkgFrameCache;
 import de.walware.statet.r.internal.core.rhelp.RHelpManager;
 import de.walware.statet.r.internal.core.sourcemodel.RModelManager;
 
@@ -103,6 +108,7 @@ public class RCorePlugin extends Plugin {
 	private REnvManager fREnvManager;
 	private RModelManager fRModelManager;
 	private RHelpManager fRHelpManager;
+	private final Map<String, RPkgFrameCache> fRPkgFrameCaches = new HashMap<String, RPkgFrameCache>();
 	
 	private ServiceTracker fProxyService;
 	
@@ -185,6 +191,23 @@ public class RCorePlugin extends Plugin {
 		return fRHelpManager;
 	}
 	
+	public IRPkgFrameCache getRPkgFrameCache(IREnv rEnv) {
+		if (rEnv != null) {
+			rEnv = rEnv.resolve();
+		}
+		if (rEnv == null) {
+			return null;
+		}
+		synchronized (fRPkgFrameCaches) {
+			RPkgFrameCache cache = fRPkgFrameCaches.get(rEnv.getId());
+			if (cache == null) {
+				cache = new RPkgFrameCache(rEnv);
+				fRPkgFrameCaches.put(rEnv.getId(), cache);
+			}
+			return cache;
+		}
+	}
+	
 	public IRCoreAccess getWorkspaceRCoreAccess() {
 		return fWorkspaceCoreAccess;
 	}
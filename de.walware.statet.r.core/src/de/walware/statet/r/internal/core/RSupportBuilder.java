@@ -139,16 +139,24 @@ public class RSupportBuilder extends IncrementalProjectBuilder {
 		if (!fInitialized)
 			init();
 		
-		if (kind == IncrementalProjectBuilder.FULL_BUILD) {
-			doFullBuild(monitor);
-		}
-		else {
-			final IResourceDelta delta = getDelta(getProject());
-			if (delta == null) {
+		try {
+			if (kind == IncrementalProjectBuilder.FULL_BUILD) {
 				doFullBuild(monitor);
 			}
 			else {
-				doIncrementalBuild(delta, monitor);
+				final IResourceDelta delta = getDelta(getProject());
+				if (delta == null) {
+					doFullBuild(monitor);
+				}
+				else {
+					doIncrementalBuild(delta, monitor);
+				}
+			}
+		}
+		finally {
+			if (monitor.isCanceled()) {
+				// files not processed must be built again
+				forgetLastBuiltState();
 			}
 		}
 		monitor.done();
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.batch;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+import de.walware.ecommons.ltk.IProblem;
+
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.batch.RBatchEngine;
+import de.walware.statet.r.core.batch.RBatchEngine.FileResult;
+import de.walware.statet.r.core.batch.RBatchEngine.Summary;
+
+
+/**
+ * Application checking and formatting R files, e.g. in continuous integration builds.
+ * 
+ * Arguments: <code>[-lint] [-format] [-write] [-threads &lt;n&gt;] [-encoding &lt;charset&gt;]
+ * &lt;file or directory&gt;...</code>
+ * 
+ * Without mode argument the files are checked for syntax problems and incorrect indentation.
+ * The exit code is <code>1</code> if a file has syntax errors, is not correctly indented (and
+ * not written) or could not be processed.
+ */
+public class RBatchApplication implements IApplication {
+	
+	
+	private static final Integer EXIT_PROBLEMS = Integer.valueOf(1);
+	private static final Integer EXIT_USAGE = Integer.valueOf(2);
+	
+	private static final String USAGE = "Usage: [-lint] [-format] [-write] [-threads <n>] [-encoding <charset>] <file or directory>..."; //$NON-NLS-1$
+	
+	
+	private volatile RBatchEngine fEngine;
+	
+	
+	public RBatchApplication() {
+	}
+	
+	
+	public Object start(final IApplicationContext context) throws Exception {
+		final String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		final PrintStream out = System.out;
+		
+		int mode = 0;
+		int threads = 0;
+		Charset charset = Charset.forName("UTF-8"); //$NON-NLS-1$
+		final List<File> files = new ArrayList<File>();
+		for (int i = 0; i < args.length; i++) {
+			final String arg = args[i];
+			if (arg.equals("-lint")) { //$NON-NLS-1$
+				mode |= RBatchEngine.LINT;
+			}
+			else if (arg.equals("-format")) { //$NON-NLS-1$
+				mode |= RBatchEngine.FORMAT;
+			}
+			else if (arg.equals("-write")) { //$NON-NLS-1$
+				mode |= (RBatchEngine.FORMAT | RBatchEngine.WRITE);
+			}
+			else if (arg.equals("-threads") && i+1 < args.length) { //$NON-NLS-1$
+				try {
+					threads = Integer.parseInt(args[++i]);
+				}
+				catch (final NumberFormatException e) {
+					threads = -1;
+				}
+				if (threads < 0) {
+					out.println("Invalid number of threads: " + args[i]); //$NON-NLS-1$
+					out.println(USAGE);
+					return EXIT_USAGE;
+				}
+			}
+			else if (arg.equals("-encoding") && i+1 < args.length) { //$NON-NLS-1$
+				try {
+					charset = Charset.forName(args[++i]);
+				}
+				catch (final IllegalArgumentException e) {
+					out.println("Unsupported encoding: " + args[i]); //$NON-NLS-1$
+					out.println(USAGE);
+					return EXIT_USAGE;
+				}
+			}
+			else if (arg.startsWith("-")) { //$NON-NLS-1$
+				out.println("Unknown argument: " + arg); //$NON-NLS-1$
+				out.println(USAGE);
+				return EXIT_USAGE;
+			}
+			else {
+				final File file = new File(arg);
+				if (!file.exists()) {
+					out.println("File not found: " + arg); //$NON-NLS-1$
+					return EXIT_USAGE;
+				}
+				RBatchEngine.collectFiles(file, files);
+			}
+		}
+		if (mode == 0) {
+			mode = (RBatchEngine.LINT | RBatchEngine.FORMAT);
+		}
+		
+		fEngine = new RBatchEngine(RCore.getWorkbenchAccess(), mode, charset, threads);
+		final Summary summary = fEngine.run(files, new RBatchEngine.Listener() {
+			public void fileDone(final FileResult result) {
+				final String path = result.file.getPath();
+				if (result.status != null) {
+					out.println(path + ": " + result.status.getMessage()); //$NON-NLS-1$
+					return;
+				}
+				for (int i = 0; i < result.problems.size(); i++) {
+					final IProblem problem = result.problems.get(i);
+					out.println(path + ':' + (result.problemLines[i] + 1) + ": " //$NON-NLS-1$
+							+ ((problem.getSeverity() == IProblem.SEVERITY_ERROR) ? "error: " : "warning: ") //$NON-NLS-1$ //$NON-NLS-2$
+							+ problem.getMessage() );
+				}
+				if (result.written) {
+					out.println(path + ": formatted"); //$NON-NLS-1$
+				}
+				else if (result.formatRequired) {
+					out.println(path + ": indentation not correct"); //$NON-NLS-1$
+				}
+			}
+		}, new NullProgressMonitor());
+		out.println(summary.toString());
+		
+		if (summary.errorFileCount > 0 || summary.failedFileCount > 0
+				|| (summary.formatFileCount > 0 && (mode & RBatchEngine.WRITE) == 0)) {
+			return EXIT_PROBLEMS;
+		}
+		return EXIT_OK;
+	}
+	
+	public void stop() {
+		final RBatchEngine engine = fEngine;
+		if (engine != null) {
+			engine.cancel();
+		}
+	}
+	
+}
@@ -12,6 +12,7 @@
 package de.walware.statet.r.internal.core.builder;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -24,8 +25,10 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.text.IRegion;
 
 import de.walware.ecommons.ICommonStatusConstants;
+import de.walware.ecommons.ltk.ISourceUnit;
 import de.walware.ecommons.ltk.IWorkspaceSourceUnit;
 
 import de.walware.statet.r.core.RCore;
@@ -37,8 +40,14 @@ import de.walware.statet.r.core.model.IRFrame;
 import de.walware.statet.r.core.model.IRFrameInSource;
 import de.walware.statet.r.core.model.IRLangElement;
 import de.walware.statet.r.core.model.IRMethod;
+import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.core.model.RSymbolReference;
+import de.walware.statet.r.core.rsource.ast.NodeType;
+import de.walware.statet.r.core.rsource.ast.RAst;
 import de.walware.statet.r.core.rsource.ast.RAstNode;
+import de.walware.statet.r.internal.core.sourcemodel.ElementAccess;
 import de.walware.statet.r.internal.core.sourcemodel.RModelIndex;
 import de.walware.statet.r.internal.core.sourcemodel.RModelManager;
 import de.walware.statet.r.internal.core.sourcemodel.RReconciler;
@@ -51,10 +60,13 @@ public class RBuildReconciler extends RReconciler {
 		
 		public final RUnitElement exportedElement;
 		public final Set<String> defaultNames;
+		public final Map<String, List<RSymbolReference>> references;
 		
-		public Result(final RUnitElement root, final Set<String> defaultNames) {
+		public Result(final RUnitElement root, final Set<String> defaultNames,
+				final Map<String, List<RSymbolReference>> references) {
 			this.exportedElement = root;
 			this.defaultNames = defaultNames;
+			this.references = references;
 		}
 		
 	}
@@ -76,9 +88,20 @@ public class RBuildReconciler extends RReconciler {
 	
 	public void init(final RProject project, final MultiStatus status) throws CoreException {
 		fTaskScanner.init(project);
+		fTaskScanner.resetStatistic();
 		fStatusCollector = status;
 	}
 	
+	/**
+	 * Logs the statistic of the task markers updated since {@link #init(RProject, MultiStatus)},
+	 * if the builder debug mode is enabled.
+	 * 
+	 * @param label label of the build
+	 */
+	public void reportMarkerStatistic(final String label) {
+		fTaskScanner.reportStatistic(label);
+	}
+	
 	/** for file build 
 	 * @throws CoreException
 	 **/
@@ -90,67 +113,85 @@ public class RBuildReconciler extends RReconciler {
 		if (type == 0) {
 			return null;
 		}
-		if (fStop || monitor.isCanceled()) {
-			throw new OperationCanceledException();
-		}
-		
-		final Data data = new Data(su, monitor);
-		
-		if (fStop || monitor.isCanceled()) {
-			throw new OperationCanceledException();
-		}
-		
-		updateAst(data, monitor);
-		
-		if (fStop || monitor.isCanceled()) {
-			throw new OperationCanceledException();
-		}
-		
-		updateModel(data);
-		
-		if (fStop || monitor.isCanceled()) {
-			throw new OperationCanceledException();
-		}
-		
-//		final IProblemRequestor problemRequestor = su.getProblemRequestor();
-//		if (problemRequestor != null) {
-			initParseInput(data);
-//			problemRequestor.beginReportingSequence();
-			try {
-				final List<RAstNode> comments = data.ast.root.getComments();
-				fTaskScanner.setup((IResource) su.getResource());
-				for (final RAstNode comment : comments) {
-						final int offset = comment.getOffset()+1;
-						fTaskScanner.checkForTasks(data.content.text.substring(offset, offset+comment.getLength()-1),
-								offset, data.ast.getLineInformation());
+		// the old task markers are removed, if the build of the file is not completed
+		boolean markersUpdated = false;
+		try {
+			if (fStop || monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			
+			final Data data = new Data(su, monitor);
+			
+			if (fStop || monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			
+			updateAst(data, monitor);
+			
+			if (fStop || monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			
+			updateModel(data);
+			
+			if (fStop || monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			
+//			final IProblemRequestor problemRequestor = su.getProblemRequestor();
+//			if (problemRequestor != null) {
+				initParseInput(data);
+//				problemRequestor.beginReportingSequence();
+				try {
+					final List<RAstNode> comments = data.ast.root.getComments();
+					fTaskScanner.setup((IResource) su.getResource());
+					for (final RAstNode comment : comments) {
+							final int offset = comment.getOffset()+1;
+							fTaskScanner.checkForTasks(data.content.text.substring(offset, offset+comment.getLength()-1),
+									offset, data.ast.getLineInformation());
+					}
+					fTaskScanner.applyMarkers();
+					markersUpdated = true;
+				}
+				catch (final CoreException e) {
+					fStatusCollector.add(new Status(IStatus.ERROR, RCore.PLUGIN_ID,
+							ICommonStatusConstants.BUILD_ERROR, "Failed to create task marker(s).", e));
 				}
+//				f2SyntaxReporter.run(su, ast, problemRequestor);
+//				problemRequestor.endReportingSequence();
+//			}
+			
+			if (fStop || monitor.isCanceled()) {
+				throw new OperationCanceledException();
 			}
-			catch (final CoreException e) {
-				fStatusCollector.add(new Status(IStatus.ERROR, RCore.PLUGIN_ID,
-						ICommonStatusConstants.BUILD_ERROR, "Failed to create task marker(s).", e));
+			return createResult(data.su, data.newModel);
+		}
+		finally {
+			if (!markersUpdated) {
+				RBuilder.clearMarkers((IResource) su.getResource());
 			}
-//			f2SyntaxReporter.run(su, ast, problemRequestor);
-//			problemRequestor.endReportingSequence();
-//		}
-		
-		if (fStop || monitor.isCanceled()) {
-			throw new OperationCanceledException();
 		}
-		return createResult(data);
 	}
 	
-	private Result createResult(final Data data) {
-		if (data.newModel == null) {
+	/**
+	 * Creates the index data of a source unit from its model.
+	 * 
+	 * @param su the source unit
+	 * @param model the model of the source unit
+	 * @return the result or <code>null</code>, if there is no model
+	 */
+	public static Result createResult(final ISourceUnit su, final IRModelInfo model) {
+		if (model == null) {
 			return null;
 		}
 		
-		final IRFrameInSource topFrame = data.newModel.getTopFrame();
+		final IRFrameInSource topFrame = model.getTopFrame();
 		final List<? extends IRLangElement> children = topFrame.getModelChildren(null);
 		if (children == null) {
 			return null;
 		}
 		final ArrayList<IRLangElement> exports = new ArrayList<IRLangElement>(children.size());
-		final RUnitElement root = new RUnitElement(data.su, exports);
+		final RUnitElement root = new RUnitElement(su, exports);
 		for (final IRLangElement element : children) {
 			final int type = element.getElementType();
 			switch (type & IRElement.MASK_C1) {
@@ -168,13 +209,76 @@ public class RBuildReconciler extends RReconciler {
 			}
 		}
 		final Set<String> names = new HashSet<String>();
-		names.addAll(data.newModel.getTopFrame().getAllAccessNames());
-		final Map<String, ? extends IRFrame> frames = data.newModel.getReferencedFrames();
+		final Map<String, List<RSymbolReference>> references = new HashMap<String, List<RSymbolReference>>();
+		addReferences(su.getId(), topFrame, names, references);
+		final Map<String, ? extends IRFrame> frames = model.getReferencedFrames();
 		for (final IRFrame frame : frames.values()) {
-			names.addAll(((IRFrameInSource) frame).getAllAccessNames());
+			addReferences(su.getId(), (IRFrameInSource) frame, names, references);
 		}
 		
-		return new Result(root, names);
+		return new Result(root, names, references);
+	}
+	
+	private static void addReferences(final String suId, final IRFrameInSource frame,
+			final Set<String> names, final Map<String, List<RSymbolReference>> references) {
+		for (final String name : frame.getAllAccessNames()) {
+			names.add(name);
+			if (name == null) {
+				continue;
+			}
+			final List<? extends RElementAccess> allAccess = frame.getAllAccessOfElement(name);
+			if (allAccess == null || allAccess.isEmpty()) {
+				continue;
+			}
+			List<RSymbolReference> list = references.get(name);
+			if (list == null) {
+				list = new ArrayList<RSymbolReference>(allAccess.size());
+				references.put(name, list);
+			}
+			for (final RElementAccess access : allAccess) {
+				final RAstNode nameNode = (access.getNameNode() != null) ? access.getNameNode() : access.getNode();
+				if (nameNode == null) {
+					continue;
+				}
+				final int kind;
+				if (access instanceof ElementAccess && ((ElementAccess) access).isArgAccess()) {
+					kind = RSymbolReference.ARG;
+				}
+				else if (access.isWriteAccess()) {
+					kind = RSymbolReference.DEF;
+				}
+				else if (access.isCallAccess() && access.isFunctionAccess()) {
+					kind = RSymbolReference.CALL;
+				}
+				else {
+					kind = RSymbolReference.USE;
+				}
+				final IRegion region = RAst.getElementNameRegion(nameNode);
+				list.add(new RSymbolReference(suId, region.getOffset(), region.getLength(), kind,
+						getEnclosingFunctionName(nameNode) ));
+			}
+		}
+	}
+	
+	private static String getEnclosingFunctionName(final RAstNode node) {
+		RAstNode fdef = node.getRParent();
+		while (fdef != null && fdef.getNodeType() != NodeType.F_DEF) {
+			fdef = fdef.getRParent();
+		}
+		if (fdef == null) {
+			return null;
+		}
+		RAstNode take = fdef;
+		RAstNode candidate = take.getRParent();
+		RAstNode target = null;
+		RAst.AssignExpr assign;
+		while (candidate != null
+				&& (assign = RAst.checkAssign(candidate)) != null && assign.valueNode == take) {
+			target = assign.targetNode;
+			take = assign.assignNode;
+			candidate = take.getRParent();
+		}
+		return (target != null) ? target.getText() : null;
 	}
 	
 }
@@ -79,6 +79,7 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 	public IStatus buildIncremental(final RProject project, final IResourceDelta delta, final IProgressMonitor monitor) {
 		fStatusCollector = new MultiStatus(RCore.PLUGIN_ID, 0, "R build status for "+project.getProject().getName(), null);
 		final SubMonitor progress = SubMonitor.convert(monitor);
+		fTaskMarkerHandler.resetStatistic();
 		try {
 			delta.accept(this);
 			
@@ -101,6 +102,7 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 			fRemovedRSU.clear();
 			fToUpdateRSU.clear();
 		}
+		fTaskMarkerHandler.reportStatistic("Rd files of " + project.getProject().getName()); //$NON-NLS-1$
 		return fStatusCollector;
 	}
 	
@@ -112,25 +114,23 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 			case IResourceDelta.ADDED:
 			case IResourceDelta.CHANGED:
 				if (resource instanceof IFile) {
-					clearMarkers(resource);
 					final IFile file = (IFile) resource;
 					final IContentDescription contentDescription = file.getContentDescription();
-					if (contentDescription == null) {
-						return true;
-					}
-					final IContentType contentType = contentDescription.getContentType();
-					if (contentType == null) {
-						return true;
-					}
-					if (IRSourceUnit.R_CONTENT.equals(contentType.getId())) {
-						final IRWorkspaceSourceUnit unit = (IRWorkspaceSourceUnit) LTK.getSourceUnitManager().getSourceUnit(RModel.TYPE_ID, LTK.PERSISTENCE_CONTEXT, file, true, null);
-						fToUpdateRSU.add(unit);
-						return true;
-					}
-					if (IRSourceUnit.RD_CONTENT.equals(contentType.getId())) {
-						doParseRd(file);
-						return true;
+					final IContentType contentType = (contentDescription != null) ?
+							contentDescription.getContentType() : null;
+					if (contentType != null) {
+						// markers are reconciled when the file is processed
+						if (IRSourceUnit.R_CONTENT.equals(contentType.getId())) {
+							final IRWorkspaceSourceUnit unit = (IRWorkspaceSourceUnit) LTK.getSourceUnitManager().getSourceUnit(RModel.TYPE_ID, LTK.PERSISTENCE_CONTEXT, file, true, null);
+							fToUpdateRSU.add(unit);
+							return true;
+						}
+						if (IRSourceUnit.RD_CONTENT.equals(contentType.getId())) {
+							doParseRd(file);
+							return true;
+						}
 					}
+					clearMarkers(resource);
 				}
 				return true;
 			
@@ -158,6 +158,7 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 	public IStatus buildFull(final RProject project, final IProgressMonitor monitor) {
 		fStatusCollector = new MultiStatus(RCore.PLUGIN_ID, 0, "R build status for "+project.getProject().getName(), null);
 		final SubMonitor progress = SubMonitor.convert(monitor);
+		fTaskMarkerHandler.resetStatistic();
 		try {
 			project.getProject().accept(this);
 			
@@ -180,33 +181,32 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 			fRemovedRSU.clear();
 			fToUpdateRSU.clear();
 		}
+		fTaskMarkerHandler.reportStatistic("Rd files of " + project.getProject().getName()); //$NON-NLS-1$
 		return fStatusCollector;
 	}
 	
 	public boolean visit(final IResource resource) throws CoreException {
-		clearMarkers(resource);
 		try {
 			if (resource instanceof IFile) {
 				final IFile file = (IFile) resource;
 				final IContentDescription contentDescription = file.getContentDescription();
-				if (contentDescription == null) {
-					return true;
-				}
-				final IContentType contentType = contentDescription.getContentType();
-				if (contentType == null) {
-					return true;
-				}
-				if (IRSourceUnit.R_CONTENT.equals(contentType.getId())) {
-					final IRWorkspaceSourceUnit unit = (IRWorkspaceSourceUnit) LTK.getSourceUnitManager().getSourceUnit(RModel.TYPE_ID, LTK.PERSISTENCE_CONTEXT, file, true, null);
-					if (unit != null) {
-						fToUpdateRSU.add(unit);
+				final IContentType contentType = (contentDescription != null) ?
+						contentDescription.getContentType() : null;
+				if (contentType != null) {
+					// markers are reconciled when the file is processed
+					if (IRSourceUnit.R_CONTENT.equals(contentType.getId())) {
+						final IRWorkspaceSourceUnit unit = (IRWorkspaceSourceUnit) LTK.getSourceUnitManager().getSourceUnit(RModel.TYPE_ID, LTK.PERSISTENCE_CONTEXT, file, true, null);
+						if (unit != null) {
+							fToUpdateRSU.add(unit);
+							return true;
+						}
+					}
+					else if (IRSourceUnit.RD_CONTENT.equals(contentType.getId())) {
+						doParseRd(file);
+						return true;
 					}
-					return true;
-				}
-				if (IRSourceUnit.RD_CONTENT.equals(contentType.getId())) {
-					doParseRd(file);
-					return true;
 				}
+				clearMarkers(resource);
 			}
 			return true;
 		}
@@ -236,8 +236,10 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 		try {
 			fTaskMarkerHandler.setup(file);
 			new RdParser(readFile(file), fTaskMarkerHandler).check();
+			fTaskMarkerHandler.applyMarkers();
 		}
 		catch (final CoreException e) {
+			clearMarkers(file);
 			fStatusCollector.add(new Status(IStatus.ERROR, RCore.PLUGIN_ID, ICommonStatusConstants.BUILD_ERROR,
 					NLS.bind("An error occurred when parsing Rd file ''{0}''", file.getFullPath().toString()), e));
 		}
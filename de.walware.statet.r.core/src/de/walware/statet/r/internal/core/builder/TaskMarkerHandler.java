@@ -11,33 +11,63 @@
 
 package de.walware.statet.r.internal.core.builder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 
 import de.walware.ecommons.text.ILineInformation;
 
 import de.walware.statet.base.core.preferences.TaskTagsPreferences;
 import de.walware.statet.base.core.preferences.TaskTagsPreferences.TaskPriority;
 
+import de.walware.statet.r.core.RCore;
 import de.walware.statet.r.core.RProject;
+import de.walware.statet.r.internal.core.RCorePlugin;
 
 
+/**
+ * Creates the task markers of a resource.
+ * 
+ * The markers for a resource are collected between {@link #setup(IResource)} and
+ * {@link #applyMarkers()}. The collected markers are compared with the existing markers of
+ * the resource, so only changed markers are deleted or created, in a single workspace
+ * operation.
+ */
 public class TaskMarkerHandler {
 	
 	
 	public static final String TASK_MARKER_ID = "de.walware.statet.r.markers.Tasks"; //$NON-NLS-1$
 	
+	public static final boolean DEBUG = Boolean.parseBoolean(System.getProperty("de.walware.statet.r.builder.debug")); //$NON-NLS-1$
+	
+	private static final String[] MARKER_ATTRIBUTES = new String[] {
+			IMarker.MESSAGE, IMarker.PRIORITY, IMarker.LINE_NUMBER,
+			IMarker.CHAR_START, IMarker.CHAR_END, IMarker.USER_EDITABLE,
+	};
+	
 	
 	private Pattern fTaskTagPattern;
 	private Map<String, TaskPriority> fTaskTagMap;
 	
 	private IResource fResource;
+	private final List<Object[]> fNewMarkers = new ArrayList<Object[]>();
+	
+	private int fWrittenCount;
+	private int fDeletedCount;
+	private int fUnchangedCount;
 	
 	
 	public TaskMarkerHandler() {
@@ -48,8 +78,14 @@ public class TaskMarkerHandler {
 		loadTaskPattern(project);
 	}
 	
+	/**
+	 * Starts the collection of the markers for the specified resource.
+	 * 
+	 * @param resource the resource
+	 */
 	public void setup(final IResource resource) {
 		fResource = resource;
+		fNewMarkers.clear();
 	}
 	
 	public void addTaskMarker(final String message, final int offset, int lineNumber, final String match) 
@@ -57,25 +93,95 @@ public class TaskMarkerHandler {
 		
 		final TaskPriority prio = fTaskTagMap.get(match);
 		
-		final IMarker marker = fResource.createMarker(TASK_MARKER_ID);
-		
-		marker.setAttribute(IMarker.MESSAGE, message);
-		marker.setAttribute(IMarker.PRIORITY, prio.getMarkerPriority());
 		if (lineNumber == -1) {
 			lineNumber = 1;
 		}
-		marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
-		if (offset != -1) {
-			marker.setAttribute(IMarker.CHAR_START, offset);
-			marker.setAttribute(IMarker.CHAR_END, offset+message.length());
-		}		
-		marker.setAttribute(IMarker.USER_EDITABLE, false);
+		fNewMarkers.add(new Object[] {
+				message,
+				Integer.valueOf(prio.getMarkerPriority()),
+				Integer.valueOf(lineNumber),
+				(offset != -1) ? Integer.valueOf(offset) : null,
+				(offset != -1) ? Integer.valueOf(offset+message.length()) : null,
+				Boolean.FALSE,
+		});
+	}
+	
+	/**
+	 * Replaces the task markers of the resource by the markers collected since
+	 * {@link #setup(IResource)}.
+	 * 
+	 * Existing markers with the same attributes are kept.
+	 * 
+	 * @throws CoreException
+	 */
+	public void applyMarkers() throws CoreException {
+		final IResource resource = fResource;
+		if (resource == null) {
+			return;
+		}
+		try {
+			final IWorkspace workspace = resource.getWorkspace();
+			workspace.run(new IWorkspaceRunnable() {
+				public void run(final IProgressMonitor monitor) throws CoreException {
+					final IMarker[] existing = resource.findMarkers(TASK_MARKER_ID, false, IResource.DEPTH_ZERO);
+					final int count = fNewMarkers.size();
+					final boolean[] found = new boolean[count];
+					ITER_EXISTING: for (final IMarker marker : existing) {
+						final Object[] values = marker.getAttributes(MARKER_ATTRIBUTES);
+						for (int i = 0; i < count; i++) {
+							if (!found[i] && Arrays.equals(values, fNewMarkers.get(i))) {
+								found[i] = true;
+								fUnchangedCount++;
+								continue ITER_EXISTING;
+							}
+						}
+						marker.delete();
+						fDeletedCount++;
+					}
+					for (int i = 0; i < count; i++) {
+						if (!found[i]) {
+							final IMarker marker = resource.createMarker(TASK_MARKER_ID);
+							marker.setAttributes(MARKER_ATTRIBUTES, fNewMarkers.get(i));
+							fWrittenCount++;
+						}
+					}
+				}
+			}, workspace.getRuleFactory().markerRule(resource), IWorkspace.AVOID_UPDATE, null);
+		}
+		finally {
+			fResource = null;
+			fNewMarkers.clear();
+		}
 	}
 	
 	public void removeTaskMarkers() throws CoreException {
 		fResource.deleteMarkers(TASK_MARKER_ID, false, IResource.DEPTH_INFINITE);
 	}
 	
+	/**
+	 * Resets the statistic of changed markers.
+	 */
+	public void resetStatistic() {
+		fWrittenCount = 0;
+		fDeletedCount = 0;
+		fUnchangedCount = 0;
+	}
+	
+	/**
+	 * Logs the statistic of changed markers since the last reset, if the builder debug mode is
+	 * enabled.
+	 * 
+	 * @param label label of the build
+	 */
+	public void reportStatistic(final String label) {
+		if (DEBUG) {
+			RCorePlugin.log(new Status(IStatus.INFO, RCore.PLUGIN_ID, -1,
+					"Task markers of " + label + ": " + //$NON-NLS-1$ //$NON-NLS-2$
+					fWrittenCount + " written, " + fDeletedCount + " deleted, " + //$NON-NLS-1$ //$NON-NLS-2$
+					fUnchangedCount + " unchanged.", null )); //$NON-NLS-1$
+		}
+	}
+	
 	private void loadTaskPattern(final RProject project) {
 		fTaskTagPattern = null;
 		fTaskTagMap = null;
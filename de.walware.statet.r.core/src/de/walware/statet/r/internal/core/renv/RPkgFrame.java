@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.renv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jface.text.IRegion;
+
+import de.walware.ecommons.collections.ConstList;
+import de.walware.ecommons.ltk.IModelElement;
+import de.walware.ecommons.ltk.ISourceUnit;
+
+import de.walware.statet.r.core.model.ArgsDefinition;
+import de.walware.statet.r.core.model.IRElement;
+import de.walware.statet.r.core.model.IRFrame;
+import de.walware.statet.r.core.model.IRLangElement;
+import de.walware.statet.r.core.model.IRMethod;
+import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RModel;
+
+
+/**
+ * Package frame loaded from the {@link RPkgFrameCache}.
+ */
+public final class RPkgFrame implements IRFrame {
+	
+	
+	static class Element implements IRLangElement {
+		
+		
+		private final RPkgFrame fFrame;
+		private final int fElementType;
+		private final RElementName fElementName;
+		private final String fClassName;
+		
+		
+		Element(final RPkgFrame frame, final int type, final String name, final String className) {
+			fFrame = frame;
+			fElementType = type;
+			fElementName = RElementName.create(RElementName.MAIN_DEFAULT, name);
+			fClassName = className;
+		}
+		
+		
+		public String getModelTypeId() {
+			return RModel.TYPE_ID;
+		}
+		
+		public String getId() {
+			return fElementName.getSegmentName();
+		}
+		
+		public int getElementType() {
+			return fElementType;
+		}
+		
+		public RElementName getElementName() {
+			return fElementName;
+		}
+		
+		/**
+		 * The R class name of the object
+		 * 
+		 * @return the class name or <code>null</code> if unknown
+		 */
+		public String getRClassName() {
+			return fClassName;
+		}
+		
+		public RPkgFrame getFrame() {
+			return fFrame;
+		}
+		
+		public boolean exists() {
+			return true;
+		}
+		
+		public boolean isReadOnly() {
+			return true;
+		}
+		
+		
+		public IRElement getModelParent() {
+			return null;
+		}
+		
+		public boolean hasModelChildren(final Filter filter) {
+			return false;
+		}
+		
+		public List<? extends IRLangElement> getModelChildren(final Filter filter) {
+			return Collections.emptyList();
+		}
+		
+		
+		public ISourceUnit getSourceUnit() {
+			return null;
+		}
+		
+		public IRegion getSourceRange() {
+			return null;
+		}
+		
+		public IRegion getNameSourceRange() {
+			return null;
+		}
+		
+		public IRegion getDocumentationRange() {
+			return null;
+		}
+		
+		
+		public Object getAdapter(final Class required) {
+			return null;
+		}
+		
+	}
+	
+	static final class Method extends Element implements IRMethod {
+		
+		
+		private final ArgsDefinition fArgs;
+		
+		
+		Method(final RPkgFrame frame, final String name, final String className, final ArgsDefinition args) {
+			super(frame, R_COMMON_FUNCTION, name, className);
+			fArgs = args;
+		}
+		
+		
+		public ArgsDefinition getArgsDefinition() {
+			return fArgs;
+		}
+		
+	}
+	
+	
+	private final String fPkgVersion;
+	private final RElementName fElementName;
+	
+	private List<Element> fElements;
+	private Map<String, Element> fElementMap;
+	
+	
+	RPkgFrame(final String pkgName, final String pkgVersion) {
+		fElementName = RElementName.create(RElementName.MAIN_PACKAGE, pkgName);
+		fPkgVersion = pkgVersion;
+	}
+	
+	
+	void setElements(final Element[] elements) {
+		fElements = new ConstList<Element>(elements);
+		fElementMap = new HashMap<String, Element>(elements.length);
+		for (int i = 0; i < elements.length; i++) {
+			fElementMap.put(elements[i].getElementName().getSegmentName(), elements[i]);
+		}
+	}
+	
+	
+	public int getFrameType() {
+		return PACKAGE;
+	}
+	
+	public String getFrameId() {
+		return null;
+	}
+	
+	public RElementName getElementName() {
+		return fElementName;
+	}
+	
+	public String getPkgVersion() {
+		return fPkgVersion;
+	}
+	
+	public List<? extends IRElement> getModelElements() {
+		return fElements;
+	}
+	
+	public boolean hasModelChildren(final IModelElement.Filter filter) {
+		if (filter == null) {
+			return !fElements.isEmpty();
+		}
+		for (final Element element : fElements) {
+			if (filter.include(element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public List<? extends IRLangElement> getModelChildren(final IModelElement.Filter filter) {
+		if (filter == null) {
+			return fElements;
+		}
+		final List<IRLangElement> list = new ArrayList<IRLangElement>();
+		for (final Element element : fElements) {
+			if (filter.include(element)) {
+				list.add(element);
+			}
+		}
+		return list;
+	}
+	
+	public List<? extends IRFrame> getPotentialParents() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Returns the element with the specified name.
+	 * 
+	 * @param name the name of the element
+	 * @return the element or <code>null</code>
+	 */
+	public IRLangElement getElement(final String name) {
+		return fElementMap.get(name);
+	}
+	
+}
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.renv;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import de.walware.ecommons.ICommonStatusConstants;
+import de.walware.ecommons.ltk.IModelElement;
+
+import de.walware.rj.data.RObject;
+
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.model.ArgsDefinition;
+import de.walware.statet.r.core.model.IRElement;
+import de.walware.statet.r.core.model.IRFrame;
+import de.walware.statet.r.core.model.IRLangElement;
+import de.walware.statet.r.core.model.IRMethod;
+import de.walware.statet.r.core.renv.IREnv;
+import de.walware.statet.r.core.renv.IREnvConfiguration;
+import de.walware.statet.r.core.renv.IRPkgFrameCache;
+import de.walware.statet.r.internal.core.RCorePlugin;
+
+
+/**
+ * Persistent cache of package frames of an R environment.
+ * 
+ * Each package is stored in a separate file in the directory <code>pkgframes</code> of the
+ * index directory of the R environment. A file is loaded not until the package is requested
+ * the first time.
+ */
+public class RPkgFrameCache implements IRPkgFrameCache {
+	
+	
+	private static final int VERSION = 1;
+	
+	private static final String DIRECTORY_NAME = "pkgframes"; //$NON-NLS-1$
+	private static final String FILE_EXTENSION = ".rframe"; //$NON-NLS-1$
+	
+	private static final byte ELEMENT_VARIABLE = 0;
+	private static final byte ELEMENT_FUNCTION = 1;
+	
+	private static final RPkgFrame NOT_AVAILABLE = new RPkgFrame("", null); //$NON-NLS-1$
+	
+	
+	private final IREnv fREnv;
+	
+	private final Map<String, RPkgFrame> fFrames = new HashMap<String, RPkgFrame>();
+	
+	
+	public RPkgFrameCache(final IREnv rEnv) {
+		fREnv = rEnv;
+	}
+	
+	
+	public IREnv getREnv() {
+		return fREnv;
+	}
+	
+	public IRFrame getPkgFrame(final String pkgName) {
+		return getFrame(pkgName);
+	}
+	
+	public boolean update(final String pkgName, final String pkgVersion, final IRFrame frame) {
+		if (pkgName == null || pkgVersion == null || frame == null) {
+			return false;
+		}
+		{	final RPkgFrame current = getFrame(pkgName);
+			if (current != null && pkgVersion.equals(current.getPkgVersion())) {
+				return false;
+			}
+		}
+		final RPkgFrame newFrame = create(pkgName, pkgVersion, frame);
+		synchronized (fFrames) {
+			fFrames.put(pkgName, newFrame);
+		}
+		save(newFrame);
+		return true;
+	}
+	
+	
+	private RPkgFrame getFrame(final String pkgName) {
+		synchronized (fFrames) {
+			RPkgFrame frame = fFrames.get(pkgName);
+			if (frame == null) {
+				frame = load(pkgName);
+				fFrames.put(pkgName, (frame != null) ? frame : NOT_AVAILABLE);
+			}
+			return (frame != NOT_AVAILABLE) ? frame : null;
+		}
+	}
+	
+	private RPkgFrame create(final String pkgName, final String pkgVersion, final IRFrame source) {
+		final RPkgFrame frame = new RPkgFrame(pkgName, pkgVersion);
+		final List<? extends IRLangElement> children = source.getModelChildren(null);
+		final RPkgFrame.Element[] elements = new RPkgFrame.Element[children.size()];
+		int count = 0;
+		for (final IRLangElement child : children) {
+			final String name = child.getElementName().getSegmentName();
+			if (name == null) {
+				continue;
+			}
+			final String className = (child instanceof RObject) ?
+					((RObject) child).getRClassName() : null;
+			if ((child.getElementType() & IModelElement.MASK_C1) == IModelElement.C1_METHOD) {
+				elements[count++] = new RPkgFrame.Method(frame, name, className,
+						((IRMethod) child).getArgsDefinition() );
+			}
+			else {
+				elements[count++] = new RPkgFrame.Element(frame, IRElement.R_GENERAL_VARIABLE,
+						name, className);
+			}
+		}
+		if (count < elements.length) {
+			final RPkgFrame.Element[] trimmed = new RPkgFrame.Element[count];
+			System.arraycopy(elements, 0, trimmed, 0, count);
+			frame.setElements(trimmed);
+		}
+		else {
+			frame.setElements(elements);
+		}
+		return frame;
+	}
+	
+	
+	private File getDirectory(final boolean create) {
+		final IREnvConfiguration config = fREnv.getConfig();
+		if (config == null) {
+			return null;
+		}
+		try {
+			final IFileStore indexDirectory = config.getIndexDirectoryStore();
+			if (indexDirectory == null) {
+				return null;
+			}
+			final File directory = new File(indexDirectory.toLocalFile(0, null), DIRECTORY_NAME);
+			if (create && !directory.exists()) {
+				directory.mkdirs();
+			}
+			return directory;
+		}
+		catch (final Exception e) {
+			return null;
+		}
+	}
+	
+	private File getFile(final File directory, final String pkgName) {
+		return new File(directory, pkgName + FILE_EXTENSION);
+	}
+	
+	private RPkgFrame load(final String pkgName) {
+		final File directory = getDirectory(false);
+		if (directory == null) {
+			return null;
+		}
+		final File file = getFile(directory, pkgName);
+		if (!file.exists()) {
+			return null;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != VERSION) {
+				return null;
+			}
+			final RPkgFrame frame = new RPkgFrame(pkgName, readString(in));
+			final int count = in.readInt();
+			final RPkgFrame.Element[] elements = new RPkgFrame.Element[count];
+			for (int i = 0; i < count; i++) {
+				final byte type = in.readByte();
+				final String name = readString(in);
+				final String className = readString(in);
+				if (type == ELEMENT_FUNCTION) {
+					final int argCount = in.readInt();
+					ArgsDefinition args = null;
+					if (argCount >= 0) {
+						final String[] argNames = new String[argCount];
+						for (int j = 0; j < argCount; j++) {
+							argNames[j] = readString(in);
+						}
+						args = new ArgsDefinition(argNames);
+					}
+					elements[i] = new RPkgFrame.Method(frame, name, className, args);
+				}
+				else {
+					elements[i] = new RPkgFrame.Element(frame, IRElement.R_GENERAL_VARIABLE,
+							name, className);
+				}
+			}
+			frame.setElements(elements);
+			return frame;
+		}
+		catch (final Exception e) {
+			RCorePlugin.log(new Status(IStatus.ERROR, RCore.PLUGIN_ID, ICommonStatusConstants.IO_ERROR,
+					"An error occurred when loading the cached frame of package '" + pkgName + "'.", e ));
+			return null;
+		}
+		finally {
+			if (in != null) {
+				try {
+					in.close();
+				}
+				catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+	private void save(final RPkgFrame frame) {
+		final String pkgName = frame.getElementName().getSegmentName();
+		final File directory = getDirectory(true);
+		if (directory == null) {
+			return;
+		}
+		final File newFile = new File(directory, pkgName + ".new"); //$NON-NLS-1$
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(newFile)));
+			out.writeInt(VERSION);
+			writeString(out, frame.getPkgVersion());
+			final List<? extends IRLangElement> elements = frame.getModelChildren(null);
+			out.writeInt(elements.size());
+			for (final IRLangElement element : elements) {
+				final RPkgFrame.Element cached = (RPkgFrame.Element) element;
+				out.writeByte((cached instanceof RPkgFrame.Method) ? ELEMENT_FUNCTION : ELEMENT_VARIABLE);
+				writeString(out, cached.getElementName().getSegmentName());
+				writeString(out, cached.getRClassName());
+				if (cached instanceof RPkgFrame.Method) {
+					final ArgsDefinition args = ((RPkgFrame.Method) cached).getArgsDefinition();
+					if (args != null) {
+						out.writeInt(args.size());
+						for (int i = 0; i < args.size(); i++) {
+							writeString(out, args.get(i).name);
+						}
+					}
+					else {
+						out.writeInt(-1);
+					}
+				}
+			}
+			out.close();
+			out = null;
+			
+			final File file = getFile(directory, pkgName);
+			if (file.exists()) {
+				file.delete();
+			}
+			if (!newFile.renameTo(file)) {
+				throw new IOException("Renaming failed.");
+			}
+		}
+		catch (final IOException e) {
+			RCorePlugin.log(new Status(IStatus.ERROR, RCore.PLUGIN_ID, ICommonStatusConstants.IO_ERROR,
+					"An error occurred when saving the cached frame of package '" + pkgName + "'.", e ));
+		}
+		finally {
+			if (out != null) {
+				try {
+					out.close();
+				}
+				catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+	private static String readString(final DataInputStream in) throws IOException {
+		final int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = in.readChar();
+		}
+		return new String(chars);
+	}
+	
+	private static void writeString(final DataOutputStream out, final String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(s.length());
+		out.writeChars(s);
+	}
+	
+}
@@ -155,6 +155,10 @@ public abstract class ElementAccess extends RElementAccess {
 		return ((fFlags & 0xf0) == A_FUNC);
 	}
 	
+	public final boolean isArgAccess() {
+		return ((fFlags & 0xf0) == A_ARG);
+	}
+	
 	@Override
 	public final RAstNode getNode() {
 		return fFullNode;
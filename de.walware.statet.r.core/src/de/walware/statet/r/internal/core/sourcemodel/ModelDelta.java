@@ -11,18 +11,27 @@
 
 package de.walware.statet.r.internal.core.sourcemodel;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.IRegion;
+
 import de.walware.ecommons.ltk.IModelElement;
-import de.walware.ecommons.ltk.IModelElementDelta;
 import de.walware.ecommons.ltk.IModelManager;
 
+import de.walware.statet.r.core.model.IRLangSourceElement;
+import de.walware.statet.r.core.model.IRModelElementDelta;
 import de.walware.statet.r.core.model.IRModelInfo;
 import de.walware.statet.r.core.rsource.ast.RAstInfo;
 
 
 /**
- * Currently not really a delta
+ * Delta of the model of a R source unit.
+ * 
+ * The changes are detected only at the top level by comparing the structure of the old and
+ * the new AST.
  */
-public class ModelDelta implements IModelElementDelta {
+public class ModelDelta implements IRModelElementDelta {
 	
 	
 	private final int fLevel;
@@ -32,6 +41,9 @@ public class ModelDelta implements IModelElementDelta {
 	private final IRModelInfo fNewInfo;
 	private final RAstInfo fNewAst;
 	
+	private final IRegion fChangedRegion;
+	private List<IRLangSourceElement> fChangedElements;
+	
 	
 	public ModelDelta(final IModelElement element,
 			final IRModelInfo oldInfo, final IRModelInfo newInfo) {
@@ -41,6 +53,15 @@ public class ModelDelta implements IModelElementDelta {
 		fOldAst = ((oldInfo != null) ? oldInfo.getAst() : null);
 		fNewInfo = newInfo;
 		fNewAst = ((newInfo != null) ? newInfo.getAst() : null);
+		if (oldInfo instanceof RSourceInfo && newInfo instanceof RSourceInfo
+				&& ((RSourceInfo) oldInfo).fStructure != null
+				&& ((RSourceInfo) newInfo).fStructure != null) {
+			fChangedRegion = TopLevelStructure.computeChangedRegion(
+					((RSourceInfo) oldInfo).fStructure, ((RSourceInfo) newInfo).fStructure );
+		}
+		else {
+			fChangedRegion = null;
+		}
 	}
 	
 	
@@ -56,4 +77,29 @@ public class ModelDelta implements IModelElementDelta {
 		return fNewAst;
 	}
 	
+	public IRegion getChangedRegion() {
+		return fChangedRegion;
+	}
+	
+	public synchronized List<? extends IRLangSourceElement> getChangedElements() {
+		if (fChangedRegion == null) {
+			return null;
+		}
+		if (fChangedElements == null) {
+			final int start = fChangedRegion.getOffset();
+			final int stop = start + fChangedRegion.getLength();
+			final List<? extends IRLangSourceElement> children = fNewInfo.getSourceElement().getSourceChildren(null);
+			final List<IRLangSourceElement> changed = new ArrayList<IRLangSourceElement>();
+			for (final IRLangSourceElement element : children) {
+				final IRegion range = element.getSourceRange();
+				if (range != null
+						&& range.getOffset() <= stop && range.getOffset() + range.getLength() >= start) {
+					changed.add(element);
+				}
+			}
+			fChangedElements = changed;
+		}
+		return fChangedElements;
+	}
+	
 }
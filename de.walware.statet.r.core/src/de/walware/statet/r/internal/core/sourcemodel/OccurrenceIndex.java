@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.sourcemodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.walware.statet.r.core.model.IROccurrenceIndex;
+import de.walware.statet.r.core.model.RElementAccess;
+import de.walware.statet.r.core.rsource.ast.RAstNode;
+import de.walware.statet.r.internal.core.sourcemodel.BuildSourceFrame.ElementAccessList;
+
+
+/**
+ * Occurrence index of a {@link RSourceInfo}.
+ * 
+ * The access are stored in arrays sorted by the offset of their names; each access refers to
+ * its equivalence class, the sorted occurrences of the element in the source unit.
+ */
+final class OccurrenceIndex implements IROccurrenceIndex {
+	
+	
+	private static final ElementAccess[] NO_ACCESS = new ElementAccess[0];
+	
+	
+	static OccurrenceIndex create(final RSourceInfo info) {
+		final Map<ElementAccessList, Boolean> lists = new IdentityHashMap<ElementAccessList, Boolean>();
+		for (final BuildSourceFrame frame : info.fLocalFrames.values()) {
+			addLists(lists, frame.fData.values());
+		}
+		for (final BuildSourceFrame frame : info.fNamespaceFrames.values()) {
+			addLists(lists, frame.fData.values());
+		}
+		addLists(lists, info.fPackageRefs.fData.values());
+		
+		final List<ElementAccess[]> classes = new ArrayList<ElementAccess[]>(lists.size());
+		int count = 0;
+		for (final ElementAccessList list : lists.keySet()) {
+			final ElementAccess[] occurrences = createClass(list);
+			if (occurrences.length > 0) {
+				classes.add(occurrences);
+				count += occurrences.length;
+			}
+		}
+		return new OccurrenceIndex(classes, count);
+	}
+	
+	private static void addLists(final Map<ElementAccessList, Boolean> lists,
+			final Collection<ElementAccessList> values) {
+		for (final ElementAccessList list : values) {
+			lists.put(list, Boolean.TRUE);
+		}
+	}
+	
+	private static ElementAccess[] createClass(final ElementAccessList list) {
+		final List<ElementAccess> entries = list.entries;
+		final ElementAccess[] occurrences = new ElementAccess[entries.size()];
+		int count = 0;
+		for (final ElementAccess access : entries) {
+			// the access may be moved to another list, e.g. when resolved to a namespace
+			if (access.fShared == list && access.getNameNode() != null) {
+				occurrences[count++] = access;
+			}
+		}
+		if (count == 0) {
+			return NO_ACCESS;
+		}
+		final ElementAccess[] sorted;
+		if (count < occurrences.length) {
+			sorted = new ElementAccess[count];
+			System.arraycopy(occurrences, 0, sorted, 0, count);
+		}
+		else {
+			sorted = occurrences;
+		}
+		Arrays.sort(sorted, RElementAccess.NAME_POSITION_COMPARATOR);
+		return sorted;
+	}
+	
+	
+	private final ElementAccess[] fAccess;
+	private final int[] fStartOffsets;
+	private final int[] fStopOffsets;
+	private final ElementAccess[][] fOccurrences;
+	
+	
+	private OccurrenceIndex(final List<ElementAccess[]> classes, final int count) {
+		final ElementAccess[] access = new ElementAccess[count];
+		final ElementAccess[][] occurrences = new ElementAccess[count][];
+		{	int idx = 0;
+			for (final ElementAccess[] occurrencesOfClass : classes) {
+				for (int i = 0; i < occurrencesOfClass.length; i++) {
+					access[idx] = occurrencesOfClass[i];
+					occurrences[idx] = occurrencesOfClass;
+					idx++;
+				}
+			}
+		}
+		
+		// sort the access together with their classes
+		final Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = Integer.valueOf(i);
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(final Integer o1, final Integer o2) {
+				return RElementAccess.NAME_POSITION_COMPARATOR.compare(
+						access[o1.intValue()], access[o2.intValue()] );
+			}
+		});
+		fAccess = new ElementAccess[count];
+		fOccurrences = new ElementAccess[count][];
+		fStartOffsets = new int[count];
+		fStopOffsets = new int[count];
+		for (int i = 0; i < count; i++) {
+			final int idx = order[i].intValue();
+			final RAstNode nameNode = access[idx].getNameNode();
+			fAccess[i] = access[idx];
+			fOccurrences[i] = occurrences[idx];
+			fStartOffsets[i] = nameNode.getOffset();
+			fStopOffsets[i] = nameNode.getStopOffset();
+		}
+	}
+	
+	
+	/**
+	 * Returns the index of the first access whose name starts at or after the offset.
+	 */
+	private int indexOfStart(final int offset) {
+		int low = 0;
+		int high = fStartOffsets.length - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			if (fStartOffsets[mid] < offset) {
+				low = mid + 1;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+	
+	private int indexOf(final RElementAccess access) {
+		final RAstNode nameNode = access.getNameNode();
+		if (nameNode == null) {
+			return -1;
+		}
+		final int offset = nameNode.getOffset();
+		for (int idx = indexOfStart(offset); idx < fStartOffsets.length
+				&& fStartOffsets[idx] == offset; idx++) {
+			if (fAccess[idx] == access) {
+				return idx;
+			}
+		}
+		return -1;
+	}
+	
+	public RElementAccess getAccess(final int offset) {
+		int idx = indexOfStart(offset + 1) - 1;
+		if (idx < 0) {
+			return null;
+		}
+		final int start = fStartOffsets[idx];
+		for (; idx >= 0 && fStartOffsets[idx] == start; idx--) {
+			if (fStopOffsets[idx] >= offset) {
+				return fAccess[idx];
+			}
+		}
+		return null;
+	}
+	
+	public RElementAccess[] getAccessInRange(final int startOffset, final int stopOffset) {
+		final List<RElementAccess> list = new ArrayList<RElementAccess>();
+		for (int idx = indexOfStart(startOffset);
+				idx < fStartOffsets.length && fStartOffsets[idx] < stopOffset; idx++) {
+			if (fStopOffsets[idx] <= stopOffset) {
+				list.add(fAccess[idx]);
+			}
+		}
+		return list.toArray(new RElementAccess[list.size()]);
+	}
+	
+	public RElementAccess[] getOccurrences(final RElementAccess access) {
+		final int idx = indexOf(access);
+		if (idx < 0) {
+			return null;
+		}
+		return fOccurrences[idx].clone();
+	}
+	
+}
@@ -22,6 +22,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +58,7 @@ import de.walware.statet.r.core.model.IRFrame;
 import de.walware.statet.r.core.model.IRWorkspaceSourceUnit;
 import de.walware.statet.r.core.model.RElementName;
 import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.core.model.RSymbolReference;
 import de.walware.statet.r.internal.core.RCorePlugin;
 import de.walware.statet.r.internal.core.builder.CompositeFrame;
 import de.walware.statet.r.internal.core.builder.RBuildReconciler;
@@ -65,7 +68,7 @@ import de.walware.statet.r.internal.core.builder.RUnitElement;
 public class RModelIndex {
 	
 	
-	private static final String VERSION = "14";
+	private static final String VERSION = "15";
 	
 	private static final String DEFINE_PROPERTIES_1 = "create table RINDEX.PROPERTIES ("+
 				"NAME varchar(512) not null,"+
@@ -106,17 +109,34 @@ public class RModelIndex {
 	private static final String DEFINE_MAINNAMES_2 = "create index PROJECT_NAME_IDX on RINDEX.MAINNAMES (" +
 				"PROJECT_ID, NAME_ID" +
 			")";
+	private static final String DEFINE_REFS_1 = "create table RINDEX.REFS (" +
+				"PROJECT_ID int not null," +
+				"SU_ID int not null," +
+				"NAME_ID bigint not null," +
+				"START_OFFSET int not null," +
+				"LENGTH int not null," +
+				"KIND int not null," +
+				"FUNC varchar(512)" +
+			")";
+	private static final String DEFINE_REFS_2 = "create index REFS_NAME_IDX on RINDEX.REFS (" +
+				"PROJECT_ID, NAME_ID" +
+			")";
+	private static final String DEFINE_REFS_3 = "create index REFS_SU_IDX on RINDEX.REFS (" +
+				"PROJECT_ID, SU_ID" +
+			")";
 	
 	private static final String ADD_PROJ = "insert into RINDEX.PROJECTS (NAME, ID) values (?, ?)";
 	
 	private static final String CLEAR_PROJ_EXPORTS = "delete from RINDEX.EXPORTS where (PROJECT_ID = ?)";
 	private static final String CLEAR_PROJ_MAINNAMES = "delete from RINDEX.MAINNAMES where (PROJECT_ID = ?)";
+	private static final String CLEAR_PROJ_REFS = "delete from RINDEX.REFS where (PROJECT_ID = ?)";
 	private static final String CLEAR_PROJ_SUS = "delete from RINDEX.SUS where (PROJECT_ID = ?)";
 	
 	private static final String REMOVE_PROJ = "delete from RINDEX.PROJECTS where (ID = ?)";
 	
 	private static final String REMOVE_SU_EXPORTS = "delete from RINDEX.EXPORTS where (PROJECT_ID = ? and SU_ID = ?)";
 	private static final String REMOVE_SU_MAINNAMES = "delete from RINDEX.MAINNAMES where (PROJECT_ID = ? and SU_ID = ?)";
+	private static final String REMOVE_SU_REFS = "delete from RINDEX.REFS where (PROJECT_ID = ? and SU_ID = ?)";
 	private static final String REMOVE_SU = "delete from RINDEX.SUS where (PROJECT_ID = ? and ID = ?)";
 	
 	private static final String GET_PROJ_SUS_MAXID = "select MAX(ID) from RINDEX.SUS where (PROJECT_ID = ?)";
@@ -126,6 +146,8 @@ public class RModelIndex {
 	private static final String GET_NAMEIDX = "select ID from RINDEX.NAMESIDX where (NAME = ?)";
 	private static final String ADD_NAMEIDX = "insert into RINDEX.NAMESIDX (NAME) values (?)";
 	
+	private static final String ADD_REF = "insert into RINDEX.REFS (PROJECT_ID, SU_ID, NAME_ID, START_OFFSET, LENGTH, KIND, FUNC) values (?, ?, ?, ?, ?, ?, ?)";
+	
 	private static final class Proj {
 		
 		public final int id;
@@ -177,6 +199,7 @@ public class RModelIndex {
 		
 		private PreparedStatement fClearProjExportsStatement;
 		private PreparedStatement fClearProjMainNamesStatement;
+		private PreparedStatement fClearProjRefsStatement;
 		private PreparedStatement fClearProjSusStatement;
 		public void clearProj(final Proj proj) throws SQLException {
 			clearProj(proj.id);
@@ -186,12 +209,15 @@ public class RModelIndex {
 			if (fClearProjExportsStatement == null) {
 				fClearProjExportsStatement = connection.prepareStatement(CLEAR_PROJ_EXPORTS);
 				fClearProjMainNamesStatement = connection.prepareStatement(CLEAR_PROJ_MAINNAMES);
+				fClearProjRefsStatement = connection.prepareStatement(CLEAR_PROJ_REFS);
 				fClearProjSusStatement = connection.prepareStatement(CLEAR_PROJ_SUS);
 			}
 			fClearProjExportsStatement.setInt(1, projId);
 			fClearProjExportsStatement.executeUpdate();
 			fClearProjMainNamesStatement.setInt(1, projId);
 			fClearProjMainNamesStatement.executeUpdate();
+			fClearProjRefsStatement.setInt(1, projId);
+			fClearProjRefsStatement.executeUpdate();
 			fClearProjSusStatement.setInt(1, projId);
 			fClearProjSusStatement.executeUpdate();
 		}
@@ -226,6 +252,7 @@ public class RModelIndex {
 		
 		private PreparedStatement fRemoveSuExportsStatement;
 		private PreparedStatement fRemoveSuMainNamesStatement;
+		private PreparedStatement fRemoveSuRefsStatement;
 		private PreparedStatement fRemoveSuStatement;
 		public void prepareRemoveSu(final Proj proj) throws SQLException {
 			currentProj = proj;
@@ -234,8 +261,12 @@ public class RModelIndex {
 				fRemoveSuMainNamesStatement = connection.prepareStatement(REMOVE_SU_MAINNAMES);
 				fRemoveSuStatement = connection.prepareStatement(REMOVE_SU);
 			}
+			if (fRemoveSuRefsStatement == null) {
+				fRemoveSuRefsStatement = connection.prepareStatement(REMOVE_SU_REFS);
+			}
 			fRemoveSuExportsStatement.setInt(1, proj.id);
 			fRemoveSuMainNamesStatement.setInt(1, proj.id);
+			fRemoveSuRefsStatement.setInt(1, proj.id);
 			fRemoveSuStatement.setInt(1, proj.id);
 		}
 		public void executeRemoveSu() throws SQLException {
@@ -243,6 +274,8 @@ public class RModelIndex {
 			fRemoveSuExportsStatement.executeUpdate();
 			fRemoveSuMainNamesStatement.setInt(2, currentSuId);
 			fRemoveSuMainNamesStatement.executeUpdate();
+			fRemoveSuRefsStatement.setInt(2, currentSuId);
+			fRemoveSuRefsStatement.executeUpdate();
 			fRemoveSuStatement.setInt(2, currentSuId);
 			fRemoveSuStatement.executeUpdate();
 		}
@@ -311,6 +344,12 @@ public class RModelIndex {
 			fRemoveSuMainNamesStatement.setInt(1, currentProj.id);
 			fRemoveSuMainNamesStatement.setInt(2, currentSuId);
 			fRemoveSuMainNamesStatement.executeUpdate();
+			if (fRemoveSuRefsStatement == null) {
+				fRemoveSuRefsStatement = connection.prepareStatement(REMOVE_SU_REFS);
+			}
+			fRemoveSuRefsStatement.setInt(1, currentProj.id);
+			fRemoveSuRefsStatement.setInt(2, currentSuId);
+			fRemoveSuRefsStatement.executeUpdate();
 		}
 		
 		private PreparedStatement fGetNameStatement;
@@ -360,6 +399,22 @@ public class RModelIndex {
 		initDB();
 	}
 	
+	/**
+	 * Creates an index using the specified DB without workspace and source unit manager,
+	 * e.g. for benchmarks. The index can be updated only by
+	 * {@link #updateIndex(IProject, String, List, Map, IProgressMonitor)}.
+	 * 
+	 * @param connectionPool the DB
+	 */
+	public RModelIndex(final DataSource connectionPool) {
+		fSourceUnitManager = null;
+		fModelManager = null;
+		fReconciler = null;
+		
+		fConnectionPool = connectionPool;
+		fDBInitialized = (checkVersion()) ? 1 : -1;
+	}
+	
 	
 	public void dispose() {
 		fLock.writeLock().lock();
@@ -368,7 +423,7 @@ public class RModelIndex {
 			closeDbTools();
 		}
 		finally {
-			fLock.writeLock().lock();
+			fLock.writeLock().unlock();
 		}
 	}
 	
@@ -419,11 +474,28 @@ public class RModelIndex {
 				}
 			}
 		}
+		fReconciler.reportMarkerStatistic("R files of " + project.getName()); //$NON-NLS-1$
 		
+		updateIndex(project, rProject.getPackageName(), remove, newItems, progress);
+	}
+	
+	/**
+	 * Updates the index of the project by the build results of its source units.
+	 * 
+	 * @param project the project
+	 * @param packageName the package name of the project
+	 * @param remove the ids of the source units to remove or <code>null</code> to replace
+	 *     the complete index of the project
+	 * @param newItems the build results by source unit id
+	 * @param progress the progress monitor
+	 */
+	public void updateIndex(final IProject project, final String packageName, final List<String> remove,
+			final Map<String, RBuildReconciler.Result> newItems, final IProgressMonitor progress) {
 		fLock.writeLock().lock();
 		PreparedStatement updateExportsStatement = null;
 		PreparedStatement insertExportsStatement = null;
 		PreparedStatement insertMainNameStatement = null;
+		PreparedStatement insertRefStatement = null;
 		try {
 			final Proj proj = getOrCreateProjectId(project);
 			
@@ -435,11 +507,11 @@ public class RModelIndex {
 					dbTools.clearProj(proj.id);
 					dbTools.connection.commit();
 				}
-				if (update == null || update.isEmpty()) {
+				if (newItems.isEmpty()) {
 					return;
 				}
 				if (frame == null && project.isOpen()) {
-					frame = new CompositeFrame(fLock, rProject.getPackageName(), project.getName(), null);
+					frame = new CompositeFrame(fLock, packageName, project.getName(), null);
 					fElementsList.put(proj, frame);
 				}
 				if (frame == null) {
@@ -450,11 +522,11 @@ public class RModelIndex {
 				if (frame == null) {
 					if (fDBInitialized == 1) {
 						final DbTools dbTools = getDbTools();
-						frame = getFrame(project, proj, rProject, dbTools.connection, progress);
+						frame = getFrame(project, proj, packageName, dbTools.connection, progress);
 						dbTools.connection.commit();
 					}
 					else {
-						frame = getFrame(project, proj, rProject, null, progress);
+						frame = getFrame(project, proj, packageName, null, progress);
 					}
 				}
 				if (frame == null) {
@@ -477,6 +549,8 @@ public class RModelIndex {
 						insertExportsStatement.setInt(1, proj.id);
 						insertMainNameStatement = dbTools.connection.prepareStatement("insert into RINDEX.MAINNAMES (PROJECT_ID, SU_ID, NAME_ID) values (?, ?, ?)");
 						insertMainNameStatement.setInt(1, proj.id);
+						insertRefStatement = dbTools.connection.prepareStatement(ADD_REF);
+						insertRefStatement.setInt(1, proj.id);
 					}
 					
 					final String suNameId = newItem.getKey();
@@ -506,10 +580,26 @@ public class RModelIndex {
 							dbTools.clearSu();
 						}
 						insertMainNameStatement.setInt(2, dbTools.currentSuId);
+						insertRefStatement.setInt(2, dbTools.currentSuId);
 						for (final String name : value.defaultNames) {
 							if (name != null) {
-								insertMainNameStatement.setLong(3, dbTools.getOrAddName(name));
+								final long nameId = dbTools.getOrAddName(name);
+								insertMainNameStatement.setLong(3, nameId);
 								insertMainNameStatement.executeUpdate();
+								
+								final List<RSymbolReference> references = value.references.get(name);
+								if (references != null && !references.isEmpty()) {
+									insertRefStatement.setLong(3, nameId);
+									for (final RSymbolReference reference : references) {
+										insertRefStatement.setInt(4, reference.offset);
+										insertRefStatement.setInt(5, reference.length);
+										insertRefStatement.setInt(6, reference.kind);
+										insertRefStatement.setString(7, (reference.functionName != null
+												&& reference.functionName.length() <= 512) ? reference.functionName : null);
+										insertRefStatement.addBatch();
+									}
+									insertRefStatement.executeBatch();
+								}
 							}
 						}
 						dbTools.connection.commit();
@@ -549,8 +639,10 @@ public class RModelIndex {
 						remove.remove(suId);
 					}
 				}
-				for (final String suId : remove) {
-					frame.removeModelElement(suId);
+				if (remove != null) {
+					for (final String suId : remove) {
+						frame.removeModelElement(suId);
+					}
 				}
 			}
 		}
@@ -571,23 +663,27 @@ public class RModelIndex {
 				if (insertMainNameStatement != null) {
 					insertMainNameStatement.close();
 				}
+				if (insertRefStatement != null) {
+					insertRefStatement.close();
+				}
 			}
 			catch (final SQLException ignore) {}
 			fLock.writeLock().unlock();
 		}
 	}
 	
-	private CompositeFrame getFrame(final IProject project, final Proj proj, RProject rProject, Connection connection, final IProgressMonitor monitor) throws SQLException {
+	private CompositeFrame getFrame(final IProject project, final Proj proj, String packageName, Connection connection, final IProgressMonitor monitor) throws SQLException {
 		CompositeFrame frame = fElementsList.get(proj);
 		if (frame == null && project.isOpen()) {
-			if (rProject == null) {
-				rProject = RProject.getRProject(project);
-			}
-			if (rProject == null) {
-				return null;
+			if (packageName == null) {
+				final RProject rProject = RProject.getRProject(project);
+				if (rProject == null) {
+					return null;
+				}
+				packageName = rProject.getPackageName();
 			}
 			final HashMap<String, RUnitElement> elements = new HashMap<String, RUnitElement>();
-			frame = new CompositeFrame(fLock, rProject.getPackageName(), project.getName(), elements);
+			frame = new CompositeFrame(fLock, packageName, project.getName(), elements);
 			fElementsList.put(proj, frame);
 			
 			if (fDBInitialized == 1) {
@@ -749,6 +845,9 @@ public class RModelIndex {
 			statement.execute(DEFINE_EXPORTS_1);
 			statement.execute(DEFINE_MAINNAMES_1);
 			statement.execute(DEFINE_MAINNAMES_2);
+			statement.execute(DEFINE_REFS_1);
+			statement.execute(DEFINE_REFS_2);
+			statement.execute(DEFINE_REFS_3);
 			
 			statement.execute("insert into RINDEX.PROPERTIES (NAME, VALUE) values ('version', '"+VERSION+"')");
 			
@@ -896,6 +995,14 @@ public class RModelIndex {
 		}
 	}
 	
+	private static void closeStatement(final Statement statement) {
+		if (statement != null) {
+			try {
+				statement.close();
+			} catch (final SQLException ignore) {}
+		}
+	}
+	
 	private void onDbReadError(final Exception e) {
 		RCorePlugin.log(new Status(IStatus.ERROR, RCore.PLUGIN_ID, -1, "An error occurred when searching index in DB.", e));
 	}
@@ -919,30 +1026,141 @@ public class RModelIndex {
 	}
 	
 	public List<String> findReferencingSourceUnits(final IProject project, final RElementName name) {
+		final Map<IProject, List<String>> sus = findReferencingSourceUnits(
+				Collections.singletonList(project), name );
+		return (sus != null) ? sus.get(project) : null;
+	}
+	
+	/**
+	 * Searches the source units referencing the name in all specified projects by a single query.
+	 * 
+	 * @param projects the projects to search in
+	 * @param name the name (common top level name)
+	 * @return a map with the ids of the source units by project or <code>null</code>,
+	 *     if the index is not available
+	 */
+	public Map<IProject, List<String>> findReferencingSourceUnits(final Collection<IProject> projects,
+			final RElementName name) {
+		if (name.getNextSegment() != null || name.getType() != RElementName.MAIN_DEFAULT || name.getSegmentName() == null) {
+			throw new UnsupportedOperationException("Only common top level names are supported.");
+		}
+		final Map<Integer, IProject> projIds = new HashMap<Integer, IProject>();
+		final Map<IProject, List<String>> sus = new HashMap<IProject, List<String>>();
+		fLock.readLock().lock();
+		Connection connection = null;
+		PreparedStatement nameStatement = null;
+		PreparedStatement statement = null;
+		try {
+			for (final IProject project : projects) {
+				final Proj proj = fProjectIds.get(project.getName());
+				if (proj != null && !proj.removed) {
+					projIds.put(Integer.valueOf(proj.id), project);
+					sus.put(project, new ArrayList<String>());
+				}
+			}
+			if (projIds.isEmpty()) {
+				return sus;
+			}
+			if (fDBInitialized != 1) {
+				return null;
+			}
+			connection = fConnectionPool.getConnection();
+			long nameId;
+			{	nameStatement = connection.prepareStatement(GET_NAMEIDX);
+				nameStatement.setString(1, name.getSegmentName());
+				final ResultSet result = nameStatement.executeQuery();
+				if (!result.next()) {
+					return sus;
+				}
+				nameId = result.getLong(1);
+			}
+			final StringBuilder sql = new StringBuilder("select S.PROJECT_ID, S.NAME from RINDEX.SUS as S" +
+					" inner join RINDEX.MAINNAMES as M on (M.PROJECT_ID = S.PROJECT_ID and M.SU_ID = S.ID)" +
+					" where (M.NAME_ID = ? and M.PROJECT_ID in (");
+			for (int i = 0; i < projIds.size(); i++) {
+				sql.append((i == 0) ? "?" : ", ?");
+			}
+			sql.append("))");
+			statement = connection.prepareStatement(sql.toString());
+			statement.setLong(1, nameId);
+			int idx = 2;
+			for (final Integer projId : projIds.keySet()) {
+				statement.setInt(idx++, projId.intValue());
+			}
+			final ResultSet result = statement.executeQuery();
+			while (result.next()) {
+				final IProject project = projIds.get(Integer.valueOf(result.getInt(1)));
+				if (project != null) {
+					sus.get(project).add(result.getString(2));
+				}
+			}
+			return sus;
+		}
+		catch (final SQLException e) {
+			onDbReadError(e);
+			return null;
+		}
+		finally {
+			fLock.readLock().unlock();
+			closeStatement(nameStatement);
+			closeStatement(statement);
+			if (connection != null) {
+				try {
+					connection.close();
+				} catch (final SQLException ignore) {}
+			}
+		}
+	}
+	
+	/**
+	 * Searches the references of the name in the project using the persisted reference table.
+	 * 
+	 * @param project the project to search in
+	 * @param name the name (common top level name)
+	 * @param kinds the kinds of references to include, see {@link RSymbolReference}
+	 * @return the references or <code>null</code>, if the index is not available
+	 */
+	public List<RSymbolReference> findReferences(final IProject project, final RElementName name,
+			final int kinds) {
 		if (name.getNextSegment() != null || name.getType() != RElementName.MAIN_DEFAULT || name.getSegmentName() == null) {
 			throw new UnsupportedOperationException("Only common top level names are supported.");
 		}
-		final Proj proj = fProjectIds.get(project.getName());
 		fLock.readLock().lock();
 		Connection connection = null;
+		PreparedStatement nameStatement = null;
+		PreparedStatement statement = null;
 		try {
+			final Proj proj = fProjectIds.get(project.getName());
 			if (proj == null || proj.removed
 					|| fDBInitialized != 1) {
 				return null;
 			}
+			final List<RSymbolReference> references = new ArrayList<RSymbolReference>();
 			connection = fConnectionPool.getConnection();
-			final PreparedStatement statement = connection.prepareStatement("select S.NAME from RINDEX.SUS as S" +
-					" inner join RINDEX.MAINNAMES as M on (M.PROJECT_ID = S.PROJECT_ID and M.SU_ID = S.ID)" +
-					" inner join RINDEX.NAMESIDX as N on (M.NAME_ID = N.ID)" +
-					" where (M.PROJECT_ID = ? and N.NAME = ?)");
+			long nameId;
+			{	nameStatement = connection.prepareStatement(GET_NAMEIDX);
+				nameStatement.setString(1, name.getSegmentName());
+				final ResultSet result = nameStatement.executeQuery();
+				if (!result.next()) {
+					return references;
+				}
+				nameId = result.getLong(1);
+			}
+			statement = connection.prepareStatement("select S.NAME, R.START_OFFSET, R.LENGTH, R.KIND, R.FUNC from RINDEX.REFS as R" +
+					" inner join RINDEX.SUS as S on (S.PROJECT_ID = R.PROJECT_ID and S.ID = R.SU_ID)" +
+					" where (R.PROJECT_ID = ? and R.NAME_ID = ?)" +
+					" order by S.NAME, R.START_OFFSET");
 			statement.setInt(1, proj.id);
-			statement.setString(2, name.getSegmentName());
-			final List<String> sus = new ArrayList<String>();
+			statement.setLong(2, nameId);
 			final ResultSet result = statement.executeQuery();
 			while (result.next()) {
-				sus.add(result.getString(1));
+				final int kind = result.getInt(4);
+				if ((kind & kinds) != 0) {
+					references.add(new RSymbolReference(result.getString(1), result.getInt(2),
+							result.getInt(3), kind, result.getString(5) ));
+				}
 			}
-			return sus;
+			return references;
 		}
 		catch (final SQLException e) {
 			onDbReadError(e);
@@ -950,6 +1168,8 @@ public class RModelIndex {
 		}
 		finally {
 			fLock.readLock().unlock();
+			closeStatement(nameStatement);
+			closeStatement(statement);
 			if (connection != null) {
 				try {
 					connection.close();
@@ -957,4 +1177,5 @@ public class RModelIndex {
 			}
 		}
 	}
+	
 }
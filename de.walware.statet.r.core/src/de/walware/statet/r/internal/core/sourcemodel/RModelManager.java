@@ -11,8 +11,10 @@
 
 package de.walware.statet.r.internal.core.sourcemodel;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -35,6 +37,7 @@ import de.walware.statet.r.core.model.IRModelManager;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RElementName;
 import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.core.model.RSymbolReference;
 
 
 public class RModelManager implements IRModelManager {
@@ -215,4 +218,12 @@ public class RModelManager implements IRModelManager {
 		return fIndex.findReferencingSourceUnits(project, name);
 	}
 	
+	public Map<IProject, List<String>> findReferencingSourceUnits(final Collection<IProject> projects, final RElementName name) {
+		return fIndex.findReferencingSourceUnits(projects, name);
+	}
+	
+	public List<RSymbolReference> findReferences(final IProject project, final RElementName name, final int kinds) {
+		return fIndex.findReferences(project, name, kinds);
+	}
+	
 }
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.sourcemodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+
+import de.walware.ecommons.ltk.ISourceUnit;
+
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.model.IManagableRUnit;
+import de.walware.statet.r.internal.core.RCorePlugin;
+
+
+/**
+ * Updates the models of multiple source units concurrently, e.g. for workspace wide searches.
+ * 
+ * The reconciler compares the stamp of the current model with the stamp of the content, so
+ * source units with an up-to-date model are not analyzed again. Each worker uses its own
+ * {@link RReconciler}, so the units are not serialized by the locks of the shared reconciler
+ * of the model manager. The workers run in a thread pool shared by all instances, limited to
+ * the number of available processors.
+ */
+public class RParallelReconciler {
+	
+	
+	private static final int MAX_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+	
+	private static ExecutorService gExecutor;
+	
+	private static synchronized ExecutorService getExecutor() {
+		if (gExecutor == null) {
+			gExecutor = Executors.newFixedThreadPool(MAX_THREADS, new ThreadFactory() {
+				private final AtomicInteger fCount = new AtomicInteger();
+				public Thread newThread(final Runnable r) {
+					final Thread thread = new Thread(r, "R Model Reconciler " + fCount.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return gExecutor;
+	}
+	
+	
+	private final RModelManager fManager;
+	
+	
+	public RParallelReconciler(final RModelManager manager) {
+		fManager = manager;
+	}
+	
+	
+	/**
+	 * Makes sure the source units have an up-to-date model of the specified level.
+	 * 
+	 * The source units must be connected.
+	 * 
+	 * @param sus the source units
+	 * @param level the model level
+	 * @param progress the progress monitor
+	 * @throws OperationCanceledException if the operation was canceled
+	 */
+	public void reconcile(final List<? extends ISourceUnit> sus, final int level,
+			final SubMonitor progress) {
+		progress.setWorkRemaining(sus.size());
+		final List<IManagableRUnit> todo = new ArrayList<IManagableRUnit>(sus.size());
+		for (final ISourceUnit su : sus) {
+			if (su instanceof IManagableRUnit) {
+				todo.add((IManagableRUnit) su);
+			}
+			else {
+				progress.worked(1);
+			}
+		}
+		if (todo.isEmpty()) {
+			return;
+		}
+		
+		final AtomicBoolean canceled = new AtomicBoolean();
+		final int threadCount = Math.min(MAX_THREADS, todo.size());
+		if (threadCount == 1) {
+			final RReconciler reconciler = new RReconciler(fManager);
+			for (final IManagableRUnit su : todo) {
+				if (progress.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				reconciler.reconcile(su, level, false, progress.newChild(1));
+			}
+			return;
+		}
+		
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger done = new AtomicInteger();
+		final NullProgressMonitor workerMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return canceled.get();
+			}
+		};
+		final Runnable worker = new Runnable() {
+			public void run() {
+				final RReconciler reconciler = new RReconciler(fManager);
+				int idx;
+				while (!canceled.get() && (idx = next.getAndIncrement()) < todo.size()) {
+					try {
+						reconciler.reconcile(todo.get(idx), level, false, workerMonitor);
+					}
+					catch (final RuntimeException e) {
+						RCorePlugin.log(new Status(IStatus.ERROR, RCore.PLUGIN_ID, -1,
+								"An error occurred when updating the model of '" + todo.get(idx).getId() + "'.", e ));
+					}
+					done.incrementAndGet();
+				}
+			}
+		};
+		
+		final ExecutorService executor = getExecutor();
+		final List<Future<?>> futures = new ArrayList<Future<?>>(threadCount);
+		boolean completed = false;
+		try {
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit(worker));
+			}
+			int reported = 0;
+			for (final Future<?> future : futures) {
+				while (true) {
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						break;
+					}
+					catch (final TimeoutException e) {
+						final int current = done.get();
+						progress.worked(current - reported);
+						reported = current;
+						if (progress.isCanceled()) {
+							canceled.set(true);
+						}
+					}
+					catch (final ExecutionException e) {
+						RCorePlugin.log(new Status(IStatus.ERROR, RCore.PLUGIN_ID, -1,
+								"An error occurred when updating models.", e.getCause() ));
+						break;
+					}
+					catch (final InterruptedException e) {
+						canceled.set(true);
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+			}
+			progress.worked(done.get() - reported);
+			completed = true;
+		}
+		finally {
+			if (!completed) {
+				// the workers of the shared executor stop at the next source unit
+				canceled.set(true);
+			}
+		}
+		if (canceled.get()) {
+			throw new OperationCanceledException();
+		}
+	}
+	
+}
@@ -28,6 +28,7 @@ import de.walware.statet.r.core.model.IManagableRUnit;
 import de.walware.statet.r.core.model.IRModelInfo;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.model.SpecialParseContent;
+import de.walware.statet.r.core.rsource.RTokenStream;
 import de.walware.statet.r.core.rsource.ast.RAst;
 import de.walware.statet.r.core.rsource.ast.RAstInfo;
 import de.walware.statet.r.core.rsource.ast.RScanner;
@@ -160,7 +161,14 @@ public class RReconciler {
 			
 			initParseInput(data);
 			final RAstInfo2 ast = new RAstInfo2(RAst.LEVEL_MODEL_DEFAULT, data.content.stamp);
-			final RScanner scanner = new RScanner(data.parseInput, ast, f1AstStringCache);
+			final RScanner scanner;
+			if (data.parseOffset == 0) {
+				scanner = new RScanner(RTokenStream.create(data.content.text), ast, f1AstStringCache);
+			}
+			else {
+				// the token stream does not support the offset of partial content
+				scanner = new RScanner(data.parseInput, ast, f1AstStringCache);
+			}
 			scanner.setCommentLevel(100);
 			final SourceComponent sourceComponent = scanner.scanSourceRange(null, data.parseOffset, data.content.text.length());
 			ast.set(sourceComponent, scanner.getLineOffsets());
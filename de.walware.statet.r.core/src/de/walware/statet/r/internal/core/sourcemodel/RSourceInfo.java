@@ -19,6 +19,7 @@ import de.walware.statet.r.core.model.IRFrame;
 import de.walware.statet.r.core.model.IRFrameInSource;
 import de.walware.statet.r.core.model.IRLangSourceElement;
 import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.IROccurrenceIndex;
 import de.walware.statet.r.core.rsource.ast.RAstInfo;
 
 
@@ -37,6 +38,9 @@ public class RSourceInfo implements IRModelInfo {
 	
 	private final IRLangSourceElement fSourceElement;
 	
+	OccurrenceIndex fOccurrenceIndex;
+	TopLevelStructure fStructure;
+	
 	
 	RSourceInfo(final RAstInfo ast,
 			final LinkedHashMap<String, BuildSourceFrame> localFrames,
@@ -82,4 +86,8 @@ public class RSourceInfo implements IRModelInfo {
 		return fProtectedNamespaceFrames;
 	}
 	
+	public IROccurrenceIndex getOccurrenceIndex() {
+		return fOccurrenceIndex;
+	}
+	
 }
@@ -553,6 +553,8 @@ public class SourceAnalyzer extends RAstVisitor {
 				}
 			}
 			
+			modelInfo.fOccurrenceIndex = OccurrenceIndex.create(modelInfo);
+			modelInfo.fStructure = TopLevelStructure.create(newAst.root);
 			return modelInfo;
 		}
 		catch (final OperationCanceledException e) {}
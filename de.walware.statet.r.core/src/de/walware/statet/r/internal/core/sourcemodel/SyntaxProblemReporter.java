@@ -148,6 +148,38 @@ public class SyntaxProblemReporter extends RAstVisitor {
 		}
 	}
 	
+	/**
+	 * Checks the AST of a document which is not a source unit, e.g. in batch mode.
+	 * 
+	 * @param document the document of the AST
+	 * @param ast the AST to check
+	 * @return list with all problems found in the AST
+	 * @throws CoreException if the check failed or was canceled
+	 */
+	public List<IProblem> check(final IDocument document, final RAstInfo ast) throws CoreException {
+		try {
+			fCurrentDoc = document;
+			fMaxOffset = fCurrentDoc.getLength();
+			ast.root.acceptInR(this);
+			return new ArrayList<IProblem>(fProblemBuffer);
+		}
+		catch (final OperationCanceledException e) {
+			throw new CoreException(Status.CANCEL_STATUS);
+		}
+		catch (final InvocationTargetException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof CoreException) {
+				throw (CoreException) cause;
+			}
+			throw new CoreException(new Status(IStatus.ERROR, RCore.PLUGIN_ID, -1,
+					"An error occurred when checking the syntax.", cause )); //$NON-NLS-1$
+		}
+		finally {
+			fProblemBuffer.clear();
+			fCurrentDoc = null;
+		}
+	}
+	
 	
 	private void handleCommonCodes(final RAstNode node) throws BadLocationException, InvocationTargetException {
 		final int code = (node.getStatusCode() & MASK);
@@ -1099,7 +1131,7 @@ public class SyntaxProblemReporter extends RAstVisitor {
 	protected final void addProblem(final int severity, final int code, final String message, final int startOffset, final int stopOffset) {
 		fProblemBuffer.add(new Problem(severity, code, message, 
 				fCurrentUnit, (startOffset >= 0) ? startOffset : 0, (stopOffset <= fMaxOffset) ? stopOffset : fMaxOffset));
-		if (fProblemBuffer.size() >= BUFFER_SIZE) {
+		if (fCurrentRequestor != null && fProblemBuffer.size() >= BUFFER_SIZE) {
 			fCurrentRequestor.acceptProblems(RModel.TYPE_ID, fProblemBuffer);
 			fProblemBuffer.clear();
 		}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.core.sourcemodel;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+import de.walware.statet.r.core.rsource.ast.RAstNode;
+
+
+/**
+ * Fingerprints of the top level nodes of a R AST.
+ * 
+ * The fingerprint of a node covers the types, the relative positions and the text of all
+ * nodes of its subtree, so two nodes with the same fingerprint have (with high probability)
+ * the same structure and the same source text.
+ */
+final class TopLevelStructure {
+	
+	
+	static TopLevelStructure create(final RAstNode root) {
+		final int count = root.getChildCount();
+		final int[] offsets = new int[count];
+		final int[] stopOffsets = new int[count];
+		final long[] fingerprints = new long[count];
+		for (int i = 0; i < count; i++) {
+			final RAstNode node = root.getChild(i);
+			offsets[i] = node.getOffset();
+			stopOffsets[i] = node.getStopOffset();
+			fingerprints[i] = computeFingerprint(node, node.getOffset(), 17L);
+		}
+		return new TopLevelStructure(offsets, stopOffsets, fingerprints, root.getStopOffset());
+	}
+	
+	private static long computeFingerprint(final RAstNode node, final int base, long hash) {
+		hash = 31L * hash + node.getNodeType().ordinal();
+		hash = 31L * hash + node.getStatusCode();
+		hash = 31L * hash + (node.getOffset() - base);
+		hash = 31L * hash + node.getLength();
+		final String text = node.getText();
+		if (text != null) {
+			hash = 31L * hash + text.hashCode();
+		}
+		final int count = node.getChildCount();
+		for (int i = 0; i < count; i++) {
+			hash = computeFingerprint(node.getChild(i), base, hash);
+		}
+		return hash;
+	}
+	
+	/**
+	 * Computes the region in the new source containing all changes of the top level nodes.
+	 * 
+	 * Unchanged nodes at the beginning must have the same offset, unchanged nodes at the end
+	 * the same distance to the end of the source.
+	 * 
+	 * @param oldStructure the structure of the old AST
+	 * @param newStructure the structure of the new AST
+	 * @return the region in the new source
+	 */
+	static IRegion computeChangedRegion(final TopLevelStructure oldStructure,
+			final TopLevelStructure newStructure) {
+		final int oldCount = oldStructure.fFingerprints.length;
+		final int newCount = newStructure.fFingerprints.length;
+		final int maxCount = Math.min(oldCount, newCount);
+		
+		int prefix = 0;
+		while (prefix < maxCount
+				&& oldStructure.fFingerprints[prefix] == newStructure.fFingerprints[prefix]
+				&& oldStructure.fOffsets[prefix] == newStructure.fOffsets[prefix]) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < maxCount - prefix) {
+			final int oldIdx = oldCount - suffix - 1;
+			final int newIdx = newCount - suffix - 1;
+			if (oldStructure.fFingerprints[oldIdx] != newStructure.fFingerprints[newIdx]
+					|| oldStructure.fStopOffset - oldStructure.fOffsets[oldIdx]
+							!= newStructure.fStopOffset - newStructure.fOffsets[newIdx]) {
+				break;
+			}
+			suffix++;
+		}
+		
+		final int start = (prefix > 0) ? newStructure.fStopOffsets[prefix - 1] : 0;
+		final int stop = (suffix > 0) ? newStructure.fOffsets[newCount - suffix] : newStructure.fStopOffset;
+		return new Region(start, Math.max(0, stop - start));
+	}
+	
+	
+	private final int[] fOffsets;
+	private final int[] fStopOffsets;
+	private final long[] fFingerprints;
+	private final int fStopOffset;
+	
+	
+	private TopLevelStructure(final int[] offsets, final int[] stopOffsets,
+			final long[] fingerprints, final int stopOffset) {
+		fOffsets = offsets;
+		fStopOffsets = stopOffsets;
+		fFingerprints = fingerprints;
+		fStopOffset = stopOffset;
+	}
+	
+}
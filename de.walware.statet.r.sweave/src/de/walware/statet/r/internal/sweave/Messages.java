@@ -32,6 +32,7 @@ public class Messages extends NLS {
 	public static String RweaveTab_RCmd_NewConfig_error_Creating_message;
 	public static String RweaveTab_RCmd_NewConfig_seed;
 	public static String RweaveTab_RCmd_error_NoConfigSelected_message;
+	public static String RweaveTab_ChunkCache_label;
 	
 	public static String Insert_SweaveDirVariable_label;
 	public static String Insert_LatexDirVariable_label;
@@ -83,12 +84,16 @@ public class Messages extends NLS {
 	public static String RweaveTexProcessing_Sweave_Task_info_Canceled_message;
 	public static String RweaveTexProcessing_Sweave_RCmd_label;
 	public static String RweaveTexProcessing_Sweave_RCmd_error_Found_message;
+	public static String RweaveTexProcessing_Sweave_ChunkCache_info_message;
+	public static String RweaveTexProcessing_Sweave_ChunkCache_info_Disabled_message;
+	public static String RweaveTexProcessing_Sweave_ChunkCache_info_RCmd_message;
 	public static String RweaveTexProcessing_Tex_label;
 	public static String RweaveTexProcessing_Tex_error_BuilderNotConfigured_message;
 	public static String RweaveTexProcessing_Tex_error_OutputDir_message;
 	public static String RweaveTexProcessing_Tex_error_MustBeInWorkspace_message;
 	public static String RweaveTexProcessing_Tex_error_NotFound_message;
 	public static String RweaveTexProcessing_Tex_error_ResourceVariable_message;
+	public static String RweaveTexProcessing_Tex_info_SkipUnchanged_message;
 	public static String RweaveTexProcessing_Output_error_NotFound_message;
 	public static String RweaveTexProcessing_Output_info_SkipBecauseTex_message;
 	
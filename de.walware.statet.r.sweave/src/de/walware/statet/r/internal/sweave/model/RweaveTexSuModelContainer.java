@@ -11,6 +11,9 @@
 
 package de.walware.statet.r.internal.sweave.model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.ITypedRegion;
@@ -20,18 +23,45 @@ import de.walware.ecommons.ltk.IModelManager;
 import de.walware.ecommons.ltk.ISourceUnit;
 import de.walware.ecommons.ltk.SourceContent;
 import de.walware.ecommons.ltk.SourceUnitModelContainer;
+import de.walware.ecommons.text.FixInterningStringCache;
+import de.walware.ecommons.text.IStringCache;
 import de.walware.ecommons.text.SourceParseInput;
 import de.walware.ecommons.text.StringParseInput;
 
 import de.walware.statet.r.core.RCore;
 import de.walware.statet.r.core.rsource.ast.RAst;
 import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.core.rsource.ast.SourceComponent;
 import de.walware.statet.r.internal.sweave.Rweave;
 
 
 public class RweaveTexSuModelContainer extends SourceUnitModelContainer<SweaveDocElement> {
 	
 	
+	/**
+	 * AST of an R chunk of the current AST
+	 */
+	private static final class ChunkAst {
+		
+		final SourceComponent node;
+		final String code;
+		final int offset;
+		
+		public ChunkAst(final SourceComponent node, final String code, final int offset) {
+			this.node = node;
+			this.code = code;
+			this.offset = offset;
+		}
+		
+	}
+	
+	
+	private final IStringCache fStringCache = new FixInterningStringCache();
+	
+	/** R chunks of the current AST by the hash code of their code */
+	private Map<Integer, ChunkAst> fChunkAsts = new HashMap<Integer, ChunkAst>();
+	
+	
 	public RweaveTexSuModelContainer(final ISourceUnit su) {
 		super(su);
 	}
@@ -64,9 +94,10 @@ public class RweaveTexSuModelContainer extends SourceUnitModelContainer<SweaveDo
 			
 			final AstInfo<SweaveDocElement> old = getCurrentAst();
 			if (old == null || old.stamp != content.stamp) {
-				final SourceParseInput input = new StringParseInput(content.text);
 				final AstInfo<SweaveDocElement> ast = new AstInfo<SweaveDocElement>(RAst.LEVEL_MODEL_DEFAULT, content.stamp);
-				final RScanner scanner = new RScanner(input, ast);
+				RScanner scanner = null;
+				final Map<Integer, ChunkAst> oldChunkAsts = fChunkAsts;
+				final Map<Integer, ChunkAst> newChunkAsts = new HashMap<Integer, ChunkAst>(oldChunkAsts.size());
 				
 				ast.root = new SweaveDocElement();
 				ast.root.fStartOffset = ast.root.fStopOffset = 0;
@@ -77,7 +108,23 @@ public class RweaveTexSuModelContainer extends SourceUnitModelContainer<SweaveDo
 						rChunk.fStartOffset = cats[i].getOffset();
 						rChunk.fStopOffset = cats[i].getOffset() + cats[i].getLength();
 						if (++i < cats.length && cats[i].getType() == Rweave.R_CAT) {
-							rChunk.fRSource = scanner.scanSourceRange(rChunk, cats[i].getOffset(), cats[i].getLength());
+							final String code = content.text.substring(cats[i].getOffset(),
+									cats[i].getOffset() + cats[i].getLength() );
+							final Integer key = Integer.valueOf(code.hashCode());
+							final ChunkAst chunkAst = oldChunkAsts.get(key);
+							if (chunkAst != null && chunkAst.code.equals(code)) {
+								// unchanged code, copy subtree (the old AST is still published)
+								rChunk.fRSource = RAst.copySourceComponent(chunkAst.node, rChunk,
+										cats[i].getOffset() - chunkAst.offset );
+							}
+							else {
+								if (scanner == null) {
+									final SourceParseInput input = new StringParseInput(content.text);
+									scanner = new RScanner(input, ast, fStringCache);
+								}
+								rChunk.fRSource = scanner.scanSourceRange(rChunk, cats[i].getOffset(), cats[i].getLength());
+							}
+							newChunkAsts.put(key, new ChunkAst(rChunk.fRSource, code, cats[i].getOffset()));
 							rChunk.fStopOffset = rChunk.fRSource.getStopOffset();
 							if (++i < cats.length && cats[i].getType() == Rweave.CONTROL_CAT) {
 								rChunk.fStopOffset = cats[i].getOffset() + cats[i].getLength();
@@ -98,6 +145,7 @@ public class RweaveTexSuModelContainer extends SourceUnitModelContainer<SweaveDo
 					ast.root.fStopOffset = ast.root.fChildren.get(ast.root.fChildren.size()-1).getStopOffset();
 				}
 				
+				fChunkAsts = newChunkAsts;
 				setAst(ast);
 			}
 		}
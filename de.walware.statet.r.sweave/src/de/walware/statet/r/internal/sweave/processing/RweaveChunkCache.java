@@ -0,0 +1,573 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.sweave.processing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITypedRegion;
+
+import de.walware.ecommons.ICommonStatusConstants;
+
+import de.walware.statet.r.internal.sweave.Rweave;
+import de.walware.statet.r.internal.sweave.SweavePlugin;
+import de.walware.statet.r.internal.sweave.editors.RweaveTexDocumentSetupParticipant;
+
+
+/**
+ * Chunk fingerprints and cached chunk output of a Sweave document.
+ * 
+ * The key of a chunk is a digest of its control line (options), its R code, the global
+ * <code>\SweaveOpts</code> and the key of the previous chunk. So the key of a chunk changes
+ * if the chunk itself or any upstream chunk is changed. The cached output is stored in a
+ * hidden directory in the working directory of the document, together with a manifest
+ * recording the R session and the digest of the TeX file of the last build.
+ * 
+ * For each chunk the changes of the R session by the chunk are stored too: the objects of the
+ * global environment created or changed by the chunk, the names of the removed objects and the
+ * attached packages. The changes of the reused chunks are restored in order before the
+ * following chunks are evaluated. Other side effects (e.g. options) can not be restored,
+ * therefore the cache is valid only in the same R session. R CMD Sweave does not use the
+ * cache, because each run starts a new R session.
+ * 
+ * The numbers of reused and evaluated chunks are written by the driver at the end of the run.
+ */
+class RweaveChunkCache {
+	
+	
+	static final String DIRECTORY_SUFFIX = ".sweavecache"; //$NON-NLS-1$
+	
+	private static final String MANIFEST_FILE_NAME = "manifest.properties"; //$NON-NLS-1$
+	private static final String RUN_FILE_NAME = "run.properties"; //$NON-NLS-1$
+	private static final String[] CHUNK_FILE_EXTENSIONS = new String[] { ".tex", ".RData", ".removed", ".packages" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	
+	private static final String DRIVER_VARNAME = ".statet.sweave.driver"; //$NON-NLS-1$
+	
+	private static final String MANIFEST_SESSION_KEY = "session"; //$NON-NLS-1$
+	private static final String MANIFEST_TEX_DIGEST_KEY = "tex.digest"; //$NON-NLS-1$
+	
+	private static final String RUN_REUSED_KEY = "reused"; //$NON-NLS-1$
+	private static final String RUN_EVALUATED_KEY = "evaluated"; //$NON-NLS-1$
+	private static final String RUN_FIG_KEY = "fig"; //$NON-NLS-1$
+	
+	private static final Pattern SWEAVE_OPTS_PATTERN = Pattern.compile("\\\\SweaveOpts\\s*\\{[^\\}]*\\}"); //$NON-NLS-1$
+	private static final Pattern FIG_OPTION_PATTERN = Pattern.compile("\\bfig\\s*=\\s*(?:TRUE|T|true)\\b"); //$NON-NLS-1$
+	private static final Pattern SWEAVE_CALL_PATTERN = Pattern.compile("\\b(?:utils::)?Sweave\\s*\\("); //$NON-NLS-1$
+	
+	private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+	
+	
+	private static class Chunk {
+		
+		final String key;
+		final boolean fig;
+		
+		public Chunk(final String key, final boolean fig) {
+			this.key = key;
+			this.fig = fig;
+		}
+		
+	}
+	
+	
+	static String digest(final MessageDigest digest) {
+		final byte[] bytes = digest.digest();
+		final char[] chars = new char[bytes.length * 2];
+		for (int i = 0, j = 0; i < bytes.length; i++) {
+			chars[j++] = HEX_CHARS[(bytes[i] >>> 4) & 0xf];
+			chars[j++] = HEX_CHARS[bytes[i] & 0xf];
+		}
+		return new String(chars);
+	}
+	
+	static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	
+	private final IFileStore fDirectory;
+	private final Properties fManifest = new Properties();
+	
+	private final List<Chunk> fChunks = new ArrayList<Chunk>();
+	
+	private int fReusedCount;
+	private int fEvaluatedCount;
+	private boolean fEvaluatedFig;
+	
+	
+	public RweaveChunkCache(final IFileStore workingFolder, final String baseFileName) {
+		fDirectory = workingFolder.getChild('.' + baseFileName + DIRECTORY_SUFFIX);
+	}
+	
+	
+	public IFileStore getDirectory() {
+		return fDirectory;
+	}
+	
+	public void load(final IProgressMonitor monitor) {
+		fManifest.clear();
+		final IFileStore file = fDirectory.getChild(MANIFEST_FILE_NAME);
+		InputStream input = null;
+		try {
+			if (!file.fetchInfo(EFS.NONE, monitor).exists()) {
+				return;
+			}
+			input = file.openInputStream(EFS.NONE, monitor);
+			fManifest.load(input);
+		}
+		catch (final CoreException e) {
+			fManifest.clear();
+		}
+		catch (final IOException e) {
+			fManifest.clear();
+		}
+		finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+	private void save(final IProgressMonitor monitor) throws CoreException {
+		OutputStream output = null;
+		try {
+			fDirectory.mkdir(EFS.NONE, monitor);
+			output = fDirectory.getChild(MANIFEST_FILE_NAME).openOutputStream(EFS.NONE, monitor);
+			fManifest.store(output, null);
+		}
+		catch (final IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, SweavePlugin.PLUGIN_ID, ICommonStatusConstants.IO_ERROR,
+					"An error occurred when writing the Sweave chunk cache manifest.", e ));
+		}
+		finally {
+			if (output != null) {
+				try {
+					output.close();
+				} catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+	/**
+	 * Computes the keys of all R chunks of the Sweave document.
+	 * 
+	 * @param file the Sweave document
+	 * @throws CoreException if reading the document failed
+	 */
+	public void computeChunks(final IFile file) throws CoreException {
+		final IDocument document = new Document(readContent(file));
+		new RweaveTexDocumentSetupParticipant().setup(document);
+		
+		fChunks.clear();
+		try {
+			final ITypedRegion[] cats = Rweave.R_TEX_CAT_UTIL.getCats(document, 0, document.getLength());
+			final MessageDigest digest = createDigest();
+			final StringBuilder globalOptions = new StringBuilder();
+			String previousKey = ""; //$NON-NLS-1$
+			for (int i = 0; i < cats.length; i++) {
+				if (cats[i].getType() == Rweave.CONTROL_CAT) {
+					final String options = document.get(cats[i].getOffset(), cats[i].getLength());
+					if (options.startsWith("@")) { //$NON-NLS-1$
+						continue;
+					}
+					String code = ""; //$NON-NLS-1$
+					if (i+1 < cats.length && cats[i+1].getType() == Rweave.R_CAT) {
+						i++;
+						code = document.get(cats[i].getOffset(), cats[i].getLength());
+					}
+					digest.update(previousKey.getBytes("UTF-8")); //$NON-NLS-1$
+					digest.update(globalOptions.toString().getBytes("UTF-8")); //$NON-NLS-1$
+					digest.update(options.getBytes("UTF-8")); //$NON-NLS-1$
+					digest.update((byte) 0);
+					digest.update(code.getBytes("UTF-8")); //$NON-NLS-1$
+					previousKey = digest(digest);
+					
+					fChunks.add(new Chunk(previousKey,
+							FIG_OPTION_PATTERN.matcher(globalOptions + options).find() ));
+				}
+				else if (cats[i].getType() == Rweave.TEX_CAT) {
+					final Matcher matcher = SWEAVE_OPTS_PATTERN.matcher(
+							document.get(cats[i].getOffset(), cats[i].getLength()) );
+					while (matcher.find()) {
+						globalOptions.append(matcher.group());
+					}
+				}
+			}
+		}
+		catch (final BadLocationException e) {
+			throw new CoreException(new Status(IStatus.ERROR, SweavePlugin.PLUGIN_ID, -1,
+					"An error occurred when computing the Sweave chunk keys.", e ));
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private String readContent(final IFile file) throws CoreException {
+		InputStream input = null;
+		try {
+			input = file.getContents();
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(input, file.getCharset()));
+			final StringBuilder buffer = new StringBuilder();
+			final char[] readBuffer = new char[2048];
+			int n;
+			while ((n = reader.read(readBuffer)) > 0) {
+				buffer.append(readBuffer, 0, n);
+			}
+			return buffer.toString();
+		}
+		catch (final IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, SweavePlugin.PLUGIN_ID, ICommonStatusConstants.IO_ERROR,
+					"An error occurred when reading the Sweave document.", e ));
+		}
+		finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+	/**
+	 * Prepares the cache for a run in the specified R session. If the session differs from
+	 * the session of the last build, all cached output is discarded.
+	 * 
+	 * @param sessionId the id of the R session, <code>null</code> if no session is reused
+	 * (e.g. R CMD Sweave)
+	 */
+	public void prepareEvaluation(final String sessionId, final IProgressMonitor monitor) {
+		if (sessionId == null || !sessionId.equals(fManifest.getProperty(MANIFEST_SESSION_KEY))) {
+			clearChunks(null, monitor);
+			fManifest.setProperty(MANIFEST_SESSION_KEY, (sessionId != null) ? sessionId : ""); //$NON-NLS-1$
+		}
+		try {
+			fDirectory.getChild(RUN_FILE_NAME).delete(EFS.NONE, monitor);
+		}
+		catch (final CoreException e) {
+			// directory does not exists yet
+		}
+	}
+	
+	/**
+	 * Reads the numbers of reused and evaluated chunks written by the driver. If the driver
+	 * did not finish (or was not used), all chunks are assumed to be evaluated.
+	 */
+	private void readRunInfo(final IProgressMonitor monitor) {
+		fReusedCount = 0;
+		fEvaluatedCount = fChunks.size();
+		fEvaluatedFig = false;
+		for (final Chunk chunk : fChunks) {
+			if (chunk.fig) {
+				fEvaluatedFig = true;
+				break;
+			}
+		}
+		final IFileStore file = fDirectory.getChild(RUN_FILE_NAME);
+		final Properties run = new Properties();
+		InputStream input = null;
+		try {
+			if (!file.fetchInfo(EFS.NONE, monitor).exists()) {
+				return;
+			}
+			input = file.openInputStream(EFS.NONE, monitor);
+			run.load(input);
+			final int reused = Integer.parseInt(run.getProperty(RUN_REUSED_KEY, "")); //$NON-NLS-1$
+			final int evaluated = Integer.parseInt(run.getProperty(RUN_EVALUATED_KEY, "")); //$NON-NLS-1$
+			fReusedCount = reused;
+			fEvaluatedCount = evaluated;
+			fEvaluatedFig = "TRUE".equals(run.getProperty(RUN_FIG_KEY)); //$NON-NLS-1$
+		}
+		catch (final CoreException e) {
+			// use the defaults
+		}
+		catch (final IOException e) {
+			// use the defaults
+		}
+		catch (final NumberFormatException e) {
+			// use the defaults
+		}
+		finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+	/**
+	 * Creates the R commands running the configured Sweave commands with a driver using
+	 * the cache.
+	 * 
+	 * The driver wraps the <code>runcode</code> function of <code>RweaveLatex</code>.
+	 * Chunks are reused as long as no chunk was evaluated in the current run. For each
+	 * evaluated chunk, its output and its changes of the R session are written to the cache:
+	 * the objects of the global environment created or changed by the chunk (compared to a
+	 * snapshot of the objects before the chunk), the names of the removed objects and the
+	 * attached packages. Before the first chunk is evaluated (or at the end if all chunks are
+	 * reused), the changes of all reused chunks are restored in order, so evaluated chunks see
+	 * the same objects as in a complete run.
+	 * 
+	 * The driver is passed to all calls of <code>Sweave</code> in the configured commands.
+	 * If the commands do not call <code>Sweave</code> or specify a driver themselves, the
+	 * cache can not be used.
+	 * 
+	 * @param sweaveCommands the configured R commands (with resolved variables)
+	 * @param directoryPath the escaped path of the cache directory in the R session
+	 * @return the R commands or <code>null</code> if the cache can not be used
+	 */
+	public String createSweaveCommands(final String sweaveCommands, final String directoryPath) {
+		if (sweaveCommands.indexOf("driver") >= 0) { //$NON-NLS-1$
+			return null;
+		}
+		final Matcher matcher = SWEAVE_CALL_PATTERN.matcher(sweaveCommands);
+		if (!matcher.find()) {
+			return null;
+		}
+		final StringBuffer sb = new StringBuffer(2048 + fChunks.size() * 36 + sweaveCommands.length());
+		sb.append(DRIVER_VARNAME).append(" <- local({\n"); //$NON-NLS-1$
+		sb.append("cacheDir <- \"").append(directoryPath).append("\"\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("keys <- c("); //$NON-NLS-1$
+		for (int i = 0; i < fChunks.size(); i++) {
+			if (i > 0) {
+				sb.append(", "); //$NON-NLS-1$
+			}
+			sb.append('"').append(fChunks.get(i).key).append('"');
+		}
+		sb.append(")\n"); //$NON-NLS-1$
+		sb.append("dir.create(cacheDir, showWarnings = FALSE)\n"); //$NON-NLS-1$
+		sb.append("cacheFile <- function(key, ext) file.path(cacheDir, paste(key, ext, sep = \".\"))\n"); //$NON-NLS-1$
+		sb.append("exclude <- \"").append(DRIVER_VARNAME).append("\"\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("snapshot <- function() {\n"); //$NON-NLS-1$
+		sb.append("mget(setdiff(ls(envir = .GlobalEnv, all.names = TRUE), exclude), envir = .GlobalEnv)\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("saveState <- function(key, before) {\n"); //$NON-NLS-1$
+		sb.append("current <- setdiff(ls(envir = .GlobalEnv, all.names = TRUE), exclude)\n"); //$NON-NLS-1$
+		sb.append("changed <- Filter(function(name) !(name %in% names(before))\n"); //$NON-NLS-1$
+		sb.append("|| !identical(before[[name]], get(name, envir = .GlobalEnv)), current)\n"); //$NON-NLS-1$
+		sb.append("save(list = changed, envir = .GlobalEnv, file = cacheFile(key, \"RData\"))\n"); //$NON-NLS-1$
+		sb.append("writeLines(setdiff(names(before), current), cacheFile(key, \"removed\"))\n"); //$NON-NLS-1$
+		sb.append("writeLines(.packages(), cacheFile(key, \"packages\"))\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("reused <- character(0)\n"); //$NON-NLS-1$
+		sb.append("evaluated <- FALSE\n"); //$NON-NLS-1$
+		sb.append("evaluatedCount <- 0L\n"); //$NON-NLS-1$
+		sb.append("evaluatedFig <- FALSE\n"); //$NON-NLS-1$
+		sb.append("restoreState <- function() {\n"); //$NON-NLS-1$
+		sb.append("if (!evaluated && length(reused) > 0) {\n"); //$NON-NLS-1$
+		sb.append("for (pkg in rev(readLines(cacheFile(reused[length(reused)], \"packages\")))) {\n"); //$NON-NLS-1$
+		sb.append("suppressPackageStartupMessages(library(pkg, character.only = TRUE))\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("for (key in reused) {\n"); //$NON-NLS-1$
+		sb.append("load(cacheFile(key, \"RData\"), envir = .GlobalEnv)\n"); //$NON-NLS-1$
+		sb.append("rm(list = intersect(readLines(cacheFile(key, \"removed\")), ls(envir = .GlobalEnv, all.names = TRUE)),\n"); //$NON-NLS-1$
+		sb.append("envir = .GlobalEnv)\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("evaluated <<- TRUE\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("countEvaluated <- function(options) {\n"); //$NON-NLS-1$
+		sb.append("evaluatedCount <<- evaluatedCount + 1L\n"); //$NON-NLS-1$
+		sb.append("if (isTRUE(options$fig)) evaluatedFig <<- TRUE\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("driver <- utils::RweaveLatex()\n"); //$NON-NLS-1$
+		sb.append("runcode <- driver$runcode\n"); //$NON-NLS-1$
+		sb.append("driver$runcode <- function(object, chunk, options) {\n"); //$NON-NLS-1$
+		sb.append("key <- keys[options$chunknr]\n"); //$NON-NLS-1$
+		sb.append("if (is.na(key) || isTRUE(options$concordance) || isTRUE(options$split)) {\n"); //$NON-NLS-1$
+		sb.append("restoreState()\n"); //$NON-NLS-1$
+		sb.append("countEvaluated(options)\n"); //$NON-NLS-1$
+		sb.append("return(runcode(object, chunk, options))\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("if (!evaluated && all(file.exists(cacheFile(key, c(\"tex\", \"RData\", \"removed\", \"packages\"))))) {\n"); //$NON-NLS-1$
+		sb.append("writeLines(readLines(cacheFile(key, \"tex\")), object$output)\n"); //$NON-NLS-1$
+		sb.append("reused <<- c(reused, key)\n"); //$NON-NLS-1$
+		sb.append("return(object)\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("restoreState()\n"); //$NON-NLS-1$
+		sb.append("countEvaluated(options)\n"); //$NON-NLS-1$
+		sb.append("before <- snapshot()\n"); //$NON-NLS-1$
+		sb.append("output <- object$output\n"); //$NON-NLS-1$
+		sb.append("con <- file(cacheFile(key, \"tex\"), open = \"w\")\n"); //$NON-NLS-1$
+		sb.append("done <- FALSE\n"); //$NON-NLS-1$
+		sb.append("on.exit({ close(con); if (!done) unlink(cacheFile(key, c(\"tex\", \"RData\", \"removed\", \"packages\"))) })\n"); //$NON-NLS-1$
+		sb.append("object$output <- con\n"); //$NON-NLS-1$
+		sb.append("object <- runcode(object, chunk, options)\n"); //$NON-NLS-1$
+		sb.append("object$output <- output\n"); //$NON-NLS-1$
+		sb.append("flush(con)\n"); //$NON-NLS-1$
+		sb.append("writeLines(readLines(cacheFile(key, \"tex\")), output)\n"); //$NON-NLS-1$
+		sb.append("saveState(key, before)\n"); //$NON-NLS-1$
+		sb.append("done <- TRUE\n"); //$NON-NLS-1$
+		sb.append("object\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("finish <- driver$finish\n"); //$NON-NLS-1$
+		sb.append("driver$finish <- function(object, error = FALSE) {\n"); //$NON-NLS-1$
+		sb.append("if (!error) restoreState()\n"); //$NON-NLS-1$
+		sb.append("writeLines(c(paste(\"").append(RUN_REUSED_KEY).append("\", length(reused), sep = \"=\"),\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("paste(\"").append(RUN_EVALUATED_KEY).append("\", evaluatedCount, sep = \"=\"),\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("paste(\"").append(RUN_FIG_KEY).append("\", evaluatedFig, sep = \"=\")),\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("file.path(cacheDir, \"").append(RUN_FILE_NAME).append("\"))\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("finish(object, error)\n"); //$NON-NLS-1$
+		sb.append("}\n"); //$NON-NLS-1$
+		sb.append("driver\n"); //$NON-NLS-1$
+		sb.append("})\n"); //$NON-NLS-1$
+		matcher.reset();
+		while (matcher.find()) {
+			matcher.appendReplacement(sb, "$0driver = " + DRIVER_VARNAME + ", "); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		matcher.appendTail(sb);
+		sb.append('\n');
+		sb.append("rm(").append(DRIVER_VARNAME).append(')'); //$NON-NLS-1$
+		return sb.toString();
+	}
+	
+	/**
+	 * Reads the numbers of reused and evaluated chunks of the run, removes the cached output
+	 * of all chunks not belonging to the current document and writes the manifest.
+	 */
+	public void commitWeave(final IProgressMonitor monitor) throws CoreException {
+		readRunInfo(monitor);
+		final Set<String> keep = new HashSet<String>();
+		for (final Chunk chunk : fChunks) {
+			for (final String extension : CHUNK_FILE_EXTENSIONS) {
+				keep.add(chunk.key + extension);
+			}
+		}
+		clearChunks(keep, monitor);
+		save(monitor);
+	}
+	
+	private boolean isChunkFile(final String name) {
+		for (final String extension : CHUNK_FILE_EXTENSIONS) {
+			if (name.endsWith(extension)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void clearChunks(final Set<String> keep, final IProgressMonitor monitor) {
+		try {
+			final String[] names = fDirectory.childNames(EFS.NONE, monitor);
+			for (final String name : names) {
+				if (isChunkFile(name) && (keep == null || !keep.contains(name))) {
+					fDirectory.getChild(name).delete(EFS.NONE, monitor);
+				}
+			}
+		}
+		catch (final CoreException e) {
+			// directory does not exists yet
+		}
+	}
+	
+	/**
+	 * Checks if the TeX file is byte-identical to the TeX file of the last successful TeX build
+	 * and no figure was recreated.
+	 */
+	public boolean isTexUnchanged(final IFile texFile, final IFile outputFile) {
+		final String digest = fManifest.getProperty(MANIFEST_TEX_DIGEST_KEY);
+		if (digest == null || fEvaluatedFig || !outputFile.exists()) {
+			return false;
+		}
+		try {
+			return digest.equals(computeTexDigest(texFile));
+		}
+		catch (final CoreException e) {
+			return false;
+		}
+	}
+	
+	public void commitTex(final IFile texFile, final IProgressMonitor monitor) throws CoreException {
+		fManifest.setProperty(MANIFEST_TEX_DIGEST_KEY, computeTexDigest(texFile));
+		save(monitor);
+	}
+	
+	public void resetTex(final IProgressMonitor monitor) throws CoreException {
+		if (fManifest.remove(MANIFEST_TEX_DIGEST_KEY) != null) {
+			save(monitor);
+		}
+	}
+	
+	private String computeTexDigest(final IFile texFile) throws CoreException {
+		final IFileInfo info = EFS.getStore(texFile.getLocationURI()).fetchInfo();
+		if (!info.exists()) {
+			throw new CoreException(Status.CANCEL_STATUS);
+		}
+		InputStream input = null;
+		try {
+			input = texFile.getContents(true);
+			final MessageDigest digest = createDigest();
+			final byte[] buffer = new byte[8192];
+			int n;
+			while ((n = input.read(buffer)) > 0) {
+				digest.update(buffer, 0, n);
+			}
+			return digest(digest);
+		}
+		catch (final IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, SweavePlugin.PLUGIN_ID, ICommonStatusConstants.IO_ERROR,
+					"An error occurred when reading the TeX file.", e ));
+		}
+		finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+	
+	public int getChunkCount() {
+		return fChunks.size();
+	}
+	
+	public int getReusedCount() {
+		return fReusedCount;
+	}
+	
+	public int getEvaluatedCount() {
+		return fEvaluatedCount;
+	}
+	
+}
@@ -31,6 +31,7 @@ import org.eclipse.debug.core.ILaunchConfigurationType;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.ui.DebugUITools;
+import org.eclipse.jface.databinding.swt.SWTObservables;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocumentListener;
@@ -73,6 +74,7 @@ public class RweaveTab extends LaunchConfigTabWithDbc {
 	
 	public static final String NS = "de.walware.statet.r.debug/Rweave/"; //$NON-NLS-1$
 	public static final String ATTR_SWEAVE_ID = NS + "SweaveProcessing"; //$NON-NLS-1$
+	public static final String ATTR_SWEAVE_CHUNKCACHE_ENABLED = NS + "SweaveProcessing.chunkCache.enabled"; //$NON-NLS-1$
 	
 	
 	private class SelectionObservable extends AbstractObservableValue implements SelectionListener, ISelectionChangedListener, IDocumentListener, IValidator {
@@ -211,6 +213,7 @@ public class RweaveTab extends LaunchConfigTabWithDbc {
 	
 	private ILaunchConfiguration[] fAvailableConfigs;
 	private WritableValue fSelectionValue;
+	private WritableValue fChunkCacheEnabledValue;
 	
 	private ILaunchConfigurationListener fLaunchConfigurationListener;
 	private Button fSkipSelectControl;
@@ -222,6 +225,8 @@ public class RweaveTab extends LaunchConfigTabWithDbc {
 	private TableViewer fCmdLaunchTable;
 	private Button fCmdLaunchNewButton;
 	
+	private Button fChunkCacheControl;
+	
 	
 	public String getName() {
 		return Messages.Processing_SweaveTab_label;
@@ -250,6 +255,12 @@ public class RweaveTab extends LaunchConfigTabWithDbc {
 		composite.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
 		createSweaveCommandGroup(composite);
 		
+		LayoutUtil.addSmallFiller(mainComposite, false);
+		
+		fChunkCacheControl = new Button(mainComposite, SWT.CHECK);
+		fChunkCacheControl.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		fChunkCacheControl.setText(Messages.RweaveTab_ChunkCache_label);
+		
 		fLaunchConfigurationListener = new ILaunchConfigurationListener() {
 			public void launchConfigurationAdded(final ILaunchConfiguration configuration) {
 				updateAvailableConfigs();
@@ -392,11 +403,15 @@ public class RweaveTab extends LaunchConfigTabWithDbc {
 		fSelectionValue.setValue("init"); //$NON-NLS-1$
 		
 		dbc.bindValue(obs, fSelectionValue, new UpdateValueStrategy().setAfterGetValidator(obs), null);
+		
+		fChunkCacheEnabledValue = new WritableValue(realm, false, Boolean.class);
+		dbc.bindValue(SWTObservables.observeSelection(fChunkCacheControl), fChunkCacheEnabledValue, null, null);
 	}
 	
 	
 	public void setDefaults(final ILaunchConfigurationWorkingCopy configuration) {
 		configuration.setAttribute(ATTR_SWEAVE_ID, RweaveTexLaunchDelegate.SWEAVE_CONSOLE+':');
+		configuration.setAttribute(ATTR_SWEAVE_CHUNKCACHE_ENABLED, false);
 	}
 	
 	@Override
@@ -412,11 +427,20 @@ public class RweaveTab extends LaunchConfigTabWithDbc {
 		fCmdLaunchTable.setSelection((firstConfig != null) ? new StructuredSelection(firstConfig) : new StructuredSelection());
 		fSelectionValue.setValue(value);
 		fConsoleCommandEditor.reset();
+		
+		boolean chunkCache = false;
+		try {
+			chunkCache = configuration.getAttribute(ATTR_SWEAVE_CHUNKCACHE_ENABLED, false);
+		} catch (final CoreException e) {
+			logReadingError(e);
+		}
+		fChunkCacheEnabledValue.setValue(chunkCache);
 	}
 	
 	@Override
 	protected void doSave(final ILaunchConfigurationWorkingCopy configuration) {
 		configuration.setAttribute(ATTR_SWEAVE_ID, (String) fSelectionValue.getValue());
+		configuration.setAttribute(ATTR_SWEAVE_CHUNKCACHE_ENABLED, ((Boolean) fChunkCacheEnabledValue.getValue()).booleanValue());
 	}
 	
 	@Override
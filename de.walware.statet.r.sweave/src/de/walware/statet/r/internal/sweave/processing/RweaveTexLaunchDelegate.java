@@ -221,6 +221,7 @@ public class RweaveTexLaunchDelegate extends LaunchConfigurationDelegate {
 			thread.setWorkingDir(null, sweaveFile.getParent(), true);
 		}
 		thread.fRunSweave = SweaveProcessing.isEnabled(RweaveTexLaunchDelegate.STEP_WEAVE, buildFlags);
+		thread.fChunkCacheEnabled = configuration.getAttribute(RweaveTab.ATTR_SWEAVE_CHUNKCACHE_ENABLED, false);
 		
 		// Preview config
 		final String preview = configuration.getAttribute(PreviewTab.ATTR_VIEWER_CODE, ""); //$NON-NLS-1$
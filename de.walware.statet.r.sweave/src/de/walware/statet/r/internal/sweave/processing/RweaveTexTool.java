@@ -171,13 +171,28 @@ class RweaveTexTool implements Runnable, IProcess {
 							throw new CoreException(new Status(IStatus.ERROR, SweavePlugin.PLUGIN_ID,
 									Messages.RweaveTexProcessing_Sweave_error_ResourceVariable_message + ' ' + e.getLocalizedMessage()));
 						}
-						final String[] commands = RUtil.LINE_SEPARATOR_PATTERN.split(fSweaveRCommands.getText());
+						String text = fSweaveRCommands.getText();
+						initChunkCache(fSessionId, monitor);
+						if (fChunkCache != null) {
+							final String cachedText = fChunkCache.createSweaveCommands(text,
+									RUtil.escapeBackslash(workspace.toToolPath(fChunkCache.getDirectory())) );
+							if (cachedText != null) {
+								text = cachedText;
+							}
+							else {
+								fChunkCache = null;
+								fStatus.add(new Status(IStatus.INFO, SweavePlugin.PLUGIN_ID,
+										Messages.RweaveTexProcessing_Sweave_ChunkCache_info_Disabled_message ));
+							}
+						}
+						final String[] commands = RUtil.LINE_SEPARATOR_PATTERN.split(text);
 						for (int i = 0; i < commands.length; i++) {
 							r.submitToConsole(commands[i], monitor);
 						}
 						if (r instanceof IRequireSynch) {
 							((IRequireSynch) r).synch(monitor);
 						}
+						commitChunkCache(monitor);
 					}
 					
 					if (fRunTex && fTexType == BUILDTEX_TYPE_RCONSOLE) {
@@ -207,6 +222,10 @@ class RweaveTexTool implements Runnable, IProcess {
 									Messages.RweaveTexProcessing_Tex_error_ResourceVariable_message + ' ' + e.getLocalizedMessage()));
 						}
 						
+						if (isTexUnchanged()) {
+							return;
+						}
+						
 						Texlipse.getViewerManager().closeDocInViewer(fTexPathConfig);
 						
 						final String[] commands = RUtil.LINE_SEPARATOR_PATTERN.split(fTexRCommands.getText());
@@ -222,6 +241,7 @@ class RweaveTexTool implements Runnable, IProcess {
 						finally {
 							finallyTex(progress);
 						}
+						commitTexCache(monitor);
 					}
 				}
 			}
@@ -255,6 +275,7 @@ class RweaveTexTool implements Runnable, IProcess {
 	private final IWorkbenchPage fWorkbenchPage;
 	private final ILaunch fLaunch;
 	private Thread fThread;
+	private String fSessionId;
 	private ISchedulingRule fSchedulingRule;
 	private SubMonitor fProgress;
 	
@@ -268,6 +289,8 @@ class RweaveTexTool implements Runnable, IProcess {
 	private int fSweaveType;
 	private VariableText fSweaveRCommands;
 	private ILaunchConfiguration fSweaveConfig;
+	boolean fChunkCacheEnabled;
+	private RweaveChunkCache fChunkCache;
 	
 	private String fOutputFormat;
 	private VariableText fOutputDir;
@@ -568,6 +591,7 @@ class RweaveTexTool implements Runnable, IProcess {
 					NicoUITools.accessTool(RTool.TYPE, rProcess); // throws CoreException
 				}
 				
+				fSessionId = rProcess.getMainType() + ':' + rProcess.getStartupTimestamp();
 				final R rTask = new R();
 				if (fRunSweave || fRunTex) {
 					fProgress.worked(TICKS_PREPARER);
@@ -622,6 +646,7 @@ class RweaveTexTool implements Runnable, IProcess {
 					if (!beginSchedulingRule(monitor)) {
 						return;
 					}
+					initChunkCache(null, monitor);
 					final ILaunchConfigurationDelegate delegate = RweaveTexLaunchDelegate.getRunDelegate(fSweaveConfig);
 					delegate.launch(fSweaveConfig, ILaunchManager.RUN_MODE, fLaunch, monitor.newChild(75));
 					final IProcess[] processes = fLaunch.getProcesses();
@@ -638,6 +663,7 @@ class RweaveTexTool implements Runnable, IProcess {
 								121);
 						return;
 					}
+					commitChunkCache(monitor);
 					monitor.done();
 				}
 			}
@@ -648,6 +674,59 @@ class RweaveTexTool implements Runnable, IProcess {
 		}
 	}
 	
+	private void initChunkCache(final String sessionId, final IProgressMonitor monitor) throws CoreException {
+		if (!fChunkCacheEnabled || fWorkingFolder == null) {
+			return;
+		}
+		fChunkCache = new RweaveChunkCache(fWorkingFolder, fBaseFileName);
+		fChunkCache.load(monitor);
+		fChunkCache.computeChunks(fSweaveFile);
+		fChunkCache.prepareEvaluation(sessionId, monitor);
+		if (sessionId == null) {
+			// R CMD Sweave starts a new R session, chunks can not be reused;
+			// the cache is used only to skip the TeX build if the TeX file is unchanged
+			fStatus.add(new Status(IStatus.INFO, SweavePlugin.PLUGIN_ID,
+					Messages.RweaveTexProcessing_Sweave_ChunkCache_info_RCmd_message ));
+		}
+	}
+	
+	private void commitChunkCache(final IProgressMonitor monitor) throws CoreException {
+		if (fChunkCache == null) {
+			return;
+		}
+		fChunkCache.commitWeave(monitor);
+		fStatus.add(new Status(IStatus.INFO, SweavePlugin.PLUGIN_ID, NLS.bind(
+				Messages.RweaveTexProcessing_Sweave_ChunkCache_info_message,
+				fChunkCache.getReusedCount(), fChunkCache.getEvaluatedCount() )));
+	}
+	
+	private boolean isTexUnchanged() {
+		if (fChunkCache != null && fChunkCache.isTexUnchanged(fTexFile, fTexPathConfig.getOutputFile())) {
+			fStatus.add(new Status(IStatus.INFO, SweavePlugin.PLUGIN_ID,
+					Messages.RweaveTexProcessing_Tex_info_SkipUnchanged_message));
+			return true;
+		}
+		return false;
+	}
+	
+	private void commitTexCache(final IProgressMonitor monitor) {
+		if (fChunkCache == null) {
+			return;
+		}
+		try {
+			if (fStatus.getSeverity() < IStatus.ERROR
+					&& fTexFile.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_ZERO) < IMarker.SEVERITY_ERROR) {
+				fChunkCache.commitTex(fTexFile, monitor);
+			}
+			else {
+				fChunkCache.resetTex(monitor);
+			}
+		}
+		catch (final CoreException e) {
+			fStatus.add(e.getStatus());
+		}
+	}
+	
 	private void continueAfterR() {
 		synchronized (this) {
 			notifyAll();
@@ -690,6 +769,10 @@ class RweaveTexTool implements Runnable, IProcess {
 			if (!beginSchedulingRule(progress)) {
 				return;
 			}
+			if (isTexUnchanged()) {
+				progress.done();
+				return;
+			}
 			Texlipse.getViewerManager().closeDocInViewer(fTexPathConfig);
 			try {
 				fTexBuilder.reset(progress.newChild(60, SubMonitor.SUPPRESS_SUBTASK));
@@ -708,6 +791,7 @@ class RweaveTexTool implements Runnable, IProcess {
 			finally {
 				finallyTex(progress);
 			}
+			commitTexCache(progress);
 			progress.done();
 		}
 		
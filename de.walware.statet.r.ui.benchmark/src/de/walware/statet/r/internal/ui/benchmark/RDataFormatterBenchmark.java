@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.ui.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.walware.statet.r.internal.ui.dataeditor.RDataFormatter;
+
+
+/**
+ * Time to format the cells of the visible window of a data table at paint time by the
+ * {@link RDataFormatter}. The values are boxed, as provided by the data providers.
+ * 
+ * A paint formats 40 rows x 20 columns. Each operation paints the window once and scrolls it by
+ * <code>scroll</code> rows, so <code>scroll=0</code> measures the repaint of an unchanged
+ * window. The normalized allocation rate of the GC profiler shows the bytes per paint.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RDataFormatterBenchmark {
+	
+	
+	private static final int ROW_COUNT = 100000;
+	private static final int WINDOW_ROWS = 40;
+	private static final int WINDOW_COLUMNS = 20;
+	
+	
+	/** <code>num</code>: fixed point, <code>sci</code>: scientific, <code>int</code>, <code>date</code> */
+	@Param({ "num", "sci", "int", "date" })
+	public String format;
+	
+	@Param({ "0", "1" })
+	public int scroll;
+	
+	private Object[][] fValues;
+	private RDataFormatter[] fFormatters;
+	
+	private int fFirstRow;
+	
+	
+	@Setup
+	public void setup() {
+		final Random random = new Random(19);
+		fValues = new Object[WINDOW_COLUMNS][];
+		fFormatters = new RDataFormatter[WINDOW_COLUMNS];
+		for (int column = 0; column < WINDOW_COLUMNS; column++) {
+			final RDataFormatter formatter = new RDataFormatter();
+			final Object[] values = new Object[ROW_COUNT];
+			if (format.equals("int") || format.equals("date")) { //$NON-NLS-1$ //$NON-NLS-2$
+				for (int i = 0; i < ROW_COUNT; i++) {
+					values[i] = Integer.valueOf((format.equals("date")) ? //$NON-NLS-1$
+							(10000 + random.nextInt(10000)) : (random.nextInt(2000000) - 1000000) );
+				}
+				if (format.equals("date")) { //$NON-NLS-1$
+					formatter.initDateFormat(RDataFormatter.MILLIS_PER_DAY);
+				}
+			}
+			else {
+				for (int i = 0; i < ROW_COUNT; i++) {
+					values[i] = Double.valueOf((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(8)));
+				}
+				if (format.equals("sci")) { //$NON-NLS-1$
+					formatter.initNumFormat(4, 2);
+				}
+				else {
+					formatter.initNumFormat(3, 0);
+				}
+			}
+			fValues[column] = values;
+			fFormatters[column] = formatter;
+		}
+	}
+	
+	private int nextWindow() {
+		final int firstRow = fFirstRow;
+		fFirstRow += scroll;
+		if (fFirstRow + WINDOW_ROWS > ROW_COUNT) {
+			fFirstRow = 0;
+		}
+		return firstRow;
+	}
+	
+	
+	@Benchmark
+	public void paintBoxed(final Blackhole blackhole) {
+		final int firstRow = nextWindow();
+		for (int row = firstRow; row < firstRow + WINDOW_ROWS; row++) {
+			for (int column = 0; column < WINDOW_COLUMNS; column++) {
+				blackhole.consume(fFormatters[column].modelToDisplayValue(fValues[column][row]));
+			}
+		}
+	}
+	
+}
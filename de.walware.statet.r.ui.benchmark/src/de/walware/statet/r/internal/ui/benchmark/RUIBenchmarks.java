@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.ui.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs the benchmarks of the R UI.
+ * 
+ * The optional first argument is a regular expression selecting the benchmarks. The GC
+ * profiler is enabled to report the allocation rate.
+ */
+public class RUIBenchmarks {
+	
+	
+	public static void main(final String[] args) throws RunnerException {
+		final String include = (args.length > 0 && args[0].length() > 0) ?
+				args[0] : RUIBenchmarks.class.getPackage().getName() + ".*Benchmark"; //$NON-NLS-1$
+		final Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.warmupIterations(5)
+				.measurementIterations(10)
+				.forks(1)
+				.build();
+		new Runner(options).run();
+	}
+	
+}
@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.ui;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBufferManager;
+import org.eclipse.core.filebuffers.LocationKind;
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.osgi.util.NLS;
+
+import de.walware.ecommons.ltk.ui.util.WorkbenchUIUtil;
+
+import de.walware.statet.r.core.IRCoreAccess;
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.RProject;
+import de.walware.statet.r.core.batch.RBatchEngine;
+import de.walware.statet.r.core.batch.RBatchEngine.FileResult;
+import de.walware.statet.r.core.batch.RBatchEngine.Summary;
+import de.walware.statet.r.ui.RUI;
+
+
+/**
+ * Corrects the indentation of all R script files in the selected projects and folders
+ * using the {@link RBatchEngine}.
+ * 
+ * The engine only computes the formatted source; the files are written using the workspace
+ * API (validate edit, local history). Files opened in an editor (connected to a file buffer)
+ * are skipped.
+ */
+public class RFormatSourcesHandler extends AbstractHandler {
+	
+	
+	private static class FormatJob extends Job {
+		
+		
+		private final Map<IContainer, List<IFile>> fFiles;
+		
+		
+		public FormatJob(final Map<IContainer, List<IFile>> files) {
+			super(RUIMessages.FormatSources_task);
+			fFiles = files;
+			setUser(true);
+			setRule(createRule(files));
+		}
+		
+		
+		private static ISchedulingRule createRule(final Map<IContainer, List<IFile>> files) {
+			final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+			final IResourceRuleFactory ruleFactory = workspace.getRuleFactory();
+			final List<IFile> allFiles = new ArrayList<IFile>();
+			for (final List<IFile> list : files.values()) {
+				allFiles.addAll(list);
+			}
+			final List<ISchedulingRule> rules = new ArrayList<ISchedulingRule>(allFiles.size() + 1);
+			for (final IFile file : allFiles) {
+				addRule(rules, ruleFactory.modifyRule(file));
+			}
+			addRule(rules, ruleFactory.validateEditRule(
+					allFiles.toArray(new IResource[allFiles.size()]) ));
+			return (!rules.isEmpty()) ?
+					MultiRule.combine(rules.toArray(new ISchedulingRule[rules.size()])) : null;
+		}
+		
+		private static void addRule(final List<ISchedulingRule> rules, final ISchedulingRule rule) {
+			if (rule != null) {
+				rules.add(rule);
+			}
+		}
+		
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			final SubMonitor progress = SubMonitor.convert(monitor, fFiles.size() * 10);
+			final MultiStatus status = new MultiStatus(RUI.PLUGIN_ID, 0,
+					RUIMessages.FormatSources_task, null );
+			try {
+				final ITextFileBufferManager bufferManager = FileBuffers.getTextFileBufferManager();
+				for (final Map.Entry<IContainer, List<IFile>> entry : fFiles.entrySet()) {
+					final IContainer container = entry.getKey();
+					final SubMonitor containerProgress = progress.newChild(10);
+					
+					final Map<String, List<File>> filesByCharset = new LinkedHashMap<String, List<File>>();
+					final Map<File, IFile> workspaceFiles = new HashMap<File, IFile>();
+					int skipped = 0;
+					for (final IFile file : entry.getValue()) {
+						final IPath location = file.getLocation();
+						if (location == null) {
+							continue;
+						}
+						if (bufferManager.getTextFileBuffer(file.getFullPath(), LocationKind.IFILE) != null) {
+							skipped++;
+							continue;
+						}
+						final String charset = file.getCharset();
+						List<File> files = filesByCharset.get(charset);
+						if (files == null) {
+							files = new ArrayList<File>();
+							filesByCharset.put(charset, files);
+						}
+						final File localFile = location.toFile();
+						files.add(localFile);
+						workspaceFiles.put(localFile, file);
+					}
+					
+					final IProject project = container.getProject();
+					final RProject rProject = RProject.getRProject(project);
+					final IRCoreAccess coreAccess = (rProject != null) ? rProject : RCore.getWorkbenchAccess();
+					final List<FileResult> formatted = new ArrayList<FileResult>();
+					final RBatchEngine.Listener listener = new RBatchEngine.Listener() {
+						public void fileDone(final FileResult result) {
+							if (result.status != null) {
+								status.add(result.status);
+							}
+							else if (result.formattedText != null) {
+								formatted.add(result);
+							}
+						}
+					};
+					containerProgress.setWorkRemaining(filesByCharset.size() * 8 + 2);
+					for (final Map.Entry<String, List<File>> charsetEntry : filesByCharset.entrySet()) {
+						final RBatchEngine engine = new RBatchEngine(coreAccess, RBatchEngine.FORMAT,
+								getCharset(charsetEntry.getKey()), 0 );
+						final Summary summary = engine.run(charsetEntry.getValue(), listener,
+								containerProgress.newChild(8) );
+						status.add(new Status(IStatus.INFO, RUI.PLUGIN_ID, NLS.bind(
+								RUIMessages.FormatSources_Summary_message, container.getFullPath().toString(),
+								summary.toString() )));
+					}
+					write(formatted, workspaceFiles, status, containerProgress.newChild(2));
+					if (skipped > 0) {
+						status.add(new Status(IStatus.INFO, RUI.PLUGIN_ID, NLS.bind(
+								RUIMessages.FormatSources_SkippedOpen_message, container.getFullPath().toString(),
+								skipped )));
+					}
+				}
+			}
+			catch (final OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			}
+			catch (final CoreException e) {
+				status.add(e.getStatus());
+			}
+			return status;
+		}
+		
+		private void write(final List<FileResult> results, final Map<File, IFile> workspaceFiles,
+				final MultiStatus status, final SubMonitor progress) throws CoreException {
+			if (results.isEmpty()) {
+				return;
+			}
+			progress.setWorkRemaining(results.size() + 1);
+			final IFile[] files = new IFile[results.size()];
+			for (int i = 0; i < files.length; i++) {
+				files[i] = workspaceFiles.get(results.get(i).file);
+			}
+			final IStatus validation = ResourcesPlugin.getWorkspace().validateEdit(files, null);
+			if (!validation.isOK()) {
+				throw new CoreException(validation);
+			}
+			progress.worked(1);
+			for (int i = 0; i < files.length; i++) {
+				final IFile file = files[i];
+				try {
+					final byte[] bytes = results.get(i).formattedText.getBytes(file.getCharset());
+					file.setContents(new ByteArrayInputStream(bytes), IResource.KEEP_HISTORY,
+							progress.newChild(1) );
+				}
+				catch (final UnsupportedEncodingException e) {
+					status.add(new Status(IStatus.ERROR, RUI.PLUGIN_ID, -1,
+							"An error occurred when writing the file '" + file.getFullPath().toString() + "'.", e )); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				catch (final CoreException e) {
+					status.add(e.getStatus());
+				}
+			}
+		}
+		
+		private Charset getCharset(final String name) {
+			try {
+				return Charset.forName(name);
+			}
+			catch (final Exception e) {
+				return Charset.defaultCharset();
+			}
+		}
+		
+	}
+	
+	
+	public RFormatSourcesHandler() {
+	}
+	
+	
+	public Object execute(final ExecutionEvent event) throws ExecutionException {
+		final ISelection selection = WorkbenchUIUtil.getCurrentSelection(event.getApplicationContext());
+		if (!(selection instanceof IStructuredSelection)) {
+			return null;
+		}
+		final Map<IContainer, List<IFile>> files = new LinkedHashMap<IContainer, List<IFile>>();
+		for (final Iterator<?> iter = ((IStructuredSelection) selection).iterator(); iter.hasNext(); ) {
+			final Object element = iter.next();
+			final IContainer container = (element instanceof IContainer) ? (IContainer) element :
+					((element instanceof IAdaptable) ?
+							(IContainer) ((IAdaptable) element).getAdapter(IContainer.class) : null );
+			if (container == null || !container.isAccessible() || files.containsKey(container)) {
+				continue;
+			}
+			final List<IFile> list = new ArrayList<IFile>();
+			try {
+				container.accept(new IResourceProxyVisitor() {
+					public boolean visit(final IResourceProxy proxy) throws CoreException {
+						if (proxy.getType() == IResource.FILE) {
+							if (RBatchEngine.isRFileName(proxy.getName())) {
+								list.add((IFile) proxy.requestResource());
+							}
+							return false;
+						}
+						return !proxy.isDerived();
+					}
+				}, IResource.NONE);
+			}
+			catch (final CoreException e) {
+				throw new ExecutionException("An error occurred when collecting the R files.", e); //$NON-NLS-1$
+			}
+			files.put(container, list);
+		}
+		if (!files.isEmpty()) {
+			new FormatJob(files).schedule();
+		}
+		return null;
+	}
+	
+}
@@ -29,6 +29,10 @@ public class RUIMessages extends NLS {
 	public static String CorrectIndent_task_Indent;
 	public static String CorrectIndent_task_UpdateStructure;
 	
+	public static String FormatSources_task;
+	public static String FormatSources_Summary_message;
+	public static String FormatSources_SkippedOpen_message;
+	
 	public static String Proposal_RenameInFile_label;
 	public static String Proposal_RenameInFile_description;
 	public static String Proposal_RenameInFilePrecending_label;
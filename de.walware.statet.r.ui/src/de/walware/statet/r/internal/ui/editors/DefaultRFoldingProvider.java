@@ -27,6 +27,7 @@ import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
 import org.eclipse.jface.text.source.projection.ProjectionAnnotationModel;
 
@@ -40,6 +41,7 @@ import de.walware.ecommons.preferences.PreferencesUtil;
 import de.walware.ecommons.preferences.SettingsChangeNotifier.ChangeListener;
 import de.walware.ecommons.text.TextUtil;
 
+import de.walware.statet.r.core.model.IRModelElementDelta;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.rsource.ast.Block;
@@ -333,14 +335,14 @@ public class DefaultRFoldingProvider implements ISourceEditorAddon, IModelElemen
 	public void elementInitialInfo(final IModelElement element) {
 		final Input input = fInput;
 		if (input.fUnit == element) {
-			update(input, -1);
+			update(input, -1, null);
 		}
 	}
 	
 	public void elementUpdatedInfo(final IModelElement element, final IModelElementDelta delta) {
 		final Input input = fInput;
 		if (input.fUnit == element) {
-			update(input, delta.getNewAst().stamp);
+			update(input, delta.getNewAst().stamp, delta);
 		}
 	}
 	
@@ -357,7 +359,7 @@ public class DefaultRFoldingProvider implements ISourceEditorAddon, IModelElemen
 			updateConfig();
 			final Input input = fInput;
 			if (input != null) {
-				update(input, -1);
+				update(input, -1, null);
 			}
 		}
 	}
@@ -397,7 +399,55 @@ public class DefaultRFoldingProvider implements ISourceEditorAddon, IModelElemen
 		return new FoldingStructureComputationContext(document, ast, model, !input.fInitilized);
 	}
 	
-	private void update(final Input input, final long stamp) {
+	/**
+	 * Computes the region of the document to update for the changes of the delta.
+	 * 
+	 * The region is extended to complete lines and all top level nodes overlapping these lines,
+	 * so that the folding regions of all nodes outside of the region are unchanged.
+	 * 
+	 * @return the region or <code>null</code> if all folding regions must be updated
+	 */
+	private IRegion computeUpdateRegion(final FoldingStructureComputationContext ctx,
+			final IModelElementDelta delta, final long updateStamp) throws BadLocationException {
+		if (!(delta instanceof IRModelElementDelta) || ctx.fIsInitial
+				|| delta.getNewAst() != ctx.fAst || delta.getOldAst() == null
+				|| delta.getOldAst().stamp != updateStamp) {
+			// the annotations may not be in sync with the old model
+			return null;
+		}
+		final IRegion changed = ((IRModelElementDelta) delta).getChangedRegion();
+		if (changed == null) {
+			return null;
+		}
+		final AbstractDocument doc = ctx.fDocument;
+		final SourceComponent root = ctx.fAst.root;
+		int start = changed.getOffset();
+		int stop = changed.getOffset() + changed.getLength();
+		int first = 0;
+		int last = root.getChildCount() - 1;
+		while (true) {
+			start = doc.getLineOffset(doc.getLineOfOffset(start));
+			{	final int stopLine = doc.getLineOfOffset(stop);
+				stop = doc.getLineOffset(stopLine) + doc.getLineLength(stopLine);
+			}
+			while (first <= last && root.getChild(first).getStopOffset() < start) {
+				first++;
+			}
+			while (last >= first && root.getChild(last).getOffset() > stop) {
+				last--;
+			}
+			if (first > last
+					|| (root.getChild(first).getOffset() >= start && root.getChild(last).getStopOffset() <= stop)) {
+				return new Region(start, stop - start);
+			}
+			start = Math.min(start, root.getChild(first).getOffset());
+			stop = Math.max(stop, root.getChild(last).getStopOffset());
+			first = 0;
+			last = root.getChildCount() - 1;
+		}
+	}
+	
+	private void update(final Input input, final long stamp, final IModelElementDelta delta) {
 		synchronized(input) {
 			if (input.fUnit == null
 					|| (stamp != -1 && input.fUpdateStamp == stamp)) { // already uptodate
@@ -411,12 +461,37 @@ public class DefaultRFoldingProvider implements ISourceEditorAddon, IModelElemen
 			if (ctx == null) {
 				return;
 			}
+			final IRegion region;
 			try {
-				ctx.fAst.root.acceptInR(new ElementFinder(ctx, fConfig));
+				region = computeUpdateRegion(ctx, delta, input.fUpdateStamp);
+				final ElementFinder finder = new ElementFinder(ctx, fConfig);
+				if (region == null) {
+					ctx.fAst.root.acceptInR(finder);
+				}
+				else {
+					final int start = region.getOffset();
+					final int stop = region.getOffset() + region.getLength();
+					final SourceComponent root = ctx.fAst.root;
+					final int count = root.getChildCount();
+					for (int i = 0; i < count; i++) {
+						final RAstNode child = root.getChild(i);
+						if (child.getStopOffset() >= start && child.getOffset() <= stop) {
+							child.acceptInR(finder);
+						}
+					}
+					for (final RAstNode comment : root.getComments()) {
+						if (comment.getStopOffset() >= start && comment.getOffset() <= stop) {
+							comment.acceptInR(finder);
+						}
+					}
+				}
 			}
 			catch (final InvocationTargetException e) {
 				return;
 			}
+			catch (final BadLocationException e) {
+				return;
+			}
 			
 			ProjectionAnnotation[] deletions;
 			if (ctx.fIsInitial) {
@@ -428,6 +503,10 @@ public class DefaultRFoldingProvider implements ISourceEditorAddon, IModelElemen
 				for (final Iterator<RProjectionAnnotation> iter = ctx.fModel.getAnnotationIterator(); iter.hasNext(); ) {
 					final RProjectionAnnotation existingAnn = iter.next();
 					final Position position = ctx.fModel.getPosition(existingAnn);
+					if (region != null && !position.isDeleted()
+							&& !position.overlapsWith(region.getOffset(), region.getLength())) {
+						continue;
+					}
 					final RProjectionAnnotation newAnn = ctx.fTable.remove(position);
 					if (newAnn != null) {
 						existingAnn.rtype = newAnn.rtype;
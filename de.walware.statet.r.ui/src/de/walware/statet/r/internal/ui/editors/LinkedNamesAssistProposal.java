@@ -35,11 +35,14 @@ import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.ui.texteditor.link.EditorLinkedModeUI;
 
+import de.walware.ecommons.ltk.ISourceUnitModelInfo;
 import de.walware.ecommons.ltk.ui.LTKUI;
 import de.walware.ecommons.ltk.ui.sourceediting.AssistInvocationContext;
 import de.walware.ecommons.ltk.ui.sourceediting.SourceEditor1;
 import de.walware.ecommons.text.ui.DefaultBrowserInformationInput;
 
+import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.IROccurrenceIndex;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.rsource.ast.RAst;
 import de.walware.statet.r.internal.ui.RUIMessages;
@@ -92,6 +95,31 @@ public class LinkedNamesAssistProposal implements ICompletionProposal, ICompleti
 	public static final int IN_FILE_FOLLOWING = 3;
 	
 	
+	static IROccurrenceIndex getOccurrenceIndex(final AssistInvocationContext context) {
+		final ISourceUnitModelInfo modelInfo = context.getModelInfo();
+		return (modelInfo instanceof IRModelInfo) ?
+				((IRModelInfo) modelInfo).getOccurrenceIndex() : null;
+	}
+	
+	/**
+	 * Returns all access of the element in the source unit sorted by position.
+	 * The occurrence index of the model is used if available.
+	 */
+	static RElementAccess[] getSortedOccurrences(final AssistInvocationContext context,
+			final RElementAccess access) {
+		final IROccurrenceIndex index = getOccurrenceIndex(context);
+		if (index != null) {
+			final RElementAccess[] occurrences = index.getOccurrences(access);
+			if (occurrences != null) {
+				return occurrences;
+			}
+		}
+		final RElementAccess[] allInUnit = access.getAllInUnit();
+		Arrays.sort(allInUnit, RElementAccess.NAME_POSITION_COMPARATOR);
+		return allInUnit;
+	}
+	
+	
 	private int fMode;
 	private AssistInvocationContext fContext;
 	private RElementAccess fAccess;
@@ -157,8 +185,7 @@ public class LinkedNamesAssistProposal implements ICompletionProposal, ICompleti
 			
 			final IDocument document = viewer.getDocument();
 			final LinkedPositionGroup group = new LinkedPositionGroup();
-			final RElementAccess[] allInUnit = fAccess.getAllInUnit();
-			Arrays.sort(allInUnit, RElementAccess.NAME_POSITION_COMPARATOR);
+			final RElementAccess[] allInUnit = getSortedOccurrences(fContext, fAccess);
 			int current = -1;
 			for (int i = 0; i < allInUnit.length; i++) {
 				if (fAccess == allInUnit[i]) {
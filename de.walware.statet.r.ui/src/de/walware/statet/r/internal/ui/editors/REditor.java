@@ -72,6 +72,7 @@ import de.walware.statet.base.ui.IStatetUIMenuIds;
 import de.walware.statet.r.core.IRCoreAccess;
 import de.walware.statet.r.core.RCore;
 import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.IROccurrenceIndex;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RModel;
@@ -108,13 +109,15 @@ public class REditor extends SourceEditor1 implements IREditor {
 			
 			final AbstractDocument doc;
 			final long stamp;
+			final IROccurrenceIndex index;
 			Point range;
 			Annotation[] annotations;
 			String[] name;
 			
-			public RunData(final AbstractDocument doc, final long stamp) {
+			public RunData(final AbstractDocument doc, final long stamp, final IROccurrenceIndex index) {
 				this.doc = doc;
 				this.stamp = stamp;
+				this.index = index;
 			}
 			
 		}
@@ -157,7 +160,8 @@ public class REditor extends SourceEditor1 implements IREditor {
 				if (getSourceUnit() != inputElement || info == null || astSelection == null) {
 					return false;
 				}
-				final RunData run = new RunData(inputElement.getDocument(null), info.getStamp());
+				final RunData run = new RunData(inputElement.getDocument(null), info.getStamp(),
+						info.getOccurrenceIndex() );
 				if (run.doc == null) {
 					return false;
 				}
@@ -165,6 +169,11 @@ public class REditor extends SourceEditor1 implements IREditor {
 					return true;
 				}
 				
+				if (run.index != null && orgSelection instanceof ITextSelection
+						&& checkForIndexedAccess(run, ((ITextSelection) orgSelection).getOffset())) {
+					return true;
+				}
+				
 				RAstNode node = (RAstNode) astSelection.getCovering();
 				if (checkForAccess(run, node)) {
 					return true;
@@ -213,6 +222,19 @@ public class REditor extends SourceEditor1 implements IREditor {
 			return false;
 		}
 		
+		private boolean checkForIndexedAccess(final RunData run, final int offset) throws BadLocationException {
+			final RElementAccess access = run.index.getAccess(offset);
+			if (access == null) {
+				return false;
+			}
+			final Map<Annotation, Position> annotations = checkDefault(run, access);
+			if (annotations != null) {
+				updateAnnotations(run, annotations);
+				return true;
+			}
+			return false;
+		}
+		
 		private boolean checkForAccess(final RunData run, RAstNode node) throws BadLocationException {
 			if (node == null
 					|| !(node.getNodeType() == NodeType.SYMBOL || node.getNodeType() == NodeType.STRING_CONST)) {
@@ -246,7 +268,11 @@ public class REditor extends SourceEditor1 implements IREditor {
 				run.range = new Point(nameNode.getOffset(), nameNode.getStopOffset());
 				if (isValid(run)) {
 					run.name = new String[] { access.getSegmentName() };
-					final RElementAccess[] accessList = access.getAllInUnit();
+					RElementAccess[] accessList = (run.index != null) ?
+							run.index.getOccurrences(access) : null;
+					if (accessList == null) {
+						accessList = access.getAllInUnit();
+					}
 					final Map<Annotation, Position> annotations = new LinkedHashMap<Annotation, Position>(accessList.length);
 					for (int i = 0; i < accessList.length; i++) {
 						final RElementAccess item = accessList[i];
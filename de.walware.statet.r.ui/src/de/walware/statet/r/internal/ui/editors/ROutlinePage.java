@@ -47,6 +47,10 @@ import de.walware.statet.r.ui.RUI;
 
 /**
  * Outline page for R sources
+ * 
+ * The tree is refreshed completely by {@link SourceEditor2OutlinePage} on each model update;
+ * the top level changes of the {@link de.walware.statet.r.core.model.IRModelElementDelta}
+ * are not used by the outline.
  */
 public class ROutlinePage extends SourceEditor2OutlinePage {
 	
@@ -11,7 +11,6 @@
 
 package de.walware.statet.r.internal.ui.editors;
 
-import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
@@ -20,6 +19,7 @@ import de.walware.ecommons.ltk.ui.sourceediting.AssistInvocationContext;
 import de.walware.ecommons.ltk.ui.sourceediting.QuickAssistProcessor;
 import de.walware.ecommons.ltk.ui.sourceediting.SourceEditor1;
 
+import de.walware.statet.r.core.model.IROccurrenceIndex;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.rsource.ast.RAstNode;
 
@@ -45,6 +45,15 @@ public class RQuickAssistProcessor extends QuickAssistProcessor {
 		}
 		final RAstNode node = (RAstNode) context.getAstSelection().getCovering();
 		
+		final IROccurrenceIndex index = LinkedNamesAssistProposal.getOccurrenceIndex(context);
+		if (index != null) {
+			final RElementAccess access = index.getAccess(node.getOffset());
+			if (access != null && access.getNameNode() == node && access.getSegmentName() != null) {
+				addAccessAssistProposals(proposals, context, access);
+				return;
+			}
+		}
+		
 		RAstNode candidate = node;
 		SEARCH_ACCESS : while (candidate != null) {
 			final Object[] attachments = candidate.getAttachments();
@@ -69,10 +78,9 @@ public class RQuickAssistProcessor extends QuickAssistProcessor {
 	
 	protected void addAccessAssistProposals(final List<ICompletionProposal> proposals,
 			final AssistInvocationContext invocationContext, final RElementAccess access) {
-		final RElementAccess[] allInUnit = access.getAllInUnit();
 		proposals.add(new LinkedNamesAssistProposal(LinkedNamesAssistProposal.IN_FILE, invocationContext, access));
+		final RElementAccess[] allInUnit = LinkedNamesAssistProposal.getSortedOccurrences(invocationContext, access);
 		if (allInUnit.length > 2) {
-			Arrays.sort(allInUnit, RElementAccess.NAME_POSITION_COMPARATOR);
 			int current = 0;
 			for (; current < allInUnit.length; current++) {
 				if (access == allInUnit[current]) {
@@ -134,7 +134,9 @@ public class RCorrectIndentAction extends Action implements IUpdate {
 			}
 			if (rStartLine <= rEndLine) {
 				fIndenter.setup((su instanceof IRSourceUnit) ? ((IRSourceUnit) su).getRCoreAccess() : RCore.getWorkbenchAccess());
-				final TextEdit rEdits = fIndenter.getIndentEdits(document, ast, range.getOffset(), rStartLine, rEndLine);
+				final TextEdit rEdits = (range.getOffset() == 0 && range.getLength() == document.getLength()) ?
+						fIndenter.getIndentEdits(document, ast, null, rStartLine, rEndLine, false) :
+						fIndenter.getIndentEdits(document, ast, range.getOffset(), rStartLine, rEndLine);
 				if (rEdits.getChildrenSize() > 0) {
 					edits.addChild(rEdits);
 				}
@@ -35,8 +35,14 @@ public class RDocumentSetupParticipant extends PartitionerDocumentSetupParticipa
 	
 	@Override
 	protected Partitioner createDocumentPartitioner() {
-		return new Partitioner(
-				new RFastPartitionScanner(), IRDocumentPartitions.R_PARTITIONS);
+		final RFastPartitionScanner scanner = new RFastPartitionScanner(true);
+		return new Partitioner(scanner, IRDocumentPartitions.R_PARTITIONS) {
+			@Override
+			public void disconnect() {
+				super.disconnect();
+				scanner.disconnect();
+			}
+		};
 	}
 	
 }
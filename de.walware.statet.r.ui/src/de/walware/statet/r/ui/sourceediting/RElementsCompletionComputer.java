@@ -57,6 +57,7 @@ import de.walware.rj.data.RReference;
 import de.walware.statet.r.console.core.RProcess;
 import de.walware.statet.r.console.core.RWorkspace;
 import de.walware.statet.r.console.core.RWorkspace.ICombinedREnvironment;
+import de.walware.statet.r.core.RCore;
 import de.walware.statet.r.core.RSymbolComparator;
 import de.walware.statet.r.core.data.ICombinedRElement;
 import de.walware.statet.r.core.model.ArgsDefinition;
@@ -70,6 +71,8 @@ import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RElementName;
 import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.core.renv.IREnv;
+import de.walware.statet.r.core.renv.IRPkgFrameCache;
 import de.walware.statet.r.core.rlang.RTokens;
 import de.walware.statet.r.core.rsource.IRDocumentPartitions;
 import de.walware.statet.r.core.rsource.RHeuristicTokenScanner;
@@ -893,18 +896,7 @@ public class RElementsCompletionComputer implements IContentAssistComputer {
 				}
 			}
 			else {
-				final Set<String> requiredPackages = new HashSet<String>();
-				final ISourceUnitModelInfo modelInfo = context.getModelInfo();
-				if (modelInfo instanceof IRModelInfo) {
-					final IRModelInfo rModel = (IRModelInfo) modelInfo;
-					final IPackageReferences packages = rModel.getReferencedPackages();
-					for (final String name : packages.getAllPackageNames()) {
-						if (packages.isImported(name)) {
-							requiredPackages.add(name);
-						}
-					}
-				}
-				requiredPackages.add("base");
+				final Set<String> requiredPackages = getRequiredPackages(context);
 				
 				final RWorkspace data = fProcess.getWorkspaceData();
 				final List<? extends ICombinedREnvironment> runtimeList = data.getRSearchEnvironments();
@@ -920,6 +912,38 @@ public class RElementsCompletionComputer implements IContentAssistComputer {
 				}
 			}
 		}
+		else if (!(fEditor instanceof ConsolePageEditor)) {
+			final ISourceUnit su = fEditor.getSourceUnit();
+			final IREnv rEnv = (su instanceof IRSourceUnit) ?
+					((IRSourceUnit) su).getREnv() : RCore.getREnvManager().getDefault();
+			final IRPkgFrameCache cache = RCore.getRPkgFrameCache(rEnv);
+			if (cache != null) {
+				for (final String name : getRequiredPackages(context)) {
+					if (!fEnvirListPackages.contains(name)) {
+						final IRFrame frame = cache.getPkgFrame(name);
+						if (frame != null) {
+							fEnvirList[RUNTIME_ENVIR].add(frame);
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	private Set<String> getRequiredPackages(final AssistInvocationContext context) {
+		final Set<String> requiredPackages = new HashSet<String>();
+		final ISourceUnitModelInfo modelInfo = context.getModelInfo();
+		if (modelInfo instanceof IRModelInfo) {
+			final IRModelInfo rModel = (IRModelInfo) modelInfo;
+			final IPackageReferences packages = rModel.getReferencedPackages();
+			for (final String name : packages.getAllPackageNames()) {
+				if (packages.isImported(name)) {
+					requiredPackages.add(name);
+				}
+			}
+		}
+		requiredPackages.add("base");
+		return requiredPackages;
 	}
 	
 }
@@ -11,13 +11,16 @@
 
 package de.walware.statet.r.ui.text.r;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.rules.ICharacterScanner;
 import org.eclipse.jface.text.rules.IPartitionTokenScanner;
 import org.eclipse.jface.text.rules.IToken;
@@ -33,6 +36,13 @@ import de.walware.statet.r.internal.ui.RUIPlugin;
 /**
  * This scanner recognizes the comments, platform specif., verbatim-like section
  * (and other/usual Rd code).
+ * 
+ * If line state tracking is enabled, the scanner records the state at the start of each line.
+ * When the document is re-partitioned after a change, the scanner compares the states behind
+ * the changed region with the recorded states; if the state converges inside of a string or
+ * quoted symbol, it skips the unchanged lines of the partition instead of reading them again.
+ * Tracking must be enabled only if the scanner is used by a single partitioner for the complete
+ * document.
  */
 public class RFastPartitionScanner implements IPartitionTokenScanner, IPartitionScannerConfigExt {
 	
@@ -63,6 +73,22 @@ public class RFastPartitionScanner implements IPartitionTokenScanner, IPartition
 	protected static final int LAST_NEWLINE = 2;
 	
 	
+	private static final int LINE_UNKNOWN = -1;
+	private static final int LINE_CONTINUED = 0x1000000;
+	
+	
+	private class DocumentListener implements IDocumentListener {
+		
+		public void documentAboutToBeChanged(final DocumentEvent event) {
+			updateLineStates(event);
+		}
+		
+		public void documentChanged(final DocumentEvent event) {
+		}
+		
+	}
+	
+	
 	/** The scanner. */
 	private final BufferedDocumentScanner fScanner = new BufferedDocumentScanner(1000);	// faster implementation
 	
@@ -88,8 +114,35 @@ public class RFastPartitionScanner implements IPartitionTokenScanner, IPartition
 	
 	private final IToken[] fTokens;
 	
+	private final boolean fTrackLineStates;
+	private IDocument fTrackedDocument;
+	private DocumentListener fDocumentListener;
+	/** The states at the line starts (state, end char, continued flag) */
+	private int[] fLineStates = new int[0];
+	private int fLineCount;
+	private boolean fLineStatesValid;
+	/** End offset of the last change, the states behind can be compared to the recorded states */
+	private int fDamageEnd = -1;
+	private int fConvergenceOffset;
+	/** The current line, -1 if not tracked */
+	private int fLine = -1;
+	private int fLineStart;
+	private int fReadOffset;
+	private int fRangeEnd;
+	
 	
 	public RFastPartitionScanner() {
+		this(false);
+	}
+	
+	/**
+	 * Creates a new scanner.
+	 * 
+	 * @param trackLineStates if the states at the line starts should be recorded to limit the
+	 *     scanning after document changes
+	 */
+	public RFastPartitionScanner(final boolean trackLineStates) {
+		fTrackLineStates = trackLineStates;
 		final Map<Integer, IToken> list = new HashMap<Integer, IToken>();
 		initTokens(list);
 		final int count = maxState(list.keySet())+1;
@@ -134,6 +187,21 @@ public class RFastPartitionScanner implements IPartitionTokenScanner, IPartition
 		setPartialRange(document, offset, length, null, -1);
 	}
 	
+	/**
+	 * Stops tracking the line states of the current document.
+	 * 
+	 * Call this method if the partitioner using this scanner is disconnected from its document.
+	 */
+	public void disconnect() {
+		if (fTrackedDocument != null) {
+			fTrackedDocument.removeDocumentListener(fDocumentListener);
+			fTrackedDocument = null;
+			fLineStatesValid = false;
+			fDamageEnd = -1;
+			fLine = -1;
+		}
+	}
+	
 	public void setPartialRange(final IDocument document, final int offset, final int length, final String contentType, int partitionOffset) {
 		if (partitionOffset < 0) {
 			partitionOffset = offset;
@@ -178,6 +246,140 @@ public class RFastPartitionScanner implements IPartitionTokenScanner, IPartition
 				break;
 			}
 		}
+		fReadOffset = offset;
+		fRangeEnd = offset + length;
+		if (fTrackLineStates) {
+			initLineStates(document, offset, length);
+		}
+	}
+	
+	
+	private void initLineStates(final IDocument document, final int offset, final int length) {
+		if (document != fTrackedDocument) {
+			if (fTrackedDocument != null) {
+				fTrackedDocument.removeDocumentListener(fDocumentListener);
+			}
+			else if (fDocumentListener == null) {
+				fDocumentListener = new DocumentListener();
+			}
+			fTrackedDocument = document;
+			fTrackedDocument.addDocumentListener(fDocumentListener);
+			fLineStatesValid = false;
+		}
+		fConvergenceOffset = fDamageEnd;
+		fDamageEnd = -1;
+		fLine = -1;
+		try {
+			if (offset == 0 && length == document.getLength()) {
+				fLineCount = document.getNumberOfLines();
+				if (fLineStates.length < fLineCount) {
+					fLineStates = new int[fLineCount + 64];
+				}
+				fLineStates[0] = getLineState();
+				fLineStatesValid = true;
+				fConvergenceOffset = -1;
+			}
+			else if (!fLineStatesValid) {
+				return;
+			}
+			fLine = document.getLineOfOffset(offset);
+			fLineStart = document.getLineOffset(fLine);
+		}
+		catch (final BadLocationException e) {
+			fLineStatesValid = false;
+			fLine = -1;
+		}
+	}
+	
+	private void updateLineStates(final DocumentEvent event) {
+		if (!fLineStatesValid) {
+			return;
+		}
+		try {
+			final IDocument document = event.getDocument();
+			final int offset = event.getOffset();
+			final String text = event.getText();
+			final int end = offset + event.getLength();
+			if ((offset > 0 && document.getChar(offset-1) == '\r'
+							&& ((offset < document.getLength() && document.getChar(offset) == '\n')
+									|| (text != null && text.startsWith("\n")) )) //$NON-NLS-1$
+					|| (text != null && text.endsWith("\r") //$NON-NLS-1$
+							&& end < document.getLength() && document.getChar(end) == '\n') ) {
+				// line delimiters may be merged or split
+				fLineStatesValid = false;
+				return;
+			}
+			final int firstLine = document.getLineOfOffset(offset);
+			final int lastLine = document.getLineOfOffset(end);
+			final int removed = lastLine - firstLine;
+			final int added = (text != null) ? document.computeNumberOfLines(text) : 0;
+			if (added != removed) {
+				final int newCount = fLineCount + added - removed;
+				if (fLineStates.length < newCount) {
+					final int[] states = new int[newCount + 64];
+					System.arraycopy(fLineStates, 0, states, 0, firstLine+1);
+					System.arraycopy(fLineStates, lastLine+1, states, firstLine+1+added, fLineCount-lastLine-1);
+					fLineStates = states;
+				}
+				else {
+					System.arraycopy(fLineStates, lastLine+1, fLineStates, firstLine+1+added, fLineCount-lastLine-1);
+				}
+				fLineCount = newCount;
+			}
+			Arrays.fill(fLineStates, firstLine+1, firstLine+1+added, LINE_UNKNOWN);
+			fDamageEnd = offset + ((text != null) ? text.length() : 0);
+		}
+		catch (final BadLocationException e) {
+			fLineStatesValid = false;
+		}
+	}
+	
+	private int getLineState() {
+		switch (fState) {
+		case S_QUOTED_SYMBOL:
+		case S_STRING:
+			return (fState | (fEndChar << 8));
+		default:
+			return fState;
+		}
+	}
+	
+	private void handleLineStart() {
+		final int line = ++fLine;
+		if (line >= fLineCount) {
+			fLine = -1;
+			return;
+		}
+		final int state = (fToken == null && fTokenOffset < fLineStart) ?
+				(getLineState() | LINE_CONTINUED) : getLineState();
+		final int oldState = fLineStates[line];
+		fLineStates[line] = state;
+		fLineStart = fReadOffset;
+		
+		if (fConvergenceOffset >= 0 && fReadOffset >= fConvergenceOffset
+				&& fToken == null && state == oldState
+				&& (fState == S_STRING || fState == S_QUOTED_SYMBOL) ) {
+			// converged: the following lines of the partition are unchanged
+			int last = line;
+			while (last+1 < fLineCount && fLineStates[last+1] != LINE_UNKNOWN
+					&& (fLineStates[last+1] & LINE_CONTINUED) != 0) {
+				last++;
+			}
+			if (last > line) {
+				try {
+					final int offset = fDocument.getLineOffset(last);
+					fTokenLength += offset - fReadOffset;
+					fReadOffset = offset;
+					fScanner.setRange(fDocument, offset, fRangeEnd - offset);
+					fLine = last;
+					fLineStart = offset;
+				}
+				catch (final BadLocationException e) {
+					fLineStatesValid = false;
+					fLine = -1;
+				}
+			}
+		}
 	}
 	
 	
@@ -201,8 +403,12 @@ public class RFastPartitionScanner implements IPartitionTokenScanner, IPartition
 				break CHECK_NEXT;
 			}
 			
+			fReadOffset++;
 			fTokenLength++;
 			handleChar(fState, c);
+			if (fLine >= 0 && (c == '\n' || (c == '\r' && !nextIsChar('\n')))) {
+				handleLineStart();
+			}
 			continue CHECK_NEXT;
 		}
 		return fToken;
@@ -363,6 +569,7 @@ public class RFastPartitionScanner implements IPartitionTokenScanner, IPartition
 	protected final boolean readChar(final char c1) {
 		final int c = fScanner.read();
 		if (c == c1) {
+			fReadOffset++;
 			fTokenLength ++;
 			return true;
 		}
@@ -370,6 +577,12 @@ public class RFastPartitionScanner implements IPartitionTokenScanner, IPartition
 		return false;
 	}
 	
+	private boolean nextIsChar(final char c1) {
+		final int c = fScanner.read();
+		if (c >= 0) fScanner.unread();
+		return (c == c1);
+	}
+	
 	protected final IDocument getDocument() {
 		return fDocument;
 	}
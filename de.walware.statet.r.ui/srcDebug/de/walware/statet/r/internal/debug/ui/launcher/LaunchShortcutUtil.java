@@ -47,6 +47,7 @@ import de.walware.ecommons.ICommonStatusConstants;
 import de.walware.ecommons.ltk.ui.sourceediting.ISourceEditor;
 import de.walware.ecommons.ltk.ui.util.WorkbenchUIUtil;
 import de.walware.ecommons.preferences.Preference.BooleanPref;
+import de.walware.ecommons.preferences.Preference.IntPref;
 
 import de.walware.statet.r.internal.debug.ui.RLaunchingMessages;
 import de.walware.statet.r.launching.ICodeLaunchContentHandler;
@@ -63,6 +64,28 @@ public class LaunchShortcutUtil {
 	public static final BooleanPref ECHO_ENABLED_PREF = new BooleanPref(
 			RRunDebugPreferenceConstants.ROOT_QUALIFIER + "/codelaunch", "echo.enabled" );
 	
+	/**
+	 * Whether selections with multiple lines are submitted as one command to the R console
+	 * (instead of line by line). Default is <code>false</code>.
+	 */
+	public static final BooleanPref BULK_SUBMIT_ENABLED_PREF = new BooleanPref(
+			RRunDebugPreferenceConstants.ROOT_QUALIFIER + "/codelaunch", "bulk_submit.enabled" ); //$NON-NLS-1$ //$NON-NLS-2$
+	
+	/**
+	 * Minimum number of lines of a selection to submit it as one command, if enabled.
+	 * Default is {@link #BULK_SUBMIT_MIN_LINES_DEFAULT}.
+	 */
+	public static final IntPref BULK_SUBMIT_MIN_LINES_PREF = new IntPref(
+			RRunDebugPreferenceConstants.ROOT_QUALIFIER + "/codelaunch", "bulk_submit.min_lines" ); //$NON-NLS-1$ //$NON-NLS-2$
+	public static final int BULK_SUBMIT_MIN_LINES_DEFAULT = 2;
+	
+	/**
+	 * Whether all lines of a selection submitted as one command are echoed (and added to the
+	 * history). Default is <code>true</code>.
+	 */
+	public static final BooleanPref BULK_SUBMIT_ECHO_PREF = new BooleanPref(
+			RRunDebugPreferenceConstants.ROOT_QUALIFIER + "/codelaunch", "bulk_submit.echo" ); //$NON-NLS-1$ //$NON-NLS-2$
+	
 	
 	public static String getContentTypeId(final IFile file) {
 		try {
@@ -18,19 +18,29 @@ import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.text.AbstractDocument;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.commands.IElementUpdater;
+import org.eclipse.ui.handlers.HandlerUtil;
 import org.eclipse.ui.menus.UIElement;
 
 import de.walware.ecommons.ltk.ISourceStructElement;
+import de.walware.ecommons.ltk.ISourceUnit;
+import de.walware.ecommons.ltk.ui.sourceediting.ISourceEditor;
 import de.walware.ecommons.ltk.ui.util.LTKSelectionUtil;
 import de.walware.ecommons.ltk.ui.util.WorkbenchUIUtil;
 
+import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.refactoring.RRefactoringAdapter;
 import de.walware.statet.r.internal.debug.ui.RLaunchingMessages;
 import de.walware.statet.r.launching.RCodeLaunching;
+import de.walware.statet.r.launching.RCodeLaunching.SourceRegion;
 
 
 /**
@@ -73,7 +83,9 @@ public class RunSelectionHandler extends AbstractHandler implements IElementUpda
 			if (selection instanceof ITextSelection) {
 				final String code = LaunchShortcutUtil.getSelectedCode(event);
 				if (code != null) {
-					RCodeLaunching.runRCodeDirect(code, fGotoConsole);
+					RCodeLaunching.runRCodeDirect(code,
+							createSourceRegion(event, (ITextSelection) selection, code),
+							fGotoConsole );
 					return null;
 				}
 			}
@@ -112,4 +124,45 @@ public class RunSelectionHandler extends AbstractHandler implements IElementUpda
 		return null;
 	}
 	
+	/**
+	 * Creates the source region of the selected code in an R editor, used for the source
+	 * references if the code is submitted as one command.
+	 * 
+	 * @return the source region or <code>null</code> if not available
+	 */
+	private SourceRegion createSourceRegion(final ExecutionEvent event,
+			final ITextSelection selection, final String code) {
+		final IWorkbenchPart workbenchPart = HandlerUtil.getActivePart(event);
+		final ISourceEditor editor = (workbenchPart != null) ?
+				(ISourceEditor) workbenchPart.getAdapter(ISourceEditor.class) : null;
+		if (editor == null) {
+			return null;
+		}
+		final ISourceUnit su = editor.getSourceUnit();
+		final IDocument document = editor.getViewer().getDocument();
+		if (!(su instanceof IRSourceUnit) || !(document instanceof AbstractDocument)) {
+			return null;
+		}
+		try {
+			int beginOffset = selection.getOffset();
+			int endOffset = beginOffset + selection.getLength();
+			if (selection.getLength() == 0) {
+				final IRegion line = document.getLineInformationOfOffset(beginOffset);
+				beginOffset = line.getOffset();
+				endOffset = beginOffset + line.getLength();
+			}
+			if (endOffset <= beginOffset || endOffset - beginOffset != code.length()) {
+				return null;
+			}
+			final SourceRegion region = new SourceRegion((IRSourceUnit) su, (AbstractDocument) document);
+			region.setBegin(beginOffset);
+			region.setEnd(endOffset);
+			region.setCode(code);
+			return region;
+		}
+		catch (final BadLocationException e) {
+			return null;
+		}
+	}
+	
 }
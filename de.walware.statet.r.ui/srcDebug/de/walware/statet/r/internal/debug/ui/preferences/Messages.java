@@ -24,6 +24,12 @@ public class Messages extends NLS {
 	
 	public static String RInteraction_FileCommands_label;
 	
+	public static String RInteraction_BulkSubmit_label;
+	public static String RInteraction_BulkSubmit_Enabled_label;
+	public static String RInteraction_BulkSubmit_MinLines_label;
+	public static String RInteraction_BulkSubmit_MinLines_error_message;
+	public static String RInteraction_BulkSubmit_Echo_label;
+	
 	public static String REnv_REnvList_label;
 	public static String REnv_LocationColumn_name;
 	public static String REnv_NameColumn_name;
@@ -56,6 +62,7 @@ public class Messages extends NLS {
 	public static String REnv_Update_Console_Auto_label;
 	public static String REnv_Update_Console_Ask_label;
 	public static String REnv_Update_Console_Disabled_label;
+	public static String REnv_Update_Background_label;
 	
 	public static String REnv_Network_label;
 	public static String REnv_Network_UseEclipse_label;
@@ -119,6 +119,7 @@ class REnvConfigurationBlock extends ManagedConfigurationBlock {
 	private final IObservableValue fListStatus = new WritableValue();
 	
 	private ComboViewer fIndexConsoleViewer;
+	private Button fIndexBackgroundControl;
 	private Button fNetworkEclipseControl;
 	
 	
@@ -136,6 +137,7 @@ class REnvConfigurationBlock extends ManagedConfigurationBlock {
 	protected void createBlockArea(final Composite pageComposite) {
 		final Map<Preference, String> prefs = new HashMap<Preference, String>();
 		prefs.put(RRunDebugPreferenceConstants.PREF_RENV_CHECK_UPDATE, null);
+		prefs.put(RRunDebugPreferenceConstants.PREF_RENV_UPDATE_IN_BACKGROUND, null);
 		setupPreferenceManager(prefs);
 		
 		final Label label = new Label(pageComposite, SWT.LEFT);
@@ -392,6 +394,10 @@ class REnvConfigurationBlock extends ManagedConfigurationBlock {
 				RRunDebugPreferenceConstants.DISABLED,
 		});
 		
+		fIndexBackgroundControl = new Button(composite, SWT.CHECK);
+		fIndexBackgroundControl.setText(Messages.REnv_Update_Background_label);
+		fIndexBackgroundControl.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+		
 		return composite;
 	}
 	
@@ -421,6 +427,9 @@ class REnvConfigurationBlock extends ManagedConfigurationBlock {
 		dbc.bindValue(ViewersObservables.observeSingleSelection(fIndexConsoleViewer),
 				createObservable(RRunDebugPreferenceConstants.PREF_RENV_CHECK_UPDATE),
 				null, null );
+		dbc.bindValue(SWTObservables.observeSelection(fIndexBackgroundControl),
+				createObservable(RRunDebugPreferenceConstants.PREF_RENV_UPDATE_IN_BACKGROUND),
+				null, null );
 		dbc.bindValue(SWTObservables.observeSelection(fNetworkEclipseControl),
 				createObservable(RCorePreferenceNodes.PREF_RENV_NETWORK_USE_ECLIPSE),
 				null, null );
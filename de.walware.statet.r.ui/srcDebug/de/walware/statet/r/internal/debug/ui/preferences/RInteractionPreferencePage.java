@@ -14,8 +14,12 @@ package de.walware.statet.r.internal.debug.ui.preferences;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jface.databinding.swt.SWTObservables;
 import org.eclipse.jface.layout.PixelConverter;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.ScrolledComposite;
@@ -24,14 +28,18 @@ import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Link;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.PlatformUI;
 import org.osgi.service.prefs.BackingStoreException;
 
+import de.walware.ecommons.IStatusChangeListener;
+import de.walware.ecommons.databinding.NumberValidator;
 import de.walware.ecommons.ltk.ui.sourceediting.SnippetEditor;
 import de.walware.ecommons.preferences.Preference;
 import de.walware.ecommons.preferences.ui.ConfigurationBlockPreferencePage;
@@ -42,6 +50,7 @@ import de.walware.ecommons.ui.util.LayoutUtil;
 import de.walware.ecommons.ui.util.UIAccess;
 
 import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.internal.debug.ui.launcher.LaunchShortcutUtil;
 import de.walware.statet.r.internal.debug.ui.launcher.RCodeLaunchRegistry;
 import de.walware.statet.r.internal.debug.ui.launcher.RCodeLaunchRegistry.ContentHandler.FileCommand;
 import de.walware.statet.r.internal.ui.RUIPlugin;
@@ -60,7 +69,7 @@ public class RInteractionPreferencePage extends ConfigurationBlockPreferencePage
 	
 	@Override
 	protected RInteractionConfigurationBlock createConfigurationBlock() {
-		return new RInteractionConfigurationBlock();
+		return new RInteractionConfigurationBlock(createStatusChangedListener());
 	}
 	
 }
@@ -75,9 +84,13 @@ class RInteractionConfigurationBlock extends ManagedConfigurationBlock {
 	private FileCommand[] fFileCommands;
 	private SnippetEditor[] fCommandEditors;
 	
+	private Button fBulkSubmitControl;
+	private Text fBulkSubmitMinLinesControl;
+	private Button fBulkSubmitEchoControl;
 	
-	RInteractionConfigurationBlock () {
-		super(null);
+	
+	RInteractionConfigurationBlock (final IStatusChangeListener statusListener) {
+		super(null, statusListener);
 	}
 	
 	@Override
@@ -85,16 +98,24 @@ class RInteractionConfigurationBlock extends ManagedConfigurationBlock {
 		fConnectors = RCodeLaunchRegistry.getAvailableConnectors();
 		final Map<Preference, String> prefs = new HashMap<Preference, String>();
 		prefs.put(RRunDebugPreferenceConstants.PREF_R_CONNECTOR, null);
+		prefs.put(LaunchShortcutUtil.BULK_SUBMIT_ENABLED_PREF, null);
+		prefs.put(LaunchShortcutUtil.BULK_SUBMIT_MIN_LINES_PREF, null);
+		prefs.put(LaunchShortcutUtil.BULK_SUBMIT_ECHO_PREF, null);
 		setupPreferenceManager(prefs);
 		
 		LayoutUtil.addSmallFiller(pageComposite, false);
 		Composite group = createConnectorComponent(pageComposite);
 		group.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
 		
+		LayoutUtil.addSmallFiller(pageComposite, false);
+		group = createBulkSubmitComponent(pageComposite);
+		group.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
+		
 		LayoutUtil.addSmallFiller(pageComposite, false);
 		group = createHandlerComponent(pageComposite);
 		group.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
 		
+		initBindings();
 		updateControls();
 	}
 	
@@ -164,6 +185,51 @@ class RInteractionConfigurationBlock extends ManagedConfigurationBlock {
 	}
 	
 	
+	private Composite createBulkSubmitComponent(final Composite parent) {
+		final Group group = new Group(parent, SWT.NONE);
+		group.setText(Messages.RInteraction_BulkSubmit_label);
+		group.setLayout(LayoutUtil.applyGroupDefaults(new GridLayout(), 2));
+		
+		fBulkSubmitControl = new Button(group, SWT.CHECK);
+		fBulkSubmitControl.setText(Messages.RInteraction_BulkSubmit_Enabled_label);
+		fBulkSubmitControl.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+		
+		{	final Label label = new Label(group, SWT.NONE);
+			label.setText(Messages.RInteraction_BulkSubmit_MinLines_label);
+			final GridData gd = new GridData(SWT.FILL, SWT.CENTER, false, false);
+			gd.horizontalIndent = LayoutUtil.defaultIndent();
+			label.setLayoutData(gd);
+		}
+		{	fBulkSubmitMinLinesControl = new Text(group, SWT.SINGLE | SWT.BORDER);
+			final GridData gd = new GridData(SWT.LEFT, SWT.CENTER, false, false);
+			gd.widthHint = LayoutUtil.hintWidth(fBulkSubmitMinLinesControl, 4);
+			fBulkSubmitMinLinesControl.setLayoutData(gd);
+		}
+		
+		fBulkSubmitEchoControl = new Button(group, SWT.CHECK);
+		fBulkSubmitEchoControl.setText(Messages.RInteraction_BulkSubmit_Echo_label);
+		final GridData gd = new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1);
+		gd.horizontalIndent = LayoutUtil.defaultIndent();
+		fBulkSubmitEchoControl.setLayoutData(gd);
+		
+		return group;
+	}
+	
+	@Override
+	protected void addBindings(final DataBindingContext dbc, final Realm realm) {
+		dbc.bindValue(SWTObservables.observeSelection(fBulkSubmitControl),
+				createObservable(LaunchShortcutUtil.BULK_SUBMIT_ENABLED_PREF),
+				null, null);
+		dbc.bindValue(SWTObservables.observeText(fBulkSubmitMinLinesControl, SWT.Modify),
+				createObservable(LaunchShortcutUtil.BULK_SUBMIT_MIN_LINES_PREF),
+				new UpdateValueStrategy().setAfterGetValidator(new NumberValidator(2, 1000,
+						Messages.RInteraction_BulkSubmit_MinLines_error_message)), null);
+		dbc.bindValue(SWTObservables.observeSelection(fBulkSubmitEchoControl),
+				createObservable(LaunchShortcutUtil.BULK_SUBMIT_ECHO_PREF),
+				null, null);
+	}
+	
+	
 	private Composite createHandlerComponent(final Composite parent) {
 		fFileCommands = RCodeLaunchRegistry.getAvailableFileCommands();
 		
@@ -196,6 +262,7 @@ class RInteractionConfigurationBlock extends ManagedConfigurationBlock {
 	
 	@Override
 	protected void updateControls() {
+		super.updateControls();
 		loadValues();
 		UIAccess.getDisplay(getShell()).asyncExec(new Runnable() {
 			public void run() {
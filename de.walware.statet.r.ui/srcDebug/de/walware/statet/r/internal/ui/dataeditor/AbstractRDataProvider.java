@@ -150,6 +150,46 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		
 	}
 	
+	public static final class ExportTask {
+		
+		
+		/** Target: system clipboard, as text */
+		public static final int CLIPBOARD = 1;
+		/** Target: file; written directly by R if the R workspace is local */
+		public static final int FILE = 2;
+		
+		
+		public final int target;
+		public final String fileName;
+		public final String encoding;
+		
+		public final char separator;
+		public final boolean header;
+		public final boolean rowNames;
+		
+		/** Row ranges as pairs of begin (inclusive) and end (exclusive) index, or <code>null</code> for all */
+		public final int[][] rowRanges;
+		/** Column indexes, or <code>null</code> for all */
+		public final int[] columnIdxs;
+		
+		
+		public ExportTask(final int target, final String fileName, final String encoding,
+				final char separator, final boolean header, final boolean rowNames,
+				final int[][] rowRanges, final int[] columnIdxs) {
+			this.target = target;
+			this.fileName = fileName;
+			this.encoding = encoding;
+			
+			this.separator = separator;
+			this.header = header;
+			this.rowNames = rowNames;
+			
+			this.rowRanges = rowRanges;
+			this.columnIdxs = columnIdxs;
+		}
+		
+	}
+	
 	public static interface IDataProviderListener {
 		
 		
@@ -167,6 +207,8 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	}
 	
 	
+	private static final FragmentCache FRAGMENT_CACHE = FragmentCache.INSTANCE;
+	
 	private static final int FIND_CELL = 1;
 	private static final int FIND_ROW = 2;
 	private static final int FIND_ERROR = -1;
@@ -278,7 +320,7 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 			try {
 				final Store.Fragment<RVector<?>> fragment = fRowNamesStore.getFor(rowIndex, 0);
 				if (fragment != null) {
-					return fragment.rObject.getData().get(rowIndex - fragment.beginRowIdx);
+					return ((FragmentCache.CachedFragment<RVector<?>>) fragment).get(rowIndex, 0);
 				}
 				else {
 					return LOADING;
@@ -694,17 +736,21 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 						}
 					}
 					final RVector<?> fragment = loadRowNamesFragment(item, r, monitor);
+					final FragmentCache.CachedFragment<RVector<?>> cached = FRAGMENT_CACHE.createFragment(item,
+							new FragmentCache.Column[] { FRAGMENT_CACHE.createColumn(fragment.getData(),
+									0, item.endRowIdx - item.beginRowIdx ) },
+							null );
 					synchronized (fFragmentsLock) {
 						if (!item.scheduled) {
+							FRAGMENT_CACHE.remove(cached);
 							continue;
 						}
-						item.fragment = new Store.Fragment<RVector<?>>(fragment,
-								item.beginRowIdx, item.endRowIdx,
-								item.beginColumnIdx, item.endColumnIdx );
+						item.fragment = cached;
 						item.scheduled = false;
 						
 						fFragmentsLock.notify(item);
 					}
+					FRAGMENT_CACHE.add(cached, fFragmentsLock, item);
 					notifyListener(item);
 				}
 				for (int i = 0; i < dataToUpdate.length; i++) {
@@ -719,17 +765,18 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 						}
 					}
 					final T fragment = loadDataFragment(item, r, monitor);
+					final FragmentCache.CachedFragment<T> cached = createCachedFragment(item, fragment);
 					synchronized (fFragmentsLock) {
 						if (!item.scheduled) {
+							FRAGMENT_CACHE.remove(cached);
 							continue;
 						}
-						item.fragment = new Store.Fragment<T>(fragment,
-								item.beginRowIdx, item.endRowIdx,
-								item.beginColumnIdx, item.endColumnIdx );
+						item.fragment = cached;
 						item.scheduled = false;
 						
 						fFragmentsLock.notify(item);
 					}
+					FRAGMENT_CACHE.add(cached, fFragmentsLock, item);
 					notifyListener(item);
 				}
 			}
@@ -743,6 +790,19 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		}
 	}
 	
+	private FragmentCache.CachedFragment<T> createCachedFragment(final Store.Fragment<T> f,
+			final T fragment) {
+		final int rowCount = f.endRowIdx - f.beginRowIdx;
+		final FragmentCache.Column[] columns = new FragmentCache.Column[f.endColumnIdx - f.beginColumnIdx];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = FRAGMENT_CACHE.createColumn(getColumnStore(fragment, i),
+					getColumnOffset(rowCount, i), rowCount );
+		}
+		final RStore names = getColumnNameStore(fragment);
+		return FRAGMENT_CACHE.createFragment(f, columns,
+				(names != null) ? FRAGMENT_CACHE.createColumn(names, 0, columns.length) : null );
+	}
+	
 	private void updateSorting(final SortColumn sortColumn,
 			final RService r, final IProgressMonitor monitor) throws UnexpectedRDataException, CoreException {
 		if (sortColumn == null) {
@@ -778,6 +838,38 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	protected abstract RVector<?> loadRowNamesFragment(final Store.Fragment<RVector<?>> f,
 			RService r, IProgressMonitor monitor) throws CoreException, UnexpectedRDataException;
 	
+	/**
+	 * Returns the data store containing the values of the specified column of a loaded
+	 * data fragment.
+	 * 
+	 * @param fragment the loaded fragment
+	 * @param columnIdx the column index relative to the fragment
+	 * @return the data store
+	 */
+	protected abstract RStore getColumnStore(T fragment, int columnIdx);
+	
+	/**
+	 * Returns the index of the first value of the specified column in the data store
+	 * ({@link #getColumnStore(RObject, int)}).
+	 * 
+	 * @param rowCount the number of rows of the fragment
+	 * @param columnIdx the column index relative to the fragment
+	 * @return the index in the data store
+	 */
+	protected int getColumnOffset(final int rowCount, final int columnIdx) {
+		return 0;
+	}
+	
+	/**
+	 * Returns the names of the columns of a loaded data fragment.
+	 * 
+	 * @param fragment the loaded fragment
+	 * @return the store with the names or <code>null</code>
+	 */
+	protected RStore getColumnNameStore(final T fragment) {
+		return null;
+	}
+	
 	protected abstract T validateObject(RObject struct) throws UnexpectedRDataException;
 	
 	protected abstract RDataTableContentDescription loadDescription(T struct,
@@ -1034,6 +1126,35 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		cmd.append('L');
 	}
 	
+	/**
+	 * Appends the R expression for the subset of the data with the specified rows
+	 * (in the current order) and columns.
+	 * 
+	 * @param cmd the command
+	 * @param beginRowIdx index of first row
+	 * @param endRowIdx index after last row
+	 * @param columnIdxs the column indexes or <code>null</code> for all columns
+	 */
+	protected void appendSubsetCmd(final StringBuilder cmd, final int beginRowIdx, final int endRowIdx,
+			final int[] columnIdxs) {
+		cmd.append(fInput.getFullName());
+		cmd.append('[');
+		appendRowIdxs(cmd, beginRowIdx, endRowIdx);
+		cmd.append(',');
+		if (columnIdxs != null) {
+			cmd.append("c(");
+			for (int i = 0; i < columnIdxs.length; i++) {
+				if (i > 0) {
+					cmd.append(',');
+				}
+				cmd.append((columnIdxs[i] + 1));
+				cmd.append('L');
+			}
+			cmd.append(')');
+		}
+		cmd.append(",drop = FALSE]");
+	}
+	
 	
 	public boolean getAllColumnsEqual() {
 		return false;
@@ -1066,13 +1187,18 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		}
 	}
 	
-	protected abstract Object getDataValue(Store.Fragment<T> fragment, int rowIdx, int columnIdx);
+	protected Object getDataValue(final Store.Fragment<T> fragment, final int rowIdx, final int columnIdx) {
+		return ((FragmentCache.CachedFragment<T>) fragment).get(rowIdx, columnIdx);
+	}
 	
 	public void setDataValue(final int columnIndex, final int rowIndex, final Object newValue) {
 		throw new UnsupportedOperationException();
 	}
 	
-	protected abstract Object getColumnName(Store.Fragment<T> fragment, int columnIdx);
+	protected Object getColumnName(final Store.Fragment<T> fragment, final int columnIdx) {
+		final Object name = ((FragmentCache.CachedFragment<T>) fragment).getName(columnIdx);
+		return (name != null) ? name : Integer.toString(columnIdx + 1);
+	}
 	
 	public IDataProvider getColumnDataProvider() {
 		return fColumnDataProvider;
@@ -1629,7 +1755,22 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		notifyFindListeners(null, new StatusInfo(IStatus.CANCEL, ""), -1, -1, -1);
 	}
 	
+	/**
+	 * Schedules the export of the data.
+	 * 
+	 * The data is transfered in chunks directly from R, bypassing the fragment cache.
+	 * 
+	 * @param task the export task
+	 */
+	public void export(final ExportTask task) {
+		schedule(new ExportDataRunnable(this, task));
+	}
+	
 	public void dispose() {
+		synchronized (fFragmentsLock) {
+			fDataStore.internalClear(-1);
+			fRowNamesStore.internalClear(-1);
+		}
 		schedule(fCleanRunnable);
 	}
 	
@@ -15,9 +15,6 @@ import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 
-import net.sourceforge.nattable.NatTable;
-import net.sourceforge.nattable.copy.command.CopyDataToClipboardCommand;
-
 import de.walware.statet.r.ui.dataeditor.RDataTableComposite;
 
 
@@ -39,10 +36,7 @@ public class CopyDataHandler extends AbstractHandler {
 	}
 	
 	public Object execute(final ExecutionEvent event) throws ExecutionException {
-		final NatTable table = fTableComposite.getNatTable();
-		if (table != null) {
-			table.doCommand(new CopyDataToClipboardCommand("\t", "\n"));
-		}
+		fTableComposite.copySelection();
 		return null;
 	}
 	
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.FileDialog;
+
+import de.walware.statet.r.internal.ui.dataeditor.AbstractRDataProvider.ExportTask;
+import de.walware.statet.r.ui.dataeditor.RDataTableComposite;
+
+
+/**
+ * Exports the complete data of the table to a CSV (comma separated) or text (tab separated) file.
+ */
+public class ExportDataHandler extends AbstractHandler {
+	
+	
+	private final RDataTableComposite fTableComposite;
+	
+	
+	public ExportDataHandler(final RDataTableComposite tableProvider) {
+		fTableComposite = tableProvider;
+	}
+	
+	
+	public Object execute(final ExecutionEvent event) throws ExecutionException {
+		if (fTableComposite.getTableDimension() == null) {
+			return null;
+		}
+		final FileDialog dialog = new FileDialog(fTableComposite.getShell(), SWT.SAVE);
+		dialog.setFilterExtensions(new String[] { "*.csv", "*.txt", "*.*" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		dialog.setOverwrite(true);
+		final String fileName = dialog.open();
+		if (fileName == null) {
+			return null;
+		}
+		final char separator = (fileName.toLowerCase().endsWith(".csv")) ? ',' : '\t'; //$NON-NLS-1$
+		fTableComposite.export(new ExportTask(ExportTask.FILE, fileName, "UTF-8", //$NON-NLS-1$
+				separator, true, true, null, null ));
+		return null;
+	}
+	
+}
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.dnd.Clipboard;
+import org.eclipse.swt.dnd.TextTransfer;
+import org.eclipse.swt.dnd.Transfer;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.statushandlers.StatusManager;
+
+import de.walware.ecommons.ts.ISystemRunnable;
+import de.walware.ecommons.ts.ITool;
+import de.walware.ecommons.ts.IToolService;
+import de.walware.ecommons.ui.util.UIAccess;
+
+import de.walware.rj.data.RCharacterStore;
+import de.walware.rj.data.RDataUtil;
+import de.walware.rj.services.RService;
+
+import de.walware.statet.nico.core.runtime.ToolProcess;
+
+import de.walware.statet.r.core.RUtil;
+import de.walware.statet.r.internal.ui.dataeditor.AbstractRDataProvider.ExportTask;
+import de.walware.statet.r.ui.RUI;
+import de.walware.statet.r.ui.dataeditor.RProcessDataTableInput;
+
+
+/**
+ * Exports the data of a data provider in chunks of rows.
+ * 
+ * The values are formatted by R (<code>write.table</code>). If the target is a file and the R
+ * workspace is local, R writes the chunks directly to the file; otherwise the lines of each
+ * chunk are transfered and written by the client. The data is not loaded into the fragment
+ * cache of the data provider.
+ */
+class ExportDataRunnable implements ISystemRunnable {
+	
+	
+	/** Number of cells per chunk */
+	private static final int CHUNK_CELLS = 100000;
+	
+	/** Maximum number of cells copied to the clipboard */
+	private static final int CLIPBOARD_MAX_CELLS = 5000000;
+	
+	
+	private final AbstractRDataProvider<?> fProvider;
+	private final ExportTask fTask;
+	
+	
+	public ExportDataRunnable(final AbstractRDataProvider<?> provider, final ExportTask task) {
+		fProvider = provider;
+		fTask = task;
+	}
+	
+	
+	public String getTypeId() {
+		return "r/dataeditor/export"; //$NON-NLS-1$
+	}
+	
+	public String getLabel() {
+		return "Export Data (" + fProvider.fInput.getLastName() + ")";
+	}
+	
+	public boolean isRunnableIn(final ITool tool) {
+		return true; // TODO
+	}
+	
+	public boolean changed(final int event, final ITool tool) {
+		if (event == MOVING_FROM) {
+			return false;
+		}
+		return true;
+	}
+	
+	public void run(final IToolService service,
+			final IProgressMonitor monitor) throws CoreException {
+		final boolean direct = (fTask.target == ExportTask.FILE && isLocal());
+		Writer writer = null;
+		boolean completed = false;
+		try {
+			final int[][] rowRanges = (fTask.rowRanges != null) ? fTask.rowRanges :
+					new int[][] { { 0, fProvider.getRowCount() } };
+			final int columnCount = (fTask.columnIdxs != null) ? fTask.columnIdxs.length :
+					fProvider.getColumnCount();
+			final int chunkRows = Math.max(1, CHUNK_CELLS / Math.max(1, columnCount));
+			
+			int chunkCount = 0;
+			long rowCount = 0;
+			for (int i = 0; i < rowRanges.length; i++) {
+				final int count = rowRanges[i][1] - rowRanges[i][0];
+				chunkCount += (count + chunkRows - 1) / chunkRows;
+				rowCount += count;
+			}
+			if (fTask.target == ExportTask.CLIPBOARD && rowCount * columnCount > CLIPBOARD_MAX_CELLS) {
+				throw new CoreException(new Status(IStatus.ERROR, RUI.PLUGIN_ID, -1,
+						"The selection is too large to copy it to the clipboard; export it to a file instead.", null));
+			}
+			
+			monitor.beginTask(getLabel(), chunkCount);
+			if (!direct) {
+				writer = (fTask.target == ExportTask.CLIPBOARD) ? new StringWriter() :
+						new BufferedWriter(new OutputStreamWriter(
+								new FileOutputStream(fTask.fileName), fTask.encoding ));
+			}
+			final String lineSeparator = (fTask.target == ExportTask.CLIPBOARD) ?
+					System.getProperty("line.separator") : "\n"; //$NON-NLS-1$ //$NON-NLS-2$
+			
+			final RService r = (RService) service;
+			boolean first = true;
+			for (int i = 0; i < rowRanges.length; i++) {
+				for (int beginIdx = rowRanges[i][0]; beginIdx < rowRanges[i][1]; beginIdx += chunkRows) {
+					if (monitor.isCanceled()) {
+						throw new CoreException(Status.CANCEL_STATUS);
+					}
+					final int endIdx = Math.min(beginIdx + chunkRows, rowRanges[i][1]);
+					final StringBuilder cmd = fProvider.getRCmdStringBuilder();
+					cmd.append("local({" +
+							"x<-");
+					fProvider.appendSubsetCmd(cmd, beginIdx, endIdx, fTask.columnIdxs);
+					cmd.append(';');
+					if (direct) {
+						appendWriteTableCmd(cmd, direct, first);
+						cmd.append(";NULL;})");
+						r.evalVoid(cmd.toString(), monitor);
+					}
+					else {
+						cmd.append("capture.output(");
+						appendWriteTableCmd(cmd, direct, first);
+						cmd.append(");})");
+						final RCharacterStore lines = RDataUtil.checkRCharVector(
+								r.evalData(cmd.toString(), monitor) ).getData();
+						for (int j = 0; j < lines.getLength(); j++) {
+							writer.write(lines.getChar(j));
+							writer.write(lineSeparator);
+						}
+					}
+					first = false;
+					monitor.worked(1);
+				}
+			}
+			
+			if (writer != null) {
+				writer.close();
+				if (fTask.target == ExportTask.CLIPBOARD) {
+					setClipboard(writer.toString());
+				}
+				writer = null;
+			}
+			completed = true;
+		}
+		catch (final Exception e) {
+			AbstractRDataProvider.checkCancel(e);
+			StatusManager.getManager().handle(new Status(IStatus.ERROR, RUI.PLUGIN_ID, -1,
+					NLS.bind("An error occurred when exporting data of ''{0}''.", fProvider.fInput.getFullName()), e),
+					StatusManager.LOG | StatusManager.SHOW );
+		}
+		finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				}
+				catch (final IOException e) {}
+			}
+			if (!completed && fTask.target == ExportTask.FILE) {
+				new File(fTask.fileName).delete();
+			}
+			monitor.done();
+		}
+	}
+	
+	private boolean isLocal() {
+		if (fProvider.fInput instanceof RProcessDataTableInput) {
+			final ToolProcess<?> process = ((RProcessDataTableInput) fProvider.fInput).getProcess();
+			return (process.getWorkspaceData() != null && !process.getWorkspaceData().isRemote());
+		}
+		return false;
+	}
+	
+	private void appendWriteTableCmd(final StringBuilder cmd, final boolean direct,
+			final boolean first) {
+		cmd.append("write.table(x,");
+		if (direct) {
+			cmd.append("file=\"").append(RUtil.escapeCompletely(fTask.fileName)).append("\",");
+			cmd.append("fileEncoding=\"").append(fTask.encoding).append("\",");
+			cmd.append("append=").append((first) ? "FALSE" : "TRUE").append(',');
+		}
+		cmd.append("sep=\"").append((fTask.separator == '\t') ? "\\t" : String.valueOf(fTask.separator)).append("\",");
+		if (fTask.separator == '\t') {
+			cmd.append("quote=FALSE,");
+		}
+		else {
+			cmd.append("quote=TRUE,qmethod=\"double\",");
+		}
+		cmd.append("na=\"NA\",");
+		cmd.append("row.names=").append((fTask.rowNames) ? "TRUE" : "FALSE").append(',');
+		cmd.append("col.names=").append((first && fTask.header) ?
+				((fTask.rowNames) ? "NA" : "TRUE") : "FALSE" );
+		cmd.append(')');
+	}
+	
+	private void setClipboard(final String text) {
+		final Display display = UIAccess.getDisplay();
+		display.asyncExec(new Runnable() {
+			public void run() {
+				final Clipboard clipboard = new Clipboard(display);
+				try {
+					clipboard.setContents(new Object[] { text },
+							new Transfer[] { TextTransfer.getInstance() });
+				}
+				finally {
+					clipboard.dispose();
+				}
+			}
+		});
+	}
+	
+}
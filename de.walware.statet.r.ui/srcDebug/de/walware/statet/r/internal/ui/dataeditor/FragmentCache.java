@@ -0,0 +1,464 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.walware.rj.data.RStore;
+
+
+/**
+ * Client side cache for the loaded data fragments of all data editors.
+ * 
+ * The data of a fragment is copied column by column into compact storage: numeric and
+ * integer (incl. factor codes) columns into primitive arrays, logical columns into byte arrays
+ * and character columns into arrays of strings interned in a dictionary shared by all fragments.
+ * So the R objects can be released after loading.
+ * 
+ * The size of all cached fragments is limited by a global budget (system property
+ * <code>de.walware.statet.r.dataeditor.cacheSize</code> in MB, default is 64 MB). If the budget
+ * is exceeded, the least recently used fragments are evicted from their stores; they are
+ * reloaded on demand. The strings of the dictionary are counted separately and released
+ * together with the last fragment referencing them.
+ */
+final class FragmentCache {
+	
+	
+	private static final long DEFAULT_BUDGET = 64L * 1024L * 1024L;
+	
+	private static final int FRAGMENT_SIZE = 64;
+	private static final int STRING_SIZE = 48;
+	
+	
+	static final FragmentCache INSTANCE = new FragmentCache(readBudget());
+	
+	private static long readBudget() {
+		final String s = System.getProperty("de.walware.statet.r.dataeditor.cacheSize"); //$NON-NLS-1$
+		if (s != null) {
+			try {
+				final long mb = Long.parseLong(s);
+				if (mb > 0) {
+					return mb * 1024L * 1024L;
+				}
+			}
+			catch (final NumberFormatException e) {}
+		}
+		return DEFAULT_BUDGET;
+	}
+	
+	
+	static abstract class Column {
+		
+		/** Returns the value in the format of {@link RStore#get(int)}, <code>null</code> for NA */
+		abstract Object get(int idx);
+		
+		abstract long getSize();
+		
+		/** Call in synchronized block of cache */
+		void release(final FragmentCache cache) {
+		}
+		
+	}
+	
+	private static final class NumColumn extends Column {
+		
+		private final double[] fValues;
+		private final long[] fNA;
+		
+		NumColumn(final RStore store, final int offset, final int length) {
+			fValues = new double[length];
+			long[] na = null;
+			for (int i = 0; i < length; i++) {
+				if (store.isNA(offset + i)) {
+					if (na == null) {
+						na = new long[((length - 1) >>> 6) + 1];
+					}
+					na[i >>> 6] |= (1L << i);
+				}
+				else {
+					fValues[i] = store.getNum(offset + i);
+				}
+			}
+			fNA = na;
+		}
+		
+		@Override
+		Object get(final int idx) {
+			if (fNA != null && (fNA[idx >>> 6] & (1L << idx)) != 0) {
+				return null;
+			}
+			return Double.valueOf(fValues[idx]);
+		}
+		
+		@Override
+		long getSize() {
+			return fValues.length * 8L + ((fNA != null) ? fNA.length * 8L : 0L);
+		}
+		
+	}
+	
+	private static final class IntColumn extends Column {
+		
+		private static final int NA_INT = Integer.MIN_VALUE;
+		
+		private final int[] fValues;
+		
+		IntColumn(final RStore store, final int offset, final int length) {
+			fValues = new int[length];
+			for (int i = 0; i < length; i++) {
+				fValues[i] = (store.isNA(offset + i)) ? NA_INT : store.getInt(offset + i);
+			}
+		}
+		
+		@Override
+		Object get(final int idx) {
+			final int value = fValues[idx];
+			return (value != NA_INT) ? Integer.valueOf(value) : null;
+		}
+		
+		@Override
+		long getSize() {
+			return fValues.length * 4L;
+		}
+		
+	}
+	
+	private static final class LogiColumn extends Column {
+		
+		private final byte[] fValues;
+		
+		LogiColumn(final RStore store, final int offset, final int length) {
+			fValues = new byte[length];
+			for (int i = 0; i < length; i++) {
+				fValues[i] = (store.isNA(offset + i)) ? (byte) -1 :
+						((store.getLogi(offset + i)) ? (byte) 1 : (byte) 0);
+			}
+		}
+		
+		@Override
+		Object get(final int idx) {
+			switch (fValues[idx]) {
+			case 0:
+				return Boolean.FALSE;
+			case 1:
+				return Boolean.TRUE;
+			default:
+				return null;
+			}
+		}
+		
+		@Override
+		long getSize() {
+			return fValues.length;
+		}
+		
+	}
+	
+	private static final class CharColumn extends Column {
+		
+		private final String[] fValues;
+		
+		/** Call in synchronized block of cache */
+		CharColumn(final RStore store, final int offset, final int length,
+				final FragmentCache cache) {
+			fValues = new String[length];
+			for (int i = 0; i < length; i++) {
+				if (!store.isNA(offset + i)) {
+					fValues[i] = cache.intern(store.getChar(offset + i));
+				}
+			}
+		}
+		
+		@Override
+		Object get(final int idx) {
+			return fValues[idx];
+		}
+		
+		@Override
+		long getSize() {
+			return fValues.length * 8L;
+		}
+		
+		@Override
+		void release(final FragmentCache cache) {
+			for (int i = 0; i < fValues.length; i++) {
+				if (fValues[i] != null) {
+					cache.unintern(fValues[i]);
+				}
+			}
+		}
+		
+	}
+	
+	/**
+	 * Fallback for other data types (complex, raw), keeps the original store.
+	 */
+	private static final class StoreColumn extends Column {
+		
+		private final RStore fStore;
+		private final int fOffset;
+		private final int fLength;
+		
+		StoreColumn(final RStore store, final int offset, final int length) {
+			fStore = store;
+			fOffset = offset;
+			fLength = length;
+		}
+		
+		@Override
+		Object get(final int idx) {
+			return fStore.get(fOffset + idx);
+		}
+		
+		@Override
+		long getSize() {
+			return fLength * 16L;
+		}
+		
+	}
+	
+	static final class CachedFragment<T> extends Store.Fragment<T> {
+		
+		private final FragmentCache fCache;
+		
+		private final Column[] fColumns;
+		private final Column fNames;
+		private final long fSize;
+		
+		private Object fLock;
+		private Store.Item<T> fItem;
+		private boolean fReleased;
+		
+		int fLastAccess;
+		
+		
+		private CachedFragment(final FragmentCache cache, final Store.Fragment<T> f,
+				final Column[] columns, final Column names) {
+			super(null, f.beginRowIdx, f.endRowIdx, f.beginColumnIdx, f.endColumnIdx);
+			fCache = cache;
+			fColumns = columns;
+			fNames = names;
+			long size = FRAGMENT_SIZE;
+			for (int i = 0; i < columns.length; i++) {
+				size += columns[i].getSize();
+			}
+			if (names != null) {
+				size += names.getSize();
+			}
+			fSize = size;
+		}
+		
+		
+		/**
+		 * Returns the value of the specified cell.
+		 * 
+		 * @param rowIdx absolute row index
+		 * @param columnIdx absolute column index
+		 * @return the value in the format of {@link RStore#get(int)}
+		 */
+		public Object get(final int rowIdx, final int columnIdx) {
+			fLastAccess = fCache.fAccessCounter;
+			return fColumns[columnIdx - beginColumnIdx].get(rowIdx - beginRowIdx);
+		}
+		
+		/**
+		 * Returns the name of the specified column.
+		 * 
+		 * @param columnIdx absolute column index
+		 * @return the name or <code>null</code> if not available
+		 */
+		public Object getName(final int columnIdx) {
+			return (fNames != null) ? fNames.get(columnIdx - beginColumnIdx) : null;
+		}
+		
+	}
+	
+	private static final class DictEntry {
+		
+		final String value;
+		int refs;
+		
+		DictEntry(final String value) {
+			this.value = value;
+		}
+		
+	}
+	
+	
+	private final long fBudget;
+	private long fSize;
+	
+	private final List<CachedFragment<?>> fFragments = new ArrayList<CachedFragment<?>>();
+	private volatile int fAccessCounter;
+	
+	private final Map<String, DictEntry> fDictionary = new HashMap<String, DictEntry>();
+	
+	
+	private FragmentCache(final long budget) {
+		fBudget = budget;
+	}
+	
+	
+	/**
+	 * Creates a new column with the data of the specified store.
+	 * 
+	 * @param store the data store
+	 * @param offset index of the first element in the store
+	 * @param length number of elements
+	 * @return the column
+	 */
+	Column createColumn(final RStore store, final int offset, final int length) {
+		switch (store.getStoreType()) {
+		case RStore.NUMERIC:
+			return new NumColumn(store, offset, length);
+		case RStore.INTEGER:
+		case RStore.FACTOR:
+			return new IntColumn(store, offset, length);
+		case RStore.LOGICAL:
+			return new LogiColumn(store, offset, length);
+		case RStore.CHARACTER:
+			synchronized (this) {
+				return new CharColumn(store, offset, length, this);
+			}
+		default:
+			return new StoreColumn(store, offset, length);
+		}
+	}
+	
+	/**
+	 * Creates a new cached fragment, not yet registered in the cache.
+	 * 
+	 * @param f the fragment specifying the range
+	 * @param columns the columns of the fragment
+	 * @param names the column names (optional)
+	 * @return the cached fragment
+	 */
+	<T> CachedFragment<T> createFragment(final Store.Fragment<T> f,
+			final Column[] columns, final Column names) {
+		return new CachedFragment<T>(this, f, columns, names);
+	}
+	
+	/**
+	 * Registers the fragment set as fragment of the store item. If the budget of the cache
+	 * is exceeded, the least recently used fragments are evicted.
+	 * 
+	 * @param fragment the fragment
+	 * @param lock the lock of the store
+	 * @param item the item of the store
+	 */
+	<T> void add(final CachedFragment<T> fragment, final Object lock, final Store.Item<T> item) {
+		final List<CachedFragment<?>> evicted = new ArrayList<CachedFragment<?>>();
+		synchronized (this) {
+			if (fragment.fReleased) {
+				return;
+			}
+			fragment.fLock = lock;
+			fragment.fItem = item;
+			fragment.fLastAccess = ++fAccessCounter;
+			fFragments.add(fragment);
+			fSize += fragment.fSize;
+			
+			while (fSize > fBudget && fFragments.size() > 1) {
+				int oldestIdx = -1;
+				int oldestAge = -1;
+				for (int i = 0; i < fFragments.size(); i++) {
+					final CachedFragment<?> candidate = fFragments.get(i);
+					final int age = fAccessCounter - candidate.fLastAccess;
+					if (candidate != fragment && age > oldestAge) {
+						oldestIdx = i;
+						oldestAge = age;
+					}
+				}
+				final CachedFragment<?> oldest = fFragments.remove(oldestIdx);
+				fSize -= oldest.fSize;
+				// releases the dictionary entries, so fSize includes the freed strings
+				release(oldest);
+				evicted.add(oldest);
+			}
+		}
+		for (int i = 0; i < evicted.size(); i++) {
+			evict(evicted.get(i));
+		}
+	}
+	
+	private <T> void evict(final CachedFragment<T> fragment) {
+		synchronized (fragment.fLock) {
+			if (fragment.fItem.fragment == fragment) {
+				fragment.fItem.fragment = null;
+			}
+		}
+	}
+	
+	/**
+	 * Removes the fragment from the cache, e.g. if it was removed from its store.
+	 * 
+	 * @param fragment the fragment
+	 */
+	synchronized void remove(final CachedFragment<?> fragment) {
+		if (fFragments.remove(fragment)) {
+			fSize -= fragment.fSize;
+		}
+		else if (fragment.fItem != null) {
+			// evicted, released by eviction
+			return;
+		}
+		release(fragment);
+	}
+	
+	/** Call in synchronized block */
+	private void release(final CachedFragment<?> fragment) {
+		if (fragment.fReleased) {
+			return;
+		}
+		fragment.fReleased = true;
+		for (int i = 0; i < fragment.fColumns.length; i++) {
+			fragment.fColumns[i].release(this);
+		}
+		if (fragment.fNames != null) {
+			fragment.fNames.release(this);
+		}
+	}
+	
+	/** Call in synchronized block */
+	private String intern(final String s) {
+		DictEntry entry = fDictionary.get(s);
+		if (entry == null) {
+			entry = new DictEntry(s);
+			fDictionary.put(s, entry);
+			fSize += STRING_SIZE + s.length() * 2L;
+		}
+		entry.refs++;
+		return entry.value;
+	}
+	
+	/** Call in synchronized block */
+	private void unintern(final String s) {
+		final DictEntry entry = fDictionary.get(s);
+		if (entry != null && --entry.refs <= 0) {
+			fDictionary.remove(s);
+			fSize -= STRING_SIZE + s.length() * 2L;
+		}
+	}
+	
+	/**
+	 * Returns the current size of all cached fragments.
+	 * 
+	 * @return the size in bytes
+	 */
+	synchronized long getSize() {
+		return fSize;
+	}
+	
+}
@@ -222,10 +222,14 @@ public class RDataEditor extends EditorPart { // INavigationLocationProvider ?
 			handlers.add(IWorkbenchCommandConstants.EDIT_SELECT_ALL, handler);
 			handlerService.activateHandler(IWorkbenchCommandConstants.EDIT_SELECT_ALL, handler);
 		}
-//		{	final IHandler2 handler = new CopyDataHandler(fTable);
-//			handlers.add(IWorkbenchCommandConstants.EDIT_COPY, handler);
-//			handlerService.activateHandler(IWorkbenchCommandConstants.EDIT_COPY, handler);
-//		}
+		{	final IHandler2 handler = new CopyDataHandler(fTable);
+			handlers.add(IWorkbenchCommandConstants.EDIT_COPY, handler);
+			handlerService.activateHandler(IWorkbenchCommandConstants.EDIT_COPY, handler);
+		}
+		{	final IHandler2 handler = new ExportDataHandler(fTable);
+			handlers.add(IWorkbenchCommandConstants.FILE_EXPORT, handler);
+			handlerService.activateHandler(IWorkbenchCommandConstants.FILE_EXPORT, handler);
+		}
 		{	final IHandler2 handler = new FindDialogHandler(this);
 			handlers.add(IWorkbenchCommandConstants.EDIT_FIND_AND_REPLACE, handler);
 			handlerService.activateHandler(IWorkbenchCommandConstants.EDIT_FIND_AND_REPLACE, handler);
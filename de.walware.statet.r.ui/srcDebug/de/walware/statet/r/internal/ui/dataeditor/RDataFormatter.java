@@ -41,14 +41,31 @@ public class RDataFormatter {
 	public static final int MILLIS_PER_HOUR = 60 * 60 * MILLIS_PER_MINUTE;
 	public static final int MILLIS_PER_DAY = MILLIS_PER_HOUR * 24;
 	
+	private static final double[] POW10 = new double[] {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+	};
+	private static final double FAST_NUM_MAX = 1e15;
+	
+	private static final int CACHE_SIZE = 256;
+	/** Key prefix for integer values, NaN values are not cached */
+	private static final long CACHE_INT_KEY = 0x7ff4000000000000L;
+	
 	private final StringBuilder fCurrentText = new StringBuilder();
+	private final char[] fNumBuffer = new char[24];
 	
 	private DecimalFormat fNumFormat;
 	private int fNumMaxExpDigits;
 	private MathContext fMathContext;
+	/** number of fraction digits for the fast fixed point formatting, or -1 */
+	private int fNumFastDigits = -1;
 	
 	private DateFormat fDateFormat;
 	private long fDateValueMillis;
+	private final Date fDate = new Date(0);
+	
+	/** cache of rendered values (typically of the visible cells), by value */
+	private final long[] fCacheKeys = new long[CACHE_SIZE];
+	private final Object[] fCacheValues = new Object[CACHE_SIZE];
 	
 	private RCharacterStore fFactorLevels;
 	
@@ -65,8 +82,20 @@ public class RDataFormatter {
 	protected void clean() {
 		fNumFormat = null;
 		fMathContext = null;
+		fNumFastDigits = -1;
 		fDateFormat = null;
 		fFactorLevels = null;
+		clearCache();
+	}
+	
+	private void clearCache() {
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			fCacheValues[i] = null;
+		}
+	}
+	
+	private static int getCacheIdx(final long key) {
+		return (int) ((key * 0x9e3779b97f4a7c15L) >>> 56);
 	}
 	
 	
@@ -87,139 +116,246 @@ public class RDataFormatter {
 		fCurrentText.append(fNumFormat.format(decimal));
 	}
 	
-	public Object modelToDisplayValue(Object modelValue) {
-		if (modelValue == null) {
-			return fNA;
+	/**
+	 * Formats the number in fixed point notation without BigDecimal.
+	 * 
+	 * The value is scaled by the number of fraction digits and rounded half up. Values,
+	 * which cannot be represented exactly by a long or which are too close to a tie, are
+	 * rejected and must be formatted by {@link #appendNum(double)}.
+	 * 
+	 * @return the formatted number or <code>null</code>
+	 */
+	private String formatNumFast(final double num) {
+		final double scaled = Math.abs(num) * POW10[fNumFastDigits];
+		if (!(scaled < FAST_NUM_MAX)) {
+			return null;
 		}
-		final Class<?> clazz = modelValue.getClass();
-		if (clazz == InfoString.class) {
-			return modelValue;
+		final double floor = Math.floor(scaled);
+		final double fraction = scaled - floor;
+		if (Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) {
+			return null;
 		}
-		if (clazz == Double.class) {
-			if (fNumFormat != null) {
-				fCurrentText.setLength(0);
-				appendNum((Double) modelValue);
-				return fCurrentText.toString();
-			}
-			if (fDateFormat != null) {
-				return fDateFormat.format(new Date((long)
-						((Double) modelValue).doubleValue() * fDateValueMillis) );
-			}
+		long value = (long) floor;
+		if (fraction > 0.5) {
+			value++;
 		}
-		if (clazz == Boolean.class) {
-			return ((Boolean) modelValue).booleanValue() ? "TRUE" : "FALSE";
+		if (num < 0 && value == 0) {
+			return null;
 		}
-		INT: if (clazz == Integer.class){
-			if (fFactorLevels != null) {
-				final int value = ((Integer) modelValue).intValue() - 1;
-				if (value >= 0 && value < fFactorLevels.getLength()) {
-					modelValue = fFactorLevels.getChar(value);
-					break INT;
-				}
-				else {
-					return new InfoString("?" + modelValue + "?");
+		final char[] buffer = fNumBuffer;
+		int idx = buffer.length;
+		for (int i = 0; i < fNumFastDigits; i++) {
+			buffer[--idx] = (char) ('0' + (int) (value % 10));
+			value /= 10;
+		}
+		if (fNumFastDigits > 0) {
+			buffer[--idx] = '.';
+		}
+		do {
+			buffer[--idx] = (char) ('0' + (int) (value % 10));
+			value /= 10;
+		} while (value != 0);
+		if (num < 0) {
+			buffer[--idx] = '-';
+		}
+		return new String(buffer, idx, buffer.length - idx);
+	}
+	
+	/**
+	 * Returns the display value for the specified numeric value.
+	 * 
+	 * @param num the value (not NA)
+	 * @return the display value
+	 */
+	public Object formatNum(final double num) {
+		if (fNumFormat == null && fDateFormat == null) {
+			return Double.toString(num);
+		}
+		if (Double.isNaN(num)) {
+			return formatNumDirect(num);
+		}
+		final long key = Double.doubleToRawLongBits(num);
+		final int cacheIdx = getCacheIdx(key);
+		Object value = fCacheValues[cacheIdx];
+		if (value != null && fCacheKeys[cacheIdx] == key) {
+			return value;
+		}
+		value = formatNumDirect(num);
+		fCacheKeys[cacheIdx] = key;
+		fCacheValues[cacheIdx] = value;
+		return value;
+	}
+	
+	private Object formatNumDirect(final double num) {
+		if (fNumFormat != null) {
+			if (fNumFastDigits >= 0) {
+				final String s = formatNumFast(num);
+				if (s != null) {
+					return s;
 				}
 			}
-			if (fDateFormat != null) {
-				return fDateFormat.format(new Date(
-						((Integer) modelValue).longValue() * fDateValueMillis) );
+			fCurrentText.setLength(0);
+			appendNum(num);
+			return fCurrentText.toString();
+		}
+		fDate.setTime((long) num * fDateValueMillis);
+		return fDateFormat.format(fDate);
+	}
+	
+	/**
+	 * Returns the display value for the specified integer value (incl. factor codes).
+	 * 
+	 * @param num the value (not NA)
+	 * @return the display value
+	 */
+	public Object formatInt(final int num) {
+		if (fFactorLevels != null) {
+			final int levelIdx = num - 1;
+			if (levelIdx >= 0 && levelIdx < fFactorLevels.getLength()) {
+				return fFactorLevels.getChar(levelIdx);
+			}
+			else {
+				return new InfoString("?" + num + "?");
 			}
-			return modelValue.toString();
 		}
-		if (clazz == String.class) {
-			final String text = (String) modelValue;
-			fCurrentText.setLength(0);
-			
-			int beginIdx = 0;
-			int i = 0;
-			final int length = text.length();
-			while (i < length) {
-				final char c = text.charAt(i);
-				switch (c) {
-				case 10:
-					if (i > beginIdx) {
-						fCurrentText.append(text, beginIdx, i);
-					}
-					fCurrentText.append("\\n");
-					beginIdx = ++i;
-					continue;
-				case 13:
-					if (i > beginIdx) {
-						fCurrentText.append(text, beginIdx, i);
-					}
-					fCurrentText.append("\\r");
-					beginIdx = ++i;
-					continue;
-				case 9:
-					if (i > beginIdx) {
-						fCurrentText.append(text, beginIdx, i);
-					}
-					fCurrentText.append("\\t");
-					beginIdx = ++i;
-					continue;
-				case 8:
-					if (i > beginIdx) {
-						fCurrentText.append(text, beginIdx, i);
-					}
-					fCurrentText.append("\\b");
-					beginIdx = ++i;
-					continue;
-				case 7:
-					if (i > beginIdx) {
-						fCurrentText.append(text, beginIdx, i);
-					}
-					fCurrentText.append("\\a");
-					beginIdx = ++i;
-					continue;
-				case 12:
-					if (i > beginIdx) {
-						fCurrentText.append(text, beginIdx, i);
-					}
-					fCurrentText.append("\\f");
-					beginIdx = ++i;
-					continue;
-				case 11:
-					if (i > beginIdx) {
-						fCurrentText.append(text, beginIdx, i);
-					}
-					fCurrentText.append("\\v");
-					beginIdx = ++i;
-					continue;
-				case 92:
+		final long key = CACHE_INT_KEY | (num & 0xffffffffL);
+		final int cacheIdx = getCacheIdx(key);
+		Object value = fCacheValues[cacheIdx];
+		if (value != null && fCacheKeys[cacheIdx] == key) {
+			return value;
+		}
+		if (fDateFormat != null) {
+			fDate.setTime(num * fDateValueMillis);
+			value = fDateFormat.format(fDate);
+		}
+		else {
+			value = Integer.toString(num);
+		}
+		fCacheKeys[cacheIdx] = key;
+		fCacheValues[cacheIdx] = value;
+		return value;
+	}
+	
+	protected Object formatChar(final String text) {
+		fCurrentText.setLength(0);
+		
+		int beginIdx = 0;
+		int i = 0;
+		final int length = text.length();
+		while (i < length) {
+			final char c = text.charAt(i);
+			switch (c) {
+			case 10:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\n");
+				beginIdx = ++i;
+				continue;
+			case 13:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\r");
+				beginIdx = ++i;
+				continue;
+			case 9:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\t");
+				beginIdx = ++i;
+				continue;
+			case 8:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\b");
+				beginIdx = ++i;
+				continue;
+			case 7:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\a");
+				beginIdx = ++i;
+				continue;
+			case 12:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\f");
+				beginIdx = ++i;
+				continue;
+			case 11:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\v");
+				beginIdx = ++i;
+				continue;
+			case 92:
+				if (i > beginIdx) {
+					fCurrentText.append(text, beginIdx, i);
+				}
+				fCurrentText.append("\\\\");
+				beginIdx = ++i;
+				continue;
+			default:
+				if (c < 0x20) {
 					if (i > beginIdx) {
 						fCurrentText.append(text, beginIdx, i);
 					}
-					fCurrentText.append("\\\\");
+					fCurrentText.append("\\0x");
+					appendByteHexFormat(c);
 					beginIdx = ++i;
 					continue;
-				default:
-					if (c < 0x20) {
-						if (i > beginIdx) {
-							fCurrentText.append(text, beginIdx, i);
-						}
-						fCurrentText.append("\\0x");
-						appendByteHexFormat(c);
-						beginIdx = ++i;
-						continue;
-					}
-					i++;
-					continue;
 				}
+				i++;
+				continue;
 			}
-			if (beginIdx > 0) {
-				if (beginIdx < length) {
-					fCurrentText.append(text, beginIdx, length);
-				}
-				return fCurrentText.toString();
+		}
+		if (beginIdx > 0) {
+			if (beginIdx < length) {
+				fCurrentText.append(text, beginIdx, length);
 			}
-			else {
-				return text;
+			return fCurrentText.toString();
+		}
+		else {
+			return text;
+		}
+	}
+	
+	protected Object formatRaw(final byte b) {
+		fCurrentText.setLength(0);
+		appendByteHexFormat(b);
+		return fCurrentText.toString();
+	}
+	
+	public Object modelToDisplayValue(Object modelValue) {
+		if (modelValue == null) {
+			return fNA;
+		}
+		final Class<?> clazz = modelValue.getClass();
+		if (clazz == InfoString.class) {
+			return modelValue;
+		}
+		if (clazz == Double.class) {
+			if (fNumFormat != null || fDateFormat != null) {
+				return formatNum(((Double) modelValue).doubleValue());
 			}
 		}
+		if (clazz == Boolean.class) {
+			return ((Boolean) modelValue).booleanValue() ? "TRUE" : "FALSE";
+		}
+		if (clazz == Integer.class) {
+			return formatInt(((Integer) modelValue).intValue());
+		}
+		if (clazz == String.class) {
+			return formatChar((String) modelValue);
+		}
 		if (clazz == Byte.class) {
-			fCurrentText.setLength(0);
-			appendByteHexFormat(((Byte) modelValue).intValue());
-			return fCurrentText.toString();
+			return formatRaw(((Byte) modelValue).byteValue());
 		}
 		return modelValue;
 	}
@@ -251,6 +387,9 @@ public class RDataFormatter {
 			decimalFormat.setScientificNotation(false);
 			decimalFormat.setRoundingMode(MathContext.ROUND_HALF_UP);
 			decimalFormat.setRoundingIncrement(BigDecimal.valueOf(1L, maxFractionalDigits));
+			if (maxFractionalDigits >= 0 && maxFractionalDigits < POW10.length) {
+				fNumFastDigits = maxFractionalDigits;
+			}
 		}
 	}
 	
@@ -278,6 +417,7 @@ public class RDataFormatter {
 			throw new IllegalStateException();
 		}
 		fDateFormat.setTimeZone(zone);
+		clearCache();
 	}
 	
 	public void initFactorLevels(final RCharacterStore levels) {
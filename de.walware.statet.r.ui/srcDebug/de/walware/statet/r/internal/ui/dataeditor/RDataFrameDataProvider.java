@@ -18,6 +18,7 @@ import de.walware.rj.data.RDataFrame;
 import de.walware.rj.data.RDataUtil;
 import de.walware.rj.data.RIntegerStore;
 import de.walware.rj.data.RObject;
+import de.walware.rj.data.RStore;
 import de.walware.rj.data.RVector;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.services.RService;
@@ -166,10 +167,13 @@ public class RDataFrameDataProvider extends AbstractRDataProvider<RDataFrame> {
 	
 	
 	@Override
-	protected Object getDataValue(final Store.Fragment<RDataFrame> fragment,
-			final int rowIdx, final int columnIdx) {
-		return fragment.rObject.getColumn(columnIdx - fragment.beginColumnIdx).get(
-				rowIdx - fragment.beginRowIdx);
+	protected RStore getColumnStore(final RDataFrame fragment, final int columnIdx) {
+		return fragment.getColumn(columnIdx);
+	}
+	
+	@Override
+	protected RStore getColumnNameStore(final RDataFrame fragment) {
+		return fragment.getColumnNames();
 	}
 	
 	@Override
@@ -182,9 +186,4 @@ public class RDataFrameDataProvider extends AbstractRDataProvider<RDataFrame> {
 		};
 	}
 	
-	@Override
-	protected Object getColumnName(final Store.Fragment<RDataFrame> fragment, final int columnIdx) {
-		return fragment.rObject.getName(columnIdx - fragment.beginColumnIdx);
-	}
-	
 }
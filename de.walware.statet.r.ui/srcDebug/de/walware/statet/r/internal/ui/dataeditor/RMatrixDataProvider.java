@@ -190,22 +190,18 @@ public class RMatrixDataProvider extends AbstractRDataProvider<RArray<?>> {
 	
 	
 	@Override
-	protected Object getDataValue(final Store.Fragment<RArray<?>> fragment,
-			final int rowIdx, final int columnIdx) {
-		return fragment.rObject.getData().get(RDataUtil.getDataIdx(
-				fragment.endRowIdx - fragment.beginRowIdx,
-				rowIdx - fragment.beginRowIdx, columnIdx - fragment.beginColumnIdx ));
+	protected RStore getColumnStore(final RArray<?> fragment, final int columnIdx) {
+		return fragment.getData();
 	}
 	
 	@Override
-	protected Object getColumnName(final Store.Fragment<RArray<?>> fragment, final int columnIdx) {
-		final RStore names = fragment.rObject.getNames(1);
-		if (names != null) {
-			return names.get(columnIdx - fragment.beginColumnIdx);
-		}
-		else {
-			return Integer.toString(columnIdx + 1);
-		}
+	protected int getColumnOffset(final int rowCount, final int columnIdx) {
+		return RDataUtil.getDataIdx(rowCount, 0, columnIdx);
+	}
+	
+	@Override
+	protected RStore getColumnNameStore(final RArray<?> fragment) {
+		return fragment.getNames(1);
 	}
 	
 }
@@ -17,6 +17,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import de.walware.rj.data.RDataUtil;
 import de.walware.rj.data.RIntegerStore;
 import de.walware.rj.data.RObject;
+import de.walware.rj.data.RStore;
 import de.walware.rj.data.RVector;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.services.RService;
@@ -150,9 +151,17 @@ public class RVectorDataProvider extends AbstractRDataProvider<RVector<?>> {
 	
 	
 	@Override
-	protected Object getDataValue(final Store.Fragment<RVector<?>> fragment,
-			final int rowIdx, final int columnIdx) {
-		return fragment.rObject.getData().get(rowIdx - fragment.beginRowIdx);
+	protected RStore getColumnStore(final RVector<?> fragment, final int columnIdx) {
+		return fragment.getData();
+	}
+	
+	@Override
+	protected void appendSubsetCmd(final StringBuilder cmd, final int beginRowIdx, final int endRowIdx,
+			final int[] columnIdxs) {
+		cmd.append(fInput.getFullName());
+		cmd.append('[');
+		appendRowIdxs(cmd, beginRowIdx, endRowIdx);
+		cmd.append(']');
 	}
 	
 	@Override
@@ -165,9 +174,4 @@ public class RVectorDataProvider extends AbstractRDataProvider<RVector<?>> {
 		};
 	}
 	
-	@Override
-	protected Object getColumnName(final Store.Fragment<RVector<?>> fragment, final int columnIdx) {
-		throw new UnsupportedOperationException();
-	}
-	
 }
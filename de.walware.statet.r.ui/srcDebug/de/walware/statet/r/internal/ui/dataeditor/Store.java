@@ -230,6 +230,7 @@ class Store<S> {
 			}
 		}
 		fFragments[oldestIdx].scheduled = false;
+		release(fFragments[oldestIdx]);
 		System.arraycopy(fFragments, oldestIdx+1, fFragments, oldestIdx, fCurrentFragmentIdx-oldestIdx);
 		fFragments[fCurrentFragmentIdx--] = null;
 		return;
@@ -238,6 +239,7 @@ class Store<S> {
 	public void internalClear(final int rowCount) {
 		for (int i = 0; i <= fCurrentFragmentIdx; i++) {
 			fFragments[i].scheduled = false;
+			release(fFragments[i]);
 			fFragments[i] = null;
 		}
 		fCurrentFragmentIdx = -1;
@@ -248,6 +250,13 @@ class Store<S> {
 		}
 	}
 	
+	private void release(final Item<S> item) {
+		if (item.fragment instanceof FragmentCache.CachedFragment) {
+			FragmentCache.INSTANCE.remove((FragmentCache.CachedFragment<?>) item.fragment);
+			item.fragment = null;
+		}
+	}
+	
 	public Store.Fragment<S>[] internalAvailable() {
 		int count = 0;
 		final Store.Fragment<S>[] available = new Item[fCurrentFragmentIdx+1];
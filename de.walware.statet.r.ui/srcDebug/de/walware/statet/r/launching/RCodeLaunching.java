@@ -41,7 +41,9 @@ import org.eclipse.ui.statushandlers.StatusManager;
 
 import de.walware.ecommons.ltk.ISourceUnit;
 import de.walware.ecommons.ltk.IWorkspaceSourceUnit;
+import de.walware.ecommons.preferences.IPreferenceAccess;
 import de.walware.ecommons.preferences.PreferencesUtil;
+import de.walware.ecommons.text.StringParseInput;
 import de.walware.ecommons.text.TextUtil;
 import de.walware.ecommons.ts.IToolRunnable;
 import de.walware.ecommons.variables.core.DynamicVariable;
@@ -57,7 +59,10 @@ import de.walware.statet.r.core.model.IRLangSourceElement;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.IRWorkspaceSourceUnit;
 import de.walware.statet.r.core.rsource.ast.GenericVisitor;
+import de.walware.statet.r.core.rsource.ast.RAst;
+import de.walware.statet.r.core.rsource.ast.RAstInfo;
 import de.walware.statet.r.core.rsource.ast.RAstNode;
+import de.walware.statet.r.core.rsource.ast.RScanner;
 import de.walware.statet.r.internal.debug.ui.RControllerCodeLaunchConnector;
 import de.walware.statet.r.internal.debug.ui.RLaunchingMessages;
 import de.walware.statet.r.internal.debug.ui.launcher.LaunchShortcutUtil;
@@ -418,9 +423,69 @@ public final class RCodeLaunching {
 	}
 	
 	public static boolean runRCodeDirect(final String code, final boolean gotoConsole) throws CoreException {
+		return runRCodeDirect(code, null, gotoConsole);
+	}
+	
+	/**
+	 * Submits the code directly to R.
+	 * 
+	 * If enabled ({@link LaunchShortcutUtil#BULK_SUBMIT_ENABLED_PREF}) and the code is
+	 * complete, code with multiple lines is submitted as one command to the R console;
+	 * otherwise it is submitted line by line.
+	 * 
+	 * @param code the code
+	 * @param region the source region of the code or <code>null</code>
+	 * @param gotoConsole if the console should be activated
+	 * @return if the code was submitted
+	 * @throws CoreException
+	 */
+	public static boolean runRCodeDirect(final String code, final SourceRegion region,
+			final boolean gotoConsole) throws CoreException {
 		final List<String> lines = new ArrayList<String>(2 + code.length()/30);
 		listLines(code, lines);
-		return runRCodeDirect(lines.toArray(new String[lines.size()]), gotoConsole, null);
+		final String[] array = lines.toArray(new String[lines.size()]);
+		final IRCodeLaunchConnector connector = RCodeLaunchRegistry.getDefault().getConnector();
+		if (connector instanceof RControllerCodeLaunchConnector
+				&& isBulkSubmitEnabled(array.length) && isComplete(code)) {
+			// submit the selection as one command instead of one command per line
+			final Boolean echo = PreferencesUtil.getInstancePrefs().getPreferenceValue(
+					LaunchShortcutUtil.BULK_SUBMIT_ECHO_PREF );
+			final int options = (echo == null || echo.booleanValue()) ?
+					(AbstractRController.SUBMIT_ECHO | AbstractRController.SUBMIT_HISTORY) : 0;
+			return ((RControllerCodeLaunchConnector) connector).submit(
+					new RControllerCodeLaunchConnector.CommandsCreator() {
+				public IStatus submitTo(final ToolController controller) {
+					return controller.getTool().getQueue().add(
+							new RunEntireCommandRunnable(array, region, options) );
+				}
+			}, gotoConsole);
+		}
+		return runRCodeDirect(array, gotoConsole, null);
+	}
+	
+	private static boolean isBulkSubmitEnabled(final int lineCount) {
+		if (lineCount < 2) {
+			return false;
+		}
+		final IPreferenceAccess prefs = PreferencesUtil.getInstancePrefs();
+		final Boolean enabled = prefs.getPreferenceValue(LaunchShortcutUtil.BULK_SUBMIT_ENABLED_PREF);
+		if (enabled == null || !enabled.booleanValue()) {
+			return false;
+		}
+		final Integer minLines = prefs.getPreferenceValue(LaunchShortcutUtil.BULK_SUBMIT_MIN_LINES_PREF);
+		return (lineCount >= ((minLines != null) ?
+				minLines.intValue() : LaunchShortcutUtil.BULK_SUBMIT_MIN_LINES_DEFAULT ));
+	}
+	
+	/**
+	 * Checks if the code can be parsed completely; incomplete code (e.g. a partial selection)
+	 * must be submitted line by line.
+	 */
+	private static boolean isComplete(final String code) {
+		final RAstInfo ast = new RAstInfo(RAst.LEVEL_MINIMAL, 0);
+		final RScanner scanner = new RScanner(new StringParseInput(code), ast);
+		ast.root = scanner.scanSourceUnit();
+		return !RAst.hasErrors(ast.root);
 	}
 	
 	public static boolean runRCodeDirect(final List<SourceRegion> codeRegions,
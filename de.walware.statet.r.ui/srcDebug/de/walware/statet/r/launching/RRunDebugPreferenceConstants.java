@@ -13,10 +13,12 @@ package de.walware.statet.r.launching;
 
 import org.eclipse.core.runtime.preferences.IScopeContext;
 
+import de.walware.ecommons.preferences.Preference.BooleanPref;
 import de.walware.ecommons.preferences.Preference.StringPref;
 import de.walware.ecommons.preferences.PreferencesUtil;
 
 import de.walware.statet.r.internal.debug.ui.RControllerCodeLaunchConnector;
+import de.walware.statet.r.internal.debug.ui.launcher.LaunchShortcutUtil;
 
 
 
@@ -42,6 +44,9 @@ public class RRunDebugPreferenceConstants {
 	/** Do not run update */
 	public static final String DISABLED = "no"; //$NON-NLS-1$
 	
+	/** Run the update in a separate background R session instead of the console */
+	public static final BooleanPref PREF_RENV_UPDATE_IN_BACKGROUND = new BooleanPref(CAT_RENV_QUALIFIER, "index.console_update.background"); //$NON-NLS-1$
+	
 	
 	/**
 	 * Initializes the default values.
@@ -49,7 +54,13 @@ public class RRunDebugPreferenceConstants {
 	public static void initializeDefaultValues(final IScopeContext context) {
 		PreferencesUtil.setPrefValue(context, RRunDebugPreferenceConstants.PREF_R_CONNECTOR, RControllerCodeLaunchConnector.ID);
 		
+		PreferencesUtil.setPrefValue(context, LaunchShortcutUtil.BULK_SUBMIT_ENABLED_PREF, Boolean.FALSE);
+		PreferencesUtil.setPrefValue(context, LaunchShortcutUtil.BULK_SUBMIT_MIN_LINES_PREF,
+				LaunchShortcutUtil.BULK_SUBMIT_MIN_LINES_DEFAULT );
+		PreferencesUtil.setPrefValue(context, LaunchShortcutUtil.BULK_SUBMIT_ECHO_PREF, Boolean.TRUE);
+		
 		PreferencesUtil.setPrefValue(context, PREF_RENV_CHECK_UPDATE, ASK);
+		PreferencesUtil.setPrefValue(context, PREF_RENV_UPDATE_IN_BACKGROUND, Boolean.FALSE);
 	}
 	
 }
@@ -34,9 +34,25 @@ public class RunEntireCommandRunnable implements IConsoleRunnable {
 	private final String fLabel;
 	private final IRSrcref fSrcref;
 	
+	private final int fSubmitOptions;
+	
 	
 	public RunEntireCommandRunnable(final String[] lines, final IRSrcref srcref) {
+		this(lines, srcref, AbstractRController.SUBMIT_ECHO | AbstractRController.SUBMIT_HISTORY);
+	}
+	
+	/**
+	 * Creates a runnable submitting the lines as one command.
+	 * 
+	 * @param lines the lines of the command
+	 * @param srcref the source reference of the lines or <code>null</code>
+	 * @param submitOptions the submit options, see {@link AbstractRController#SUBMIT_ECHO}
+	 *     and {@link AbstractRController#SUBMIT_HISTORY}
+	 */
+	public RunEntireCommandRunnable(final String[] lines, final IRSrcref srcref,
+			final int submitOptions) {
 		fLines = lines;
+		fSubmitOptions = submitOptions;
 		fLabel = createLabel();
 		fSrcref = srcref;
 		if (fSrcref instanceof RCodeLaunching.SourceRegion) {
@@ -88,7 +104,7 @@ public class RunEntireCommandRunnable implements IConsoleRunnable {
 			final IProgressMonitor monitor) throws CoreException {
 		final AbstractRController r = (AbstractRController) service;
 		try {
-			r.submitCommandToConsole(fLines, fSrcref, monitor);
+			r.submitCommandToConsole(fLines, fSrcref, fSubmitOptions, monitor);
 		}
 		finally {
 			r.briefAboutChange(RWorkspace.REFRESH_AUTO);
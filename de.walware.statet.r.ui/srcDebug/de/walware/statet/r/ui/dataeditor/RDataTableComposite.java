@@ -11,7 +11,10 @@
 
 package de.walware.statet.r.ui.dataeditor;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -91,6 +94,7 @@ import net.sourceforge.nattable.viewport.command.ViewportSelectColumnsCommandHan
 import net.sourceforge.nattable.viewport.command.ViewportSelectRowCommandHandler;
 
 import de.walware.statet.r.internal.ui.dataeditor.AbstractRDataProvider;
+import de.walware.statet.r.internal.ui.dataeditor.AbstractRDataProvider.ExportTask;
 import de.walware.statet.r.internal.ui.dataeditor.AbstractRDataProvider.FindTask;
 import de.walware.statet.r.internal.ui.dataeditor.IFindFilter;
 import de.walware.statet.r.internal.ui.dataeditor.IFindListener;
@@ -564,6 +568,65 @@ public class RDataTableComposite extends Composite implements ISelectionProvider
 	}
 	
 	
+	/**
+	 * Exports the data of the table (in the background).
+	 * 
+	 * @param task the export specification
+	 */
+	public void export(final ExportTask task) {
+		if (fTable != null) {
+			fDataProvider.export(task);
+		}
+	}
+	
+	/**
+	 * Copies the values of the selected cells to the clipboard, tab separated.
+	 * 
+	 * The selection is reduced to the selected rows x selected columns.
+	 */
+	public void copySelection() {
+		if (fTable != null) {
+			final SelectionLayer selectionLayer = fTableLayers.selectionLayer;
+			final int[] columnIdxs = selectionLayer.getSelectedColumns().clone();
+			final Set<Range> rows = selectionLayer.getSelectedRows();
+			if (columnIdxs.length == 0 || rows.isEmpty()) {
+				return;
+			}
+			Arrays.sort(columnIdxs);
+			export(new ExportTask(ExportTask.CLIPBOARD, null, null, '\t', false, false,
+					getRowRanges(rows), columnIdxs ));
+		}
+	}
+	
+	private int[][] getRowRanges(final Set<Range> rows) {
+		final int[][] ranges = new int[rows.size()][];
+		int i = 0;
+		for (final Range range : rows) {
+			ranges[i++] = new int[] { range.start, range.end };
+		}
+		Arrays.sort(ranges, new Comparator<int[]>() {
+			public int compare(final int[] range1, final int[] range2) {
+				return range1[0] - range2[0];
+			}
+		});
+		int count = 0;
+		for (i = 0; i < ranges.length; i++) {
+			if (count > 0 && ranges[i][0] <= ranges[count-1][1]) {
+				ranges[count-1][1] = Math.max(ranges[count-1][1], ranges[i][1]);
+			}
+			else {
+				ranges[count++] = ranges[i];
+			}
+		}
+		if (count < ranges.length) {
+			final int[][] merged = new int[count][];
+			System.arraycopy(ranges, 0, merged, 0, count);
+			return merged;
+		}
+		return ranges;
+	}
+	
+	
 	public void setInput(final IRDataTableInput input) {
 		if (fTable != null) {
 			showDummy(""); //$NON-NLS-1$
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2011 WalWare/StatET-Project (www.walware.de/goto/statet).
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Stephan Wahlbrink - initial API and implementation
+ *******************************************************************************/
+
+package de.walware.statet.r.xterm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import de.walware.statet.r.launching.IRCodeLaunchConnector;
+
+
+/**
+ * Connector writing to the named pipe like {@link NamedPipeConnector}, but keeping the pipe
+ * open for the session.
+ * 
+ * The commands of a submission are encoded in the charset of the R session (system property
+ * <code>de.walware.statet.r.xterm.encoding</code>, default is the platform encoding) and
+ * written in large blocks.
+ * 
+ * The pipe is opened for reading and writing, so opening does not block if R is not (yet)
+ * reading. Before the open pipe is reused, the modification time of the pipe file is compared
+ * to the time after the last write; if it differs, e.g. because the pipe was recreated, the pipe
+ * is reopened. If writing fails before any byte of a submission was written, the pipe is
+ * reopened and the submission is repeated once.
+ * 
+ * The connector counts the submissions, lines, bytes and writes; the statistic is available
+ * by the getters and {@link #toString()}.
+ */
+public class StreamingNamedPipeConnector implements IRCodeLaunchConnector {
+	
+	
+	public static final String ENCODING_PROPERTY = "de.walware.statet.r.xterm.encoding"; //$NON-NLS-1$
+	
+	private static final int BUFFER_SIZE = 0x10000;
+	
+	
+	private final String fLineSeparator;
+	private final File fPipeFile;
+	private final CharsetEncoder fEncoder;
+	
+	private RandomAccessFile fPipe;
+	private FileChannel fChannel;
+	private long fPipeModified;
+	private final ByteBuffer fBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	
+	private long fSubmissionCount;
+	private long fLineCount;
+	private long fByteCount;
+	private long fWriteCount;
+	private long fReconnectCount;
+	private long fWriteNanos;
+	
+	
+	public StreamingNamedPipeConnector() throws CoreException {
+		fLineSeparator = System.getProperty("line.separator"); //$NON-NLS-1$
+		fPipeFile = new File(System.getProperty("user.home") + "/.r-eclipse-pipe"); //$NON-NLS-1$ //$NON-NLS-2$
+		final String encoding = System.getProperty(ENCODING_PROPERTY);
+		Charset charset;
+		try {
+			charset = (encoding != null) ? Charset.forName(encoding) : Charset.defaultCharset();
+		}
+		catch (final IllegalArgumentException e) {
+			charset = Charset.defaultCharset();
+		}
+		fEncoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+	
+	
+	public synchronized boolean submit(final String[] rCommands, final boolean gotoConsole) throws CoreException {
+		final long startTime = System.nanoTime();
+		try {
+			try {
+				write(rCommands);
+			}
+			catch (final RetryException e) {
+				fReconnectCount++;
+				close();
+				write(rCommands);
+			}
+			fSubmissionCount++;
+			fLineCount += rCommands.length;
+			return true;
+		}
+		catch (final IOException e) {
+			close();
+			throw new CoreException(new Status(IStatus.ERROR, RXtermPlugin.ID, -1,
+					"Error occured when writing to the named pipe ('"+fPipeFile.getPath()+"').", //$NON-NLS-1$ //$NON-NLS-2$
+					e ));
+		}
+		finally {
+			fWriteNanos += System.nanoTime() - startTime;
+		}
+	}
+	
+	public void gotoConsole() throws CoreException {
+	}
+	
+	/**
+	 * Closes the pipe. It is reopened automatically by the next submission.
+	 */
+	public synchronized void close() {
+		if (fPipe != null) {
+			try {
+				fPipe.close();
+			}
+			catch (final IOException e) {}
+			fPipe = null;
+			fChannel = null;
+		}
+	}
+	
+	
+	private static class RetryException extends IOException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		public RetryException(final IOException cause) {
+			super(cause.getMessage());
+			initCause(cause);
+		}
+		
+	}
+	
+	private void write(final String[] rCommands) throws IOException {
+		if (fChannel != null && fPipeFile.lastModified() != fPipeModified) {
+			// replaced (or removed)
+			close();
+		}
+		final boolean reused = (fChannel != null);
+		final long startCount = fByteCount;
+		try {
+			if (fChannel == null) {
+				// opening for read and write doesn't block, if R is not (yet) reading
+				fPipe = new RandomAccessFile(fPipeFile, "rw"); //$NON-NLS-1$
+				fChannel = fPipe.getChannel();
+			}
+			fEncoder.reset();
+			fBuffer.clear();
+			for (int i = 0; i < rCommands.length; i++) {
+				encode(CharBuffer.wrap(rCommands[i]), false);
+				encode(CharBuffer.wrap(fLineSeparator), false);
+			}
+			encode(CharBuffer.allocate(0), true);
+			while (fEncoder.flush(fBuffer).isOverflow()) {
+				flush();
+			}
+			flush();
+			fPipeModified = fPipeFile.lastModified();
+		}
+		catch (final IOException e) {
+			// repeat only if no byte of the submission reached the pipe
+			if (reused && fByteCount == startCount) {
+				throw new RetryException(e);
+			}
+			throw e;
+		}
+	}
+	
+	private void encode(final CharBuffer in, final boolean endOfInput) throws IOException {
+		while (true) {
+			final CoderResult result = fEncoder.encode(in, fBuffer, endOfInput);
+			if (result.isOverflow()) {
+				flush();
+				continue;
+			}
+			if (result.isError()) {
+				result.throwException();
+			}
+			return;
+		}
+	}
+	
+	private void flush() throws IOException {
+		fBuffer.flip();
+		while (fBuffer.hasRemaining()) {
+			fByteCount += fChannel.write(fBuffer);
+			fWriteCount++;
+		}
+		fBuffer.clear();
+	}
+	
+	
+	public synchronized long getSubmissionCount() {
+		return fSubmissionCount;
+	}
+	
+	public synchronized long getLineCount() {
+		return fLineCount;
+	}
+	
+	public synchronized long getByteCount() {
+		return fByteCount;
+	}
+	
+	public synchronized long getWriteCount() {
+		return fWriteCount;
+	}
+	
+	public synchronized long getReconnectCount() {
+		return fReconnectCount;
+	}
+	
+	/**
+	 * Returns the throughput of all submissions.
+	 * 
+	 * @return bytes per second
+	 */
+	public synchronized double getBytesPerSecond() {
+		return (fWriteNanos > 0) ? (fByteCount * 1e9 / fWriteNanos) : 0.0;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		final StringBuilder sb = new StringBuilder("StreamingNamedPipeConnector ("); //$NON-NLS-1$
+		sb.append(fPipeFile.getPath()).append(')');
+		sb.append("\n\tsubmissions: ").append(fSubmissionCount); //$NON-NLS-1$
+		sb.append("\n\tlines: ").append(fLineCount); //$NON-NLS-1$
+		sb.append("\n\tbytes: ").append(fByteCount); //$NON-NLS-1$
+		sb.append("\n\twrites: ").append(fWriteCount); //$NON-NLS-1$
+		sb.append("\n\treconnects: ").append(fReconnectCount); //$NON-NLS-1$
+		sb.append("\n\tthroughput: ").append((long) getBytesPerSecond()).append(" bytes/s"); //$NON-NLS-1$ //$NON-NLS-2$
+		return sb.toString();
+	}
+	
+}